@@ -33,6 +33,12 @@ dbusername=${SPRING_DATA_MONGODB_USERNAME:-db}
 #Database Password - default is blank
 dbpassword=${SPRING_DATA_MONGODB_PASSWORD:-dbpass}
 
+#Database connection pool size - default is 100
+dbmaxconnections=${DB_MAX_CONNECTIONS:-100}
+
+#Database read preference, e.g. secondaryPreferred to read dashboards from secondaries - default is primary
+dbreadpreference=${DB_READ_PREFERENCE:-primary}
+
 logRequest=${LOG_REQUEST:-false}
 logSplunkRequest=${LOG_SPLUNK_REQUEST:-false}
 
@@ -41,6 +47,10 @@ corsEnabled=${CORS_ENABLED:-false}
 corsWhitelist=${CORS_WHITELIST:-http://domain1.com:port,http://domain2.com:port}
 
 feature.dynamicPipeline=${FEATURE_DYNAMIC_PIPELINE:-disabled}
+# Number of pipelines the dynamic pipeline computes at the same time
+pipelineThreads=${PIPELINE_THREADS:-8}
+# Seconds a streamed (application/x-ndjson) pipeline response may take before it is ended, 0 for no limit
+pipelineStreamTimeoutSeconds=${PIPELINE_STREAM_TIMEOUT_SECONDS:-600}
 
 #Authentication Settings
 # JWT expiration time in milliseconds
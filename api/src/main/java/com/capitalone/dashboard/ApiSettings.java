@@ -16,6 +16,10 @@ public class ApiSettings {
     private boolean corsEnabled;
     private String corsWhitelist;
     private boolean logRequest;
+    // number of pipelines computed at the same time
+    private int pipelineThreads = 8;
+    // seconds a streamed pipeline response may take before the container ends it, 0 for no limit
+    private long pipelineStreamTimeoutSeconds = 600;
     
     public String getKey() {
         return key;
@@ -48,4 +52,20 @@ public class ApiSettings {
     public void setLogRequest(boolean logRequest) {
         this.logRequest = logRequest;
     }
+
+    public int getPipelineThreads() {
+        return pipelineThreads;
+    }
+
+    public void setPipelineThreads(int pipelineThreads) {
+        this.pipelineThreads = pipelineThreads;
+    }
+
+    public long getPipelineStreamTimeoutSeconds() {
+        return pipelineStreamTimeoutSeconds;
+    }
+
+    public void setPipelineStreamTimeoutSeconds(long pipelineStreamTimeoutSeconds) {
+        this.pipelineStreamTimeoutSeconds = pipelineStreamTimeoutSeconds;
+    }
 }
@@ -1,18 +1,22 @@
 package com.capitalone.dashboard.config;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.DefaultServletHandlerConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
+import com.capitalone.dashboard.ApiSettings;
 import com.capitalone.dashboard.mapper.CustomObjectMapper;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -21,6 +25,9 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 @EnableWebMvc
 @ComponentScan(basePackages = "com.capitalone.dashboard.rest")
 public class WebMVCConfig extends WebMvcConfigurerAdapter {
+    @Autowired
+    private ApiSettings apiSettings;
+
     @Override
     public void configureDefaultServletHandling(DefaultServletHandlerConfigurer configurer) {
         configurer.enable("api");
@@ -39,6 +46,15 @@ public class WebMVCConfig extends WebMvcConfigurerAdapter {
         converters.add(jackson);
     }
 
+    /**
+     * The NDJSON pipelines are streamed asynchronously, and @EnableWebMvc leaves the container's short
+     * default async timeout in place, which would cut off a long stream. 0 means no timeout.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(TimeUnit.SECONDS.toMillis(apiSettings.getPipelineStreamTimeoutSeconds()));
+    }
+
     @Override
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> argumentResolvers) {
         PageableHandlerMethodArgumentResolver resolver = new PageableHandlerMethodArgumentResolver();
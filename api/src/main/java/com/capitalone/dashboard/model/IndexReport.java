@@ -0,0 +1,154 @@
+package com.capitalone.dashboard.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * State of the indexes of a collection, compared to the indexes declared on its model.
+ */
+public class IndexReport {
+    private String collection;
+    private final List<Index> indexes = new ArrayList<>();
+    private final List<String> missing = new ArrayList<>();
+    private final List<String> unused = new ArrayList<>();
+    private final List<QueryPlan> queryPlans = new ArrayList<>();
+
+    public IndexReport() {
+    }
+
+    public IndexReport(String collection) {
+        this.collection = collection;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public List<Index> getIndexes() {
+        return indexes;
+    }
+
+    /**
+     * @return the keys of the declared indexes that do not exist in the database
+     */
+    public List<String> getMissing() {
+        return missing;
+    }
+
+    /**
+     * @return the names of the indexes that have not been used since the server started
+     */
+    public List<String> getUnused() {
+        return unused;
+    }
+
+    /**
+     * @return the plans of the application's queries the server has cached a plan for. The cache
+     * only holds the queries that had more than one candidate plan, and is cleared on restart and
+     * when the indexes of the collection change.
+     */
+    public List<QueryPlan> getQueryPlans() {
+        return queryPlans;
+    }
+
+    public static class Index {
+        private String name;
+        private String key;
+        private boolean declared;
+        private boolean present;
+        private Long ops;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public boolean isDeclared() {
+            return declared;
+        }
+
+        public void setDeclared(boolean declared) {
+            this.declared = declared;
+        }
+
+        public boolean isPresent() {
+            return present;
+        }
+
+        public void setPresent(boolean present) {
+            this.present = present;
+        }
+
+        /**
+         * @return the number of operations that used the index since the server started,
+         * or null if the server does not report it
+         */
+        public Long getOps() {
+            return ops;
+        }
+
+        public void setOps(Long ops) {
+            this.ops = ops;
+        }
+    }
+
+    public static class QueryPlan {
+        private String query;
+        private String stages;
+        private String indexName;
+        private String error;
+
+        /**
+         * @return the cached query shape, with its query, sort and projection
+         */
+        public String getQuery() {
+            return query;
+        }
+
+        public void setQuery(String query) {
+            this.query = query;
+        }
+
+        /**
+         * @return the stages of the winning plan, outermost first, e.g. <i>FETCH > IXSCAN</i>
+         */
+        public String getStages() {
+            return stages;
+        }
+
+        public void setStages(String stages) {
+            this.stages = stages;
+        }
+
+        public String getIndexName() {
+            return indexName;
+        }
+
+        public void setIndexName(String indexName) {
+            this.indexName = indexName;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
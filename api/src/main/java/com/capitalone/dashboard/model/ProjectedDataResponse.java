@@ -0,0 +1,23 @@
+package com.capitalone.dashboard.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * A {@link DataResponse} read with a projection. The bytes the projection saved are reported in
+ * the {@value #BYTES_SAVED_HEADER} response header rather than in the body.
+ */
+public class ProjectedDataResponse<T> extends DataResponse<T> {
+    public static final String BYTES_SAVED_HEADER = "projectionBytesSaved";
+
+    private final long bytesSaved;
+
+    public ProjectedDataResponse(T result, long lastUpdated, long bytesSaved) {
+        super(result, lastUpdated);
+        this.bytesSaved = bytesSaved;
+    }
+
+    @JsonIgnore
+    public long getBytesSaved() {
+        return bytesSaved;
+    }
+}
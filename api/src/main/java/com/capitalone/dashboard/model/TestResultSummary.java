@@ -0,0 +1,42 @@
+package com.capitalone.dashboard.model;
+
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test outcome counters of a test collector item, read from its {@link TestResultRollup}s.
+ */
+public class TestResultSummary {
+    private ObjectId collectorItemId;
+    private TestResultRollup latestRun;
+    private List<TestResultRollup> days = new ArrayList<>();
+
+    public ObjectId getCollectorItemId() {
+        return collectorItemId;
+    }
+
+    public void setCollectorItemId(ObjectId collectorItemId) {
+        this.collectorItemId = collectorItemId;
+    }
+
+    public TestResultRollup getLatestRun() {
+        return latestRun;
+    }
+
+    public void setLatestRun(TestResultRollup latestRun) {
+        this.latestRun = latestRun;
+    }
+
+    /**
+     * @return the daily counters of the requested period, oldest first
+     */
+    public List<TestResultRollup> getDays() {
+        return days;
+    }
+
+    public void setDays(List<TestResultRollup> days) {
+        this.days = days;
+    }
+}
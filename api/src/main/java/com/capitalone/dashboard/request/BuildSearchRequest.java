@@ -19,6 +19,7 @@ public class BuildSearchRequest {
     private Long durationLessThan;
     private Integer max;
     private List<BuildStatus> buildStatuses = new ArrayList<>();
+    private Long collectedAfter;
 
     public ObjectId getComponentId() {
         return componentId;
@@ -92,6 +93,17 @@ public class BuildSearchRequest {
         this.buildStatuses = buildStatuses;
     }
 
+    /**
+     * Only builds collected after this time, as opposed to the build start or end time
+     */
+    public Long getCollectedAfter() {
+        return collectedAfter;
+    }
+
+    public void setCollectedAfter(Long collectedAfter) {
+        this.collectedAfter = collectedAfter;
+    }
+
     public boolean validStartDateRange() {
         return startDateBegins != null || startDateEnds != null;
     }
@@ -17,6 +17,7 @@ public class CommitRequest {
     private List<String> revisionNumbers = new ArrayList<>();
     private List<String> authors = new ArrayList<>();
     private String messageContains;
+    private Long collectedAfter;
 
     public ObjectId getComponentId() {
         return componentId;
@@ -90,6 +91,17 @@ public class CommitRequest {
         this.messageContains = messageContains;
     }
 
+    /**
+     * Only commits collected after this time, as opposed to the commit date
+     */
+    public Long getCollectedAfter() {
+        return collectedAfter;
+    }
+
+    public void setCollectedAfter(Long collectedAfter) {
+        this.collectedAfter = collectedAfter;
+    }
+
     public boolean validCommitDateRange() {
         return commitDateBegins != null || commitDateEnds != null;
     }
@@ -20,6 +20,7 @@ public class TestResultRequest {
     private Long durationLessThan;
     @Range(min = 0, max = 4)
     private Integer depth;
+    private boolean measureProjection;
     private List<TestSuiteType> types = new ArrayList<>();
 
     public ObjectId getComponentId() {
@@ -94,6 +95,18 @@ public class TestResultRequest {
         this.depth = depth;
     }
 
+    /**
+     * @return whether to measure the bytes the depth kept in the database, which costs a collection
+     * stats read for each test collector item
+     */
+    public boolean isMeasureProjection() {
+        return measureProjection;
+    }
+
+    public void setMeasureProjection(boolean measureProjection) {
+        this.measureProjection = measureProjection;
+    }
+
     public List<TestSuiteType> getTypes() {
         return types;
     }
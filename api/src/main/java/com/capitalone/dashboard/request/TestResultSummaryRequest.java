@@ -0,0 +1,32 @@
+package com.capitalone.dashboard.request;
+
+import org.bson.types.ObjectId;
+import org.hibernate.validator.constraints.Range;
+
+import javax.validation.constraints.NotNull;
+
+public class TestResultSummaryRequest {
+    @NotNull
+    private ObjectId componentId;
+    @Range(min = 1, max = 365)
+    private Integer days;
+
+    public ObjectId getComponentId() {
+        return componentId;
+    }
+
+    public void setComponentId(ObjectId componentId) {
+        this.componentId = componentId;
+    }
+
+    /**
+     * @return the number of days of daily counters to return, 14 if not set
+     */
+    public Integer getDays() {
+        return days;
+    }
+
+    public void setDays(Integer days) {
+        this.days = days;
+    }
+}
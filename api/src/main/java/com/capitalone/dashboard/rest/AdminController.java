@@ -3,9 +3,11 @@ package com.capitalone.dashboard.rest;
 import com.capitalone.dashboard.auth.access.Admin;
 import com.capitalone.dashboard.misc.HygieiaException;
 import com.capitalone.dashboard.model.ApiToken;
+import com.capitalone.dashboard.model.IndexReport;
 import com.capitalone.dashboard.model.UserInfo;
 import com.capitalone.dashboard.request.ApiTokenRequest;
 import com.capitalone.dashboard.service.ApiTokenService;
+import com.capitalone.dashboard.service.IndexService;
 import com.capitalone.dashboard.service.UserInfoService;
 import com.capitalone.dashboard.util.EncryptionException;
 import org.bson.types.ObjectId;
@@ -20,6 +22,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 
 import javax.validation.Valid;
 import java.util.Collection;
+import java.util.List;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
@@ -31,11 +34,14 @@ public class AdminController {
     private final UserInfoService userInfoService;
 
     private final ApiTokenService apiTokenService;
+
+    private final IndexService indexService;
     
     @Autowired
-    public AdminController(UserInfoService userInfoService, ApiTokenService apiTokenService) {
+    public AdminController(UserInfoService userInfoService, ApiTokenService apiTokenService, IndexService indexService) {
         this.userInfoService = userInfoService;
         this.apiTokenService = apiTokenService;
+        this.indexService = indexService;
     }
     
     @RequestMapping(path = "/users/addAdmin", method = RequestMethod.POST)
@@ -92,4 +98,9 @@ public class AdminController {
         Collection<ApiToken> tokens = apiTokenService.getApiTokens();
         return tokens;
     }
+
+    @RequestMapping(path = "/indexes", method = RequestMethod.GET, produces = APPLICATION_JSON_VALUE)
+    public List<IndexReport> getIndexReports() {
+        return indexService.getIndexReports();
+    }
 }
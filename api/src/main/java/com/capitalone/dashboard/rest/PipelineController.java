@@ -1,28 +1,71 @@
 package com.capitalone.dashboard.rest;
 
+import com.capitalone.dashboard.mapper.CustomObjectMapper;
 import com.capitalone.dashboard.model.PipelineResponse;
 import com.capitalone.dashboard.request.PipelineSearchRequest;
 import com.capitalone.dashboard.service.PipelineService;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 
 @RestController
 public class PipelineController {
+    /** Newline delimited JSON, one pipeline per line */
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final PipelineService pipelineService;
+    private final ObjectWriter pipelineWriter;
 
     @Autowired
     public PipelineController(PipelineService pipelineService) {
         this.pipelineService = pipelineService;
+
+        // same settings as the JSON message converter of WebMVCConfig
+        ObjectMapper mapper = new CustomObjectMapper()
+                .disable(SerializationFeature.WRITE_NULL_MAP_VALUES)
+                .enable(SerializationFeature.WRITE_ENUMS_USING_TO_STRING)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this.pipelineWriter = mapper.writerFor(PipelineResponse.class);
     }
 
     @RequestMapping(value = "/pipeline", method = GET, produces = APPLICATION_JSON_VALUE)
     public Iterable<PipelineResponse> searchPipelines(@Valid PipelineSearchRequest searchRequest) {
         return pipelineService.search(searchRequest);
     }
+
+    /**
+     * Streams each pipeline as soon as it is computed, so the first pipelines can be shown
+     * without waiting for the slowest one. Pipelines are not in the requested order. The stream is ended
+     * after {@code pipelineStreamTimeoutSeconds}, see {@link com.capitalone.dashboard.config.WebMVCConfig}.
+     */
+    @RequestMapping(value = "/pipeline", method = GET, produces = APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamPipelines(@Valid PipelineSearchRequest searchRequest) {
+        return out -> {
+            try {
+                pipelineService.search(searchRequest, response -> {
+                    try {
+                        out.write(pipelineWriter.writeValueAsBytes(response));
+                        out.write('\n');
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
 }
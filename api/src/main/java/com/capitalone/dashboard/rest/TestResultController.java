@@ -4,9 +4,12 @@ import com.capitalone.dashboard.editors.CaseInsensitiveTestSuiteTypeEditor;
 import com.capitalone.dashboard.misc.HygieiaException;
 import com.capitalone.dashboard.model.CodeQualityType;
 import com.capitalone.dashboard.model.DataResponse;
+import com.capitalone.dashboard.model.ProjectedDataResponse;
 import com.capitalone.dashboard.model.TestResult;
+import com.capitalone.dashboard.model.TestResultSummary;
 import com.capitalone.dashboard.request.TestDataCreateRequest;
 import com.capitalone.dashboard.request.TestResultRequest;
+import com.capitalone.dashboard.request.TestResultSummaryRequest;
 import com.capitalone.dashboard.service.TestResultService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -38,8 +41,18 @@ public class TestResultController {
     }
 
     @RequestMapping(value = "/quality/test", method = GET, produces = APPLICATION_JSON_VALUE)
-    public DataResponse<Iterable<TestResult>> qualityData(@Valid TestResultRequest request) {
-        return testResultService.search(request);
+    public ResponseEntity<DataResponse<Iterable<TestResult>>> qualityData(@Valid TestResultRequest request) {
+        ProjectedDataResponse<Iterable<TestResult>> response = testResultService.search(request);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (request.isMeasureProjection()) {
+            builder.header(ProjectedDataResponse.BYTES_SAVED_HEADER, String.valueOf(response.getBytesSaved()));
+        }
+        return builder.body(response);
+    }
+
+    @RequestMapping(value = "/quality/test/summary", method = GET, produces = APPLICATION_JSON_VALUE)
+    public DataResponse<Iterable<TestResultSummary>> qualitySummary(@Valid TestResultSummaryRequest request) {
+        return testResultService.summary(request);
     }
 
     @RequestMapping(value = "/quality/test", method = POST,
@@ -63,6 +63,9 @@ public class BuildServiceImpl implements BuildService {
                 builder.and(build.endTime.between(request.getEndDateBegins(), request.getEndDateEnds()));
             }
         }
+        if (request.getCollectedAfter() != null) {
+            builder.and(build.timestamp.gt(request.getCollectedAfter()));
+        }
         if (request.validDurationRange()) {
             builder.and(build.duration.between(request.getDurationGreaterThan(), request.getDurationLessThan()));
         }
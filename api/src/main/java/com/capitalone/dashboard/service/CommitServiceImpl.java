@@ -70,6 +70,10 @@ public class CommitServiceImpl implements CommitService {
             builder.and(commit.scmCommitTimestamp.between(request.getCommitDateBegins(), request.getCommitDateEnds()));
         }
 
+        if (request.getCollectedAfter() != null) {
+            builder.and(commit.timestamp.gt(request.getCollectedAfter()));
+        }
+
         if (request.validChangesRange()) {
             builder.and(commit.numberOfChanges.between(request.getChangesGreaterThan(), request.getChangesLessThan()));
         }
@@ -1,6 +1,7 @@
 package com.capitalone.dashboard.service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
@@ -10,11 +11,24 @@ import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import javax.annotation.PreDestroy;
+
 import org.apache.commons.lang.ObjectUtils;
 import org.apache.log4j.Logger;
 import org.bson.types.ObjectId;
@@ -22,6 +36,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.capitalone.dashboard.ApiSettings;
+import com.capitalone.dashboard.event.CommitGraphIndex;
 import com.capitalone.dashboard.model.ArtifactIdentifier;
 import com.capitalone.dashboard.model.BinaryArtifact;
 import com.capitalone.dashboard.model.Build;
@@ -69,6 +84,19 @@ public class DynamicPipelineServiceImpl implements PipelineService {
 	private static final Logger logger = Logger.getLogger(DynamicPipelineServiceImpl.class);
 
     private static final int PROD_COMMIT_DATE_RANGE_DEFAULT = -90;
+
+    // Sources tracked in Pipeline#getLastProcessedTimestamps
+    private static final String COMMITS = "commits";
+    private static final String BUILDS = "builds";
+    private static final String SUCCESSFUL_BUILD = "successfulBuild";
+    private static final String DEPLOYMENTS = "deployments";
+    private static final String FULL_REBUILD = "fullRebuild";
+
+    // Collectors stamp data when they fetch it, which can be a while before it is saved, so every
+    // update looks back this far before the last processed timestamps
+    private static final long COLLECTION_LOOKBACK = TimeUnit.HOURS.toMillis(1);
+    // Pipelines are recomputed from scratch this often to pick up dashboard changes and deleted data
+    private static final long FULL_REBUILD_INTERVAL = TimeUnit.DAYS.toMillis(1);
     
     private static final Comparator<Build> BUILD_NUMBER_COMPATATOR = new Comparator<Build>() {
 
@@ -91,6 +119,8 @@ public class DynamicPipelineServiceImpl implements PipelineService {
     private final CommitService commitService;
 	private final DeployService deployService;
 	private final ApiSettings settings;
+	private final ExecutorService executor;
+	private CommitGraphIndex commitGraphIndex;
     
     @Autowired
     public DynamicPipelineServiceImpl(PipelineRepository pipelineRepository, DashboardRepository dashboardRepository,
@@ -105,30 +135,98 @@ public class DynamicPipelineServiceImpl implements PipelineService {
 		this.commitService = commitService;
 		this.deployService = deployService;
 		this.settings = settings;
+		this.executor = newExecutor(settings.getPipelineThreads());
+	}
+
+	@Autowired(required = false)
+	public void setCommitGraphIndex(CommitGraphIndex commitGraphIndex) {
+		this.commitGraphIndex = commitGraphIndex;
 	}
 	
 	@Override
 	public Iterable<PipelineResponse> search(PipelineSearchRequest searchRequest) {
+		Map<ObjectId, PipelineResponse> responsesById = new HashMap<>();
+		search(searchRequest, response -> responsesById.put(response.getCollectorItemId(), response));
+
+		// respond in the order the pipelines were requested
+		List<PipelineResponse> pipelineResponses = new ArrayList<>();
+		for (ObjectId collectorItemId : new LinkedHashSet<>(searchRequest.getCollectorItemId())) {
+			pipelineResponses.add(responsesById.get(collectorItemId));
+		}
+		return pipelineResponses;
+	}
+
+	/**
+	 * Computes the requested pipelines concurrently, handing out each one as soon as it is computed.
+	 * <p>
+	 * The consumer is always called from the calling thread. If it throws, the pipelines not started
+	 * yet are not computed.
+	 */
+	@Override
+	public void search(PipelineSearchRequest searchRequest, Consumer<PipelineResponse> consumer) {
         //sets the lower and upper bound for the prod bucket's commits.  uses constant for lower bound limit and today as default for upper bound
-        Long lowerBound = searchRequest.getBeginDate();
-        //if(lowerBound == null){
-        	// TODO get incremental updates working
-            lowerBound = getMinStart();
-        //}
+        // The window always starts at the lower bound limit, new data is folded into the stored pipeline instead;
+        // a requested begin date only filters the prod bucket of the response
+        Long lowerBound = getMinStart();
         Long upperBound = searchRequest.getEndDate() != null ? searchRequest.getEndDate() : new Date().getTime();
-		
-        List<PipelineResponse> pipelineResponses = new ArrayList<>();
-        for(ObjectId collectorItemId : searchRequest.getCollectorItemId()){
-            Pipeline pipeline = getOrCreatePipeline(collectorItemId);
-            pipeline = buildPipeline(pipeline, lowerBound, upperBound);
 
-            // This will make debugging much easier
-            pipelineRepository.save(pipeline);
-            
-            pipelineResponses.add(buildPipelineResponse(pipeline, lowerBound, upperBound));
-            
+        CompletionService<PipelineResponse> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<PipelineResponse>> futures = new ArrayList<>();
+        for(ObjectId collectorItemId : new LinkedHashSet<>(searchRequest.getCollectorItemId())){
+            futures.add(completionService.submit(() -> computePipeline(collectorItemId, searchRequest.getBeginDate(), searchRequest.getEndDate(), lowerBound, upperBound)));
+        }
+
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                consumer.accept(completionService.take().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing pipelines", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            // pipelines being computed are left to finish since they save their progress
+            futures.forEach(future -> future.cancel(false));
         }
-        return pipelineResponses;
+	}
+
+	private PipelineResponse computePipeline(ObjectId collectorItemId, Long beginDate, Long endDate, Long lowerBound, Long upperBound) {
+        Pipeline pipeline = getOrCreatePipeline(collectorItemId);
+        if (endDate == null && isIncrementalUpdatePossible(pipeline)) {
+            pipeline = updatePipeline(pipeline, lowerBound, upperBound);
+        } else {
+            pipeline = buildPipeline(pipeline, lowerBound, upperBound);
+        }
+        if (endDate != null) {
+            // computed up to a past date, the next request has to start over
+            pipeline.getLastProcessedTimestamps().clear();
+        }
+
+        // This will make debugging much easier
+        pipelineRepository.save(pipeline);
+
+        return buildPipelineResponse(pipeline, beginDate, upperBound);
+	}
+
+	private static ExecutorService newExecutor(int threads) {
+		AtomicInteger count = new AtomicInteger();
+		return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+			Thread thread = new Thread(runnable, "pipeline-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
 	}
 	
     protected Pipeline getOrCreatePipeline(ObjectId collectorItemId) {
@@ -141,7 +239,7 @@ public class DynamicPipelineServiceImpl implements PipelineService {
         return pipeline;
     }
     
-    // Creates the response that is returned to the client
+    // Creates the response that is returned to the client, with the prod commits deployed between the bounds when a lower bound is given
     private PipelineResponse buildPipelineResponse(Pipeline pipeline, Long lowerBound, Long upperBound){
         /**
          * get the collector item and dashboard
@@ -170,6 +268,15 @@ public class DynamicPipelineServiceImpl implements PipelineService {
 
             List<PipelineResponseCommit> commitsForStage = findNotPropagatedCommits(dashboard, pipeline, stage,pipelineStageList);
             pipelineResponse.setStageCommits(stage, commitsForStage);
+            /**
+             * remove prod commits outside of filter date range
+             */
+            if (lowerBound != null && stage.getName().equalsIgnoreCase(pipelineResponse.getProdStage())) {
+                commitsForStage.removeIf(commit -> {
+                    Long timestamp = commit.getProcessedTimestamps().get(stage.getName());
+                    return timestamp == null || !isBetween(timestamp, lowerBound, upperBound);
+                });
+            }
         }
        return pipelineResponse;
     }
@@ -203,17 +310,12 @@ public class DynamicPipelineServiceImpl implements PipelineService {
      * @return				the <b>pipeline</b> passed in
      */
     protected Pipeline buildPipeline(Pipeline pipeline, Long lowerBound, Long upperBound) {
-        CollectorItem dashboardCollectorItem = collectorItemRepository.findOne(pipeline.getCollectorItemId());
-        Dashboard dashboard = dashboardRepository.findOne(new ObjectId((String)dashboardCollectorItem.getOptions().get("dashboardId")));
-
         // First gather information about our dashboard
-        
-        // TODO how should we handle multiple components?
-        Component component = dashboard.getApplication().getComponents().iterator().next();
+        Component component = getComponent(pipeline);
 
         // Note - since other items link to commits we always need to pull all of our commit data
-        List<Commit> commits = getCommits(component, getMinStart(), upperBound);
-        List<Build> builds = getBuilds(component, lowerBound, upperBound);
+        List<Commit> commits = getCommits(component, getMinStart(), upperBound, null);
+        List<Build> collectedBuilds = getBuilds(component, lowerBound, upperBound, null);
         List<Environment> environments = getEnvironments(component);
         Map<Environment, Collection<ArtifactIdentifier>> environmentArtifactIdentifiers = getArtifactIdentifiers(environments);
         Map<ArtifactIdentifier, Collection<BinaryArtifact>> artifacts = getBinaryArtifacts(
@@ -221,7 +323,7 @@ public class DynamicPipelineServiceImpl implements PipelineService {
     	
     	// We only want builds that belong to our repo
     	RepoBranch repo = getComponentRepoBranch(component);
-    	builds = filterBuilds(builds, repo.getUrl(), repo.getBranch());
+    	List<Build> builds = filterBuilds(collectedBuilds, repo.getUrl(), repo.getBranch());
     	artifacts = filterBinaryArtifacts(artifacts, repo.getUrl(), repo.getBranch());
     	
     	// we assume all the builds belong to the same job
@@ -230,14 +332,147 @@ public class DynamicPipelineServiceImpl implements PipelineService {
         // recompute pipeline
         pipeline.setFailedBuilds(new HashSet<>());
         pipeline.setEnvironmentStageMap(new HashMap<>());
+        pipeline.getLastProcessedTimestamps().clear();
         
         processCommits(pipeline, commits);
         processBuilds(pipeline, builds, commits);
-        processDeployments(pipeline, environments, artifacts, commits);
+        processDeployments(pipeline, environments, artifacts, commits, getCommitHistory(component, commits));
+
+        // keep the failed builds not followed by a successful build yet for the next incremental update
+        for (Build build : builds) {
+        	if (BuildStatus.Success.equals(build.getBuildStatus())) {
+        		break;
+        	}
+        	pipeline.addFailedBuild(build);
+        }
+        updateLastProcessedTimestamps(pipeline, commits, collectedBuilds, builds, environments);
+        pipeline.getLastProcessedTimestamps().put(FULL_REBUILD, System.currentTimeMillis());
         
         return pipeline;
     }
 
+    /**
+     * Folds the data collected since the pipeline was last computed into the pipeline.
+     * <p>
+     * Only the commits and builds collected after the times stored in {@link Pipeline#getLastProcessedTimestamps()}
+     * are read. The commit stage is kept from one computation to the next and used to correlate the new builds
+     * as well as the deployments. Only the environments with a component deployed since the last update, or not
+     * in the pipeline yet, have their artifacts looked up and their stage recomputed; the stages of environments
+     * that are gone are dropped. Commits older than the lower bound are dropped from every stage, the same way a
+     * full computation would not pick them up anymore.
+     * 
+     * @param pipeline		the pipeline to update, previously computed by {@link #buildPipeline(Pipeline, Long, Long)}
+     * @param lowerBound	the lower window bound for gathering statistics
+     * @param upperBound	the upper window bound for gathering statistics
+     * @return				the <b>pipeline</b> passed in
+     */
+    protected Pipeline updatePipeline(Pipeline pipeline, Long lowerBound, Long upperBound) {
+        Component component = getComponent(pipeline);
+        Map<String, Long> lastProcessed = pipeline.getLastProcessedTimestamps();
+
+        List<Commit> commits = getCommits(component, lowerBound, upperBound,
+        		lastProcessed.getOrDefault(COMMITS, 0L) - COLLECTION_LOOKBACK);
+        List<Build> collectedBuilds = getBuilds(component, lowerBound, upperBound,
+        		lastProcessed.getOrDefault(BUILDS, 0L) - COLLECTION_LOOKBACK);
+        List<Environment> environments = getEnvironments(component);
+        List<Environment> deployedEnvironments = getEnvironmentsDeployedSince(pipeline, environments,
+        		lastProcessed.getOrDefault(DEPLOYMENTS, 0L) - COLLECTION_LOOKBACK);
+        Map<Environment, Collection<ArtifactIdentifier>> environmentArtifactIdentifiers = getArtifactIdentifiers(deployedEnvironments);
+        Map<ArtifactIdentifier, Collection<BinaryArtifact>> artifacts = getBinaryArtifacts(
+        		environmentArtifactIdentifiers.values().stream().flatMap( coll -> coll.stream()).collect(Collectors.toList()));
+
+    	RepoBranch repo = getComponentRepoBranch(component);
+    	List<Build> builds = filterBuilds(collectedBuilds, repo.getUrl(), repo.getBranch());
+    	artifacts = filterBinaryArtifacts(artifacts, repo.getUrl(), repo.getBranch());
+
+    	removeCommitsBefore(pipeline, lowerBound);
+        processCommits(pipeline, commits);
+        processNewBuilds(pipeline, builds);
+
+        // drop the stages of the environments that are gone, the others are kept unless redeployed
+        Set<String> stageNames = new HashSet<>(Arrays.asList(PipelineStage.COMMIT.getName(), PipelineStage.BUILD.getName()));
+        for (Environment env : environments) {
+        	stageNames.add(env.getName());
+        }
+        pipeline.getEnvironmentStageMap().keySet().retainAll(stageNames);
+        if (!deployedEnvironments.isEmpty()) {
+        	List<PipelineCommit> trackedCommits = new ArrayList<>(
+        			pipeline.getCommitsByEnvironmentName(PipelineStage.COMMIT.getName()).values());
+        	processDeployments(pipeline, deployedEnvironments, artifacts, trackedCommits, getCommitHistory(component, trackedCommits));
+        }
+
+        updateLastProcessedTimestamps(pipeline, commits, collectedBuilds, builds, environments);
+        return pipeline;
+    }
+
+    /**
+     * @return the environments with a component deployed after the given time, or without a stage in the pipeline
+     */
+    private List<Environment> getEnvironmentsDeployedSince(Pipeline pipeline, List<Environment> environments, long since) {
+    	List<Environment> rt = new ArrayList<>();
+    	for (Environment env : environments) {
+    		if (!pipeline.getEnvironmentStageMap().containsKey(env.getName())
+    				|| env.getUnits().stream().anyMatch(du -> du.getLastUpdated() >= since)) {
+    			rt.add(env);
+    		}
+    	}
+    	return rt;
+    }
+
+    private boolean isIncrementalUpdatePossible(Pipeline pipeline) {
+    	Long lastFullRebuild = pipeline.getLastProcessedTimestamps().get(FULL_REBUILD);
+    	return lastFullRebuild != null && System.currentTimeMillis() - lastFullRebuild < FULL_REBUILD_INTERVAL;
+    }
+
+    private void updateLastProcessedTimestamps(Pipeline pipeline, List<Commit> commits, List<Build> collectedBuilds, List<Build> builds,
+    		List<Environment> environments) {
+    	Map<String, Long> lastProcessed = pipeline.getLastProcessedTimestamps();
+    	for (Commit commit : commits) {
+    		lastProcessed.merge(COMMITS, commit.getTimestamp(), Math::max);
+    	}
+    	for (Build build : collectedBuilds) {
+    		lastProcessed.merge(BUILDS, build.getTimestamp(), Math::max);
+    	}
+    	for (Build build : builds) {
+    		if (BuildStatus.Success.equals(build.getBuildStatus())) {
+    			lastProcessed.merge(SUCCESSFUL_BUILD, build.getStartTime(), Math::max);
+    		}
+    	}
+    	for (Environment env : environments) {
+    		for (DeployableUnit du : env.getUnits()) {
+    			lastProcessed.merge(DEPLOYMENTS, du.getLastUpdated(), Math::max);
+    		}
+    	}
+    }
+
+    private Component getComponent(Pipeline pipeline) {
+        CollectorItem dashboardCollectorItem = collectorItemRepository.findOne(pipeline.getCollectorItemId());
+        Dashboard dashboard = dashboardRepository.findOne(new ObjectId((String)dashboardCollectorItem.getOptions().get("dashboardId")));
+
+        // TODO how should we handle multiple components?
+        return dashboard.getApplication().getComponents().iterator().next();
+    }
+
+    /**
+     * Walks the commit history through the shared commit graph of the component repository when available,
+     * or through a graph built from the given commits otherwise.
+     */
+    private Function<String, List<String>> getCommitHistory(Component component, List<? extends SCM> commits) {
+    	CollectorItem scmItem = component.getFirstCollectorItemForType(CollectorType.SCM);
+    	if (commitGraphIndex == null || scmItem == null) {
+    		Map<String, Collection<String>> commitGraph = buildCommitGraph(commits);
+    		return rev -> getCommitHistory(commitGraph, rev);
+    	}
+    	long since = getMinStart();
+    	return rev -> commitGraphIndex.getAncestors(scmItem.getId(), rev, since);
+    }
+
+    private void removeCommitsBefore(Pipeline pipeline, long scmCommitTimestamp) {
+    	for (EnvironmentStage stage : pipeline.getEnvironmentStageMap().values()) {
+    		stage.getCommits().removeIf(commit -> commit.getScmCommitTimestamp() < scmCommitTimestamp);
+    	}
+    }
+
     /**
      * Computes the commit stage of the pipeline.
      * 
@@ -379,6 +614,84 @@ public class DynamicPipelineServiceImpl implements PipelineService {
 		}
     }
     
+	/**
+	 * Adds the commits of newly collected builds to the build stage of the pipeline.
+	 * <p>
+	 * Gives the same result as {@link #processBuilds(Pipeline, List, List)} over all builds: a commit gets the
+	 * start time of the most recent successful build that contains it, commits of failed builds get the start
+	 * time of the next successful build. Failed builds that are not followed by a successful build yet are kept
+	 * in the failed builds of the pipeline until one is. Builds are correlated with the commit stage.
+	 * 
+	 * @param pipeline
+	 * @param builds	the builds collected since the last update
+	 */
+	protected void processNewBuilds(Pipeline pipeline, List<Build> builds) {
+		Map<String, PipelineCommit> trackedCommits = pipeline.getCommitsByEnvironmentName(PipelineStage.COMMIT.getName());
+		Map<String, PipelineCommit> buildStageCommits = pipeline.getCommitsByEnvironmentName(PipelineStage.BUILD.getName());
+		long lastSuccessfulBuildStart = pipeline.getLastProcessedTimestamps().getOrDefault(SUCCESSFUL_BUILD, 0L);
+
+		// the failed builds still waiting for a successful build, along with the new builds, oldest first
+		Map<ObjectId, Build> buildsById = new HashMap<>();
+		for (Build build : pipeline.getFailedBuilds()) {
+			buildsById.put(build.getId(), build);
+		}
+		for (Build build : builds) {
+			boolean isSuccessful = BuildStatus.Success.equals(build.getBuildStatus());
+			// failed builds seen again because of the lookback have already been accounted for
+			if (isSuccessful || build.getStartTime() >= lastSuccessfulBuildStart) {
+				buildsById.put(build.getId(), build);
+			}
+		}
+		List<Build> sortedBuilds = new ArrayList<>(buildsById.values());
+		Collections.sort(sortedBuilds, Collections.reverseOrder(BUILD_NUMBER_COMPATATOR));
+
+		List<Build> waitingBuilds = new ArrayList<>();
+		for (Build build : sortedBuilds) {
+			waitingBuilds.add(build);
+			if (!BuildStatus.Success.equals(build.getBuildStatus())) {
+				continue;
+			}
+
+			for (Build builtBuild : waitingBuilds) {
+				for (SCM scm : builtBuild.getSourceChangeSet()) {
+					PipelineCommit commit = trackedCommits.get(scm.getScmRevisionNumber());
+					if (commit != null) {
+						addBuildCommit(pipeline, buildStageCommits, commit, build.getStartTime());
+					}
+				}
+			}
+			waitingBuilds.clear();
+			lastSuccessfulBuildStart = Math.max(lastSuccessfulBuildStart, build.getStartTime());
+		}
+		pipeline.setFailedBuilds(new HashSet<>(waitingBuilds));
+
+		// Gather commits that didn't participate in a build for one reason or another but have been processed
+		if (lastSuccessfulBuildStart > 0) {
+			for (PipelineCommit commit : trackedCommits.values()) {
+				if (!buildStageCommits.containsKey(commit.getScmRevisionNumber())
+						&& commit.getScmCommitTimestamp() < lastSuccessfulBuildStart) {
+					addBuildCommit(pipeline, buildStageCommits, commit, commit.getScmCommitTimestamp());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds a commit to the build stage, or moves it to the given time if that is later than the time it has.
+	 */
+	private void addBuildCommit(Pipeline pipeline, Map<String, PipelineCommit> buildStageCommits, PipelineCommit commit, long timestamp) {
+		PipelineCommit current = buildStageCommits.get(commit.getScmRevisionNumber());
+		if (current != null) {
+			if (current.getTimestamp() >= timestamp) {
+				return;
+			}
+			pipeline.getEnvironmentStageMap().get(PipelineStage.BUILD.getName()).getCommits().remove(current);
+		}
+		PipelineCommit buildCommit = new PipelineCommit(commit, timestamp);
+		pipeline.addCommit(PipelineStage.BUILD.getName(), buildCommit);
+		buildStageCommits.put(buildCommit.getScmRevisionNumber(), buildCommit);
+	}
+
     /**
      * Computes the build stage of the pipeline.
      * <p>
@@ -397,7 +710,24 @@ public class DynamicPipelineServiceImpl implements PipelineService {
      * @see #buildPipeline(Pipeline, Long, Long)
      */
     protected void processDeployments(Pipeline pipeline, List<Environment> environments,
-			Map<ArtifactIdentifier, Collection<BinaryArtifact>> artifacts, List<Commit> commits) {
+			Map<ArtifactIdentifier, Collection<BinaryArtifact>> artifacts, List<? extends SCM> commits) {
+    	Map<String, Collection<String>> commitGraph = buildCommitGraph(commits);
+    	processDeployments(pipeline, environments, artifacts, commits, rev -> getCommitHistory(commitGraph, rev));
+    }
+
+    /**
+     * Computes the deployment stages of the pipeline, walking the commit history with the given function.
+     * 
+     * @param pipeline
+     * @param environments
+     * @param artifacts
+     * @param commits
+     * @param commitHistory		gives the commit history starting at a revision number
+     * @see #processDeployments(Pipeline, List, Map, List)
+     */
+    protected void processDeployments(Pipeline pipeline, List<Environment> environments,
+			Map<ArtifactIdentifier, Collection<BinaryArtifact>> artifacts, List<? extends SCM> commits,
+			Function<String, List<String>> commitHistory) {
     	
     	if (logger.isDebugEnabled()) {
     		StringBuilder sb = new StringBuilder();
@@ -445,9 +775,7 @@ public class DynamicPipelineServiceImpl implements PipelineService {
     		logger.debug(sb.toString());
     	}
     	
-    	// Build commit graph - child : parents
-    	Map<String, Commit> commitsByRevisionNumber = buildRevisionNumberToCommitMap(commits);
-    	Map<String, Collection<String>> commitGraph = buildCommitGraph(commits);
+    	Map<String, SCM> commitsByRevisionNumber = buildRevisionNumberToCommitMap(commits);
 
     	// iterate through this in case other maps ignore missing items
     	for (Environment env : environments) {
@@ -472,10 +800,10 @@ public class DynamicPipelineServiceImpl implements PipelineService {
     			// we already filtered out bas that don't correspond to our repo
     			String revsionNumber = artifact.getScmRevisionNumber();
     			
-    			List<String> commitRevisionNumbers = getCommitHistory(commitGraph, revsionNumber);
+    			List<String> commitRevisionNumbers = commitHistory.apply(revsionNumber);
     			
     			for (String rev : commitRevisionNumbers) {
-    				Commit commit = commitsByRevisionNumber.get(rev);
+    				SCM commit = commitsByRevisionNumber.get(rev);
     				
     				if (commit == null) {
     					logger.warn("Error encountered building pipeline: commit information missing for revision " + rev);
@@ -648,13 +976,14 @@ public class DynamicPipelineServiceImpl implements PipelineService {
         return new RepoBranch(url, branch, RepoType.Unknown);
 	}
 	
-	private List<Commit> getCommits(Component component, Long startDate, Long endDate) {
+	private List<Commit> getCommits(Component component, Long startDate, Long endDate, Long collectedAfter) {
 		List<Commit> rt;
 		
 		CommitRequest request = new CommitRequest();
 		request.setComponentId(component.getId());
 		request.setCommitDateBegins(startDate);
 		request.setCommitDateEnds(endDate);
+		request.setCollectedAfter(collectedAfter);
 		
 		DataResponse<Iterable<Commit>> response = commitService.search(request);
 		
@@ -663,13 +992,14 @@ public class DynamicPipelineServiceImpl implements PipelineService {
 		return rt;
 	}
 
-	private List<Build> getBuilds(Component component, Long startDate, Long endDate) {
+	private List<Build> getBuilds(Component component, Long startDate, Long endDate, Long collectedAfter) {
 		List<Build> rt;
 		
 		BuildSearchRequest request = new BuildSearchRequest();
 		request.setComponentId(component.getId());
 		request.setStartDateBegins(startDate);
 		request.setStartDateEnds(endDate);
+		request.setCollectedAfter(collectedAfter);
 		
 		DataResponse<Iterable<Build>> response = buildService.search(request);
 		
@@ -765,10 +1095,10 @@ public class DynamicPipelineServiceImpl implements PipelineService {
 	}
 	
 	// TODO needs to account for scm url and branch
-	private Map<String, Commit> buildRevisionNumberToCommitMap(List<Commit> commits) {
-		Map<String, Commit> rt = new HashMap<>();
+	private <T extends SCM> Map<String, T> buildRevisionNumberToCommitMap(List<? extends T> commits) {
+		Map<String, T> rt = new HashMap<>();
 		
-		for (Commit commit : commits) {
+		for (T commit : commits) {
 			String revisionNumber = commit.getScmRevisionNumber();
 			
 			boolean alreadyExists = rt.put(revisionNumber, commit) != null;
@@ -793,13 +1123,13 @@ public class DynamicPipelineServiceImpl implements PipelineService {
 	 * 					case of merge commits.
 	 */
 	// We assume each commit belongs to the same repo + branch
-	private Map<String, Collection<String>> buildCommitGraph(List<Commit> commits) {
+	private Map<String, Collection<String>> buildCommitGraph(List<? extends SCM> commits) {
 		// multimap api doesn't quite fit what we want to do here
 		Map<String, Collection<String>> rt = new HashMap<>();
 		
 		// TODO build graph for svn
 		
-		for (Commit commit : commits) {
+		for (SCM commit : commits) {
 			String revisionNumber = commit.getScmRevisionNumber();
 			boolean alreadyExists = false;
 			
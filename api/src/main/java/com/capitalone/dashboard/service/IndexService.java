@@ -0,0 +1,16 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.IndexReport;
+
+import java.util.List;
+
+public interface IndexService {
+
+    /**
+     * Compares the indexes declared on the models with the ones in the database, and reports how
+     * they are used. The query plans are those of the queries in the server's plan cache.
+     *
+     * @return a report for each collection with declared indexes
+     */
+    List<IndexReport> getIndexReports();
+}
@@ -0,0 +1,248 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.IndexReport;
+import com.mongodb.AggregationOptions;
+import com.mongodb.BasicDBObject;
+import com.mongodb.CommandResult;
+import com.mongodb.Cursor;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver.IndexDefinitionHolder;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.util.ClassTypeInformation;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class IndexServiceImpl implements IndexService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndexServiceImpl.class);
+
+    private static final String ID_INDEX = "_id_";
+
+    private final MongoTemplate template;
+
+    @Autowired
+    public IndexServiceImpl(MongoTemplate template) {
+        this.template = template;
+    }
+
+    @Override
+    public List<IndexReport> getIndexReports() {
+        MongoMappingContext mappingContext = (MongoMappingContext) template.getConverter().getMappingContext();
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+
+        // collection name -> declared index key -> index name
+        Map<String, Map<String, String>> declared = new TreeMap<>();
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.getType().isAnnotationPresent(Document.class)) {
+                continue;
+            }
+            for (IndexDefinitionHolder holder : resolver.resolveIndexFor(ClassTypeInformation.from(entity.getType()))) {
+                String name = holder.getIndexOptions() == null ? null : (String) holder.getIndexOptions().get("name");
+                declared.computeIfAbsent(holder.getCollection(), c -> new LinkedHashMap<>())
+                        .put(toKey(holder.getIndexKeys()), name);
+            }
+        }
+
+        List<IndexReport> reports = new ArrayList<>();
+        for (Map.Entry<String, Map<String, String>> entry : declared.entrySet()) {
+            reports.add(getIndexReport(entry.getKey(), entry.getValue()));
+        }
+        return reports;
+    }
+
+    private IndexReport getIndexReport(String collection, Map<String, String> declared) {
+        IndexReport report = new IndexReport(collection);
+        Map<String, Long> ops = getIndexOps(collection);
+
+        Map<String, IndexReport.Index> indexes = new LinkedHashMap<>();
+        for (IndexInfo info : template.indexOps(collection).getIndexInfo()) {
+            IndexReport.Index index = new IndexReport.Index();
+            index.setName(info.getName());
+            index.setKey(toKey(info.getIndexFields()));
+            index.setPresent(true);
+            index.setDeclared(declared.containsKey(index.getKey()));
+            index.setOps(ops.get(info.getName()));
+            indexes.put(index.getKey(), index);
+
+            if (!ID_INDEX.equals(info.getName()) && Long.valueOf(0).equals(index.getOps())) {
+                report.getUnused().add(info.getName());
+            }
+        }
+        for (Map.Entry<String, String> entry : declared.entrySet()) {
+            if (!indexes.containsKey(entry.getKey())) {
+                IndexReport.Index index = new IndexReport.Index();
+                index.setName(entry.getValue());
+                index.setKey(entry.getKey());
+                index.setDeclared(true);
+                indexes.put(index.getKey(), index);
+                report.getMissing().add(entry.getKey());
+            }
+        }
+        report.getIndexes().addAll(indexes.values());
+
+        for (DBObject shape : getCachedQueryShapes(collection)) {
+            report.getQueryPlans().add(getQueryPlan(collection, shape));
+        }
+        return report;
+    }
+
+    /**
+     * Reads the number of operations that used each index, available from MongoDB 3.2.
+     */
+    private Map<String, Long> getIndexOps(String collection) {
+        Map<String, Long> ops = new HashMap<>();
+        AggregationOptions options = AggregationOptions.builder()
+                .outputMode(AggregationOptions.OutputMode.CURSOR)
+                .build();
+        try {
+            Cursor cursor = template.getCollection(collection).aggregate(
+                    Collections.<DBObject>singletonList(new BasicDBObject("$indexStats", new BasicDBObject())), options);
+            try {
+                while (cursor.hasNext()) {
+                    DBObject stats = cursor.next();
+                    DBObject accesses = (DBObject) stats.get("accesses");
+                    if (accesses != null && accesses.get("ops") instanceof Number) {
+                        ops.put((String) stats.get("name"), ((Number) accesses.get("ops")).longValue());
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+        } catch (MongoException e) {
+            LOGGER.debug("Index statistics of {} not available: {}", collection, e.getMessage());
+        }
+        return ops;
+    }
+
+    /**
+     * Reads the shapes of the queries the server has cached a plan for. Only the queries with more
+     * than one candidate plan are cached, so these are the application's queries that the planner
+     * had to choose an index for, with the values of the query that created the entry.
+     */
+    private List<DBObject> getCachedQueryShapes(String collection) {
+        List<DBObject> shapes = new ArrayList<>();
+        try {
+            CommandResult result = template.getDb().command(new BasicDBObject("planCacheListQueryShapes", collection));
+            if (result.ok() && result.get("shapes") instanceof List) {
+                for (Object shape : (List<?>) result.get("shapes")) {
+                    shapes.add((DBObject) shape);
+                }
+                return shapes;
+            }
+        } catch (MongoException e) {
+            LOGGER.debug("Plan cache of {} not available: {}", collection, e.getMessage());
+        }
+
+        // MongoDB 4.2 replaced planCacheListQueryShapes with the $planCacheStats stage
+        AggregationOptions options = AggregationOptions.builder()
+                .outputMode(AggregationOptions.OutputMode.CURSOR)
+                .build();
+        try {
+            Cursor cursor = template.getCollection(collection).aggregate(
+                    Collections.<DBObject>singletonList(new BasicDBObject("$planCacheStats", new BasicDBObject())), options);
+            try {
+                while (cursor.hasNext()) {
+                    Object shape = cursor.next().get("createdFromQuery");
+                    if (shape instanceof DBObject) {
+                        shapes.add((DBObject) shape);
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+        } catch (MongoException e) {
+            LOGGER.debug("Plan cache statistics of {} not available: {}", collection, e.getMessage());
+        }
+        return shapes;
+    }
+
+    /**
+     * Asks the query planner how it runs a cached query shape. The query is only planned, not run,
+     * so a collection scan shows up in the report without scanning the collection.
+     */
+    private IndexReport.QueryPlan getQueryPlan(String collection, DBObject shape) {
+        BasicDBObject find = new BasicDBObject("find", collection).append("filter", shape.get("query"));
+        if (isNotEmpty(shape.get("sort"))) {
+            find.append("sort", shape.get("sort"));
+        }
+        if (isNotEmpty(shape.get("projection"))) {
+            find.append("projection", shape.get("projection"));
+        }
+
+        IndexReport.QueryPlan plan = new IndexReport.QueryPlan();
+        plan.setQuery(shape.toString());
+        try {
+            CommandResult result = template.getDb().command(
+                    new BasicDBObject("explain", find).append("verbosity", "queryPlanner"));
+            if (!result.ok()) {
+                plan.setError(result.getErrorMessage());
+                return plan;
+            }
+            DBObject queryPlanner = (DBObject) result.get("queryPlanner");
+            StringBuilder stages = new StringBuilder();
+            DBObject stage = queryPlanner == null ? null : (DBObject) queryPlanner.get("winningPlan");
+            while (stage != null) {
+                if (stages.length() > 0) {
+                    stages.append(" > ");
+                }
+                stages.append(stage.get("stage"));
+                if (stage.get("indexName") != null) {
+                    plan.setIndexName((String) stage.get("indexName"));
+                }
+                stage = (DBObject) stage.get("inputStage");
+            }
+            plan.setStages(stages.toString());
+        } catch (MongoException e) {
+            plan.setError(e.getMessage());
+        }
+        return plan;
+    }
+
+    private static boolean isNotEmpty(Object value) {
+        return value instanceof DBObject && !((DBObject) value).keySet().isEmpty();
+    }
+
+    private static String toKey(DBObject keys) {
+        StringBuilder key = new StringBuilder();
+        for (String field : keys.keySet()) {
+            Object direction = keys.get(field);
+            appendKey(key, field, direction instanceof Number ? ((Number) direction).intValue() : direction);
+        }
+        return key.toString();
+    }
+
+    private static String toKey(List<IndexField> fields) {
+        StringBuilder key = new StringBuilder();
+        for (IndexField field : fields) {
+            Object direction = field.isGeo() ? "2d" : field.getDirection() == null ? "text"
+                    : field.getDirection() == Sort.Direction.ASC ? 1 : -1;
+            appendKey(key, field.getKey(), direction);
+        }
+        return key.toString();
+    }
+
+    private static void appendKey(StringBuilder key, String field, Object direction) {
+        if (key.length() > 0) {
+            key.append(", ");
+        }
+        key.append(field).append(": ").append(direction);
+    }
+}
@@ -3,6 +3,8 @@ package com.capitalone.dashboard.service;
 import com.capitalone.dashboard.model.PipelineResponse;
 import com.capitalone.dashboard.request.PipelineSearchRequest;
 
+import java.util.function.Consumer;
+
 public interface PipelineService {
 
     /**
@@ -12,4 +14,15 @@ public interface PipelineService {
      * @return all pipelines for team dashboards
      */
     Iterable<PipelineResponse> search(PipelineSearchRequest searchRequest);
+
+    /**
+     * Retrieves all pipeline objects based on the provided search criteria, handing out each
+     * pipeline to the consumer as soon as it is available rather than in the requested order.
+     *
+     * @param searchRequest search request
+     * @param consumer receives the pipelines for team dashboards
+     */
+    default void search(PipelineSearchRequest searchRequest, Consumer<PipelineResponse> consumer) {
+        search(searchRequest).forEach(consumer);
+    }
 }
@@ -2,12 +2,33 @@ package com.capitalone.dashboard.service;
 
 import com.capitalone.dashboard.misc.HygieiaException;
 import com.capitalone.dashboard.model.DataResponse;
+import com.capitalone.dashboard.model.ProjectedDataResponse;
 import com.capitalone.dashboard.model.TestResult;
+import com.capitalone.dashboard.model.TestResultSummary;
 import com.capitalone.dashboard.request.TestDataCreateRequest;
 import com.capitalone.dashboard.request.TestResultRequest;
+import com.capitalone.dashboard.request.TestResultSummaryRequest;
 
 public interface TestResultService {
 
-    DataResponse<Iterable<TestResult>> search(TestResultRequest request);
+    /**
+     * Finds the test results of a component. The test hierarchy is read from the database only down
+     * to the requested depth.
+     *
+     * @param request the search criteria
+     * @return the test results, with an estimate of the bytes the depth kept in the database when the
+     * request asks to measure it
+     */
+    ProjectedDataResponse<Iterable<TestResult>> search(TestResultRequest request);
+
+    /**
+     * Summarizes the test results of a component from their rollups, so the time taken does not
+     * depend on the number of test results stored.
+     *
+     * @param request the component and the number of days to summarize
+     * @return a summary for each test collector item of the component
+     */
+    DataResponse<Iterable<TestResultSummary>> summary(TestResultSummaryRequest request);
+
     String create(TestDataCreateRequest request) throws HygieiaException;
 }
@@ -5,16 +5,17 @@ import com.capitalone.dashboard.model.*;
 import com.capitalone.dashboard.repository.CollectorRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.TestResultRepository;
+import com.capitalone.dashboard.repository.TestResultRollupRepository;
 import com.capitalone.dashboard.request.CollectorRequest;
 import com.capitalone.dashboard.request.TestDataCreateRequest;
 import com.capitalone.dashboard.request.TestResultRequest;
-import com.google.common.collect.Lists;
-import com.mysema.query.BooleanBuilder;
+import com.capitalone.dashboard.request.TestResultSummaryRequest;
 import org.apache.commons.lang.StringUtils;
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
@@ -22,132 +23,144 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class TestResultServiceImpl implements TestResultService {
+    private static final int DEFAULT_SUMMARY_DAYS = 14;
 
     private final TestResultRepository testResultRepository;
+    private final TestResultRollupRepository testResultRollupRepository;
     private final ComponentRepository componentRepository;
     private final CollectorRepository collectorRepository;
     private final CollectorService collectorService;
 
     @Autowired
     public TestResultServiceImpl(TestResultRepository testResultRepository,
+                                 TestResultRollupRepository testResultRollupRepository,
                                  ComponentRepository componentRepository,
                                  CollectorRepository collectorRepository,
                                  CollectorService collectorService) {
         this.testResultRepository = testResultRepository;
+        this.testResultRollupRepository = testResultRollupRepository;
         this.componentRepository = componentRepository;
         this.collectorRepository = collectorRepository;
         this.collectorService = collectorService;
     }
 
     @Override
-    public DataResponse<Iterable<TestResult>> search(TestResultRequest request) {
+    public ProjectedDataResponse<Iterable<TestResult>> search(TestResultRequest request) {
         Component component = componentRepository.findOne(request.getComponentId());
         if (!component.getCollectorItems().containsKey(CollectorType.Test)) {
-            return new DataResponse<>(null, 0L);
+            return new ProjectedDataResponse<>(null, 0L, 0L);
         }
         List<TestResult> result = new ArrayList<>();
-        validateAllCollectorItems(request, component, result);
+        long bytesSaved = validateAllCollectorItems(request, component, result);
         //One collector per Type. get(0) is hardcoded.
         if (!CollectionUtils.isEmpty(component.getCollectorItems().get(CollectorType.Test)) && (component.getCollectorItems().get(CollectorType.Test).get(0) != null)) {
             Collector collector = collectorRepository.findOne(component.getCollectorItems().get(CollectorType.Test).get(0).getCollectorId());
             if (collector != null) {
-                return new DataResponse<>(pruneToDepth(result, request.getDepth()), collector.getLastExecuted());
+                return new ProjectedDataResponse<>(result, collector.getLastExecuted(), bytesSaved);
             }
         }
 
-        return new DataResponse<>(null, 0L);
+        return new ProjectedDataResponse<>(null, 0L, 0L);
     }
 
-    private void validateAllCollectorItems(TestResultRequest request, Component component, List<TestResult> result) {
+    private long validateAllCollectorItems(TestResultRequest request, Component component, List<TestResult> result) {
+        long bytesSaved = 0;
         for (CollectorItem item : component.getCollectorItems().get(CollectorType.Test)) {
 
-            QTestResult testResult = new QTestResult("testResult");
-            BooleanBuilder builder = new BooleanBuilder();
-
-            builder.and(testResult.collectorItemId.eq(item.getId()));
+            Criteria criteria = Criteria.where("collectorItemId").is(item.getId());
 
-            validateStartDateRange(request, testResult, builder);
-            validateEndDateRange(request, testResult, builder);
+            validateStartDateRange(request, criteria);
+            validateEndDateRange(request, criteria);
 
-            validateDurationRange(request, testResult, builder);
+            validateDurationRange(request, criteria);
 
-            validateTestCapabilities(request, testResult, builder);
+            validateTestCapabilities(request, criteria);
 
             // add all test result repos
-            addAllTestResultRepositories(request, result, testResult, builder);
+            bytesSaved += addAllTestResultRepositories(request, result, criteria);
         }
+        return bytesSaved;
     }
 
-    private void addAllTestResultRepositories(TestResultRequest request, List<TestResult> result, QTestResult testResult, BooleanBuilder builder) {
-        if (request.getMax() == null) {
-            result.addAll(Lists.newArrayList(testResultRepository.findAll(builder.getValue(), testResult.timestamp.desc())));
-        } else {
-            PageRequest pageRequest = new PageRequest(0, request.getMax(), Sort.Direction.DESC, "timestamp");
-            result.addAll(Lists.newArrayList(testResultRepository.findAll(builder.getValue(), pageRequest).getContent()));
+    private long addAllTestResultRepositories(TestResultRequest request, List<TestResult> result, Criteria criteria) {
+        Query query = new Query(criteria).with(new Sort(Sort.Direction.DESC, "timestamp"));
+        if (request.getMax() != null) {
+            query.limit(request.getMax());
         }
+        // The depth is projected by the database, the levels below it are never read
+        ProjectedResults<TestResult> projected = testResultRepository.findProjected(query, request.getDepth(),
+                request.isMeasureProjection());
+        result.addAll(projected.getResults());
+        return projected.getBytesSaved();
     }
 
-    private void validateTestCapabilities(TestResultRequest request, QTestResult testResult, BooleanBuilder builder) {
+    private void validateTestCapabilities(TestResultRequest request, Criteria criteria) {
         if (!request.getTypes().isEmpty()) {
-            builder.and(testResult.testCapabilities.any().type.in(request.getTypes()));
+            criteria.and("testCapabilities.type").in(request.getTypes());
         }
     }
 
-    private void validateDurationRange(TestResultRequest request, QTestResult testResult, BooleanBuilder builder) {
+    private void validateDurationRange(TestResultRequest request, Criteria criteria) {
         if (request.validDurationRange()) {
-            builder.and(testResult.duration.between(request.getDurationGreaterThan(), request.getDurationLessThan()));
+            addRange(criteria, "duration", request.getDurationGreaterThan(), request.getDurationLessThan());
         }
     }
 
-    private void validateEndDateRange(TestResultRequest request, QTestResult testResult, BooleanBuilder builder) {
+    private void validateEndDateRange(TestResultRequest request, Criteria criteria) {
         if (request.validEndDateRange()) {
-            builder.and(testResult.endTime.between(request.getEndDateBegins(), request.getEndDateEnds()));
+            addRange(criteria, "endTime", request.getEndDateBegins(), request.getEndDateEnds());
         }
     }
 
-    private void validateStartDateRange(TestResultRequest request, QTestResult testResult, BooleanBuilder builder) {
+    private void validateStartDateRange(TestResultRequest request, Criteria criteria) {
         if (request.validStartDateRange()) {
-            builder.and(testResult.startTime.between(request.getStartDateBegins(), request.getStartDateEnds()));
+            addRange(criteria, "startTime", request.getStartDateBegins(), request.getStartDateEnds());
         }
     }
 
-    private Iterable<TestResult> pruneToDepth(List<TestResult> results, Integer depth) {
-        // Prune the response to the requested depth
-        // 0 - TestResult
-        // 1 - TestCapability
-        // 2 - TestSuite
-        // 3 - TestCase
-        // 4 - Entire response
-        // null - Entire response
-        if (depth == null || depth > 3) {
-            return results;
-        }
-        for (TestResult result : results) {
-            if (depth == 0) {
-                result.getTestCapabilities().clear();
-            } else {
-                for (TestCapability testCapability : result.getTestCapabilities()) {
-                    if (depth == 1) {
-                        testCapability.getTestSuites().clear();
-                    } else {
-                        for (TestSuite testSuite : testCapability.getTestSuites()) {
-                            if (depth == 2) {
-                                testSuite.getTestCases().clear();
-                            } else { // depth == 3
-                                for (TestCase testCase : testSuite.getTestCases()) {
-                                    testCase.getTestSteps().clear();
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+    @Override
+    public DataResponse<Iterable<TestResultSummary>> summary(TestResultSummaryRequest request) {
+        Component component = componentRepository.findOne(request.getComponentId());
+        if (component == null || CollectionUtils.isEmpty(component.getCollectorItems().get(CollectorType.Test))) {
+            return new DataResponse<>(null, 0L);
+        }
+
+        int days = request.getDays() == null ? DEFAULT_SUMMARY_DAYS : request.getDays();
+        long now = System.currentTimeMillis();
+        long dayMillis = TimeUnit.DAYS.toMillis(1);
+        long since = now - now % dayMillis - (days - 1) * dayMillis;
+
+        List<TestResultSummary> summaries = new ArrayList<>();
+        for (CollectorItem item : component.getCollectorItems().get(CollectorType.Test)) {
+            TestResultSummary summary = new TestResultSummary();
+            summary.setCollectorItemId(item.getId());
+            summary.setLatestRun(testResultRollupRepository.findTopByCollectorItemIdAndTypeOrderByTimestampDesc(
+                    item.getId(), TestResultRollupType.Run));
+            summary.setDays(testResultRollupRepository.findByCollectorItemIdAndTypeAndTimestampGreaterThanEqualOrderByTimestampAsc(
+                    item.getId(), TestResultRollupType.Day, since));
+            summaries.add(summary);
         }
 
-        return results;
+        CollectorItem item = component.getCollectorItems().get(CollectorType.Test).get(0);
+        Collector collector = item == null ? null : collectorRepository.findOne(item.getCollectorId());
+        return new DataResponse<>(summaries, collector == null ? 0L : collector.getLastExecuted());
+    }
+
+    /**
+     * Matches an inclusive range, open-ended on a side without a bound.
+     */
+    private static void addRange(Criteria criteria, String field, Long from, Long to) {
+        Criteria range = criteria.and(field);
+        if (from != null) {
+            range.gte(from);
+        }
+        if (to != null) {
+            range.lte(to);
+        }
     }
 
     @Override
@@ -242,6 +255,8 @@ public class TestResultServiceImpl implements TestResultService {
         testResult.getTestCapabilities().addAll(request.getTestCapabilities());
         testResult.setBuildId(new ObjectId(request.getTestJobId()));
 
-        return testResultRepository.save(testResult);
+        testResult = testResultRepository.save(testResult);
+        testResultRollupRepository.rollUp(testResult);
+        return testResult;
     }
 }
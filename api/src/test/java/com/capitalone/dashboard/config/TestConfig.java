@@ -1,13 +1,16 @@
 package com.capitalone.dashboard.config;
 
+import com.capitalone.dashboard.ApiSettings;
 import com.capitalone.dashboard.service.ApiTokenService;
 import com.capitalone.dashboard.service.DashboardRemoteService;
+import com.capitalone.dashboard.service.IndexService;
 import com.capitalone.dashboard.service.LibraryPolicyService;
 import com.capitalone.dashboard.service.MaturityModelService;
 import com.capitalone.dashboard.service.TemplateService;
 import org.mockito.Mockito;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
 
 import com.capitalone.dashboard.auth.AuthProperties;
 import com.capitalone.dashboard.auth.AuthenticationResponseService;
@@ -45,6 +48,16 @@ import com.capitalone.dashboard.service.CmdbService;
 @Configuration
 public class TestConfig {
 
+    @Bean
+    public static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer() {
+        return new PropertySourcesPlaceholderConfigurer();
+    }
+
+    @Bean
+    public ApiSettings apiSettings() {
+        return new ApiSettings();
+    }
+
     @Bean
     public AuthenticationService authenticationService() {
         return Mockito.mock(AuthenticationService.class);
@@ -196,6 +209,11 @@ public class TestConfig {
 		return Mockito.mock(ApiTokenService.class);
 	}
 
+	@Bean
+	public IndexService indexService() {
+		return Mockito.mock(IndexService.class);
+	}
+
 	@Bean
 	public CmdbService cmdbService() {return Mockito.mock(CmdbService.class);}
 
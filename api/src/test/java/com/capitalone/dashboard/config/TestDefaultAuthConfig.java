@@ -1,10 +1,12 @@
 package com.capitalone.dashboard.config;
 
 import com.capitalone.dashboard.repository.ApiTokenRepository;
+import com.capitalone.dashboard.ApiSettings;
 import com.capitalone.dashboard.service.ApiTokenService;
 import com.capitalone.dashboard.service.ApiTokenServiceImpl;
 import com.capitalone.dashboard.service.DashboardRemoteService;
 import com.capitalone.dashboard.service.GitRequestService;
+import com.capitalone.dashboard.service.IndexService;
 import com.capitalone.dashboard.service.LibraryPolicyService;
 import com.capitalone.dashboard.service.Monitor2Service;
 import com.capitalone.dashboard.service.PerformanceService;
@@ -218,6 +220,12 @@ import com.capitalone.dashboard.util.PaginationHeaderUtility;
 	 @Bean
 	 public DashboardRemoteService dashboardRemoteService() {return Mockito.mock(DashboardRemoteService.class);}
 
+	 @Bean
+	 public IndexService indexService() {return Mockito.mock(IndexService.class);}
+
+	 @Bean
+	 public ApiSettings apiSettings() {return new ApiSettings();}
+
 @Bean
     public TemplateService templateService() {
         return Mockito.mock(TemplateService.class);
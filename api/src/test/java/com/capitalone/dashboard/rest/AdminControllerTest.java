@@ -1,9 +1,13 @@
 package com.capitalone.dashboard.rest;
 
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.Collections;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -19,7 +23,9 @@ import org.springframework.web.context.WebApplicationContext;
 import com.capitalone.dashboard.config.TestConfig;
 import com.capitalone.dashboard.config.WebMVCConfig;
 import com.capitalone.dashboard.model.AuthType;
+import com.capitalone.dashboard.model.IndexReport;
 import com.capitalone.dashboard.model.UserInfo;
+import com.capitalone.dashboard.service.IndexService;
 import com.capitalone.dashboard.service.UserInfoService;
 import com.google.gson.Gson;
 
@@ -34,6 +40,8 @@ public class AdminControllerTest {
     private WebApplicationContext wac;
     @Autowired
     private UserInfoService userInfoService;
+    @Autowired
+    private IndexService indexService;
 
     @Before
     public void before() {
@@ -62,4 +70,21 @@ public class AdminControllerTest {
                 .content(new Gson().toJson(user))).andExpect(status().isOk());
     }
 
+    @Test
+    public void shouldReportIndexes() throws Exception {
+        IndexReport report = new IndexReport("builds");
+        report.getMissing().add("collectorItemId: 1, number: 1");
+        IndexReport.QueryPlan plan = new IndexReport.QueryPlan();
+        plan.setStages("COLLSCAN");
+        plan.setQuery("{ \"query\" : { \"collectorItemId\" : 1} , \"sort\" : { } , \"projection\" : { }}");
+        report.getQueryPlans().add(plan);
+        when(indexService.getIndexReports()).thenReturn(Collections.singletonList(report));
+        mockMvc.perform(get("/admin/indexes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].collection").value("builds"))
+                .andExpect(jsonPath("$[0].missing[0]").value("collectorItemId: 1, number: 1"))
+                .andExpect(jsonPath("$[0].queryPlans[0].stages").value("COLLSCAN"))
+                .andExpect(jsonPath("$[0].queryPlans[0].query").value(plan.getQuery()));
+    }
+
 }
@@ -0,0 +1,104 @@
+package com.capitalone.dashboard.rest;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.capitalone.dashboard.config.TestConfig;
+import com.capitalone.dashboard.config.WebMVCConfig;
+import com.capitalone.dashboard.model.PipelineResponse;
+import com.capitalone.dashboard.request.PipelineSearchRequest;
+import com.capitalone.dashboard.service.PipelineService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestConfig.class, WebMVCConfig.class})
+@WebAppConfiguration
+public class PipelineControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Autowired private WebApplicationContext wac;
+    @Autowired private PipelineService pipelineService;
+
+    @Before
+    public void before() {
+        Mockito.reset(pipelineService);
+        mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+    }
+
+    @Test
+    public void pipelines() throws Exception {
+        PipelineResponse response = makePipelineResponse();
+        when(pipelineService.search(Mockito.any(PipelineSearchRequest.class))).thenReturn(Arrays.asList(response));
+
+        mockMvc.perform(get("/pipeline?collectorItemId=" + response.getCollectorItemId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].collectorItemId", is(response.getCollectorItemId().toString())));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void pipelines_ndjson_onePipelinePerLine() throws Exception {
+        PipelineResponse response1 = makePipelineResponse();
+        PipelineResponse response2 = makePipelineResponse();
+        Mockito.doAnswer(invocation -> {
+            Consumer<PipelineResponse> consumer = (Consumer<PipelineResponse>) invocation.getArguments()[1];
+            consumer.accept(response2);
+            consumer.accept(response1);
+            return null;
+        }).when(pipelineService).search(Mockito.any(PipelineSearchRequest.class), Mockito.any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/pipeline?collectorItemId=" + response1.getCollectorItemId()
+                + "&collectorItemId=" + response2.getCollectorItemId()).accept(PipelineController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(TimeUnit.SECONDS.toMillis(600), result.getRequest().getAsyncContext().getTimeout());
+
+        // the body is streamed to the response of the request that started the async processing
+        result.getAsyncResult();
+        assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus());
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+
+        assertEquals(2, lines.length);
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals(response2.getCollectorItemId().toString(), mapper.readTree(lines[0]).get("collectorItemId").asText());
+        assertEquals(response1.getCollectorItemId().toString(), mapper.readTree(lines[1]).get("collectorItemId").asText());
+    }
+
+    @Test
+    public void pipelines_noCollectorItemId_badRequest() throws Exception {
+        mockMvc.perform(get("/pipeline")).andExpect(status().isBadRequest());
+    }
+
+    private PipelineResponse makePipelineResponse() {
+        PipelineResponse response = new PipelineResponse();
+        response.setCollectorItemId(ObjectId.get());
+        return response;
+    }
+}
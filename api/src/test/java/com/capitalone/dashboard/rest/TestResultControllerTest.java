@@ -4,6 +4,7 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -25,13 +26,19 @@ import org.springframework.web.context.WebApplicationContext;
 import com.capitalone.dashboard.config.TestConfig;
 import com.capitalone.dashboard.config.WebMVCConfig;
 import com.capitalone.dashboard.model.DataResponse;
+import com.capitalone.dashboard.model.ProjectedDataResponse;
 import com.capitalone.dashboard.model.TestCapability;
 import com.capitalone.dashboard.model.TestCase;
 import com.capitalone.dashboard.model.TestCaseStatus;
+import com.capitalone.dashboard.model.TestCounts;
 import com.capitalone.dashboard.model.TestResult;
+import com.capitalone.dashboard.model.TestResultRollup;
+import com.capitalone.dashboard.model.TestResultRollupType;
+import com.capitalone.dashboard.model.TestResultSummary;
 import com.capitalone.dashboard.model.TestSuite;
 import com.capitalone.dashboard.model.TestSuiteType;
 import com.capitalone.dashboard.request.TestResultRequest;
+import com.capitalone.dashboard.request.TestResultSummaryRequest;
 import com.capitalone.dashboard.service.TestResultService;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -54,7 +61,7 @@ public class TestResultControllerTest {
     public void testSuites() throws Exception {
         TestResult testResult = makeTestResult();
         Iterable<TestResult> results = Arrays.asList(testResult);
-        DataResponse<Iterable<TestResult>> response = new DataResponse<>(results, 1);
+        ProjectedDataResponse<Iterable<TestResult>> response = new ProjectedDataResponse<>(results, 1, 0);
         TestCapability testCapability = testResult.getTestCapabilities().iterator().next();
         TestSuite testSuite = testCapability.getTestSuites().iterator().next();
         TestCase testCase = testSuite.getTestCases().iterator().next();
@@ -100,6 +107,64 @@ public class TestResultControllerTest {
                 .andExpect(jsonPath("$.result[0].testCapabilities[0].testSuites[0].testCases[0].status", is(testCase.getStatus().toString())));
     }
 
+    @Test
+    public void reportsBytesSavedByDepth() throws Exception {
+        TestResult testResult = makeTestResult();
+        testResult.getTestCapabilities().clear();
+        ProjectedDataResponse<Iterable<TestResult>> response = new ProjectedDataResponse<>(Arrays.asList(testResult), 1, 2048);
+
+        when(testResultService.search(Mockito.any(TestResultRequest.class))).thenReturn(response);
+
+        mockMvc.perform(get("/quality/test?componentId=" + ObjectId.get() + "&depth=0&measureProjection=true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ProjectedDataResponse.BYTES_SAVED_HEADER, "2048"))
+                .andExpect(jsonPath("$.bytesSaved").doesNotExist())
+                .andExpect(jsonPath("$.result[0].testCapabilities", hasSize(0)));
+    }
+
+    @Test
+    public void omitsBytesSavedUnlessMeasured() throws Exception {
+        TestResult testResult = makeTestResult();
+        testResult.getTestCapabilities().clear();
+        ProjectedDataResponse<Iterable<TestResult>> response = new ProjectedDataResponse<>(Arrays.asList(testResult), 1, 0);
+
+        when(testResultService.search(Mockito.any(TestResultRequest.class))).thenReturn(response);
+
+        mockMvc.perform(get("/quality/test?componentId=" + ObjectId.get() + "&depth=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ProjectedDataResponse.BYTES_SAVED_HEADER))
+                .andExpect(jsonPath("$.result[0].testCapabilities", hasSize(0)));
+    }
+
+    @Test
+    public void summary() throws Exception {
+        TestResultRollup run = new TestResultRollup();
+        run.setType(TestResultRollupType.Run);
+        run.setExecutionId("2");
+        run.setTests(new TestCounts(3, 2, 1, 0, 0));
+        TestResultSummary summary = new TestResultSummary();
+        summary.setCollectorItemId(ObjectId.get());
+        summary.setLatestRun(run);
+        Iterable<TestResultSummary> summaries = Arrays.asList(summary);
+
+        when(testResultService.summary(Mockito.any(TestResultSummaryRequest.class))).thenReturn(new DataResponse<>(summaries, 1));
+
+        mockMvc.perform(get("/quality/test/summary?componentId=" + ObjectId.get() + "&days=7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result", hasSize(1)))
+                .andExpect(jsonPath("$.result[0].collectorItemId", is(summary.getCollectorItemId().toString())))
+                .andExpect(jsonPath("$.result[0].latestRun.executionId", is("2")))
+                .andExpect(jsonPath("$.result[0].latestRun.tests.success", is(2)))
+                .andExpect(jsonPath("$.result[0].latestRun.tests.failure", is(1)))
+                .andExpect(jsonPath("$.result[0].days", hasSize(0)));
+    }
+
+    @Test
+    public void summaryRejectsMoreThanAYear() throws Exception {
+        mockMvc.perform(get("/quality/test/summary?componentId=" + ObjectId.get() + "&days=366"))
+                .andExpect(status().isBadRequest());
+    }
+
     private TestResult makeTestResult() {
         TestResult result = new TestResult();
         result.setId(ObjectId.get());
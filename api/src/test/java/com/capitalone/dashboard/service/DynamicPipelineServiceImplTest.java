@@ -2,6 +2,7 @@ package com.capitalone.dashboard.service;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -18,6 +19,7 @@ import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -153,20 +155,7 @@ public class DynamicPipelineServiceImplTest {
 		Mockito.when(commitService.search(Mockito.any(CommitRequest.class))).thenReturn(new DataResponse<>(commits, 0));
 		Mockito.when(buildService.search(Mockito.any(BuildSearchRequest.class))).thenReturn(new DataResponse<>(builds, 0));
 		Mockito.when(deployService.getDeployStatus(Mockito.eq(COMPONENT_ID))).thenReturn(new DataResponse<>(environments, 0));
-		Mockito.when(binaryArtifactService.search(Mockito.any(BinaryArtifactSearchRequest.class))).then(new Answer<DataResponse<Iterable<BinaryArtifact>>>() {
-			@Override
-			public DataResponse<Iterable<BinaryArtifact>> answer(InvocationOnMock invocation) throws Throwable {
-				BinaryArtifactSearchRequest request = (BinaryArtifactSearchRequest)invocation.getArguments()[0];
-
-				for (BinaryArtifact ba : binaryArtifacts) {
-					if (ba.getArtifactName().equals(request.getArtifactName()) && ba.getArtifactVersion().equals(request.getArtifactVersion())) {
-						return new DataResponse<>(Collections.singleton(ba), 0);
-					}
-				}
-
-				return new DataResponse<>(Collections.emptyList(), 0);
-			}
-		});
+		setupBinaryArtifactSearch(binaryArtifacts);
 
 		PipelineSearchRequest request = new PipelineSearchRequest();
 		request.setBeginDate(0L);
@@ -227,20 +216,7 @@ public class DynamicPipelineServiceImplTest {
 		Mockito.when(commitService.search(Mockito.any(CommitRequest.class))).thenReturn(new DataResponse<>(commits, 0));
 		Mockito.when(buildService.search(Mockito.any(BuildSearchRequest.class))).thenReturn(new DataResponse<>(builds, 0));
 		Mockito.when(deployService.getDeployStatus(Mockito.eq(COMPONENT_ID))).thenReturn(new DataResponse<>(environments, 0));
-		Mockito.when(binaryArtifactService.search(Mockito.any(BinaryArtifactSearchRequest.class))).then(new Answer<DataResponse<Iterable<BinaryArtifact>>>() {
-			@Override
-			public DataResponse<Iterable<BinaryArtifact>> answer(InvocationOnMock invocation) throws Throwable {
-				BinaryArtifactSearchRequest request = (BinaryArtifactSearchRequest)invocation.getArguments()[0];
-
-				for (BinaryArtifact ba : binaryArtifacts) {
-					if (ba.getArtifactName().equals(request.getArtifactName()) && ba.getArtifactVersion().equals(request.getArtifactVersion())) {
-						return new DataResponse<>(Collections.singleton(ba), 0);
-					}
-				}
-
-				return new DataResponse<>(Collections.emptyList(), 0);
-			}
-		});
+		setupBinaryArtifactSearch(binaryArtifacts);
 
 		pipeline = service.buildPipeline(pipeline, 0L, 100L);
 
@@ -417,6 +393,164 @@ public class DynamicPipelineServiceImplTest {
 		assertEquals(Arrays.asList("F"), pc.getScmParentRevisionNumbers());
 	}
 
+	// Processing the builds in two passes should give the same build stage as processing them all at once
+	@Test
+	public void testProcessNewBuilds() {
+		Pipeline pipeline = createEmptyPipeline();
+		List<Commit> commits = setupCommits();
+		List<Build> builds = setupBuilds();
+
+		service.processCommits(pipeline, commits);
+		service.processNewBuilds(pipeline, builds.subList(4, builds.size()));
+
+		// build 5 failed and is waiting for the next successful build
+		assertEquals(1, pipeline.getFailedBuilds().size());
+		assertEquals("5", pipeline.getFailedBuilds().iterator().next().getNumber());
+
+		service.processNewBuilds(pipeline, builds.subList(0, 4));
+
+		assertTrue(pipeline.getFailedBuilds().isEmpty());
+
+		Map<String, PipelineCommit> pcs = pipeline.getCommitsByEnvironmentName(PipelineStage.BUILD.getName());
+		assertEquals(8, pcs.size());
+		assertEquals(100001000, pcs.get("A").getTimestamp());
+		assertEquals(100003000, pcs.get("B").getTimestamp());
+		assertEquals(100007000, pcs.get("C1").getTimestamp());
+		assertEquals(100004000, pcs.get("C2").getTimestamp());
+		assertEquals(100004000, pcs.get("D").getTimestamp());
+		assertEquals(100000005, pcs.get("E").getTimestamp());
+		assertEquals(100007000, pcs.get("F").getTimestamp());
+		assertEquals(100009000, pcs.get("G").getTimestamp());
+	}
+
+	@Test
+	public void testUpdatePipeline() {
+		Pipeline pipeline = createEmptyPipeline();
+		CollectorItem pipelineCI = setupPipelineCollectorItem();
+		CollectorItem scmCI = setupScmCollectorItem();
+		Component component = setupComponent(scmCI);
+		Dashboard dashboard = setupDashboard(component);
+
+		List<Commit> commits = setupCommits();
+		List<Build> builds = setupBuilds();
+		List<Environment> environments = setupEnvironments();
+		List<BinaryArtifact> binaryArtifacts = setupBinaryArtifacts();
+
+		Mockito.when(collectorItemRepository.findOne(Mockito.eq(COLLECTOR_ITEM_PIPELINE_ID))).thenReturn(pipelineCI);
+		Mockito.when(dashboardRepository.findOne(Mockito.eq(DASHBOARD_ID))).thenReturn(dashboard);
+		// H has not been collected yet when the pipeline is first built
+		Mockito.when(commitService.search(Mockito.any(CommitRequest.class))).thenReturn(
+				new DataResponse<>(commits.subList(0, 8), 0), new DataResponse<>(commits.subList(8, 9), 0));
+		Mockito.when(buildService.search(Mockito.any(BuildSearchRequest.class))).thenReturn(
+				new DataResponse<>(builds.subList(4, builds.size()), 0), new DataResponse<>(builds.subList(0, 4), 0));
+		Mockito.when(deployService.getDeployStatus(Mockito.eq(COMPONENT_ID))).thenReturn(new DataResponse<>(environments, 0));
+		setupBinaryArtifactSearch(binaryArtifacts);
+
+		pipeline = service.buildPipeline(pipeline, 0L, 200000000L);
+		pipeline = service.updatePipeline(pipeline, 0L, 200000000L);
+
+		ArgumentCaptor<CommitRequest> commitRequests = ArgumentCaptor.forClass(CommitRequest.class);
+		Mockito.verify(commitService, Mockito.times(2)).search(commitRequests.capture());
+		assertNull(commitRequests.getAllValues().get(0).getCollectedAfter());
+		assertNotNull(commitRequests.getAllValues().get(1).getCollectedAfter());
+
+		ArgumentCaptor<BuildSearchRequest> buildRequests = ArgumentCaptor.forClass(BuildSearchRequest.class);
+		Mockito.verify(buildService, Mockito.times(2)).search(buildRequests.capture());
+		assertNull(buildRequests.getAllValues().get(0).getCollectedAfter());
+		assertNotNull(buildRequests.getAllValues().get(1).getCollectedAfter());
+
+		assertEquals(9, pipeline.getCommitsByEnvironmentName(PipelineStage.COMMIT.getName()).size());
+		assertTrue(pipeline.getFailedBuilds().isEmpty());
+
+		Map<String, PipelineCommit> pcs = pipeline.getCommitsByEnvironmentName(PipelineStage.BUILD.getName());
+		assertEquals(8, pcs.size());
+		assertEquals(100007000, pcs.get("C1").getTimestamp());
+		assertEquals(100009000, pcs.get("G").getTimestamp());
+
+		assertEquals(7, pipeline.getCommitsByEnvironmentName(ENV_NAME1).size());
+		assertEquals(4, pipeline.getCommitsByEnvironmentName(ENV_NAME2).size());
+		assertEquals(1, pipeline.getCommitsByEnvironmentName(ENV_NAME3).size());
+	}
+
+	@Test
+	public void testUpdatePipelineRecomputesOnlyRedeployedEnvironments() {
+		Pipeline pipeline = createEmptyPipeline();
+		CollectorItem pipelineCI = setupPipelineCollectorItem();
+		CollectorItem scmCI = setupScmCollectorItem();
+		Component component = setupComponent(scmCI);
+		Dashboard dashboard = setupDashboard(component);
+
+		List<Commit> commits = setupCommits();
+		List<Build> builds = setupBuilds();
+		List<BinaryArtifact> binaryArtifacts = setupBinaryArtifacts();
+
+		// environment 1 is deployed more than the lookback after the others
+		long redeployDate = 100032000 + 2 * 60 * 60 * 1000;
+		List<Environment> environments = Arrays.asList(
+				createEnvironment(ENV_NAME3, ENV_URL3, "helloworld", "1.0.0", 100030000),
+				createEnvironment(ENV_NAME2, ENV_URL2, "helloworld", "1.0.1", 100031000),
+				createEnvironment(ENV_NAME1, ENV_URL1, "helloworld", "1.0.2", redeployDate));
+		// environment 3 is gone when the pipeline is updated
+		List<Environment> updatedEnvironments = environments.subList(1, 3);
+
+		Mockito.when(collectorItemRepository.findOne(Mockito.eq(COLLECTOR_ITEM_PIPELINE_ID))).thenReturn(pipelineCI);
+		Mockito.when(dashboardRepository.findOne(Mockito.eq(DASHBOARD_ID))).thenReturn(dashboard);
+		Mockito.when(commitService.search(Mockito.any(CommitRequest.class))).thenReturn(
+				new DataResponse<>(commits, 0), new DataResponse<>(Collections.emptyList(), 0));
+		Mockito.when(buildService.search(Mockito.any(BuildSearchRequest.class))).thenReturn(
+				new DataResponse<>(builds, 0), new DataResponse<>(Collections.emptyList(), 0));
+		Mockito.when(deployService.getDeployStatus(Mockito.eq(COMPONENT_ID))).thenReturn(
+				new DataResponse<>(environments, 0), new DataResponse<>(updatedEnvironments, 0));
+		setupBinaryArtifactSearch(binaryArtifacts);
+
+		pipeline = service.buildPipeline(pipeline, 0L, 200000000L);
+		pipeline = service.updatePipeline(pipeline, 0L, 200000000L);
+
+		// one artifact per environment for the full computation, then only the one of environment 1
+		ArgumentCaptor<BinaryArtifactSearchRequest> artifactRequests = ArgumentCaptor.forClass(BinaryArtifactSearchRequest.class);
+		Mockito.verify(binaryArtifactService, Mockito.times(4)).search(artifactRequests.capture());
+		assertEquals("1.0.2", artifactRequests.getAllValues().get(3).getArtifactVersion());
+
+		assertEquals(7, pipeline.getCommitsByEnvironmentName(ENV_NAME1).size());
+		assertEquals(4, pipeline.getCommitsByEnvironmentName(ENV_NAME2).size());
+		assertNull(pipeline.getEnvironmentStageMap().get(ENV_NAME3));
+	}
+
+	@Test
+	public void testSearchFiltersProdCommitsByBeginDate() {
+		CollectorItem pipelineCI = setupPipelineCollectorItem();
+		CollectorItem scmCI = setupScmCollectorItem();
+		Component component = setupComponent(scmCI);
+		Dashboard dashboard = setupDashboard(component);
+		dashboard.getWidgets().get(0).getOptions().put("prod", "int");
+
+		List<Commit> commits = setupCommits();
+		List<Build> builds = setupBuilds();
+		List<Environment> environments = setupEnvironments();
+		List<BinaryArtifact> binaryArtifacts = setupBinaryArtifacts();
+
+		Mockito.when(collectorItemRepository.findOne(Mockito.eq(COLLECTOR_ITEM_PIPELINE_ID))).thenReturn(pipelineCI);
+		Mockito.when(dashboardRepository.findOne(Mockito.eq(DASHBOARD_ID))).thenReturn(dashboard);
+		Mockito.when(commitService.search(Mockito.any(CommitRequest.class))).thenReturn(new DataResponse<>(commits, 0));
+		Mockito.when(buildService.search(Mockito.any(BuildSearchRequest.class))).thenReturn(new DataResponse<>(builds, 0));
+		Mockito.when(deployService.getDeployStatus(Mockito.eq(COMPONENT_ID))).thenReturn(new DataResponse<>(environments, 0));
+		setupBinaryArtifactSearch(binaryArtifacts);
+
+		PipelineSearchRequest request = new PipelineSearchRequest();
+		request.setCollectorItemId(Collections.singletonList(COLLECTOR_ITEM_PIPELINE_ID));
+
+		// environment 3 was deployed at 100030000
+		request.setBeginDate(100030000L);
+		PipelineResponse response = service.search(request).iterator().next();
+		assertEquals(1, response.getStageCommits(PipelineStage.valueOf("int")).size());
+		assertEquals(7, response.getStageCommits(PipelineStage.valueOf("dev")).size());
+
+		request.setBeginDate(100030001L);
+		response = service.search(request).iterator().next();
+		assertTrue(response.getStageCommits(PipelineStage.valueOf("int")).isEmpty());
+		assertEquals(7, response.getStageCommits(PipelineStage.valueOf("dev")).size());
+	}
+
 	@Test
 	public void testProcessDeployments() {
 		Pipeline pipeline = createEmptyPipeline();
@@ -583,6 +717,23 @@ public class DynamicPipelineServiceImplTest {
 		return rt;
 	}
 
+	private void setupBinaryArtifactSearch(List<BinaryArtifact> binaryArtifacts) {
+		Mockito.when(binaryArtifactService.search(Mockito.any(BinaryArtifactSearchRequest.class))).then(new Answer<DataResponse<Iterable<BinaryArtifact>>>() {
+			@Override
+			public DataResponse<Iterable<BinaryArtifact>> answer(InvocationOnMock invocation) throws Throwable {
+				BinaryArtifactSearchRequest request = (BinaryArtifactSearchRequest)invocation.getArguments()[0];
+
+				for (BinaryArtifact ba : binaryArtifacts) {
+					if (ba.getArtifactName().equals(request.getArtifactName()) && ba.getArtifactVersion().equals(request.getArtifactVersion())) {
+						return new DataResponse<>(Collections.singleton(ba), 0);
+					}
+				}
+
+				return new DataResponse<>(Collections.emptyList(), 0);
+			}
+		});
+	}
+
 	private List<Environment> setupEnvironments() {
 		List<Environment> rt = new ArrayList<>();
 
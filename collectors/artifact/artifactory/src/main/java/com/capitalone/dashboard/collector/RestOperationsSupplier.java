@@ -1,21 +1,25 @@
 package com.capitalone.dashboard.collector;
 
+import com.capitalone.dashboard.config.HttpClientFactory;
 import com.capitalone.dashboard.util.Supplier;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestOperations;
-import org.springframework.web.client.RestTemplate;
 
 /**
- * Supplier that returns a new {@link RestTemplate}.
+ * Supplier that returns a new {@link RestOperations}.
  */
 @Component
 public class RestOperationsSupplier implements Supplier<RestOperations> {
+    private final HttpClientFactory httpClientFactory;
+
+    @Autowired
+    public RestOperationsSupplier(HttpClientFactory httpClientFactory) {
+        this.httpClientFactory = httpClientFactory;
+    }
+
     @Override
     public RestOperations get() {
-        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
-        requestFactory.setConnectTimeout(120000);
-        requestFactory.setReadTimeout(120000);
-        return new RestTemplate(requestFactory);
+        return httpClientFactory.createRestOperations(120000, 120000);
     }
 }
@@ -4,13 +4,10 @@ package com.capitalone.dashboard.collector;
 import com.capitalone.dashboard.model.BambooCollector;
 import com.capitalone.dashboard.model.BambooJob;
 import com.capitalone.dashboard.model.Build;
-import com.capitalone.dashboard.model.CollectorItem;
-import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.repository.BambooCollectorRepository;
 import com.capitalone.dashboard.repository.BambooJobRepository;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.BuildRepository;
-import com.capitalone.dashboard.repository.ComponentRepository;
 import com.google.common.collect.Lists;
 import org.apache.commons.lang3.StringUtils;
 import org.bson.types.ObjectId;
@@ -23,6 +20,7 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.web.client.RestClientException;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +33,8 @@ import java.util.Set;
 public class BambooCollectorTask extends CollectorTask<BambooCollector> {
     @SuppressWarnings("PMD.UnusedPrivateField")
     private static final Logger LOG = LoggerFactory.getLogger(BambooCollectorTask.class);
+    // builds are saved in chunks of this size, so a failure later on does not lose the builds fetched so far
+    private static final int BUILD_SAVE_CHUNK_SIZE = 100;
 
 
     private final BambooCollectorRepository bambooCollectorRepository;
@@ -42,7 +42,7 @@ public class BambooCollectorTask extends CollectorTask<BambooCollector> {
     private final BuildRepository buildRepository;
     private final BambooClient bambooClient;
     private final BambooSettings bambooSettings;
-    private final ComponentRepository dbComponentRepository;
+    private final EnabledCollectorItemResolver enabledCollectorItemResolver;
 
     @Autowired
     public BambooCollectorTask(TaskScheduler taskScheduler,
@@ -50,14 +50,14 @@ public class BambooCollectorTask extends CollectorTask<BambooCollector> {
                                BambooJobRepository bambooJobRepository,
                                BuildRepository buildRepository, BambooClient bambooClient,
                                BambooSettings bambooSettings,
-                               ComponentRepository dbComponentRepository) {
+                               EnabledCollectorItemResolver enabledCollectorItemResolver) {
         super(taskScheduler, "Bamboo");
         this.bambooCollectorRepository = bambooCollectorRepository;
         this.bambooJobRepository = bambooJobRepository;
         this.buildRepository = buildRepository;
         this.bambooClient = bambooClient;
         this.bambooSettings = bambooSettings;
-        this.dbComponentRepository = dbComponentRepository;
+        this.enabledCollectorItemResolver = enabledCollectorItemResolver;
     }
 
     @Override
@@ -81,11 +81,12 @@ public class BambooCollectorTask extends CollectorTask<BambooCollector> {
         Set<ObjectId> udId = new HashSet<>();
         udId.add(collector.getId());
         List<BambooJob> existingJobs = bambooJobRepository.findByCollectorIdIn(udId);
-        List<BambooJob> activeJobs = new ArrayList<>();
+        CollectorItemIndex<BambooJob> existingJobIndex = new CollectorItemIndex<>(existingJobs, BambooJob.IDENTITY_OPTIONS);
+        CollectorItemIndex<BambooJob> activeJobs = new CollectorItemIndex<>(BambooJob.IDENTITY_OPTIONS);
         List<String> activeServers = new ArrayList<>();
         activeServers.addAll(collector.getBuildServers());
 
-        clean(collector, existingJobs);
+        clean(collector);
 
         for (String instanceUrl : collector.getBuildServers()) {
             logBanner(instanceUrl);
@@ -94,7 +95,7 @@ public class BambooCollectorTask extends CollectorTask<BambooCollector> {
                         .getInstanceJobs(instanceUrl);
                 log("Fetched jobs", start);
                 activeJobs.addAll(buildsByJob.keySet());
-                addNewJobs(buildsByJob.keySet(), existingJobs, collector);
+                addNewJobs(buildsByJob.keySet(), existingJobIndex, collector);
                 addNewBuilds(enabledJobs(collector, instanceUrl), buildsByJob);
                 log("Finished", start);
             } catch (RestClientException rce) {
@@ -111,37 +112,9 @@ public class BambooCollectorTask extends CollectorTask<BambooCollector> {
      * Clean up unused bamboo/jenkins collector items
      *
      * @param collector    the {@link BambooCollector}
-     * @param existingJobs
      */
-
-    private void clean(BambooCollector collector, List<BambooJob> existingJobs) {
-        Set<ObjectId> uniqueIDs = new HashSet<>();
-        for (com.capitalone.dashboard.model.Component comp : dbComponentRepository
-                .findAll()) {
-
-            if (CollectionUtils.isEmpty(comp.getCollectorItems())) continue;
-
-            List<CollectorItem> itemList = comp.getCollectorItems().get(CollectorType.Build);
-
-            if (CollectionUtils.isEmpty(itemList)) continue;
-
-            for (CollectorItem ci : itemList) {
-                if (collector.getId().equals(ci.getCollectorId())) {
-                    uniqueIDs.add(ci.getId());
-                }
-            }
-        }
-        List<BambooJob> stateChangeJobList = new ArrayList<>();
-        for (BambooJob job : existingJobs) {
-            if ((job.isEnabled() && !uniqueIDs.contains(job.getId())) ||  // if it was enabled but not on a dashboard
-                    (!job.isEnabled() && uniqueIDs.contains(job.getId()))) { // OR it was disabled and now on a dashboard
-                job.setEnabled(uniqueIDs.contains(job.getId()));
-                stateChangeJobList.add(job);
-            }
-        }
-        if (!CollectionUtils.isEmpty(stateChangeJobList)) {
-            bambooJobRepository.save(stateChangeJobList);
-        }
+    private void clean(BambooCollector collector) {
+        enabledCollectorItemResolver.updateEnabled(collector);
     }
 
     /**
@@ -152,7 +125,7 @@ public class BambooCollectorTask extends CollectorTask<BambooCollector> {
      * @param activeServers
      * @param collector
      */
-    private void deleteUnwantedJobs(List<BambooJob> activeJobs, List<BambooJob> existingJobs, List<String> activeServers, BambooCollector collector) {
+    private void deleteUnwantedJobs(CollectorItemIndex<BambooJob> activeJobs, List<BambooJob> existingJobs, List<String> activeServers, BambooCollector collector) {
 
         List<BambooJob> deleteJobList = new ArrayList<>();
         for (BambooJob job : existingJobs) {
@@ -181,6 +154,9 @@ public class BambooCollectorTask extends CollectorTask<BambooCollector> {
 
     /**
      * Iterates over the enabled build jobs and adds new builds to the database.
+     * Builds already stored are looked up for all jobs in a single query and filtered out in memory.
+     * New builds are saved in chunks of {@link #BUILD_SAVE_CHUNK_SIZE}; a build whose details fail to
+     * load is skipped without losing the other builds of the job.
      *
      * @param enabledJobs list of enabled {@link BambooJob}s
      * @param buildsByJob maps a {@link BambooJob} to a set of {@link Build}s.
@@ -189,6 +165,7 @@ public class BambooCollectorTask extends CollectorTask<BambooCollector> {
                               Map<BambooJob, Set<Build>> buildsByJob) {
         long start = System.currentTimeMillis();
         int count = 0;
+        Map<ObjectId, Set<String>> existingBuildNumbers = existingBuildNumbers(enabledJobs);
 
         for (BambooJob job : enabledJobs) {
             if (job.isPushed()) {
@@ -198,21 +175,55 @@ public class BambooCollectorTask extends CollectorTask<BambooCollector> {
             // process new builds in the order of their build numbers - this has implication to handling of commits in BuildEventListener
             ArrayList<Build> builds = Lists.newArrayList(nullSafe(buildsByJob.get(job)));
             builds.sort((Build b1, Build b2) -> Integer.valueOf(b1.getNumber()) - Integer.valueOf(b2.getNumber()));
+            Set<String> numbers = existingBuildNumbers.computeIfAbsent(job.getId(), id -> new HashSet<>());
+            List<Build> newBuilds = new ArrayList<>();
             for (Build buildSummary : builds) {
-                if (isNewBuild(job, buildSummary)) {
-                    Build build = bambooClient.getBuildDetails(buildSummary
-                            .getBuildUrl(), job.getInstanceUrl());
+                if (numbers.add(buildSummary.getNumber())) {
+                    Build build = null;
+                    try {
+                        build = bambooClient.getBuildDetails(buildSummary
+                                .getBuildUrl(), job.getInstanceUrl());
+                    } catch (RuntimeException re) {
+                        // skipped, the build is retried on the next run
+                        LOG.error("Error getting build details. URL=" + buildSummary.getBuildUrl(), re);
+                    }
                     if (build != null) {
                         build.setCollectorItemId(job.getId());
-                        buildRepository.save(build);
-                        count++;
+                        newBuilds.add(build);
+                    }
+                    if (newBuilds.size() >= BUILD_SAVE_CHUNK_SIZE) {
+                        buildRepository.save(newBuilds);
+                        count += newBuilds.size();
+                        newBuilds = new ArrayList<>();
                     }
                 }
             }
+            if (!newBuilds.isEmpty()) {
+                buildRepository.save(newBuilds);
+                count += newBuilds.size();
+            }
         }
         log("New builds", start, count);
     }
 
+    /**
+     * Finds the numbers of the builds already stored for the given jobs, keyed by job id.
+     */
+    private Map<ObjectId, Set<String>> existingBuildNumbers(List<BambooJob> jobs) {
+        Map<ObjectId, Set<String>> numbers = new HashMap<>();
+        if (CollectionUtils.isEmpty(jobs)) {
+            return numbers;
+        }
+        List<ObjectId> ids = new ArrayList<>();
+        for (BambooJob job : jobs) {
+            ids.add(job.getId());
+        }
+        for (Build build : buildRepository.findBuildNumbersByCollectorItemIdIn(ids)) {
+            numbers.computeIfAbsent(build.getCollectorItemId(), id -> new HashSet<>()).add(build.getNumber());
+        }
+        return numbers;
+    }
+
     private Set<Build> nullSafe(Set<Build> builds) {
         return builds == null ? new HashSet<Build>() : builds;
     }
@@ -221,19 +232,16 @@ public class BambooCollectorTask extends CollectorTask<BambooCollector> {
      * Adds new {@link BambooJob}s to the database as disabled jobs.
      *
      * @param jobs         list of {@link BambooJob}s
-     * @param existingJobs
+     * @param existingJobs the stored jobs
      * @param collector    the {@link BambooCollector}
      */
-    private void addNewJobs(Set<BambooJob> jobs, List<BambooJob> existingJobs, BambooCollector collector) {
+    private void addNewJobs(Set<BambooJob> jobs, CollectorItemIndex<BambooJob> existingJobs, BambooCollector collector) {
         long start = System.currentTimeMillis();
         int count = 0;
 
         List<BambooJob> newJobs = new ArrayList<>();
         for (BambooJob job : jobs) {
-            BambooJob existing = null;
-            if (!CollectionUtils.isEmpty(existingJobs) && (existingJobs.contains(job))) {
-                existing = existingJobs.get(existingJobs.indexOf(job));
-            }
+            BambooJob existing = existingJobs.get(job);
 
             String niceName = getNiceName(job, collector);
             if (existing == null) {
@@ -281,9 +289,4 @@ public class BambooCollectorTask extends CollectorTask<BambooCollector> {
         return bambooJobRepository.findJob(collector.getId(),
                 job.getInstanceUrl(), job.getJobName());
     }
-
-    private boolean isNewBuild(BambooJob job, Build build) {
-        return buildRepository.findByCollectorItemIdAndNumber(job.getId(),
-                build.getNumber()) == null;
-    }
 }
@@ -3,11 +3,9 @@ package com.capitalone.dashboard.collector;
 import com.capitalone.dashboard.model.BambooCollector;
 import com.capitalone.dashboard.model.BambooJob;
 import com.capitalone.dashboard.model.Build;
-import com.capitalone.dashboard.model.Component;
 import com.capitalone.dashboard.repository.BambooCollectorRepository;
 import com.capitalone.dashboard.repository.BambooJobRepository;
 import com.capitalone.dashboard.repository.BuildRepository;
-import com.capitalone.dashboard.repository.ComponentRepository;
 import com.google.common.collect.Sets;
 import org.bson.types.ObjectId;
 import org.junit.Test;
@@ -49,7 +47,7 @@ public class BambooCollectorTaskTests {
     @Mock
     private BambooSettings bambooSettings;
     @Mock
-    private ComponentRepository dbComponentRepository;
+    private EnabledCollectorItemResolver enabledCollectorItemResolver;
 
     @InjectMocks
     private BambooCollectorTask task;
@@ -59,7 +57,6 @@ public class BambooCollectorTaskTests {
 
     @Test
     public void collect_noBuildServers_nothingAdded() {
-        when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(new BambooCollector());
         verifyZeroInteractions(bambooClient, buildRepository);
     }
@@ -67,7 +64,6 @@ public class BambooCollectorTaskTests {
     @Test
     public void collect_noJobsOnServer_nothingAdded() {
         when(bambooClient.getInstanceJobs(SERVER1)).thenReturn(new HashMap<BambooJob, Set<Build>>());
-        when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collectorWithOneServer());
 
         verify(bambooClient).getInstanceJobs(SERVER1);
@@ -77,7 +73,6 @@ public class BambooCollectorTaskTests {
     @Test
     public void collect_twoJobs_jobsAdded() {
         when(bambooClient.getInstanceJobs(SERVER1)).thenReturn(twoJobsWithTwoBuilds(SERVER1, NICENAME1));
-        when(dbComponentRepository.findAll()).thenReturn(components());
         List<BambooJob> bambooJobs = new ArrayList<>();
         BambooJob bambooJob = bambooJob("1", SERVER1, "JOB1_URL", NICENAME1);
         bambooJobs.add(bambooJob);
@@ -89,7 +84,6 @@ public class BambooCollectorTaskTests {
     @Test
     public void collect_twoJobs_jobsAdded_random_order() {
         when(bambooClient.getInstanceJobs(SERVER1)).thenReturn(twoJobsWithTwoBuildsRandom(SERVER1, NICENAME1));
-        when(dbComponentRepository.findAll()).thenReturn(components());
         List<BambooJob> bambooJobs = new ArrayList<>();
         BambooJob bambooJob = bambooJob("2", SERVER1, "JOB2_URL", NICENAME1);
         bambooJobs.add(bambooJob);
@@ -105,8 +99,6 @@ public class BambooCollectorTaskTests {
         when(bambooClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job));
         when(bambooJobRepository.findJob(collector.getId(), SERVER1, job.getJobName()))
                 .thenReturn(job);
-        when(dbComponentRepository.findAll()).thenReturn(components());
-
         task.collect(collector);
 
         verify(bambooJobRepository, never()).save(job);
@@ -128,7 +120,6 @@ public class BambooCollectorTaskTests {
         udId.add(collector.getId());
         when(bambooClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job1));
         when(bambooJobRepository.findByCollectorIdIn(udId)).thenReturn(jobs);
-        when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collector);
         List<BambooJob> delete = new ArrayList<>();
         delete.add(job2);
@@ -147,7 +138,6 @@ public class BambooCollectorTaskTests {
         udId.add(collector.getId());
         when(bambooClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job1));
         when(bambooJobRepository.findByCollectorIdIn(udId)).thenReturn(jobs);
-        when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collector);
         verify(bambooJobRepository, never()).delete(anyListOf(BambooJob.class));
     }
@@ -159,7 +149,6 @@ public class BambooCollectorTaskTests {
         Build build = build("1", "JOB1_1_URL");
 
         when(bambooClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job, build));
-        when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collector);
 
         verify(buildRepository, never()).save(build);
@@ -174,11 +163,13 @@ public class BambooCollectorTaskTests {
         when(bambooClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job, build));
         when(bambooJobRepository.findEnabledJobs(collector.getId(), SERVER1))
                 .thenReturn(Arrays.asList(job));
-        when(buildRepository.findByCollectorItemIdAndNumber(job.getId(), build.getNumber())).thenReturn(build);
-        when(dbComponentRepository.findAll()).thenReturn(components());
+        Build existing = build("1", null);
+        existing.setCollectorItemId(job.getId());
+        when(buildRepository.findBuildNumbersByCollectorItemIdIn(Arrays.asList(job.getId()))).thenReturn(Arrays.asList(existing));
         task.collect(collector);
 
-        verify(buildRepository, never()).save(build);
+        verify(bambooClient, never()).getBuildDetails(build.getBuildUrl(), job.getInstanceUrl());
+        verify(buildRepository, never()).save(anyListOf(Build.class));
     }
 
     @Test
@@ -190,12 +181,31 @@ public class BambooCollectorTaskTests {
         when(bambooClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job, build));
         when(bambooJobRepository.findEnabledJobs(collector.getId(), SERVER1))
                 .thenReturn(Arrays.asList(job));
-        when(buildRepository.findByCollectorItemIdAndNumber(job.getId(), build.getNumber())).thenReturn(null);
         when(bambooClient.getBuildDetails(build.getBuildUrl(), job.getInstanceUrl())).thenReturn(build);
-        when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collector);
 
-        verify(buildRepository, times(1)).save(build);
+        verify(buildRepository, times(1)).findBuildNumbersByCollectorItemIdIn(Arrays.asList(job.getId()));
+        verify(buildRepository, times(1)).save(Arrays.asList(build));
+    }
+
+    @Test
+    public void collect_jobEnabled_failingBuildDetails_otherBuildsAdded() {
+        BambooCollector collector = collectorWithOneServer();
+        BambooJob job = bambooJob("1", SERVER1, "JOB1_URL", NICENAME1);
+        Build build1 = build("1", "JOB1_1_URL");
+        Build build2 = build("2", "JOB1_2_URL");
+        Build build3 = build("3", "JOB1_3_URL");
+
+        when(bambooClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job, build1, build2, build3));
+        when(bambooJobRepository.findEnabledJobs(collector.getId(), SERVER1))
+                .thenReturn(Arrays.asList(job));
+        when(bambooClient.getBuildDetails(build1.getBuildUrl(), job.getInstanceUrl())).thenReturn(build1);
+        when(bambooClient.getBuildDetails(build2.getBuildUrl(), job.getInstanceUrl()))
+                .thenThrow(new IllegalStateException("unreadable build"));
+        when(bambooClient.getBuildDetails(build3.getBuildUrl(), job.getInstanceUrl())).thenReturn(build3);
+        task.collect(collector);
+
+        verify(buildRepository, times(1)).save(Arrays.asList(build1, build3));
     }
 
     private BambooCollector collectorWithOneServer() {
@@ -238,13 +248,4 @@ public class BambooCollectorTaskTests {
         return build;
     }
 
-    private ArrayList<com.capitalone.dashboard.model.Component> components() {
-        ArrayList<com.capitalone.dashboard.model.Component> cArray = new ArrayList<com.capitalone.dashboard.model.Component>();
-        com.capitalone.dashboard.model.Component c = new Component();
-        c.setId(new ObjectId());
-        c.setName("COMPONENT1");
-        c.setOwner("JOHN");
-        cArray.add(c);
-        return cArray;
-    }
 }
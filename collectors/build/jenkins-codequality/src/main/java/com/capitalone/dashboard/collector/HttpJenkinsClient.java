@@ -1,6 +1,8 @@
 package com.capitalone.dashboard.collector;
 
 import com.capitalone.dashboard.jenkins.*;
+import com.capitalone.dashboard.model.quality.JunitXmlReport;
+import com.capitalone.dashboard.model.quality.JunitXmlStreamReader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -9,6 +11,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
@@ -23,6 +27,7 @@ public class HttpJenkinsClient implements JenkinsClient {
 
     private RestTemplate restTemplate;
     private JenkinsSettings settings;
+    private final JunitXmlStreamReader junitXmlStreamReader = new JunitXmlStreamReader();
     private static final String JOBS_SEP=",";
     private static final String JOBS_PARAM="jobs[name,url,lastSuccessfulBuild[timestamp,artifacts[*]]";
     private static final String JOBS_CLOSE="]";
@@ -74,8 +79,13 @@ public class HttpJenkinsClient implements JenkinsClient {
         allMatchingArtifacts.forEach(artifact -> {
             ResponseEntity<T> response = null;
             try {
-                response = restTemplate.exchange(new URI(String.format(JENKINS_ARTIFACT_URL, job.getUrl(), artifact.getRelativePath())), HttpMethod.GET, createSecureRequestEntity(), type);
-                xmlReports.add(response.getBody());
+                URI uri = new URI(String.format(JENKINS_ARTIFACT_URL, job.getUrl(), artifact.getRelativePath()));
+                if (JunitXmlReport.class.equals(type)) {
+                    xmlReports.add(type.cast(readJunitXmlReport(uri)));
+                } else {
+                    response = restTemplate.exchange(uri, HttpMethod.GET, createSecureRequestEntity(), type);
+                    xmlReports.add(response.getBody());
+                }
             } catch (URISyntaxException e) {
                 // silently fail
             }
@@ -85,6 +95,27 @@ public class HttpJenkinsClient implements JenkinsClient {
 
     }
 
+    /**
+     * JUnit reports of large suites run to hundreds of megabytes, so they are streamed into their
+     * totals instead of being unmarshalled whole.
+     */
+    private JunitXmlReport readJunitXmlReport(URI uri) {
+        HttpEntity<?> entity = createSecureRequestEntity();
+        return restTemplate.execute(uri, HttpMethod.GET,
+                request -> {
+                    if (entity != null) {
+                        request.getHeaders().putAll(entity.getHeaders());
+                    }
+                },
+                response -> {
+                    try {
+                        return junitXmlStreamReader.read(response.getBody());
+                    } catch (XMLStreamException e) {
+                        throw new IOException("Unable to read JUnit report " + uri, e);
+                    }
+                });
+    }
+
     public HttpEntity<?> createSecureRequestEntity() {
         if (settings.getApiKey() != null && settings.getUsername() != null) {
             HttpHeaders securityHeader = new HttpHeaders();
@@ -9,8 +9,12 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayInputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
@@ -27,6 +31,11 @@ import static org.mockito.Mockito.*;
 
 public class HttpJenkinsClientTest {
 
+    private static final String JUNIT_REPORT = "<testsuite name=\"someSuite\" tests=\"2\" failures=\"1\" errors=\"0\" time=\"0.5\">"
+            + "<testcase name=\"passes\" classname=\"SomeTest\" time=\"0.2\"/>"
+            + "<testcase name=\"fails\" classname=\"SomeTest\" time=\"0.3\"><failure type=\"AssertionError\">expected</failure></testcase>"
+            + "</testsuite>";
+
     private RestTemplate mockRestTemplate;
 
     private HttpJenkinsClient testee;
@@ -42,8 +51,12 @@ public class HttpJenkinsClientTest {
     @Test
     public void artifactsReturnedInJunitFormatOnlyForMatchingArtifacts() throws Exception {
 
-        when(mockRestTemplate.exchange(argThat(is(equalTo(new URI("http://myBuildServer/myJob/lastSuccessfulBuild/artifact/mysubmodule/TEST-someSuite-test.xml")))), eq(HttpMethod.GET), isNull(HttpEntity.class), eq(JunitXmlReport.class)))
-                .thenReturn(ResponseEntity.ok().body(new JunitXmlReport()));
+        when(mockRestTemplate.execute(argThat(is(equalTo(new URI("http://myBuildServer/myJob/lastSuccessfulBuild/artifact/mysubmodule/TEST-someSuite-test.xml")))), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> {
+                    ClientHttpResponse response = mock(ClientHttpResponse.class);
+                    when(response.getBody()).thenReturn(new ByteArrayInputStream(JUNIT_REPORT.getBytes(StandardCharsets.UTF_8)));
+                    return ((ResponseExtractor<?>) invocation.getArguments()[3]).extractData(response);
+                });
 
         JenkinsJob job = JenkinsJob.newBuilder()
                                    .jobName("myJob")
@@ -62,8 +75,11 @@ public class HttpJenkinsClientTest {
 
         List<JunitXmlReport> xmlReports = testee.getLatestArtifacts(JunitXmlReport.class, job, Pattern.compile("TEST-.*-test\\.xml"));
 
-        verify(mockRestTemplate).exchange(argThat(is(equalTo(new URI("http://myBuildServer/myJob/lastSuccessfulBuild/artifact/mysubmodule/TEST-someSuite-test.xml")))), eq(HttpMethod.GET), isNull(HttpEntity.class), eq(JunitXmlReport.class));
+        verify(mockRestTemplate).execute(argThat(is(equalTo(new URI("http://myBuildServer/myJob/lastSuccessfulBuild/artifact/mysubmodule/TEST-someSuite-test.xml")))), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class));
         assertThat(xmlReports).size().isEqualTo(1);
+        assertThat(xmlReports.get(0).getTests()).isEqualTo(2);
+        assertThat(xmlReports.get(0).getFailures()).isEqualTo(1);
+        assertThat(xmlReports.get(0).getTestcase()).isEmpty();
     }
 
     @Test
@@ -11,6 +11,7 @@ import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.JenkinsCucumberTestCollectorRepository;
 import com.capitalone.dashboard.repository.JenkinsCucumberTestJobRepository;
 import com.capitalone.dashboard.repository.TestResultRepository;
+import com.capitalone.dashboard.repository.TestResultRollupRepository;
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.TaskScheduler;
@@ -31,6 +32,7 @@ public class JenkinsCucumberTestCollectorTask extends
     private final JenkinsCucumberTestCollectorRepository jenkinsCucumberTestCollectorRepository;
     private final JenkinsCucumberTestJobRepository jenkinsCucumberTestJobRepository;
     private final TestResultRepository testResultRepository;
+    private final TestResultRollupRepository testResultRollupRepository;
     private final JenkinsClient jenkinsClient;
     private final JenkinsSettings jenkinsCucumberTestSettings;
     private final ComponentRepository dbComponentRepository;
@@ -41,6 +43,7 @@ public class JenkinsCucumberTestCollectorTask extends
             JenkinsCucumberTestCollectorRepository jenkinsCucumberTestCollectorRepository,
             JenkinsCucumberTestJobRepository jenkinsCucumberTestJobRepository,
             TestResultRepository testResultRepository,
+            TestResultRollupRepository testResultRollupRepository,
             JenkinsClient jenkinsCucumberTestClient,
             JenkinsSettings jenkinsCucumberTestSettings,
             ComponentRepository dbComponentRepository) {
@@ -48,6 +51,7 @@ public class JenkinsCucumberTestCollectorTask extends
         this.jenkinsCucumberTestCollectorRepository = jenkinsCucumberTestCollectorRepository;
         this.jenkinsCucumberTestJobRepository = jenkinsCucumberTestJobRepository;
         this.testResultRepository = testResultRepository;
+        this.testResultRollupRepository = testResultRollupRepository;
         this.jenkinsClient = jenkinsCucumberTestClient;
         this.jenkinsCucumberTestSettings = jenkinsCucumberTestSettings;
         this.dbComponentRepository = dbComponentRepository;
@@ -199,7 +203,7 @@ public class JenkinsCucumberTestCollectorTask extends
                 if (result != null) {
                     result.setCollectorItemId(job.getId());
                     result.setTimestamp(System.currentTimeMillis());
-                    testResultRepository.save(result);
+                    testResultRollupRepository.rollUp(testResultRepository.save(result));
                     count++;
                 }
             }
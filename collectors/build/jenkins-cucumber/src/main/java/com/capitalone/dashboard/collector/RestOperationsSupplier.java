@@ -1,17 +1,25 @@
 package com.capitalone.dashboard.collector;
 
+import com.capitalone.dashboard.config.HttpClientFactory;
 import com.capitalone.dashboard.util.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestOperations;
-import org.springframework.web.client.RestTemplate;
 
 /**
  * Supplier that returns an instance of RestOperations
  */
 @Component
 public class RestOperationsSupplier implements Supplier<RestOperations> {
+    private final HttpClientFactory httpClientFactory;
+
+    @Autowired
+    public RestOperationsSupplier(HttpClientFactory httpClientFactory) {
+        this.httpClientFactory = httpClientFactory;
+    }
+
     @Override
     public RestOperations get() {
-        return new RestTemplate();
+        return httpClientFactory.createRestOperations();
     }
 }
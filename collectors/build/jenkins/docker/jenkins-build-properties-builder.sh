@@ -132,6 +132,15 @@ jenkins.saveLog=${JENKINS_SAVE_LOG:-true}
 # this hack to fix the addresses
 jenkins.dockerLocalHostIP=${DOCKER_LOCALHOST}
 
+#Total number of concurrent requests across all jenkins servers - defaults to 10
+jenkins.threadPoolSize=${JENKINS_THREAD_POOL_SIZE:-10}
+
+#Number of concurrent requests against a single jenkins server - defaults to 2
+jenkins.threadsPerServer=${JENKINS_THREADS_PER_SERVER:-2}
+
+#Parse job listings and build details straight from the response stream - defaults to false
+jenkins.streamingParser=${JENKINS_STREAMING_PARSER:-false}
+
 EOF
 
 if [ "$JENKINS_OP_CENTER" != "" ]
@@ -9,6 +9,7 @@ import com.capitalone.dashboard.model.HudsonJob;
 import com.capitalone.dashboard.model.RepoBranch;
 import com.capitalone.dashboard.model.SCM;
 import com.capitalone.dashboard.util.Supplier;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -24,6 +25,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestOperations;
 
@@ -37,6 +40,7 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -58,6 +62,7 @@ public class DefaultHudsonClient implements HudsonClient {
 
     private final RestOperations rest;
     private final HudsonSettings settings;
+    private final HudsonJsonStreamReader streamReader = new HudsonJsonStreamReader();
 
     private static final String API_SUFFIX = "api/json?tree=";
     //private static final String JOB_QUERY = "jobs[name,url,builds[number,url],lastSuccessfulBuild[timestamp,builtOn],lastBuild[timestamp,builtOn]]";
@@ -65,6 +70,11 @@ public class DefaultHudsonClient implements HudsonClient {
 
     private static final String JOBS_URL_SUFFIX = "/api/json?tree=jobs";
 
+    // cheap query used by incremental collection to find the jobs whose last build moved
+    private static final String JOB_WATERMARK_QUERY = "jobs[name,url,lastBuild[number,timestamp]]";
+
+    private static final String JOB_DETAILS_QUERY = "builds[number,url],actions[jobConfigHistory[currentName,date,hasConfig,job,oldName,operation,user,userID]]";
+
     private static final String[] CHANGE_SET_ITEMS_TREE = new String[]{
             "user",
             "author[fullName]",
@@ -104,6 +114,9 @@ public class DefaultHudsonClient implements HudsonClient {
     @Override
     public Map<HudsonJob, Map<jobData, Set<BaseModel>>> getInstanceJobs(String instanceUrl) {
         LOG.debug("Enter getInstanceJobs");
+        if (settings.isStreamingParser()) {
+            return getInstanceJobsStreaming(instanceUrl);
+        }
         //Map<HudsonJob, Set<Build>> result = new LinkedHashMap<>();
         Map<HudsonJob, Map<jobData, Set<BaseModel>>> result = new LinkedHashMap<>();
         
@@ -165,12 +178,97 @@ public class DefaultHudsonClient implements HudsonClient {
         return result;
     }
 
+    @Override
+    public Map<HudsonJob, Map<jobData, Set<BaseModel>>> getInstanceJobs(String instanceUrl, Collection<HudsonJob> knownJobs) {
+        LOG.debug("Enter getInstanceJobs with watermarks");
+        Map<HudsonJob, Map<jobData, Set<BaseModel>>> result = new LinkedHashMap<>();
+
+        Map<HudsonJob, HudsonJob> enabledJobs = new HashMap<>();
+        for (HudsonJob knownJob : knownJobs) {
+            if (knownJob.isEnabled()) {
+                enabledJobs.put(knownJob, knownJob);
+            }
+        }
+
+        try {
+            // a single request is enough here as the watermark tree is small, so no need to count and page the jobs
+            String url = joinURL(instanceUrl, API_SUFFIX + buildJobQueryString(JOB_WATERMARK_QUERY));
+            ResponseEntity<String> responseEntity = makeRestCall(url);
+            if (responseEntity == null || StringUtils.isEmpty(responseEntity.getBody())) {
+                return result;
+            }
+            JSONParser parser = new JSONParser();
+            try {
+                JSONObject object = (JSONObject) parser.parse(responseEntity.getBody());
+                for (Object job : getJsonArray(object, "jobs")) {
+                    JSONObject jsonJob = (JSONObject) job;
+                    recursiveGetJobWatermarks(jsonJob, getString(jsonJob, "name"), getString(jsonJob, "url"),
+                            instanceUrl, enabledJobs, result);
+                }
+            } catch (ParseException e) {
+                LOG.error("Parsing jobs watermarks on instance: " + instanceUrl, e);
+            }
+        } catch (RestClientException rce) {
+            LOG.error("client exception loading jobs watermarks", rce);
+            throw rce;
+        } catch (MalformedURLException mfe) {
+            LOG.error("malformed url for loading jobs watermarks", mfe);
+        } catch (URISyntaxException e1) {
+            LOG.error("wrong syntax url for loading jobs watermarks", e1);
+        }
+        return result;
+    }
+
+    /**
+     * Same as {@link #getInstanceJobs(String)}, but reads the jobs straight from the response stream.
+     */
+    private Map<HudsonJob, Map<jobData, Set<BaseModel>>> getInstanceJobsStreaming(String instanceUrl) {
+        Map<HudsonJob, Map<jobData, Set<BaseModel>>> result = new LinkedHashMap<>();
+
+        int jobsCount = getJobsCount(instanceUrl);
+        LOG.debug("Number of jobs " + jobsCount);
+
+        int pageSize = settings.getPageSize();
+        // Default pageSize to 1000 for backward compatibility of settings when pageSize defaults to 0
+        if (pageSize <= 0) {
+            pageSize = 1000;
+        }
+        for (int i = 0; i < jobsCount; i += pageSize) {
+            try {
+                String url = joinURL(instanceUrl, API_SUFFIX + buildJobQueryString() + URLEncoder.encode("{" + i + "," + (i + pageSize) + "}", "UTF-8"));
+                Integer pageJobs = makeStreamingRestCall(url, response -> streamReader.readJobs(response.getBody(),
+                        (jobName, jsonJob) -> addJob(jsonJob, jobName, getString(jsonJob, "url"), instanceUrl, result)));
+                if (pageJobs == null) {
+                    // this page could not be parsed, move on to the next one
+                    continue;
+                }
+                if (pageJobs == 0) {
+                    break;
+                }
+            } catch (RestClientException rce) {
+                LOG.error("client exception loading jobs details", rce);
+                throw rce;
+            } catch (MalformedURLException mfe) {
+                LOG.error("malformed url for loading jobs details", mfe);
+            } catch (UnsupportedEncodingException uee) {
+                LOG.error("unsupported encoding for loading jobs details", uee);
+            } catch (URISyntaxException e1) {
+                LOG.error("wrong syntax url for loading jobs details", e1);
+            }
+        }
+        return result;
+    }
+
     public String buildJobQueryString () {
-        StringBuilder query = new StringBuilder(JOB_QUERY);
+        return buildJobQueryString(JOB_QUERY);
+    }
+
+    private String buildJobQueryString(String jobQuery) {
+        StringBuilder query = new StringBuilder(jobQuery);
         int depth = settings.getFolderDepth();
         for (int i = 1; i < depth; i++) {
             query.insert((query.length()-i), ",");
-            query.insert((query.length()-i), JOB_QUERY.substring(0,JOB_QUERY.length()-1));
+            query.insert((query.length()-i), jobQuery.substring(0,jobQuery.length()-1));
             query.insert((query.length()-i), "]");
         }
         return query.toString();
@@ -187,6 +285,10 @@ public class DefaultHudsonClient implements HudsonClient {
     	
     	try {
             String url = joinURL(instanceUrl, JOBS_URL_SUFFIX);
+            if (settings.isStreamingParser()) {
+                Integer count = makeStreamingRestCall(url, response -> streamReader.countJobs(response.getBody()));
+                return count == null ? result : count;
+            }
             ResponseEntity<String> responseEntity = makeRestCall(url);
             if (responseEntity == null) {
             	return result;
@@ -219,6 +321,25 @@ public class DefaultHudsonClient implements HudsonClient {
             JSONParser parser, Map<HudsonJob, Map<jobData, Set<BaseModel>>> result) {
         LOG.debug("recursiveGetJobDetails: jobName " + jobName + " jobURL: " + jobURL);
 
+        addJob(jsonJob, jobName, jobURL, instanceUrl, result);
+
+        JSONArray subJobs = getJsonArray(jsonJob, "jobs");
+
+        for (Object subJob : subJobs) {
+            // has sub-jobs (like Pipeline Multibranch project)
+            final String subJobName = getString((JSONObject) subJob, "name");
+            final String subJobURL = getString((JSONObject) subJob, "url");
+
+            JSONObject jsonSubJob = (JSONObject) subJob;
+            recursiveGetJobDetails(jsonSubJob, jobName + "/" + subJobName, subJobURL, instanceUrl, parser, result);
+        }
+    }
+
+    /**
+     * Adds a job along with its builds and configs to the result, unless it has neither.
+     */
+    private void addJob(JSONObject jsonJob, String jobName, String jobURL, String instanceUrl,
+                        Map<HudsonJob, Map<jobData, Set<BaseModel>>> result) {
         Map<jobData, Set<BaseModel>> jobDataMap = new HashMap();
 
         HudsonJob hudsonJob = new HudsonJob();
@@ -226,6 +347,81 @@ public class DefaultHudsonClient implements HudsonClient {
         hudsonJob.setJobName(jobName);
         hudsonJob.setJobUrl(jobURL);
 
+        addJobData(jsonJob, jobURL, jobDataMap);
+
+        if (jobDataMap.containsKey(jobData.BUILD) || jobDataMap.containsKey(jobData.CONFIG)) {
+            // add the builds and configs to the job
+            result.put(hudsonJob, jobDataMap);
+        }
+    }
+
+    private void recursiveGetJobWatermarks(JSONObject jsonJob, String jobName, String jobURL, String instanceUrl,
+                                           Map<HudsonJob, HudsonJob> enabledJobs, Map<HudsonJob, Map<jobData, Set<BaseModel>>> result) {
+        LOG.debug("recursiveGetJobWatermarks: jobName " + jobName + " jobURL: " + jobURL);
+
+        JSONObject lastBuild = (JSONObject) jsonJob.get("lastBuild");
+        if (lastBuild != null) {
+            HudsonJob hudsonJob = new HudsonJob();
+            hudsonJob.setInstanceUrl(instanceUrl);
+            hudsonJob.setJobName(jobName);
+            hudsonJob.setJobUrl(jobURL);
+            hudsonJob.setLastBuildNumber(lastBuild.get("number").toString());
+            Long timestamp = (Long) lastBuild.get("timestamp");
+            hudsonJob.setLastBuildTimestamp(timestamp == null ? 0 : timestamp);
+
+            Map<jobData, Set<BaseModel>> jobDataMap = new HashMap<>();
+            HudsonJob enabledJob = enabledJobs.get(hudsonJob);
+            // builds are only of interest for enabled jobs, and only when a build ran since the last collection
+            if (enabledJob != null && enabledJob.isLastBuildChanged(hudsonJob)) {
+                addJobData(getJobDetails(jobURL, instanceUrl), jobURL, jobDataMap);
+            }
+            result.put(hudsonJob, jobDataMap);
+        }
+
+        for (Object subJob : getJsonArray(jsonJob, "jobs")) {
+            // has sub-jobs (like Pipeline Multibranch project)
+            JSONObject jsonSubJob = (JSONObject) subJob;
+            recursiveGetJobWatermarks(jsonSubJob, jobName + "/" + getString(jsonSubJob, "name"),
+                    getString(jsonSubJob, "url"), instanceUrl, enabledJobs, result);
+        }
+    }
+
+    /**
+     * Fetches the build summaries and config history of a single job.
+     *
+     * @param jobURL the url of the job
+     * @param instanceUrl the URL for the Hudson instance
+     * @return the job JSON object, empty if it could not be fetched
+     */
+    private JSONObject getJobDetails(String jobURL, String instanceUrl) {
+        try {
+            String url = joinURL(rebuildJobUrl(jobURL, instanceUrl), API_SUFFIX + JOB_DETAILS_QUERY);
+            ResponseEntity<String> responseEntity = makeRestCall(url);
+            if (responseEntity != null && StringUtils.isNotEmpty(responseEntity.getBody())) {
+                return (JSONObject) new JSONParser().parse(responseEntity.getBody());
+            }
+        } catch (ParseException e) {
+            LOG.error("Parsing job details: " + jobURL, e);
+        } catch (RestClientException rce) {
+            LOG.error("Client exception loading job details: " + rce.getMessage() + ". URL =" + jobURL);
+        } catch (MalformedURLException mfe) {
+            LOG.error("Malformed url for loading job details" + mfe.getMessage() + ". URL =" + jobURL);
+        } catch (URISyntaxException use) {
+            LOG.error("Uri syntax exception for loading job details" + use.getMessage() + ". URL =" + jobURL);
+        } catch (UnsupportedEncodingException unse) {
+            LOG.error("Unsupported Encoding Exception in getting job details. URL=" + jobURL, unse);
+        }
+        return new JSONObject();
+    }
+
+    /**
+     * Adds the build summaries and config history of a job to the job data map.
+     *
+     * @param jsonJob the job JSON object
+     * @param jobURL the url of the job
+     * @param jobDataMap the data map of the job
+     */
+    private void addJobData(JSONObject jsonJob, String jobURL, Map<jobData, Set<BaseModel>> jobDataMap) {
         JSONArray jsonBuilds = getJsonArray(jsonJob, "builds");
         if (!jsonBuilds.isEmpty()) {
     
@@ -286,22 +482,6 @@ public class DefaultHudsonClient implements HudsonClient {
                 jobDataMap.put(jobData.CONFIG, configs);
             }
         }
-
-        if (jobDataMap.containsKey(jobData.BUILD) || jobDataMap.containsKey(jobData.CONFIG)) {
-            // add the builds and configs to the job
-            result.put(hudsonJob, jobDataMap);
-        }
-
-        JSONArray subJobs = getJsonArray(jsonJob, "jobs");
-
-        for (Object subJob : subJobs) {
-            // has sub-jobs (like Pipeline Multibranch project)
-            final String subJobName = getString((JSONObject) subJob, "name");
-            final String subJobURL = getString((JSONObject) subJob, "url");
-
-            JSONObject jsonSubJob = (JSONObject) subJob;
-            recursiveGetJobDetails(jsonSubJob, jobName + "/" + subJobName, subJobURL, instanceUrl, parser, result);
-        }
     }
 
     @Override
@@ -309,6 +489,14 @@ public class DefaultHudsonClient implements HudsonClient {
         try {
             String newUrl = rebuildJobUrl(buildUrl, instanceUrl);
             String url = joinURL(newUrl, BUILD_DETAILS_URL_SUFFIX);
+            if (settings.isStreamingParser()) {
+                JSONObject buildJson = makeStreamingRestCall(url, response -> streamReader.readObject(response.getBody()));
+                if (buildJson == null) {
+                    LOG.error("Error getting build details for. URL=" + url);
+                    return null;
+                }
+                return toBuild(buildJson, buildUrl);
+            }
             ResponseEntity<String> result = makeRestCall(url);
             String resultJSON = result.getBody();
             if (StringUtils.isEmpty(resultJSON)) {
@@ -318,46 +506,7 @@ public class DefaultHudsonClient implements HudsonClient {
             JSONParser parser = new JSONParser();
             try {
                 JSONObject buildJson = (JSONObject) parser.parse(resultJSON);
-                Boolean building = (Boolean) buildJson.get("building");
-                // Ignore jobs that are building
-                if (!building) {
-                    Build build = new Build();
-                    build.setNumber(buildJson.get("number").toString());
-                    build.setBuildUrl(buildUrl);
-                    build.setTimestamp(System.currentTimeMillis());
-                    build.setStartTime((Long) buildJson.get("timestamp"));
-                    build.setDuration((Long) buildJson.get("duration"));
-                    build.setEndTime(build.getStartTime() + build.getDuration());
-                    build.setBuildStatus(getBuildStatus(buildJson));
-                    build.setStartedBy(firstCulprit(buildJson));
-                    if (settings.isSaveLog()) {
-                        build.setLog(getLog(buildUrl));
-                    }
-                    
-                    //For git SCM, add the repoBranches. For other SCM types, it's handled while adding changesets
-                    build.getCodeRepos().addAll(getGitRepoBranch(buildJson));
-                    
-                    boolean isPipelineJob = "org.jenkinsci.plugins.workflow.job.WorkflowRun".equals(getString(buildJson, "_class"));
-                    
-                    // Need to handle duplicate changesets bug in Pipeline jobs (https://issues.jenkins-ci.org/browse/JENKINS-40352)
-                    Set<String> commitIds = new HashSet<>();
-                    // This is empty for git
-                    Set<String> revisions = new HashSet<>();
-                    
-                    if (isPipelineJob) {
-                        for (Object changeSetObj : getJsonArray(buildJson, "changeSets")) {
-                            JSONObject changeSet = (JSONObject) changeSetObj;
-                            addChangeSet(build, changeSet, commitIds, revisions);
-                        }
-                    } else {
-                        JSONObject changeSet = (JSONObject) buildJson.get("changeSet");
-                        if (changeSet != null) {
-                            addChangeSet(build, changeSet, commitIds, revisions);
-                        }
-                    }
-                    return build;
-                }
-
+                return toBuild(buildJson, buildUrl);
             } catch (ParseException e) {
                 LOG.error("Parsing build: " + buildUrl, e);
             }
@@ -375,6 +524,56 @@ public class DefaultHudsonClient implements HudsonClient {
         return null;
     }
 
+    /**
+     * Converts the build details JSON into a {@link Build}.
+     *
+     * @param buildJson the build JSON object
+     * @param buildUrl the url of the build
+     * @return a Build instance or null if the build is still running
+     */
+    private Build toBuild(JSONObject buildJson, String buildUrl) {
+        Boolean building = (Boolean) buildJson.get("building");
+        // Ignore jobs that are building
+        if (!building) {
+            Build build = new Build();
+            build.setNumber(buildJson.get("number").toString());
+            build.setBuildUrl(buildUrl);
+            build.setTimestamp(System.currentTimeMillis());
+            build.setStartTime((Long) buildJson.get("timestamp"));
+            build.setDuration((Long) buildJson.get("duration"));
+            build.setEndTime(build.getStartTime() + build.getDuration());
+            build.setBuildStatus(getBuildStatus(buildJson));
+            build.setStartedBy(firstCulprit(buildJson));
+            if (settings.isSaveLog()) {
+                build.setLog(getLog(buildUrl));
+            }
+            
+            //For git SCM, add the repoBranches. For other SCM types, it's handled while adding changesets
+            build.getCodeRepos().addAll(getGitRepoBranch(buildJson));
+            
+            boolean isPipelineJob = "org.jenkinsci.plugins.workflow.job.WorkflowRun".equals(getString(buildJson, "_class"));
+            
+            // Need to handle duplicate changesets bug in Pipeline jobs (https://issues.jenkins-ci.org/browse/JENKINS-40352)
+            Set<String> commitIds = new HashSet<>();
+            // This is empty for git
+            Set<String> revisions = new HashSet<>();
+            
+            if (isPipelineJob) {
+                for (Object changeSetObj : getJsonArray(buildJson, "changeSets")) {
+                    JSONObject changeSet = (JSONObject) changeSetObj;
+                    addChangeSet(build, changeSet, commitIds, revisions);
+                }
+            } else {
+                JSONObject changeSet = (JSONObject) buildJson.get("changeSet");
+                if (changeSet != null) {
+                    addChangeSet(build, changeSet, commitIds, revisions);
+                }
+            }
+            return build;
+        }
+        return null;
+    }
+
     //This method will rebuild the API endpoint because the buildUrl obtained via Jenkins API
     //does not save the auth user info and we need to add it back.
     public static String rebuildJobUrl(String build, String server) throws URISyntaxException, MalformedURLException, UnsupportedEncodingException {
@@ -611,6 +810,49 @@ public class DefaultHudsonClient implements HudsonClient {
     protected ResponseEntity<String> makeRestCall(String sUrl) throws MalformedURLException, URISyntaxException {
         LOG.debug("Enter makeRestCall " + sUrl);
         URI thisuri = URI.create(sUrl);
+        String userInfo = getUserInfo(thisuri, sUrl);
+
+        // Basic Auth only.
+        if (StringUtils.isNotEmpty(userInfo)) {
+            return rest.exchange(thisuri, HttpMethod.GET,
+                    new HttpEntity<>(createHeaders(userInfo)),
+                    String.class);
+        } else {
+            return rest.exchange(thisuri, HttpMethod.GET, null,
+                    String.class);
+        }
+
+    }
+
+    /**
+     * Same as {@link #makeRestCall(String)}, but hands the response stream to the extractor
+     * instead of reading the whole response into a String. A response that is not valid JSON is
+     * logged and yields null, like a json-simple {@link ParseException} on the non-streaming path.
+     */
+    protected <T> T makeStreamingRestCall(String sUrl, ResponseExtractor<T> responseExtractor) throws URISyntaxException {
+        LOG.debug("Enter makeStreamingRestCall " + sUrl);
+        URI thisuri = URI.create(sUrl);
+        String userInfo = getUserInfo(thisuri, sUrl);
+
+        // Basic Auth only.
+        RequestCallback requestCallback = request -> {
+            if (StringUtils.isNotEmpty(userInfo)) {
+                request.getHeaders().putAll(createHeaders(userInfo));
+            }
+        };
+        ResponseExtractor<T> parsingExtractor = response -> {
+            try {
+                return responseExtractor.extractData(response);
+            } catch (JsonProcessingException e) {
+                LOG.error("Parsing response: " + sUrl, e);
+                return null;
+            }
+        };
+        return rest.execute(thisuri, HttpMethod.GET, requestCallback, parsingExtractor);
+    }
+
+    @SuppressWarnings("PMD")
+    private String getUserInfo(URI thisuri, String sUrl) throws URISyntaxException {
         String userInfo = thisuri.getUserInfo();
 
         //get userinfo from URI or settings (in spring properties)
@@ -644,16 +886,7 @@ public class DefaultHudsonClient implements HudsonClient {
         		}
         	}
         }
-        // Basic Auth only.
-        if (StringUtils.isNotEmpty(userInfo)) {
-            return rest.exchange(thisuri, HttpMethod.GET,
-                    new HttpEntity<>(createHeaders(userInfo)),
-                    String.class);
-        } else {
-            return rest.exchange(thisuri, HttpMethod.GET, null,
-                    String.class);
-        }
-
+        return userInfo;
     }
     
     private String getDomain(String url) throws URISyntaxException {
@@ -4,6 +4,7 @@ import com.capitalone.dashboard.model.BaseModel;
 import com.capitalone.dashboard.model.Build;
 import com.capitalone.dashboard.model.HudsonJob;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
@@ -24,6 +25,18 @@ public interface HudsonClient {
      */
     Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>> getInstanceJobs(String instanceUrl);
 
+    /**
+     * Finds all of the configured jobs for a given instance along with the number and
+     * timestamp of their last build. Builds and configs are only fetched for the known
+     * enabled jobs whose last build moved past the watermark stored on them; every other
+     * job is returned with an empty data map.
+     *
+     * @param instanceUrl the URL for the Hudson instance
+     * @param knownJobs the jobs already stored for the instance
+     * @return a summary of the new builds for each job on the instance
+     */
+    Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>> getInstanceJobs(String instanceUrl, Collection<HudsonJob> knownJobs);
+
     /**
      * Fetch full populated build information for a build.
      *
@@ -4,19 +4,18 @@ package com.capitalone.dashboard.collector;
 import com.capitalone.dashboard.model.BaseModel;
 import com.capitalone.dashboard.model.Build;
 import com.capitalone.dashboard.model.CollItemCfgHist;
-import com.capitalone.dashboard.model.CollectorItem;
-import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.model.HudsonCollector;
 import com.capitalone.dashboard.model.HudsonJob;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.BuildRepository;
 import com.capitalone.dashboard.repository.CollItemCfgHistRepository;
-import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.HudsonCollectorRepository;
 import com.capitalone.dashboard.repository.HudsonJobRepository;
 import com.google.common.collect.Lists;
 import org.apache.commons.lang3.StringUtils;
 import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
@@ -24,11 +23,17 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.web.client.RestClientException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 
 /**
@@ -36,8 +41,9 @@ import java.util.Set;
  */
 @Component
 public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
-    @SuppressWarnings("PMD.UnusedPrivateField")
-//    private static final Log LOG = LogFactory.getLog(HudsonCollectorTask.class);
+    private static final Logger LOG = LoggerFactory.getLogger(HudsonCollectorTask.class);
+    // builds are saved in chunks of this size, so a failure later on does not lose the builds fetched so far
+    private static final int BUILD_SAVE_CHUNK_SIZE = 100;
 
     private final HudsonCollectorRepository hudsonCollectorRepository;
     private final HudsonJobRepository hudsonJobRepository;
@@ -45,7 +51,7 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
     private final CollItemCfgHistRepository configRepository;
     private final HudsonClient hudsonClient;
     private final HudsonSettings hudsonSettings;
-    private final ComponentRepository dbComponentRepository;
+    private final EnabledCollectorItemResolver enabledCollectorItemResolver;
 
     @Autowired
     public HudsonCollectorTask(TaskScheduler taskScheduler,
@@ -53,7 +59,7 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
                                HudsonJobRepository hudsonJobRepository,
                                BuildRepository buildRepository, CollItemCfgHistRepository configRepository, HudsonClient hudsonClient,
                                HudsonSettings hudsonSettings,
-                               ComponentRepository dbComponentRepository) {
+                               EnabledCollectorItemResolver enabledCollectorItemResolver) {
         super(taskScheduler, "Hudson");
         this.hudsonCollectorRepository = hudsonCollectorRepository;
         this.hudsonJobRepository = hudsonJobRepository;
@@ -61,7 +67,7 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
         this.configRepository = configRepository;
         this.hudsonClient = hudsonClient;
         this.hudsonSettings = hudsonSettings;
-        this.dbComponentRepository = dbComponentRepository;
+        this.enabledCollectorItemResolver = enabledCollectorItemResolver;
     }
 
     @Override
@@ -83,71 +89,106 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
     @Override
     public void collect(HudsonCollector collector) {
         long start = System.currentTimeMillis();
+        // refresh the enabled flags first, the incremental fetch only expands the jobs loaded as enabled
+        clean(collector);
+
         Set<ObjectId> udId = new HashSet<>();
         udId.add(collector.getId());
         List<HudsonJob> existingJobs = hudsonJobRepository.findByCollectorIdIn(udId);
-        List<HudsonJob> activeJobs = new ArrayList<>();
+        CollectorItemIndex<HudsonJob> existingJobIndex = new CollectorItemIndex<>(existingJobs, HudsonJob.IDENTITY_OPTIONS);
+        CollectorItemIndex<HudsonJob> activeJobs = new CollectorItemIndex<>(HudsonJob.IDENTITY_OPTIONS);
         List<String> activeServers = new ArrayList<>();
         activeServers.addAll(collector.getBuildServers());
 
-        clean(collector, existingJobs);
+        try (HudsonWorkerPool workerPool = new HudsonWorkerPool(hudsonSettings.getThreadPoolSize(),
+                hudsonSettings.getThreadsPerServer())) {
+            // fetch the jobs of every server concurrently
+            Map<String, Future<Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>>>> jobsByServer = new LinkedHashMap<>();
+            for (String instanceUrl : collector.getBuildServers()) {
+                jobsByServer.put(instanceUrl, workerPool.submit(instanceUrl, () -> getInstanceJobs(instanceUrl, existingJobs)));
+            }
 
-        for (String instanceUrl : collector.getBuildServers()) {
-            logBanner(instanceUrl);
-            try {
-                Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>> dataByJob = hudsonClient
-                        .getInstanceJobs(instanceUrl);
-                log("Fetched jobs", start);
-                activeJobs.addAll(dataByJob.keySet());
-                addNewJobs(dataByJob.keySet(), existingJobs, collector);
-                addNewBuilds(enabledJobs(collector, instanceUrl), dataByJob);
-                addNewConfigs(enabledJobs(collector, instanceUrl), dataByJob);
-                log("Finished", start);
-            } catch (RestClientException rce) {
-                activeServers.remove(instanceUrl); // since it was a rest exception, we will not delete this job  and wait for
-                // rest exceptions to clear up at a later run.
-                log("Error getting jobs for: " + instanceUrl, start);
+            List<Future<Integer>> newBuilds = new ArrayList<>();
+            List<HudsonJob> watermarkedJobs = Collections.synchronizedList(new ArrayList<>());
+            for (Map.Entry<String, Future<Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>>>> entry : jobsByServer.entrySet()) {
+                String instanceUrl = entry.getKey();
+                logBanner(instanceUrl);
+                try {
+                    Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>> dataByJob = getResult(entry.getValue());
+                    log("Fetched jobs", start);
+                    activeJobs.addAll(dataByJob.keySet());
+                    addNewJobs(dataByJob.keySet(), existingJobIndex, collector);
+                    List<HudsonJob> enabledJobs = enabledJobs(collector, instanceUrl);
+                    newBuilds.addAll(addNewBuilds(enabledJobs, dataByJob, workerPool, watermarkedJobs));
+                    addNewConfigs(enabledJobs, dataByJob);
+                    log("Finished", start);
+                } catch (RestClientException rce) {
+                    activeServers.remove(instanceUrl); // since it was a rest exception, we will not delete this job  and wait for
+                    // rest exceptions to clear up at a later run.
+                    log("Error getting jobs for: " + instanceUrl, start);
+                }
             }
+            waitForNewBuilds(newBuilds, start);
+            saveWatermarks(watermarkedJobs, start);
         }
         // Delete jobs that will be no longer collected because servers have moved etc.
         deleteUnwantedJobs(activeJobs, existingJobs, activeServers, collector);
     }
 
     /**
-     * Clean up unused hudson/jenkins collector items
-     *
-     * @param collector    the {@link HudsonCollector}
-     * @param existingJobs
+     * Fetches the jobs of an instance. In incremental mode only the jobs whose last build moved
+     * since the previous run have their builds and configs expanded.
      */
+    private Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>> getInstanceJobs(String instanceUrl,
+                                                                                   List<HudsonJob> existingJobs) {
+        if (hudsonSettings.isIncremental()) {
+            return hudsonClient.getInstanceJobs(instanceUrl, existingJobs);
+        }
+        return hudsonClient.getInstanceJobs(instanceUrl);
+    }
 
-    private void clean(HudsonCollector collector, List<HudsonJob> existingJobs) {
-        Set<ObjectId> uniqueIDs = new HashSet<>();
-        for (com.capitalone.dashboard.model.Component comp : dbComponentRepository
-                .findAll()) {
-
-            if (CollectionUtils.isEmpty(comp.getCollectorItems())) continue;
-
-            List<CollectorItem> itemList = comp.getCollectorItems().get(CollectorType.Build);
-
-            if (CollectionUtils.isEmpty(itemList)) continue;
-
-            for (CollectorItem ci : itemList) {
-                if (collector.getId().equals(ci.getCollectorId())) {
-                    uniqueIDs.add(ci.getId());
-                }
+    /**
+     * Waits for a task submitted to the worker pool and unwraps any runtime exception it threw.
+     */
+    private <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Hudson worker", ie);
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ee.getCause();
             }
+            throw new IllegalStateException(ee.getCause());
         }
-        List<HudsonJob> stateChangeJobList = new ArrayList<>();
-        for (HudsonJob job : existingJobs) {
-            if ((job.isEnabled() && !uniqueIDs.contains(job.getId())) ||  // if it was enabled but not on a dashboard
-                    (!job.isEnabled() && uniqueIDs.contains(job.getId()))) { // OR it was disabled and now on a dashboard
-                job.setEnabled(uniqueIDs.contains(job.getId()));
-                stateChangeJobList.add(job);
+    }
+
+    private void waitForNewBuilds(List<Future<Integer>> newBuilds, long start) {
+        int count = 0;
+        for (Future<Integer> jobBuilds : newBuilds) {
+            try {
+                count += getResult(jobBuilds);
+            } catch (RuntimeException re) {
+                LOG.error("Error adding new builds", re);
             }
         }
-        if (!CollectionUtils.isEmpty(stateChangeJobList)) {
-            hudsonJobRepository.save(stateChangeJobList);
-        }
+        log("New builds", start, count);
+    }
+
+    private void saveWatermarks(List<HudsonJob> watermarkedJobs, long start) {
+        // only the watermark fields are written, the jobs may have been enabled or disabled meanwhile
+        hudsonJobRepository.updateWatermarks(watermarkedJobs);
+        log("Updated watermarks", start, watermarkedJobs.size());
+    }
+
+    /**
+     * Clean up unused hudson/jenkins collector items
+     *
+     * @param collector    the {@link HudsonCollector}
+     */
+    private void clean(HudsonCollector collector) {
+        enabledCollectorItemResolver.updateEnabled(collector);
     }
 
     /**
@@ -158,7 +199,7 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
      * @param activeServers
      * @param collector
      */
-    private void deleteUnwantedJobs(List<HudsonJob> activeJobs, List<HudsonJob> existingJobs, List<String> activeServers, HudsonCollector collector) {
+    private void deleteUnwantedJobs(CollectorItemIndex<HudsonJob> activeJobs, List<HudsonJob> existingJobs, List<String> activeServers, HudsonCollector collector) {
 
         List<HudsonJob> deleteJobList = new ArrayList<>();
         for (HudsonJob job : existingJobs) {
@@ -186,19 +227,29 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
     }
 
     /**
-     * Iterates over the enabled build jobs and adds new builds to the database.
+     * Iterates over the enabled build jobs and submits the new builds of each job to the worker pool.
+     * Builds already stored are looked up for all jobs in a single query and filtered out in memory.
+     * Jobs are processed concurrently, but the builds of a single job are fetched and saved in the order
+     * of their build numbers - this has implication to handling of commits in BuildEventListener.
      *
      * @param enabledJobs list of enabled {@link HudsonJob}s
      * @param dataByJob maps a {@link HudsonJob} to a map of data with {@link Build}s.
+     * @param workerPool the pool fetching build details
+     * @param watermarkedJobs collects the jobs whose last build watermark moved
+     * @return one future per job holding the number of builds saved for the job
      */
-    private void addNewBuilds(List<HudsonJob> enabledJobs,
-                              Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>> dataByJob) {
-        long start = System.currentTimeMillis();
-        int count = 0;
+    private List<Future<Integer>> addNewBuilds(List<HudsonJob> enabledJobs,
+                                               Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>> dataByJob,
+                                               HudsonWorkerPool workerPool, List<HudsonJob> watermarkedJobs) {
+        List<Future<Integer>> newBuilds = new ArrayList<>();
+        Map<ObjectId, Set<String>> existingBuildNumbers = existingBuildNumbers(enabledJobs);
+        Map<HudsonJob, HudsonJob> fetchedJobs = new HashMap<>();
+        for (HudsonJob fetchedJob : dataByJob.keySet()) {
+            fetchedJobs.put(fetchedJob, fetchedJob);
+        }
 
         for (HudsonJob job : enabledJobs) {
             if (job.isPushed()) continue;
-            // process new builds in the order of their build numbers - this has implication to handling of commits in BuildEventListener
 
             Map<HudsonClient.jobData, Set<BaseModel>> jobDataSetMap = dataByJob.get(job);
             if (jobDataSetMap == null) {
@@ -209,49 +260,163 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
             ArrayList<BaseModel> builds = Lists.newArrayList(nullSafe(buildsSet));
 
             builds.sort((BaseModel b1, BaseModel b2) -> Integer.valueOf(((Build)b1).getNumber()) - Integer.valueOf(((Build)b2).getNumber()));
+
+            Set<String> numbers = existingBuildNumbers.computeIfAbsent(job.getId(), id -> new HashSet<>());
+            List<Build> buildSummaries = new ArrayList<>();
             for (BaseModel buildSummary : builds) {
-                if (isNewBuild(job, (Build)buildSummary)) {
-                    Build build = hudsonClient.getBuildDetails(((Build)buildSummary)
-                            .getBuildUrl(), job.getInstanceUrl());
-                    if (build != null) {
-                        build.setCollectorItemId(job.getId());
-                        buildRepository.save(build);
-                        count++;
-                    }
+                if (numbers.add(((Build) buildSummary).getNumber())) {
+                    buildSummaries.add((Build) buildSummary);
                 }
             }
+            HudsonJob fetchedJob = fetchedJobs.get(job);
+            if (!buildSummaries.isEmpty()) {
+                newBuilds.add(workerPool.submit(job.getInstanceUrl(), () -> {
+                    int count = addNewBuilds(job, buildSummaries);
+                    // only move the watermark once every new build made it to the database
+                    if (count == buildSummaries.size()) {
+                        updateWatermark(job, fetchedJob, watermarkedJobs);
+                    }
+                    return count;
+                }));
+            } else if (buildsSet != null) {
+                updateWatermark(job, fetchedJob, watermarkedJobs);
+            }
         }
-        log("New builds", start, count);
+        return newBuilds;
+    }
+
+    /**
+     * Moves the last build watermark of a job to the last build reported by the Hudson instance.
+     *
+     * @param job the enabled {@link HudsonJob}
+     * @param fetchedJob the job as reported by the Hudson instance
+     * @param watermarkedJobs collects the jobs whose watermark moved
+     */
+    private void updateWatermark(HudsonJob job, HudsonJob fetchedJob, List<HudsonJob> watermarkedJobs) {
+        if (fetchedJob == null || fetchedJob.getLastBuildNumber() == null || !job.isLastBuildChanged(fetchedJob)) {
+            return;
+        }
+        job.setLastBuildNumber(fetchedJob.getLastBuildNumber());
+        job.setLastBuildTimestamp(fetchedJob.getLastBuildTimestamp());
+        watermarkedJobs.add(job);
+    }
+
+    /**
+     * Fetches the new builds of a single job and saves them in chunks of {@link #BUILD_SAVE_CHUNK_SIZE},
+     * in the order given. A build whose details fail to load is skipped and retried on the next run,
+     * the builds fetched before and after it are still saved.
+     *
+     * @param job the {@link HudsonJob}
+     * @param buildSummaries the summaries of the new builds of the job sorted by build number
+     * @return the number of builds saved
+     */
+    private int addNewBuilds(HudsonJob job, List<Build> buildSummaries) {
+        int count = 0;
+        List<Build> builds = new ArrayList<>();
+        for (Build buildSummary : buildSummaries) {
+            Build build = null;
+            try {
+                build = hudsonClient.getBuildDetails(buildSummary.getBuildUrl(), job.getInstanceUrl());
+            } catch (RuntimeException re) {
+                LOG.error("Error getting build details. URL=" + buildSummary.getBuildUrl(), re);
+            }
+            if (build != null) {
+                build.setCollectorItemId(job.getId());
+                builds.add(build);
+            }
+            if (builds.size() >= BUILD_SAVE_CHUNK_SIZE) {
+                buildRepository.save(builds);
+                count += builds.size();
+                builds = new ArrayList<>();
+            }
+        }
+        if (!builds.isEmpty()) {
+            buildRepository.save(builds);
+            count += builds.size();
+        }
+        return count;
     }
 
     private void addNewConfigs(List<HudsonJob> enabledJobs,
                               Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>> dataByJob) {
         long start = System.currentTimeMillis();
-        int count = 0;
 
+        Map<HudsonJob, List<BaseModel>> configsByJob = new LinkedHashMap<>();
         for (HudsonJob job : enabledJobs) {
             if (job.isPushed()) continue;
-            // process new builds in the order of their build numbers - this has implication to handling of commits in BuildEventListener
 
             Map<HudsonClient.jobData, Set<BaseModel>> jobDataSetMap = dataByJob.get(job);
             if (jobDataSetMap == null) {
                 continue;
             }
             Set<BaseModel> configsSet = jobDataSetMap.get(HudsonClient.jobData.CONFIG);
+            if (!CollectionUtils.isEmpty(configsSet)) {
+                configsByJob.put(job, Lists.newArrayList(configsSet));
+            }
+        }
 
-            ArrayList<BaseModel> configs = Lists.newArrayList(nullSafe(configsSet));
+        List<CollItemCfgHist> newConfigs = new ArrayList<>();
+        if (!configsByJob.isEmpty()) {
+            Set<List<Object>> existingConfigs = existingConfigKeys(new ArrayList<>(configsByJob.keySet()));
+            for (Map.Entry<HudsonJob, List<BaseModel>> entry : configsByJob.entrySet()) {
+                ObjectId jobId = entry.getKey().getId();
+                List<BaseModel> configs = entry.getValue();
 
-            configs.sort((BaseModel b1, BaseModel b2) -> new Date(((CollItemCfgHist)b1).getTimestamp()).compareTo(new Date(((CollItemCfgHist)b2).getTimestamp())));
+                configs.sort((BaseModel b1, BaseModel b2) -> new Date(((CollItemCfgHist)b1).getTimestamp()).compareTo(new Date(((CollItemCfgHist)b2).getTimestamp())));
 
-            for (BaseModel config : configs) {
-                if (config != null && isNewConfig(job, (CollItemCfgHist)config)) {
-                    ((CollItemCfgHist)config).setCollectorItemId(job.getId());
-                    configRepository.save((CollItemCfgHist)config);
-                    count++;
+                for (BaseModel config : configs) {
+                    if (config != null && existingConfigs.add(configKey(jobId, (CollItemCfgHist)config))) {
+                        ((CollItemCfgHist)config).setCollectorItemId(jobId);
+                        newConfigs.add((CollItemCfgHist)config);
+                    }
                 }
             }
         }
-        log("New configs", start, count);
+        //save all in one shot
+        if (!newConfigs.isEmpty()) {
+            configRepository.save(newConfigs);
+        }
+        log("New configs", start, newConfigs.size());
+    }
+
+    /**
+     * Finds the numbers of the builds already stored for the given jobs, keyed by job id.
+     */
+    private Map<ObjectId, Set<String>> existingBuildNumbers(List<HudsonJob> jobs) {
+        Map<ObjectId, Set<String>> numbers = new HashMap<>();
+        if (CollectionUtils.isEmpty(jobs)) {
+            return numbers;
+        }
+        for (Build build : buildRepository.findBuildNumbersByCollectorItemIdIn(jobIds(jobs))) {
+            numbers.computeIfAbsent(build.getCollectorItemId(), id -> new HashSet<>()).add(build.getNumber());
+        }
+        return numbers;
+    }
+
+    /**
+     * Finds the keys of the config history entries already stored for the given jobs.
+     */
+    private Set<List<Object>> existingConfigKeys(List<HudsonJob> jobs) {
+        Set<List<Object>> keys = new HashSet<>();
+        if (CollectionUtils.isEmpty(jobs)) {
+            return keys;
+        }
+        for (CollItemCfgHist config : configRepository.findKeysByCollectorItemIdIn(jobIds(jobs))) {
+            keys.add(configKey(config.getCollectorItemId(), config));
+        }
+        return keys;
+    }
+
+    private static List<Object> configKey(ObjectId collectorItemId, CollItemCfgHist config) {
+        return Arrays.asList(collectorItemId, config.getJob(), config.getTimestamp());
+    }
+
+    private static List<ObjectId> jobIds(List<HudsonJob> jobs) {
+        List<ObjectId> ids = new ArrayList<>();
+        for (HudsonJob job : jobs) {
+            ids.add(job.getId());
+        }
+        return ids;
     }
 
     private Set<BaseModel> nullSafe(Set<BaseModel> builds) {
@@ -262,19 +427,16 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
      * Adds new {@link HudsonJob}s to the database as disabled jobs.
      *
      * @param jobs         list of {@link HudsonJob}s
-     * @param existingJobs
+     * @param existingJobs the stored jobs
      * @param collector    the {@link HudsonCollector}
      */
-    private void addNewJobs(Set<HudsonJob> jobs, List<HudsonJob> existingJobs, HudsonCollector collector) {
+    private void addNewJobs(Set<HudsonJob> jobs, CollectorItemIndex<HudsonJob> existingJobs, HudsonCollector collector) {
         long start = System.currentTimeMillis();
         int count = 0;
 
         List<HudsonJob> newJobs = new ArrayList<>();
         for (HudsonJob job : jobs) {
-            HudsonJob existing = null;
-            if (!CollectionUtils.isEmpty(existingJobs) && (existingJobs.contains(job))) {
-                existing = existingJobs.get(existingJobs.indexOf(job));
-            }
+            HudsonJob existing = existingJobs.get(job);
 
             String niceName = getNiceName(job, collector);
             String environment = getEnvironment(job, collector);
@@ -345,14 +507,4 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
         return hudsonJobRepository.findJob(collector.getId(),
                 job.getInstanceUrl(), job.getJobName());
     }
-
-    private boolean isNewBuild(HudsonJob job, Build build) {
-        return buildRepository.findByCollectorItemIdAndNumber(job.getId(),
-                build.getNumber()) == null;
-    }
-
-    private boolean isNewConfig(HudsonJob job, CollItemCfgHist config) {
-        return configRepository.findByCollectorItemIdAndJobAndTimestamp(job.getId(),
-                config.getJob(), config.getTimestamp()) == null;
-    }
 }
@@ -0,0 +1,251 @@
+package com.capitalone.dashboard.collector;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pull parser for the JSON documents returned by the Hudson API.
+ * <p>
+ * Instead of reading a whole response into a String and then into a full JSON tree, the
+ * response stream is walked token by token and only the parts the collector reads are turned
+ * into json-simple objects.
+ * <p>
+ * Memory is not constant. A jobs listing is handed out one top level job at a time, but a
+ * top level job is buffered with all of its sub-jobs, since the name of a folder may come after
+ * its content; a large folder or multibranch project is held in memory as a whole. Build details
+ * are read into a complete json-simple tree, only the paths of the change sets are left out.
+ */
+class HudsonJsonStreamReader {
+
+    /**
+     * Receives the jobs read from the stream, parents before their sub-jobs.
+     */
+    interface JobHandler {
+        /**
+         * @param jobName the full name of the job, including the names of its parent folders
+         * @param jsonJob the job JSON object, without its sub-jobs
+         */
+        void handle(String jobName, JSONObject jsonJob);
+    }
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // fields of a job the collector reads; everything else is skipped without being materialized
+    private static final Set<String> JOB_FIELDS = new HashSet<>(Arrays.asList("_class", "name", "url", "builds"));
+    private static final String JOBS = "jobs";
+    private static final String ACTIONS = "actions";
+    private static final String JOB_CONFIG_HISTORY = "jobConfigHistory";
+    // only the number of paths of a change set item is used, so their content is not kept
+    private static final String PATHS = "paths";
+
+    /**
+     * Counts the jobs of a jobs listing without reading their content.
+     *
+     * @param in the response stream
+     * @return the number of top level jobs
+     */
+    int countJobs(InputStream in) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            int count = 0;
+            if (moveToArray(parser, JOBS)) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Reads a jobs listing, handing out each job and its sub-jobs as soon as a top level job is complete.
+     *
+     * @param in the response stream
+     * @param handler receives the jobs
+     * @return the number of top level jobs read
+     */
+    int readJobs(InputStream in, JobHandler handler) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            int count = 0;
+            if (moveToArray(parser, JOBS)) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    JobNode job = readJob(parser);
+                    job.handle(job.getName(), handler);
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Reads a JSON document into a json-simple object. Arrays of change set paths are only kept
+     * as placeholders, since nothing but their size is used.
+     *
+     * @param in the response stream
+     * @return the JSON object, or null if the document is not an object
+     */
+    JSONObject readObject(InputStream in) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            return readObject(parser);
+        }
+    }
+
+    /**
+     * Moves the parser to the start of the array held by the given field of the root object.
+     */
+    private boolean moveToArray(JsonParser parser, String fieldName) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (fieldName.equals(name) && token == JsonToken.START_ARRAY) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private JobNode readJob(JsonParser parser) throws IOException {
+        JobNode job = new JobNode();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (JOBS.equals(name) && token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    job.subJobs.add(readJob(parser));
+                }
+            } else if (ACTIONS.equals(name) && token == JsonToken.START_ARRAY) {
+                job.json.put(ACTIONS, readConfigHistoryActions(parser));
+            } else if (JOB_FIELDS.contains(name)) {
+                job.json.put(name, readValue(parser, token));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return job;
+    }
+
+    /**
+     * Reads the actions of a job, keeping only the job config history ones.
+     */
+    @SuppressWarnings("unchecked")
+    private JSONArray readConfigHistoryActions(JsonParser parser) throws IOException {
+        JSONArray actions = new JSONArray();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            JSONObject action = new JSONObject();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+                if (JOB_CONFIG_HISTORY.equals(name)) {
+                    action.put(name, readValue(parser, valueToken));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (!action.isEmpty()) {
+                actions.add(action);
+            }
+        }
+        return actions;
+    }
+
+    private Object readValue(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                return readObject(parser);
+            case START_ARRAY:
+                return readArray(parser);
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+                return parser.getLongValue();
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private JSONObject readObject(JsonParser parser) throws IOException {
+        JSONObject object = new JSONObject();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (PATHS.equals(name) && token == JsonToken.START_ARRAY) {
+                object.put(name, readPlaceholders(parser));
+            } else {
+                object.put(name, readValue(parser, token));
+            }
+        }
+        return object;
+    }
+
+    @SuppressWarnings("unchecked")
+    private JSONArray readArray(JsonParser parser) throws IOException {
+        JSONArray array = new JSONArray();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            array.add(readValue(parser, token));
+        }
+        return array;
+    }
+
+    @SuppressWarnings("unchecked")
+    private JSONArray readPlaceholders(JsonParser parser) throws IOException {
+        JSONArray array = new JSONArray();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+            array.add(null);
+        }
+        return array;
+    }
+
+    /**
+     * A job read from the stream along with its sub-jobs, kept until its top level job is complete
+     * because the name of a job may come after its sub-jobs in the document.
+     */
+    private static class JobNode {
+        private final JSONObject json = new JSONObject();
+        private final List<JobNode> subJobs = new ArrayList<>();
+
+        private String getName() {
+            return (String) json.get("name");
+        }
+
+        private void handle(String jobName, JobHandler handler) {
+            handler.handle(jobName, json);
+            for (JobNode subJob : subJobs) {
+                subJob.handle(jobName + "/" + subJob.getName(), handler);
+            }
+        }
+    }
+}
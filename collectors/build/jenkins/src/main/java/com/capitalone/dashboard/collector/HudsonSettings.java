@@ -26,6 +26,14 @@ public class HudsonSettings {
     private int pageSize;
     @Value("${folderDepth:10}")
     private int folderDepth;
+    //total number of concurrent requests across all servers
+    private int threadPoolSize = 10;
+    //number of concurrent requests against a single server
+    private int threadsPerServer = 2;
+    //only expand the builds of jobs whose last build moved since the previous run
+    private boolean incremental = false;
+    //parse jobs and build details straight from the response stream
+    private boolean streamingParser = false;
 
     public String getCron() {
         return cron;
@@ -115,4 +123,36 @@ public class HudsonSettings {
     public int getFolderDepth() {
         return folderDepth;
     }
+
+    public int getThreadPoolSize() {
+        return threadPoolSize;
+    }
+
+    public void setThreadPoolSize(int threadPoolSize) {
+        this.threadPoolSize = threadPoolSize;
+    }
+
+    public int getThreadsPerServer() {
+        return threadsPerServer;
+    }
+
+    public void setThreadsPerServer(int threadsPerServer) {
+        this.threadsPerServer = threadsPerServer;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public boolean isStreamingParser() {
+        return streamingParser;
+    }
+
+    public void setStreamingParser(boolean streamingParser) {
+        this.streamingParser = streamingParser;
+    }
 }
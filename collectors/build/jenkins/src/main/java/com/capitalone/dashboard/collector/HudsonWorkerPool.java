@@ -0,0 +1,73 @@
+package com.capitalone.dashboard.collector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded worker pool used to talk to several Hudson instances at the same time.
+ * <p>
+ * Every instance gets its own executor limited to {@code threadsPerServer} threads so that
+ * one large instance can neither be overloaded nor starve the other instances, while a shared
+ * semaphore caps the number of tasks running across all instances at {@code threadPoolSize}.
+ */
+class HudsonWorkerPool implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(HudsonWorkerPool.class);
+
+    private final int threadsPerServer;
+    private final Semaphore permits;
+    private final Map<String, ExecutorService> executors = new ConcurrentHashMap<>();
+
+    HudsonWorkerPool(int threadPoolSize, int threadsPerServer) {
+        int poolSize = Math.max(1, threadPoolSize);
+        this.threadsPerServer = Math.min(poolSize, Math.max(1, threadsPerServer));
+        this.permits = new Semaphore(poolSize);
+    }
+
+    /**
+     * Submits a task that talks to the given Hudson instance.
+     *
+     * @param instanceUrl the URL for the Hudson instance the task talks to
+     * @param task        the work to perform
+     * @return a future for the result of the task
+     */
+    <T> Future<T> submit(String instanceUrl, Callable<T> task) {
+        ExecutorService executor = executors.computeIfAbsent(instanceUrl, this::newExecutor);
+        return executor.submit(() -> {
+            permits.acquire();
+            try {
+                return task.call();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    private ExecutorService newExecutor(String instanceUrl) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "hudson-worker-" + executors.size() + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        LOG.debug("Creating worker pool of " + threadsPerServer + " threads for " + instanceUrl);
+        return Executors.newFixedThreadPool(threadsPerServer, threadFactory);
+    }
+
+    @Override
+    public void close() {
+        for (ExecutorService executor : executors.values()) {
+            executor.shutdownNow();
+        }
+        executors.clear();
+    }
+}
@@ -4,6 +4,36 @@ package com.capitalone.dashboard.model;
  * CollectorItem extension to store the instance, build job and build url.
  */
 public class HudsonJob extends JobCollectorItem {
+    // watermark of the last build processed for this job, used by incremental collection
+    private String lastBuildNumber;
+    private long lastBuildTimestamp;
+
+    public String getLastBuildNumber() {
+        return lastBuildNumber;
+    }
+
+    public void setLastBuildNumber(String lastBuildNumber) {
+        this.lastBuildNumber = lastBuildNumber;
+    }
+
+    public long getLastBuildTimestamp() {
+        return lastBuildTimestamp;
+    }
+
+    public void setLastBuildTimestamp(long lastBuildTimestamp) {
+        this.lastBuildTimestamp = lastBuildTimestamp;
+    }
+
+    /**
+     * Checks if the last build of the given job differs from the watermark stored on this job.
+     *
+     * @param job the job as currently reported by the Hudson instance
+     * @return true if this job has no watermark yet or the last build moved
+     */
+    public boolean isLastBuildChanged(HudsonJob job) {
+        return lastBuildNumber == null || !lastBuildNumber.equals(job.getLastBuildNumber())
+                || lastBuildTimestamp != job.getLastBuildTimestamp();
+    }
 
     @Override
     public boolean equals(Object o) {
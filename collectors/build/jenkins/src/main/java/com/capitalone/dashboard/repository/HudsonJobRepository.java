@@ -3,6 +3,6 @@ package com.capitalone.dashboard.repository;
 import com.capitalone.dashboard.model.HudsonJob;
 
 
-public interface HudsonJobRepository extends JobRepository<HudsonJob> {
+public interface HudsonJobRepository extends JobRepository<HudsonJob>, HudsonJobRepositoryCustom {
 
 }
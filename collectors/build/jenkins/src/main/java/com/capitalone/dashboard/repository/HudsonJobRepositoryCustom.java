@@ -0,0 +1,16 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.HudsonJob;
+
+import java.util.Collection;
+
+public interface HudsonJobRepositoryCustom {
+
+    /**
+     * Writes the last build watermark of each job, leaving the other fields of the stored jobs as
+     * they are, so that a job enabled or disabled meanwhile keeps that change.
+     *
+     * @param jobs the jobs whose watermark moved
+     */
+    void updateWatermarks(Collection<HudsonJob> jobs);
+}
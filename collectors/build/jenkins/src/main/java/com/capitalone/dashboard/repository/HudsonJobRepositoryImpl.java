@@ -0,0 +1,29 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.HudsonJob;
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Collection;
+
+public class HudsonJobRepositoryImpl implements HudsonJobRepositoryCustom {
+    @Autowired
+    MongoTemplate template;
+
+    @Override
+    public void updateWatermarks(Collection<HudsonJob> jobs) {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        BulkWriteOperation bulk = template.getCollection(template.getCollectionName(HudsonJob.class))
+                .initializeUnorderedBulkOperation();
+        for (HudsonJob job : jobs) {
+            BasicDBObject watermark = new BasicDBObject("lastBuildNumber", job.getLastBuildNumber())
+                    .append("lastBuildTimestamp", job.getLastBuildTimestamp());
+            bulk.find(new BasicDBObject("_id", job.getId())).updateOne(new BasicDBObject("$set", watermark));
+        }
+        bulk.execute();
+    }
+}
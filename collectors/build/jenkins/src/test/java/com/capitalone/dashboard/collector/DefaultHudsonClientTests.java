@@ -20,14 +20,19 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestOperations;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.Collections;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +44,7 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -514,11 +520,89 @@ public class DefaultHudsonClientTests {
         assertThat(build.getCodeRepos().size(), is(0));
     }
 
+    @Test
+    public void instanceJobs_streaming_skipsPagesThatAreNotJson() throws Exception {
+        settings.setStreamingParser(true);
+        when(rest.execute(Matchers.any(URI.class), eq(HttpMethod.GET), Matchers.any(RequestCallback.class), Matchers.any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> {
+                    URI uri = (URI) invocation.getArguments()[0];
+                    String body = uri.toString().endsWith("tree=jobs")
+                            ? "{\"jobs\":[{\"name\":\"job1\"},{\"name\":\"job2\"}]}"
+                            : "<html>Service Unavailable</html>";
+                    return ((ResponseExtractor<?>) invocation.getArguments()[3])
+                            .extractData(new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK));
+                });
+
+        Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>> jobs = hudsonClient.getInstanceJobs(URL_TEST);
+
+        assertThat(jobs.isEmpty(), is(true));
+        verify(rest, times(2)).execute(Matchers.any(URI.class), eq(HttpMethod.GET), Matchers.any(RequestCallback.class), Matchers.any(ResponseExtractor.class));
+    }
+
+    @Test
+    public void buildDetails_streaming_notJson() throws Exception {
+        settings.setStreamingParser(true);
+        when(rest.execute(Matchers.any(URI.class), eq(HttpMethod.GET), Matchers.any(RequestCallback.class), Matchers.any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> ((ResponseExtractor<?>) invocation.getArguments()[3])
+                        .extractData(new MockClientHttpResponse("{\"number\":".getBytes(StandardCharsets.UTF_8), HttpStatus.OK)));
+
+        Build build = hudsonClient.getBuildDetails("http://localhost/job/Hygieia-Common/179/", "http://localhost");
+
+        assertThat(build, is(nullValue()));
+    }
+
     private void assertBuild(Build build, String number, String url) {
         assertThat(build.getNumber(), is(number));
         assertThat(build.getBuildUrl(), is(url));
     }
 
+    @Test
+    public void instanceJobs_incremental_onlyExpandsChangedEnabledJobs() throws Exception {
+        when(rest.exchange(eq(URI.create(URL_TEST + "api/json?tree=jobs[name,url,lastBuild[number,timestamp]]")),
+                eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class)))
+                .thenReturn(new ResponseEntity<>(getJson("instanceJobs_watermarks.json"), HttpStatus.OK));
+        URI job1Details = URI.create("http://server/job/job1/api/json?tree=builds[number,url],actions[jobConfigHistory[currentName,date,hasConfig,job,oldName,operation,user,userID]]");
+        when(rest.exchange(eq(job1Details), eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class)))
+                .thenReturn(new ResponseEntity<>(getJson("jobDetails_job1.json"), HttpStatus.OK));
+
+        HudsonJob job1 = knownJob("job1", "2", 1500000002000L);
+        HudsonJob job2 = knownJob("job2", "2", 1500000002000L);
+
+        Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>> jobs = hudsonClient.getInstanceJobs(URL_TEST, Arrays.asList(job1, job2));
+
+        assertThat(jobs.size(), is(3));
+        Iterator<HudsonJob> jobIt = jobs.keySet().iterator();
+
+        HudsonJob job = jobIt.next();
+        assertJob(job, "job1", "http://server/job/job1/");
+        assertThat(job.getLastBuildNumber(), is("3"));
+        assertThat(job.getLastBuildTimestamp(), is(1500000003000L));
+        Iterator<BaseModel> buildIt = jobs.get(job).get(HudsonClient.jobData.BUILD).iterator();
+        assertBuild((Build)buildIt.next(),"3", "http://server/job/job1/3/");
+        assertBuild((Build)buildIt.next(),"2", "http://server/job/job1/2/");
+        assertThat(buildIt.hasNext(), is(false));
+
+        job = jobIt.next();
+        assertJob(job, "job2", "http://server/job/job2/");
+        assertThat(jobs.get(job).isEmpty(), is(true));
+
+        job = jobIt.next();
+        assertJob(job, "folder/job3", "http://server/job/folder/job/job3/");
+        assertThat(jobs.get(job).isEmpty(), is(true));
+
+        verify(rest, times(2)).exchange(Matchers.any(URI.class), eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class));
+    }
+
+    private HudsonJob knownJob(String jobName, String lastBuildNumber, long lastBuildTimestamp) {
+        HudsonJob job = new HudsonJob();
+        job.setInstanceUrl(URL_TEST);
+        job.setJobName(jobName);
+        job.setEnabled(true);
+        job.setLastBuildNumber(lastBuildNumber);
+        job.setLastBuildTimestamp(lastBuildTimestamp);
+        return job;
+    }
+
     private String getJson(String fileName) throws IOException {
         InputStream inputStream = DefaultHudsonClientTests.class.getResourceAsStream(fileName);
         return IOUtils.toString(inputStream);
@@ -2,17 +2,17 @@ package com.capitalone.dashboard.collector;
 
 import com.capitalone.dashboard.model.BaseModel;
 import com.capitalone.dashboard.model.Build;
-import com.capitalone.dashboard.model.Component;
 import com.capitalone.dashboard.model.HudsonCollector;
 import com.capitalone.dashboard.model.HudsonJob;
 import com.capitalone.dashboard.repository.BuildRepository;
-import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.CollItemCfgHistRepository;
 import com.capitalone.dashboard.repository.HudsonCollectorRepository;
 import com.capitalone.dashboard.repository.HudsonJobRepository;
 import com.google.common.collect.Sets;
 import org.bson.types.ObjectId;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -26,7 +26,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyCollectionOf;
 import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -46,11 +49,13 @@ public class HudsonCollectorTaskTests {
     @Mock
     private BuildRepository buildRepository;
     @Mock
+    private CollItemCfgHistRepository configRepository;
+    @Mock
     private HudsonClient hudsonClient;
     @Mock
     private HudsonSettings hudsonSettings;
     @Mock
-    private ComponentRepository dbComponentRepository;
+    private EnabledCollectorItemResolver enabledCollectorItemResolver;
 
     @InjectMocks
     private HudsonCollectorTask task;
@@ -61,7 +66,6 @@ public class HudsonCollectorTaskTests {
 
     @Test
     public void collect_noBuildServers_nothingAdded() {
-        when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(new HudsonCollector());
         verifyZeroInteractions(hudsonClient, buildRepository);
     }
@@ -69,17 +73,26 @@ public class HudsonCollectorTaskTests {
     @Test
     public void collect_noJobsOnServer_nothingAdded() {
         when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(new HashMap<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>>());
-        when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collectorWithOneServer());
 
         verify(hudsonClient).getInstanceJobs(SERVER1);
         verifyNoMoreInteractions(hudsonClient, buildRepository);
     }
 
+    @Test
+    public void collect_enabledFlagsRefreshedBeforeExistingJobsLoaded() {
+        HudsonCollector collector = collectorWithOneServer();
+        when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(new HashMap<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>>());
+        task.collect(collector);
+
+        InOrder inOrder = inOrder(enabledCollectorItemResolver, hudsonJobRepository);
+        inOrder.verify(enabledCollectorItemResolver).updateEnabled(collector);
+        inOrder.verify(hudsonJobRepository).findByCollectorIdIn(anyCollectionOf(ObjectId.class));
+    }
+
     @Test
     public void collect_twoJobs_jobsAdded() {
         when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(twoJobsWithTwoBuilds(SERVER1, NICENAME1));
-        when(dbComponentRepository.findAll()).thenReturn(components());
         List<HudsonJob> hudsonJobs = new ArrayList<>();
         HudsonJob hudsonJob = hudsonJob("1", SERVER1, "JOB1_URL", NICENAME1);
         hudsonJobs.add(hudsonJob);
@@ -91,7 +104,6 @@ public class HudsonCollectorTaskTests {
     @Test
     public void collect_twoJobs_jobsAdded_random_order() {
         when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(twoJobsWithTwoBuilds(SERVER1, NICENAME1));
-        when(dbComponentRepository.findAll()).thenReturn(components());
         List<HudsonJob> hudsonJobs = new ArrayList<>();
         HudsonJob hudsonJob = hudsonJob("2", SERVER1, "JOB2_URL", NICENAME1);
         hudsonJobs.add(hudsonJob);
@@ -108,8 +120,6 @@ public class HudsonCollectorTaskTests {
         when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job));
         when(hudsonJobRepository.findJob(collector.getId(), SERVER1, job.getJobName()))
                 .thenReturn(job);
-        when(dbComponentRepository.findAll()).thenReturn(components());
-
         task.collect(collector);
 
         verify(hudsonJobRepository, never()).save(job);
@@ -131,7 +141,6 @@ public class HudsonCollectorTaskTests {
         udId.add(collector.getId());
         when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job1));
         when(hudsonJobRepository.findByCollectorIdIn(udId)).thenReturn(jobs);
-        when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collector);
         List<HudsonJob> delete = new ArrayList<>();
         delete.add(job2);
@@ -150,7 +159,6 @@ public class HudsonCollectorTaskTests {
         udId.add(collector.getId());
         when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job1));
         when(hudsonJobRepository.findByCollectorIdIn(udId)).thenReturn(jobs);
-        when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collector);
         verify(hudsonJobRepository, never()).delete(anyListOf(HudsonJob.class));
     }
@@ -162,7 +170,6 @@ public class HudsonCollectorTaskTests {
         Build build = build("1", "JOB1_1_URL");
 
         when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job, build));
-        when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collector);
 
         verify(buildRepository, never()).save(build);
@@ -177,11 +184,13 @@ public class HudsonCollectorTaskTests {
         when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job, build));
         when(hudsonJobRepository.findEnabledJobs(collector.getId(), SERVER1))
                 .thenReturn(Arrays.asList(job));
-        when(buildRepository.findByCollectorItemIdAndNumber(job.getId(), build.getNumber())).thenReturn(build);
-        when(dbComponentRepository.findAll()).thenReturn(components());
+        Build existing = build("1", null);
+        existing.setCollectorItemId(job.getId());
+        when(buildRepository.findBuildNumbersByCollectorItemIdIn(Arrays.asList(job.getId()))).thenReturn(Arrays.asList(existing));
         task.collect(collector);
 
-        verify(buildRepository, never()).save(build);
+        verify(hudsonClient, never()).getBuildDetails(build.getBuildUrl(), job.getInstanceUrl());
+        verify(buildRepository, never()).save(anyListOf(Build.class));
     }
 
     @Test
@@ -193,12 +202,78 @@ public class HudsonCollectorTaskTests {
         when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job, build));
         when(hudsonJobRepository.findEnabledJobs(collector.getId(), SERVER1))
                 .thenReturn(Arrays.asList(job));
-        when(buildRepository.findByCollectorItemIdAndNumber(job.getId(), build.getNumber())).thenReturn(null);
         when(hudsonClient.getBuildDetails(build.getBuildUrl(), job.getInstanceUrl())).thenReturn(build);
-        when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collector);
 
-        verify(buildRepository, times(1)).save(build);
+        verify(buildRepository, times(1)).findBuildNumbersByCollectorItemIdIn(Arrays.asList(job.getId()));
+        verify(buildRepository, times(1)).save(Arrays.asList(build));
+    }
+
+    @Test
+    public void collect_jobEnabled_newBuilds_savedInBuildNumberOrder() {
+        HudsonCollector collector = collectorWithOneServer();
+        HudsonJob job = hudsonJob("1", SERVER1, "JOB1_URL", NICENAME1);
+        Build build2 = build("2", "JOB1_2_URL");
+        Build build10 = build("10", "JOB1_10_URL");
+        Build build1 = build("1", "JOB1_1_URL");
+
+        when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job, build10, build2, build1));
+        when(hudsonJobRepository.findEnabledJobs(collector.getId(), SERVER1))
+                .thenReturn(Arrays.asList(job));
+        Build existing = build("1", null);
+        existing.setCollectorItemId(job.getId());
+        when(buildRepository.findBuildNumbersByCollectorItemIdIn(Arrays.asList(job.getId()))).thenReturn(Arrays.asList(existing));
+        when(hudsonClient.getBuildDetails(build2.getBuildUrl(), job.getInstanceUrl())).thenReturn(build2);
+        when(hudsonClient.getBuildDetails(build10.getBuildUrl(), job.getInstanceUrl())).thenReturn(build10);
+        task.collect(collector);
+
+        verify(hudsonClient, never()).getBuildDetails(build1.getBuildUrl(), job.getInstanceUrl());
+        verify(buildRepository, times(1)).save(Arrays.asList(build2, build10));
+    }
+
+    @Test
+    public void collect_jobEnabled_newBuild_onlyWatermarkWritten() {
+        HudsonCollector collector = collectorWithOneServer();
+        HudsonJob fetched = hudsonJob("1", SERVER1, "JOB1_URL", NICENAME1);
+        fetched.setLastBuildNumber("1");
+        fetched.setLastBuildTimestamp(100L);
+        HudsonJob job = hudsonJob("1", SERVER1, "JOB1_URL", NICENAME1);
+        job.setId(ObjectId.get());
+        Build build = build("1", "JOB1_1_URL");
+
+        when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(fetched, build));
+        when(hudsonJobRepository.findEnabledJobs(collector.getId(), SERVER1))
+                .thenReturn(Arrays.asList(job));
+        when(hudsonClient.getBuildDetails(build.getBuildUrl(), job.getInstanceUrl())).thenReturn(build);
+        task.collect(collector);
+
+        verify(hudsonJobRepository, times(1)).updateWatermarks(Arrays.asList(job));
+        assertEquals("1", job.getLastBuildNumber());
+        assertEquals(100L, job.getLastBuildTimestamp());
+    }
+
+    @Test
+    public void collect_jobEnabled_failingBuildDetails_otherBuildsAdded() {
+        HudsonCollector collector = collectorWithOneServer();
+        HudsonJob fetched = hudsonJob("1", SERVER1, "JOB1_URL", NICENAME1);
+        fetched.setLastBuildNumber("3");
+        HudsonJob job = hudsonJob("1", SERVER1, "JOB1_URL", NICENAME1);
+        Build build1 = build("1", "JOB1_1_URL");
+        Build build2 = build("2", "JOB1_2_URL");
+        Build build3 = build("3", "JOB1_3_URL");
+
+        when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(fetched, build1, build2, build3));
+        when(hudsonJobRepository.findEnabledJobs(collector.getId(), SERVER1))
+                .thenReturn(Arrays.asList(job));
+        when(hudsonClient.getBuildDetails(build1.getBuildUrl(), job.getInstanceUrl())).thenReturn(build1);
+        when(hudsonClient.getBuildDetails(build2.getBuildUrl(), job.getInstanceUrl()))
+                .thenThrow(new IllegalStateException("unreadable build"));
+        when(hudsonClient.getBuildDetails(build3.getBuildUrl(), job.getInstanceUrl())).thenReturn(build3);
+        task.collect(collector);
+
+        verify(buildRepository, times(1)).save(Arrays.asList(build1, build3));
+        // the failed build is retried on the next run
+        verify(hudsonJobRepository, never()).updateWatermarks(Arrays.asList(job));
     }
 
     private HudsonCollector collectorWithOneServer() {
@@ -255,13 +330,4 @@ public class HudsonCollectorTaskTests {
         return build;
     }
 
-    private ArrayList<com.capitalone.dashboard.model.Component> components() {
-        ArrayList<com.capitalone.dashboard.model.Component> cArray = new ArrayList<com.capitalone.dashboard.model.Component>();
-        com.capitalone.dashboard.model.Component c = new Component();
-        c.setId(new ObjectId());
-        c.setName("COMPONENT1");
-        c.setOwner("JOHN");
-        cArray.add(c);
-        return cArray;
-    }
 }
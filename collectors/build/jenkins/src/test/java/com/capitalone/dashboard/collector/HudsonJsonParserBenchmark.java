@@ -0,0 +1,106 @@
+package com.capitalone.dashboard.collector;
+
+import org.apache.commons.io.IOUtils;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what the collector spends on the Jenkins responses it reads on every run: the jobs
+ * listing of an instance, replicated from the recorded multibranch listing up to {@code jobs}
+ * entries, and the recorded details of a build with change sets. Each is read with the
+ * json-simple parser, as the collector used to, and with {@link HudsonJsonStreamReader}.
+ * <p>
+ * The listing benchmarks mostly differ in allocations, so the main method runs them with the GC
+ * profiler; the benchmark is not part of the build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HudsonJsonParserBenchmark {
+
+    @Param({"100", "10000"})
+    private int jobs;
+
+    private byte[] instanceJobs;
+    private byte[] buildDetails;
+    private final HudsonJsonStreamReader streamReader = new HudsonJsonStreamReader();
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        JSONObject recorded = (JSONObject) new JSONParser().parse(getJson("instanceJobs_multibranchPipeline.json"));
+        JSONArray recordedJobs = (JSONArray) recorded.get("jobs");
+        JSONArray allJobs = new JSONArray();
+        for (int i = 0; allJobs.size() < jobs; i++) {
+            JSONObject job = new JSONObject((JSONObject) recordedJobs.get(i % recordedJobs.size()));
+            job.put("name", job.get("name") + "-" + i);
+            allJobs.add(job);
+        }
+        JSONObject listing = new JSONObject();
+        listing.put("jobs", allJobs);
+        instanceJobs = listing.toJSONString().getBytes(StandardCharsets.UTF_8);
+        buildDetails = getJson("buildDetails_full.json").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void instanceJobs_jsonParser(Blackhole blackhole) throws Exception {
+        JSONObject listing = (JSONObject) new JSONParser().parse(
+                new InputStreamReader(new ByteArrayInputStream(instanceJobs), StandardCharsets.UTF_8));
+        for (Object job : (JSONArray) listing.get("jobs")) {
+            blackhole.consume(job);
+        }
+    }
+
+    @Benchmark
+    public void instanceJobs_streamReader(Blackhole blackhole) throws Exception {
+        streamReader.readJobs(new ByteArrayInputStream(instanceJobs), (jobName, jsonJob) -> blackhole.consume(jsonJob));
+    }
+
+    @Benchmark
+    public Object buildDetails_jsonParser() throws Exception {
+        return new JSONParser().parse(new InputStreamReader(new ByteArrayInputStream(buildDetails), StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Object buildDetails_streamReader() throws Exception {
+        return streamReader.readObject(new ByteArrayInputStream(buildDetails));
+    }
+
+    private static String getJson(String fileName) throws Exception {
+        try (InputStream in = HudsonJsonParserBenchmark.class.getResourceAsStream(fileName)) {
+            return IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(HudsonJsonParserBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
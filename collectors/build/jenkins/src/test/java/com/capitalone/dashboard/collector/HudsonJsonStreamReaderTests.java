@@ -0,0 +1,92 @@
+package com.capitalone.dashboard.collector;
+
+import org.apache.commons.io.IOUtils;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class HudsonJsonStreamReaderTests {
+
+    private final HudsonJsonStreamReader reader = new HudsonJsonStreamReader();
+
+    @Test
+    public void countJobs() throws Exception {
+        assertEquals(2, reader.countJobs(getStream("instanceJobs_twoJobsTwoBuilds.json")));
+    }
+
+    @Test
+    public void readJobs_keepsNameUrlAndBuilds() throws Exception {
+        List<String> names = new ArrayList<>();
+        List<JSONObject> jobs = new ArrayList<>();
+
+        int count = reader.readJobs(getStream("instanceJobs_twoJobsTwoBuilds.json"), (jobName, jsonJob) -> {
+            names.add(jobName);
+            jobs.add(jsonJob);
+        });
+
+        assertEquals(2, count);
+        assertEquals("job1", names.get(0));
+        assertEquals("job2", names.get(1));
+        assertEquals("http://server/job/job1/", jobs.get(0).get("url"));
+        JSONArray builds = (JSONArray) jobs.get(0).get("builds");
+        assertEquals(2, builds.size());
+        assertEquals(2L, ((JSONObject) builds.get(0)).get("number"));
+    }
+
+    @Test
+    public void readJobs_subJobsAfterParent() throws Exception {
+        String json = "{\"jobs\":[{\"jobs\":[{\"name\":\"master\",\"url\":\"http://server/job/folder/job/master/\"}],"
+                + "\"name\":\"folder\",\"url\":\"http://server/job/folder/\",\"color\":\"blue\"}]}";
+        List<String> names = new ArrayList<>();
+        List<JSONObject> jobs = new ArrayList<>();
+
+        int count = reader.readJobs(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), (jobName, jsonJob) -> {
+            names.add(jobName);
+            jobs.add(jsonJob);
+        });
+
+        assertEquals(1, count);
+        assertEquals("folder", names.get(0));
+        assertEquals("folder/master", names.get(1));
+        assertNull(jobs.get(0).get("color"));
+        assertNull(jobs.get(0).get("jobs"));
+    }
+
+    @Test
+    public void readObject_matchesJsonParser() throws Exception {
+        JSONObject expected = (JSONObject) new JSONParser().parse(getJson("buildDetails_full.json"));
+        JSONObject actual = reader.readObject(getStream("buildDetails_full.json"));
+
+        assertEquals(expected.get("number"), actual.get("number"));
+        assertEquals(expected.get("timestamp"), actual.get("timestamp"));
+        assertEquals(expected.get("result"), actual.get("result"));
+        assertEquals(expected.get("culprits"), actual.get("culprits"));
+        JSONArray expectedItems = (JSONArray) ((JSONObject) expected.get("changeSet")).get("items");
+        JSONArray actualItems = (JSONArray) ((JSONObject) actual.get("changeSet")).get("items");
+        assertEquals(expectedItems.size(), actualItems.size());
+        for (int i = 0; i < expectedItems.size(); i++) {
+            JSONObject expectedItem = (JSONObject) expectedItems.get(i);
+            JSONObject actualItem = (JSONObject) actualItems.get(i);
+            assertEquals(expectedItem.get("commitId"), actualItem.get("commitId"));
+            assertEquals(((JSONArray) expectedItem.get("paths")).size(), ((JSONArray) actualItem.get("paths")).size());
+        }
+    }
+
+    private InputStream getStream(String resource) {
+        return HudsonJsonStreamReaderTests.class.getResourceAsStream(resource);
+    }
+
+    private String getJson(String fileName) throws Exception {
+        return IOUtils.toString(getStream(fileName));
+    }
+}
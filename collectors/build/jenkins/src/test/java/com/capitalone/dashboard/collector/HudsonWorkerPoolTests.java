@@ -0,0 +1,79 @@
+package com.capitalone.dashboard.collector;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HudsonWorkerPoolTests {
+
+    private static final String SERVER1 = "http://server1";
+    private static final String SERVER2 = "http://server2";
+
+    @Test
+    public void submit_returnsTaskResult() throws Exception {
+        try (HudsonWorkerPool pool = new HudsonWorkerPool(4, 2)) {
+            assertEquals(Integer.valueOf(42), pool.submit(SERVER1, () -> 42).get());
+        }
+    }
+
+    @Test
+    public void submit_limitsConcurrencyPerServer() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        try (HudsonWorkerPool pool = new HudsonWorkerPool(10, 2)) {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(pool.submit(SERVER1, () -> track(running, maxRunning)));
+            }
+            for (Future<Integer> future : futures) {
+                future.get();
+            }
+        }
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    public void submit_limitsConcurrencyAcrossServers() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        try (HudsonWorkerPool pool = new HudsonWorkerPool(3, 2)) {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(pool.submit(i % 2 == 0 ? SERVER1 : SERVER2, () -> track(running, maxRunning)));
+            }
+            for (Future<Integer> future : futures) {
+                future.get();
+            }
+        }
+        assertTrue(maxRunning.get() <= 3);
+    }
+
+    @Test
+    public void submit_serversDoNotBlockEachOther() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (HudsonWorkerPool pool = new HudsonWorkerPool(4, 1)) {
+            Future<Boolean> blocked = pool.submit(SERVER1, () -> release.await(5, TimeUnit.SECONDS));
+            Future<Integer> other = pool.submit(SERVER2, () -> 1);
+
+            assertEquals(Integer.valueOf(1), other.get(5, TimeUnit.SECONDS));
+            release.countDown();
+            assertTrue(blocked.get());
+        }
+    }
+
+    private static int track(AtomicInteger running, AtomicInteger maxRunning) throws InterruptedException {
+        int now = running.incrementAndGet();
+        maxRunning.accumulateAndGet(now, Math::max);
+        Thread.sleep(5);
+        running.decrementAndGet();
+        return now;
+    }
+}
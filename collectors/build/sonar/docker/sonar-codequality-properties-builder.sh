@@ -99,6 +99,9 @@ sonar.metrics[0]=${SONAR_METRICS:-ncloc,line_coverage,violations,critical_violat
 #Sonar Version - see above for semantics between version/metrics
 sonar.versions[0]=${SONAR_VERSION}
 
+#Number of projects whose measures are fetched concurrently - default is 4
+sonar.fetchThreads=${SONAR_FETCH_THREADS:-4}
+
 EOF
 
 echo "
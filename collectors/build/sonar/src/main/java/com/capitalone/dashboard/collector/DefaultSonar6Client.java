@@ -28,7 +28,9 @@ import java.math.BigDecimal;
 import java.nio.charset.Charset;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 @Component
@@ -38,6 +40,8 @@ public class DefaultSonar6Client implements SonarClient {
     private static final String URL_RESOURCES = "/api/components/search?qualifiers=TRK&ps=10000";
     private static final String URL_RESOURCE_DETAILS = "/api/measures/component?format=json&componentId=%s&metricKeys=%s&includealerts=true";
     private static final String URL_PROJECT_ANALYSES = "/api/project_analyses/search?project=%s";
+    private static final String URL_ANALYSIS_DATES = "/api/components/search_projects?f=analysisDate&ps=%d&p=%d";
+    private static final int ANALYSIS_DATES_PAGE_SIZE = 500;
 
     private static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ssZ";
     private static final String ID = "id";
@@ -50,6 +54,9 @@ public class DefaultSonar6Client implements SonarClient {
     private static final String STATUS_ALERT = "ALERT";
     private static final String DATE = "date";
     private static final String EVENTS = "events";
+    private static final String ANALYSIS_DATE = "analysisDate";
+    private static final String PAGING = "paging";
+    private static final String TOTAL = "total";
 
     private final RestOperations rest;
     private final HttpEntity<String> httpHeaders;
@@ -93,6 +100,45 @@ public class DefaultSonar6Client implements SonarClient {
         return projects;
     }
 
+    /**
+     * Reads the last analysis dates from the project search, available from Sonar 6.2. Older instances
+     * answer an error, and an empty map is returned.
+     */
+    @Override
+    public Map<String, Long> getLastAnalysisDates(String instanceUrl) {
+        Map<String, Long> dates = new HashMap<>();
+        String url = null;
+
+        try {
+            int page = 1;
+            long total;
+            do {
+                url = String.format(instanceUrl + URL_ANALYSIS_DATES, ANALYSIS_DATES_PAGE_SIZE, page);
+                ResponseEntity<String> response = rest.exchange(url, HttpMethod.GET, this.httpHeaders, String.class);
+                JSONObject jsonObject = (JSONObject) new JSONParser().parse(response.getBody());
+                JSONArray components = (JSONArray) jsonObject.get("components");
+                if (components == null) {
+                    break;
+                }
+                for (Object obj : components) {
+                    JSONObject prjData = (JSONObject) obj;
+                    if (prjData.get(ANALYSIS_DATE) != null) {
+                        dates.put(str(prjData, ID), timestamp(prjData, ANALYSIS_DATE));
+                    }
+                }
+                JSONObject paging = (JSONObject) jsonObject.get(PAGING);
+                total = paging == null || paging.get(TOTAL) == null ? 0 : Long.parseLong(str(paging, TOTAL));
+                page++;
+            } while ((long) (page - 1) * ANALYSIS_DATES_PAGE_SIZE < total);
+        } catch (ParseException e) {
+            LOG.error("Could not parse response from: " + url, e);
+        } catch (RestClientException rce) {
+            LOG.warn("Last analysis dates not available from " + url + ": " + rce.getMessage());
+        }
+
+        return dates;
+    }
+
     @Override
     public CodeQuality currentCodeQuality(SonarProject project, String metrics) {
         String url = String.format(
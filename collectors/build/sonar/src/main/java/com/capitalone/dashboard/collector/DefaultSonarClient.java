@@ -28,7 +28,9 @@ import java.math.BigDecimal;
 import java.nio.charset.Charset;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 public class DefaultSonarClient implements SonarClient {
@@ -88,6 +90,26 @@ public class DefaultSonarClient implements SonarClient {
         return projects;
     }
 
+    @Override
+    public Map<String, Long> getLastAnalysisDates(String instanceUrl) {
+        Map<String, Long> dates = new HashMap<>();
+        String url = instanceUrl + URL_RESOURCES;
+
+        try {
+            for (Object obj : parseAsArray(url)) {
+                JSONObject prjData = (JSONObject) obj;
+                if (prjData.get(DATE) != null) {
+                    dates.put(str(prjData, ID), timestamp(prjData, DATE));
+                }
+            }
+        } catch (ParseException e) {
+            LOG.error("Could not parse response from: " + url, e);
+        } catch (RestClientException rce) {
+            LOG.error(rce);
+        }
+
+        return dates;
+    }
 
     @Override
     public CodeQuality currentCodeQuality(SonarProject project, String metrics) {
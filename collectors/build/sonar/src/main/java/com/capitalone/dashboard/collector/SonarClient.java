@@ -4,10 +4,19 @@ import com.capitalone.dashboard.model.CodeQuality;
 import com.capitalone.dashboard.model.SonarProject;
 
 import java.util.List;
+import java.util.Map;
 
 public interface SonarClient {
 
     List<SonarProject> getProjects(String instanceUrl);
     CodeQuality currentCodeQuality(SonarProject project, String metrics);
 
+    /**
+     * Fetches in one go the date of the last analysis of the projects of an instance.
+     *
+     * @param instanceUrl the Sonar instance
+     * @return the timestamp of the last analysis by project id, for the projects the instance reports it of
+     */
+    Map<String, Long> getLastAnalysisDates(String instanceUrl);
+
 }
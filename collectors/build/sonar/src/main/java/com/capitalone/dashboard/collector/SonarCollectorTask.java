@@ -1,13 +1,10 @@
 package com.capitalone.dashboard.collector;
 
 import com.capitalone.dashboard.model.CodeQuality;
-import com.capitalone.dashboard.model.CollectorItem;
-import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.model.SonarCollector;
 import com.capitalone.dashboard.model.SonarProject;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.CodeQualityRepository;
-import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.SonarCollectorRepository;
 import com.capitalone.dashboard.repository.SonarProjectRepository;
 import org.apache.commons.collections.CollectionUtils;
@@ -21,7 +18,12 @@ import org.springframework.stereotype.Component;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Component
 public class SonarCollectorTask extends CollectorTask<SonarCollector> {
@@ -33,7 +35,7 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
     private final CodeQualityRepository codeQualityRepository;
     private final SonarClientSelector sonarClientSelector;
     private final SonarSettings sonarSettings;
-    private final ComponentRepository dbComponentRepository;
+    private final EnabledCollectorItemResolver enabledCollectorItemResolver;
 
     @Autowired
     public SonarCollectorTask(TaskScheduler taskScheduler,
@@ -42,14 +44,14 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
                               CodeQualityRepository codeQualityRepository,
                               SonarSettings sonarSettings,
                               SonarClientSelector sonarClientSelector,
-                              ComponentRepository dbComponentRepository) {
+                              EnabledCollectorItemResolver enabledCollectorItemResolver) {
         super(taskScheduler, "Sonar");
         this.sonarCollectorRepository = sonarCollectorRepository;
         this.sonarProjectRepository = sonarProjectRepository;
         this.codeQualityRepository = codeQualityRepository;
         this.sonarSettings = sonarSettings;
         this.sonarClientSelector = sonarClientSelector;
-        this.dbComponentRepository = dbComponentRepository;
+        this.enabledCollectorItemResolver = enabledCollectorItemResolver;
     }
 
     @Override
@@ -74,8 +76,9 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
         Set<ObjectId> udId = new HashSet<>();
         udId.add(collector.getId());
         List<SonarProject> existingProjects = sonarProjectRepository.findByCollectorIdIn(udId);
-        List<SonarProject> latestProjects = new ArrayList<>();
-        clean(collector, existingProjects);
+        CollectorItemIndex<SonarProject> existingProjectIndex = new CollectorItemIndex<>(existingProjects, SonarProject.IDENTITY_OPTIONS);
+        CollectorItemIndex<SonarProject> latestProjects = new CollectorItemIndex<>(SonarProject.IDENTITY_OPTIONS);
+        clean(collector);
 
         if (!CollectionUtils.isEmpty(collector.getSonarServers())) {
             
@@ -93,9 +96,9 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
                 int projSize = ((CollectionUtils.isEmpty(projects)) ? 0 : projects.size());
                 log("Fetched projects   " + projSize, start);
 
-                addNewProjects(projects, existingProjects, collector);
+                addNewProjects(projects, existingProjectIndex, collector);
 
-                refreshData(enabledProjects(collector, instanceUrl), sonarClient,metrics);
+                refreshData(enabledProjects(collector, instanceUrl), sonarClient, instanceUrl, metrics);
 
                 log("Finished", start);
             }
@@ -110,42 +113,12 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
 	 * @param collector
 	 *            the {@link SonarCollector}
 	 */
-
-    @SuppressWarnings("PMD.AvoidDeeplyNestedIfStmts") // agreed PMD, fixme
-    private void clean(SonarCollector collector, List<SonarProject> existingProjects) {
-        Set<ObjectId> uniqueIDs = new HashSet<>();
-        for (com.capitalone.dashboard.model.Component comp : dbComponentRepository
-                .findAll()) {
-            if (comp.getCollectorItems() != null && !comp.getCollectorItems().isEmpty()) {
-                List<CollectorItem> itemList = comp.getCollectorItems().get(
-                        CollectorType.CodeQuality);
-                if (itemList != null) {
-                    for (CollectorItem ci : itemList) {
-                        if (ci != null && ci.getCollectorId().equals(collector.getId())) {
-                            uniqueIDs.add(ci.getId());
-                        }
-                    }
-                }
-            }
-        }
-        List<SonarProject> stateChangeJobList = new ArrayList<>();
-        Set<ObjectId> udId = new HashSet<>();
-        udId.add(collector.getId());
-        for (SonarProject job : existingProjects) {
-            // collect the jobs that need to change state : enabled vs disabled.
-            if ((job.isEnabled() && !uniqueIDs.contains(job.getId())) ||  // if it was enabled but not on a dashboard
-                    (!job.isEnabled() && uniqueIDs.contains(job.getId()))) { // OR it was disabled and now on a dashboard
-                job.setEnabled(uniqueIDs.contains(job.getId()));
-                stateChangeJobList.add(job);
-            }
-        }
-        if (!CollectionUtils.isEmpty(stateChangeJobList)) {
-            sonarProjectRepository.save(stateChangeJobList);
-        }
+    private void clean(SonarCollector collector) {
+        enabledCollectorItemResolver.updateEnabled(collector);
     }
 
 
-    private void deleteUnwantedJobs(List<SonarProject> latestProjects, List<SonarProject> existingProjects, SonarCollector collector) {
+    private void deleteUnwantedJobs(CollectorItemIndex<SonarProject> latestProjects, List<SonarProject> existingProjects, SonarCollector collector) {
         List<SonarProject> deleteJobList = new ArrayList<>();
 
         // First delete collector items that are not supposed to be collected anymore because the servers have moved(?)
@@ -162,26 +135,70 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
         }
     }
 
-    private void refreshData(List<SonarProject> sonarProjects, SonarClient sonarClient, String metrics) {
+    private void refreshData(List<SonarProject> sonarProjects, SonarClient sonarClient, String instanceUrl, String metrics) {
         long start = System.currentTimeMillis();
         int count = 0;
 
-        for (SonarProject project : sonarProjects) {
-            CodeQuality codeQuality = sonarClient.currentCodeQuality(project, metrics);
-            if (codeQuality != null && isNewQualityData(project, codeQuality)) {
-                codeQuality.setCollectorItemId(project.getId());
-                codeQualityRepository.save(codeQuality);
-                count++;
+        List<SonarProject> analysedProjects = analysedProjects(sonarProjects, sonarClient.getLastAnalysisDates(instanceUrl));
+        log("Re-analysed", start, analysedProjects.size());
+
+        // the measures are fetched concurrently, and saved from this thread
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, sonarSettings.getFetchThreads()));
+        try {
+            List<Future<CodeQuality>> futures = new ArrayList<>();
+            for (SonarProject project : analysedProjects) {
+                futures.add(executor.submit(() -> sonarClient.currentCodeQuality(project, metrics)));
+            }
+            for (int i = 0; i < analysedProjects.size(); i++) {
+                SonarProject project = analysedProjects.get(i);
+                CodeQuality codeQuality = getResult(futures.get(i));
+                if (codeQuality != null && isNewQualityData(project, codeQuality)) {
+                    codeQuality.setCollectorItemId(project.getId());
+                    codeQualityRepository.save(codeQuality);
+                    count++;
+                }
             }
+        } finally {
+            executor.shutdownNow();
         }
         log("Updated", start, count);
     }
 
+    /**
+     * Leaves out the projects whose last analysis is already stored. The projects the instance did not
+     * report a last analysis date of are kept.
+     */
+    private List<SonarProject> analysedProjects(List<SonarProject> sonarProjects, Map<String, Long> lastAnalysisDates) {
+        List<SonarProject> analysedProjects = new ArrayList<>();
+        for (SonarProject project : sonarProjects) {
+            Long lastAnalysis = lastAnalysisDates.get(project.getProjectId());
+            if (lastAnalysis == null
+                    || codeQualityRepository.findByCollectorItemIdAndTimestamp(project.getId(), lastAnalysis) == null) {
+                analysedProjects.add(project);
+            }
+        }
+        return analysedProjects;
+    }
+
+    private static <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching measures", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
     private List<SonarProject> enabledProjects(SonarCollector collector, String instanceUrl) {
         return sonarProjectRepository.findEnabledProjects(collector.getId(), instanceUrl);
     }
 
-    private void addNewProjects(List<SonarProject> projects, List<SonarProject> existingProjects, SonarCollector collector) {
+    private void addNewProjects(List<SonarProject> projects, CollectorItemIndex<SonarProject> existingProjects, SonarCollector collector) {
         long start = System.currentTimeMillis();
         int count = 0;
         List<SonarProject> newProjects = new ArrayList<>();
@@ -17,6 +17,7 @@ public class SonarSettings {
     private List<String> servers;
     private List<Double> versions;
     private List<String> metrics;
+    private int fetchThreads = 4;
 
     public String getCron() {
         return cron;
@@ -65,4 +66,12 @@ public class SonarSettings {
     public void setVersions(List<Double> versions) {
         this.versions = versions;
     }
+
+    public int getFetchThreads() {
+        return fetchThreads;
+    }
+
+    public void setFetchThreads(int fetchThreads) {
+        this.fetchThreads = fetchThreads;
+    }
 }
@@ -1,10 +1,19 @@
 package com.capitalone.dashboard.model;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 public class SonarProject extends CollectorItem {
     protected static final String INSTANCE_URL = "instanceUrl";
     protected static final String PROJECT_NAME = "projectName";
     protected static final String PROJECT_ID = "projectId";
 
+    /**
+     * The options identifying a project, as compared by {@link #equals(Object)}.
+     */
+    public static final List<String> IDENTITY_OPTIONS = Collections.unmodifiableList(Arrays.asList(INSTANCE_URL, PROJECT_ID));
+
     public String getInstanceUrl() {
         return (String) getOptions().get(INSTANCE_URL);
     }
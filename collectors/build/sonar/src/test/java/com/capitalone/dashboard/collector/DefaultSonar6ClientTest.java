@@ -15,17 +15,20 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestOperations;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -41,6 +44,7 @@ public class DefaultSonar6ClientTest {
     private static final String URL_RESOURCES = "/api/components/search?qualifiers=TRK&ps=10000";
     private static final String URL_RESOURCE_DETAILS = "/api/measures/component?format=json&componentId=%s&metricKeys=%s&includealerts=true";
     private static final String URL_PROJECT_ANALYSES = "/api/project_analyses/search?project=%s";
+    private static final String URL_ANALYSIS_DATES = "/api/components/search_projects?f=analysisDate&ps=500&p=1";
     private static final String SONAR_URL = "http://sonar.com";
     private static final String METRICS = "ncloc,violations,new_vulnerabilities,critical_violations,major_violations,blocker_violations,tests,test_success_density,test_errors,test_failures,coverage,line_coverage,sqale_index,alert_status,quality_gate_details";
 
@@ -81,6 +85,23 @@ public class DefaultSonar6ClientTest {
         assertThat(quality.getVersion(), is ("2.0.0"));
     }
 
+    @Test
+    public void getLastAnalysisDates() throws Exception {
+        String datesJson = getJson("sonar6analysisdates.json");
+        String datesUrl = SONAR_URL + URL_ANALYSIS_DATES;
+        doReturn(new ResponseEntity<>(datesJson, HttpStatus.OK)).when(rest).exchange(eq(datesUrl), eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class));
+        Map<String, Long> dates = defaultSonar6Client.getLastAnalysisDates(SONAR_URL);
+        assertThat(dates.size(), is(1));
+        assertThat(dates.get("AVu3b-MAphY78UZXuYHp"), is(1493299609000L));
+    }
+
+    @Test
+    public void getLastAnalysisDatesNotSupported() throws Exception {
+        String datesUrl = SONAR_URL + URL_ANALYSIS_DATES;
+        doThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND)).when(rest).exchange(eq(datesUrl), eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class));
+        assertThat(defaultSonar6Client.getLastAnalysisDates(SONAR_URL).isEmpty(), is(true));
+    }
+
 
     private String getJson(String fileName) throws IOException {
         InputStream inputStream = DefaultSonar6ClientTest.class.getResourceAsStream(fileName);
@@ -1,9 +1,9 @@
 package com.capitalone.dashboard.collector;
 
-import com.capitalone.dashboard.model.Component;
+import com.capitalone.dashboard.model.CodeQuality;
 import com.capitalone.dashboard.model.SonarCollector;
+import com.capitalone.dashboard.model.SonarProject;
 import com.capitalone.dashboard.repository.CodeQualityRepository;
-import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.SonarCollectorRepository;
 import com.capitalone.dashboard.repository.SonarProjectRepository;
 import org.bson.types.ObjectId;
@@ -13,10 +13,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -30,7 +32,7 @@ public class SonarCollectorTaskTest {
     @Mock private CodeQualityRepository codeQualityRepository;
 
     @Mock private SonarSettings sonarSettings;
-    @Mock private ComponentRepository dbComponentRepository;
+    @Mock private EnabledCollectorItemResolver enabledCollectorItemResolver;
     @Mock private SonarClientSelector sonarClientSelector;
     @Mock private DefaultSonarClient defaultSonarClient;
     @Mock private DefaultSonar6Client defaultSonar6Client;
@@ -45,14 +47,12 @@ public class SonarCollectorTaskTest {
 
     @Test
     public void collectEmpty() throws Exception {
-        when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(new SonarCollector());
         verifyZeroInteractions(sonarClientSelector, codeQualityRepository);
     }
 
     @Test
     public void collectOneServer43() throws Exception {
-        when(dbComponentRepository.findAll()).thenReturn(components());
         when(sonarClientSelector.getSonarClient(VERSION43)).thenReturn(defaultSonarClient);
         task.collect(collectorWithOneServer(VERSION43));
         verify(sonarClientSelector).getSonarClient(VERSION43);
@@ -60,7 +60,6 @@ public class SonarCollectorTaskTest {
 
     @Test
     public void collectOneServer54() throws Exception {
-        when(dbComponentRepository.findAll()).thenReturn(components());
         when(sonarClientSelector.getSonarClient(VERSION54)).thenReturn(defaultSonar6Client);
         task.collect(collectorWithOneServer(VERSION54));
         verify(sonarClientSelector).getSonarClient(VERSION54);
@@ -69,7 +68,6 @@ public class SonarCollectorTaskTest {
 
     @Test
     public void collectOneServer63() throws Exception {
-        when(dbComponentRepository.findAll()).thenReturn(components());
         when(sonarClientSelector.getSonarClient(VERSION63)).thenReturn(defaultSonar6Client);
         task.collect(collectorWithOneServer(VERSION63));
         verify(sonarClientSelector).getSonarClient(VERSION63);
@@ -78,7 +76,6 @@ public class SonarCollectorTaskTest {
 
     @Test
     public void collectTwoServer43And54() throws Exception {
-        when(dbComponentRepository.findAll()).thenReturn(components());
         when(sonarClientSelector.getSonarClient(VERSION54)).thenReturn(defaultSonar6Client);
         when(sonarClientSelector.getSonarClient(VERSION43)).thenReturn(defaultSonarClient);
         task.collect(collectorWithOnTwoServers(VERSION43, VERSION54));
@@ -86,14 +83,41 @@ public class SonarCollectorTaskTest {
         verify(sonarClientSelector).getSonarClient(VERSION54);
     }
 
-    private ArrayList<com.capitalone.dashboard.model.Component> components() {
-        ArrayList<com.capitalone.dashboard.model.Component> cArray = new ArrayList<>();
-        com.capitalone.dashboard.model.Component c = new Component();
-        c.setId(new ObjectId());
-        c.setName("COMPONENT1");
-        c.setOwner("JOHN");
-        cArray.add(c);
-        return cArray;
+
+    @Test
+    public void collectFetchesOnlyReanalysedProjects() throws Exception {
+        SonarCollector collector = collectorWithOneServer(VERSION63);
+        collector.setId(ObjectId.get());
+        SonarProject unchanged = project("unchanged");
+        SonarProject reanalysed = project("reanalysed");
+        SonarProject undated = project("undated");
+        Map<String, Long> lastAnalysisDates = new HashMap<>();
+        lastAnalysisDates.put("unchanged", 10L);
+        lastAnalysisDates.put("reanalysed", 20L);
+        CodeQuality codeQuality = new CodeQuality();
+        codeQuality.setTimestamp(20L);
+
+        when(sonarClientSelector.getSonarClient(VERSION63)).thenReturn(defaultSonar6Client);
+        when(sonarProjectRepository.findEnabledProjects(collector.getId(), SERVER1))
+                .thenReturn(Arrays.asList(unchanged, reanalysed, undated));
+        when(defaultSonar6Client.getLastAnalysisDates(SERVER1)).thenReturn(lastAnalysisDates);
+        when(codeQualityRepository.findByCollectorItemIdAndTimestamp(unchanged.getId(), 10L)).thenReturn(new CodeQuality());
+        when(defaultSonar6Client.currentCodeQuality(reanalysed, METRICS1)).thenReturn(codeQuality);
+
+        task.collect(collector);
+
+        verify(defaultSonar6Client, never()).currentCodeQuality(unchanged, METRICS1);
+        verify(defaultSonar6Client).currentCodeQuality(reanalysed, METRICS1);
+        verify(defaultSonar6Client).currentCodeQuality(undated, METRICS1);
+        verify(codeQualityRepository).save(codeQuality);
+    }
+
+    private SonarProject project(String projectId) {
+        SonarProject project = new SonarProject();
+        project.setId(ObjectId.get());
+        project.setInstanceUrl(SERVER1);
+        project.setProjectId(projectId);
+        return project;
     }
 
     private SonarCollector collectorWithOneServer(Double version) {
@@ -25,6 +25,7 @@ import com.capitalone.dashboard.model.CloudSubNetwork;
 import com.capitalone.dashboard.model.CloudVirtualNetwork;
 import com.capitalone.dashboard.model.CloudVolumeStorage;
 import com.capitalone.dashboard.model.Collector;
+import com.capitalone.dashboard.model.NameValue;
 import com.capitalone.dashboard.repository.AWSConfigRepository;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.CloudInstanceHistoryRepository;
@@ -32,18 +33,18 @@ import com.capitalone.dashboard.repository.CloudInstanceRepository;
 import com.capitalone.dashboard.repository.CloudSubNetworkRepository;
 import com.capitalone.dashboard.repository.CloudVirtualNetworkRepository;
 import com.capitalone.dashboard.repository.CloudVolumeRepository;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
-import org.springframework.util.CollectionUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Collects {@link AWSCloudCollector} data from feature content source system.
@@ -136,26 +137,29 @@ public class AWSCloudCollectorTask extends CollectorTask<AWSCloudCollector> {
     private Map<String, List<CloudInstance>> collectInstances() {
         Map<String, List<CloudInstance>> cloudInstanceMap = awsClient.getCloudInstances(cloudInstanceRepository);
         for (String account : cloudInstanceMap.keySet()) {
-            Collection<CloudInstance> collectedInstances = cloudInstanceMap.get(account);
-            Set<CloudInstance> saveList = new HashSet<>();
-            Collection<CloudInstance> deleteList = cloudInstanceRepository.findByAccountNumber(account); //Potential Delete List
-            for (CloudInstance current : collectedInstances) {
-                CloudInstance existing = cloudInstanceRepository.findByInstanceId(current.getInstanceId());
-                if (existing != null) {  // if it is a still in-use instance, do not delete it
-                    if (!CollectionUtils.isEmpty(deleteList)) {
-                        deleteList.remove(existing);
-                    }
+            Map<String, CloudInstance> existingInstances = new HashMap<>();
+            for (CloudInstance existing : cloudInstanceRepository.findByAccountNumber(account)) {
+                existingInstances.put(existing.getInstanceId(), existing);
+            }
+
+            List<CloudInstance> saveList = new ArrayList<>();
+            List<CloudInstance> metricsList = new ArrayList<>();
+            for (CloudInstance current : cloudInstanceMap.get(account)) {
+                current.setContentHash(contentHash(current));
+                // whatever is left in existingInstances is no longer in use and gets deleted
+                CloudInstance existing = existingInstances.remove(current.getInstanceId());
+                if (existing == null) {
+                    saveList.add(current);
+                } else if (!current.getContentHash().equals(existing.getContentHash())) {
                     saveList.add(updateWithExisting(existing, current));
+                } else {
+                    current.setId(existing.getId());
+                    metricsList.add(current);
                 }
-                saveList.add(current);
             }
 
-            if (!CollectionUtils.isEmpty(saveList)) {
-                cloudInstanceRepository.save(saveList);
-            }
-            if (!CollectionUtils.isEmpty(deleteList)) {
-                cloudInstanceRepository.delete(deleteList);
-            }
+            cloudInstanceRepository.bulkWrite(saveList, existingInstances.values());
+            cloudInstanceRepository.updateMetrics(metricsList);
             saveAggregatedHistory(account, cloudInstanceMap.get(account));
         }
         return cloudInstanceMap;
@@ -203,6 +207,12 @@ public class AWSCloudCollectorTask extends CollectorTask<AWSCloudCollector> {
             }
         }
         if (totalCount > 0) {
+            CloudInstanceHistory last = cloudInstanceHistoryRepository.findTopByAccountNumberOrderByTimeDesc(account);
+            if (last != null && last.getTotal() == totalCount && last.getStopped() == stoppedCount
+                    && last.getNonTagged() == unTaggedCount && last.getExpiredImage() == expiredImageCount) {
+                // only record the history of the account when its instances change state
+                return;
+            }
             CloudInstanceHistory history = new CloudInstanceHistory();
             history.setAccountNumber(account);
             history.setTime(System.currentTimeMillis());
@@ -214,6 +224,7 @@ public class AWSCloudCollectorTask extends CollectorTask<AWSCloudCollector> {
             history.setNetworkOut(totalNetworkOut / totalCount);
             history.setNetworkIn(totalNetworkIn / totalCount);
             history.setNonTagged(unTaggedCount);
+            history.setExpiredImage(expiredImageCount);
             //assumption: the estimated charge gets the full account's charge
             history.setEstimatedCharge(awsClient.get24HourInstanceEstimatedCharge());
             cloudInstanceHistoryRepository.save(history);
@@ -236,12 +247,51 @@ public class AWSCloudCollectorTask extends CollectorTask<AWSCloudCollector> {
     private void collectVolume(Map<String, String> instanceToAccountMap) {
         Map<String, List<CloudVolumeStorage>> accountVolume = awsClient.getCloudVolumes(instanceToAccountMap);
         for (String account : accountVolume.keySet()) {
-            Collection<CloudVolumeStorage> existing = cloudVolumeRepository.findByAccountNumber(account);
-            if (!CollectionUtils.isEmpty(existing)) {
-                cloudVolumeRepository.delete(existing);
+            Map<String, CloudVolumeStorage> existingVolumes = new HashMap<>();
+            for (CloudVolumeStorage existing : cloudVolumeRepository.findByAccountNumber(account)) {
+                existingVolumes.put(existing.getVolumeId(), existing);
             }
-            cloudVolumeRepository.save(accountVolume.get(account));
+
+            List<CloudVolumeStorage> saveList = new ArrayList<>();
+            for (CloudVolumeStorage current : accountVolume.get(account)) {
+                current.setContentHash(contentHash(current));
+                CloudVolumeStorage existing = existingVolumes.remove(current.getVolumeId());
+                if (existing == null) {
+                    saveList.add(current);
+                } else if (!current.getContentHash().equals(existing.getContentHash())) {
+                    current.setId(existing.getId());
+                    saveList.add(current);
+                }
+            }
+            cloudVolumeRepository.bulkWrite(saveList, existingVolumes.values());
+        }
+    }
+
+    /**
+     * Hashes the state of an instance. The metrics and the age change on every run, so they are left
+     * out; the instances whose state did not change only get those fields updated.
+     */
+    static String contentHash(CloudInstance instance) {
+        return DigestUtils.sha1Hex(Arrays.asList(instance.getAccountNumber(), instance.getInstanceType(),
+                instance.getImageId(), instance.getInstanceOwner(), instance.isMonitored(), instance.getPrivateDns(),
+                instance.getPrivateIp(), instance.getPublicDns(), instance.getPublicIp(), instance.getSubnetId(),
+                instance.getVirtualNetworkId(), instance.getStatus(), instance.isStopped(), instance.isTagged(),
+                instance.getSecurityGroups(), toStrings(instance.getTags()), instance.getRootDeviceName(),
+                instance.getAutoScaleName()).toString());
+    }
+
+    static String contentHash(CloudVolumeStorage volume) {
+        return DigestUtils.sha1Hex(Arrays.asList(volume.getAccountNumber(), volume.getStatus(),
+                volume.getCreationDate(), volume.getSize(), toStrings(volume.getTags()), volume.isEncrypted(),
+                volume.getType(), volume.getZone(), volume.getAttachInstances()).toString());
+    }
+
+    private static List<String> toStrings(List<NameValue> tags) {
+        List<String> rt = new ArrayList<>();
+        for (NameValue tag : tags) {
+            rt.add(tag.getName() + "=" + tag.getValue());
         }
+        return rt;
     }
 
     @Override
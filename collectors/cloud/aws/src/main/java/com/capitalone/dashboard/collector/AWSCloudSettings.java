@@ -24,6 +24,9 @@ public class AWSCloudSettings {
 
     private int historyDays;
 
+    // number of threads fetching the CloudWatch metrics of instances
+    private int metricThreads = 10;
+
 	public List<String> getValidTagKey() {
 		return validTagKey;
 	}
@@ -56,6 +59,14 @@ public class AWSCloudSettings {
         this.historyDays = historyDays;
     }
 
+    public int getMetricThreads() {
+        return metricThreads;
+    }
+
+    public void setMetricThreads(int metricThreads) {
+        this.metricThreads = metricThreads;
+    }
+
     public String getProxyHost() {
         return proxyHost;
     }
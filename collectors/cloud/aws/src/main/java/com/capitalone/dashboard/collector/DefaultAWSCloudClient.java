@@ -1,5 +1,6 @@
 package com.capitalone.dashboard.collector;
 
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSCredentialsProviderChain;
 import com.amazonaws.auth.InstanceProfileCredentialsProvider;
 import com.amazonaws.auth.profile.ProfileCredentialsProvider;
@@ -40,10 +41,16 @@ import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -78,14 +85,20 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
         ec2Client = new AmazonEC2Client(new AWSCredentialsProviderChain(new ProfileCredentialsProvider(settings.getProfile()),
                 new InstanceProfileCredentialsProvider()));
 
+        // one connection for each thread fetching metrics
+        ClientConfiguration cloudWatchConfiguration = new ClientConfiguration()
+                .withMaxConnections(Math.max(ClientConfiguration.DEFAULT_MAX_CONNECTIONS, getMetricThreads()));
         cloudWatchClient = new AmazonCloudWatchClient(new AWSCredentialsProviderChain(new ProfileCredentialsProvider(settings.getProfile()),
-                new InstanceProfileCredentialsProvider()));
+                new InstanceProfileCredentialsProvider()), cloudWatchConfiguration);
         autoScalingClient = new AmazonAutoScalingClient(new AWSCredentialsProviderChain(new ProfileCredentialsProvider(settings.getProfile()),
                 new InstanceProfileCredentialsProvider()));
     }
 
     /**
      * Calls AWS API and collects instance details.
+     * <p>
+     * The CloudWatch metrics of the instances are fetched by {@code aws.metricThreads} threads, across
+     * all accounts, and the instances collected before are read once per account.
      *
      * @param repository
      * @return List of CloudInstance
@@ -114,23 +127,55 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
             instanceList.addAll(currInstanceList);
         }
 
+        ExecutorService executor = Executors.newFixedThreadPool(getMetricThreads());
+        try {
+            return collectInstanceDetails(submitInstanceDetails(executor, ownerInstanceMap, autoScaleMap, repository),
+                    instanceList.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Submits the collection of each instance, after reading once per account when its instances were
+     * collected before.
+     */
+    private Map<String, List<Future<CloudInstance>>> submitInstanceDetails(ExecutorService executor,
+                                                                         Map<String, List<Instance>> ownerInstanceMap,
+                                                                         Map<String, String> autoScaleMap,
+                                                                         CloudInstanceRepository repository) {
+        Map<String, List<Future<CloudInstance>>> accountFutures = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Instance>> account : ownerInstanceMap.entrySet()) {
+            String acct = account.getKey();
+            Map<String, Long> lastUpdatedDates = getLastUpdatedDates(acct, repository);
+            List<Future<CloudInstance>> futures = new ArrayList<>();
+            for (Instance currInstance : account.getValue()) {
+                Long lastUpdated = lastUpdatedDates.get(currInstance.getInstanceId());
+                futures.add(executor.submit(() -> getCloudInstanceDetails(acct, currInstance, autoScaleMap,
+                        lastUpdated == null ? System.currentTimeMillis() : lastUpdated)));
+            }
+            accountFutures.put(acct, futures);
+        }
+        return accountFutures;
+    }
+
+    /**
+     * Waits for the instances of each account, in the order they were submitted.
+     */
+    private Map<String, List<CloudInstance>> collectInstanceDetails(Map<String, List<Future<CloudInstance>>> accountFutures,
+                                                                    int instanceCount) {
         Map<String, List<CloudInstance>> returnList = new HashMap<>();
         int i = 0;
-        for (String acct : ownerInstanceMap.keySet()) {
-            ArrayList<CloudInstance> rawDataList = new ArrayList<>();
-            for (Instance currInstance : ownerInstanceMap.get(acct)) {
+        for (Map.Entry<String, List<Future<CloudInstance>>> entry : accountFutures.entrySet()) {
+            List<CloudInstance> rawDataList = new ArrayList<>();
+            for (Future<CloudInstance> future : entry.getValue()) {
+                rawDataList.add(getResult(future));
                 i = i + 1;
-                LOGGER.info("Collecting instance details for " + i + " of "
-                        + instanceList.size() + ". Instance ID=" + currInstance.getInstanceId());
-                CloudInstance object = getCloudInstanceDetails(acct,
-                        currInstance, autoScaleMap, repository);
-                rawDataList.add(object);
-            }
-            if (CollectionUtils.isEmpty(returnList.get(acct))) {
-                returnList.put(acct, rawDataList);
-            } else {
-                returnList.get(acct).addAll(rawDataList);
+                if (i % 100 == 0 || i == instanceCount) {
+                    LOGGER.info("Collected instance details for " + i + " of " + instanceCount + " instances");
+                }
             }
+            returnList.put(entry.getKey(), rawDataList);
         }
         return returnList;
     }
@@ -140,17 +185,12 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
      *
      * @param account      Cloud Account
      * @param currInstance Cloud Instance
-     * @param repository   CloudInstnceRepository
+     * @param lastUpdated  when the instance was last collected
      * @return A single CloudInstance
      */
     private CloudInstance getCloudInstanceDetails(String account,
-                                                  Instance currInstance, Map<String, String> autoScaleMap, CloudInstanceRepository repository) {
+                                                  Instance currInstance, Map<String, String> autoScaleMap, long lastUpdated) {
 
-        long lastUpdated = System.currentTimeMillis();
-        CloudInstance instance = repository.findByInstanceId(currInstance.getInstanceId());
-        if (instance != null) {
-            lastUpdated = instance.getLastUpdatedDate();
-        }
         CloudInstance object = new CloudInstance();
         object.setAccountNumber(account);
         object.setLastUpdatedDate(System.currentTimeMillis());
@@ -192,6 +232,42 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
         return object;
     }
 
+    /**
+     * Reads when the instances of an account were last collected.
+     *
+     * @param account    Cloud Account
+     * @param repository CloudInstanceRepository
+     * @return Map of instance id and last updated date
+     */
+    private static Map<String, Long> getLastUpdatedDates(String account, CloudInstanceRepository repository) {
+        Map<String, Long> lastUpdatedDates = new HashMap<>();
+        Collection<CloudInstance> instances = repository.findByAccountNumber(account);
+        if (instances != null) {
+            for (CloudInstance instance : instances) {
+                lastUpdatedDates.put(instance.getInstanceId(), instance.getLastUpdatedDate());
+            }
+        }
+        return lastUpdatedDates;
+    }
+
+    private static CloudInstance getResult(Future<CloudInstance> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while collecting instance details", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private int getMetricThreads() {
+        return Math.max(1, settings.getMetricThreads());
+    }
+
     /**
      * Returns a map of account number of list of volumes associated with the account
      *
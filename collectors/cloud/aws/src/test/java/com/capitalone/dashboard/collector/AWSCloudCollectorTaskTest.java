@@ -0,0 +1,163 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.CloudInstance;
+import com.capitalone.dashboard.model.CloudInstanceHistory;
+import com.capitalone.dashboard.model.CloudVolumeStorage;
+import com.capitalone.dashboard.repository.CloudInstanceHistoryRepository;
+import com.capitalone.dashboard.repository.CloudInstanceRepository;
+import com.capitalone.dashboard.repository.CloudVolumeRepository;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AWSCloudCollectorTaskTest {
+    private static final String ACCOUNT = "123456789123";
+
+    @Mock private AWSCloudClient awsClient;
+    @Mock private CloudInstanceRepository cloudInstanceRepository;
+    @Mock private CloudVolumeRepository cloudVolumeRepository;
+    @Mock private CloudInstanceHistoryRepository cloudInstanceHistoryRepository;
+
+    @InjectMocks private AWSCloudCollectorTask task;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void collect_writesOnlyChangedInstances() {
+        CloudInstance unchanged = instance("i-1", "running");
+        CloudInstance changed = instance("i-2", "stopped");
+        CloudInstance added = instance("i-3", "running");
+        Map<String, List<CloudInstance>> collected = new HashMap<>();
+        collected.put(ACCOUNT, new ArrayList<>(Arrays.asList(unchanged, changed, added)));
+        when(awsClient.getCloudInstances(cloudInstanceRepository)).thenReturn(collected);
+        when(awsClient.getCloudVolumes(anyMap())).thenReturn(Collections.emptyMap());
+
+        CloudInstance unchangedExisting = instance("i-1", "running");
+        unchangedExisting.setContentHash(AWSCloudCollectorTask.contentHash(unchangedExisting));
+        CloudInstance changedExisting = instance("i-2", "running");
+        changedExisting.setContentHash(AWSCloudCollectorTask.contentHash(changedExisting));
+        CloudInstance removed = instance("i-4", "running");
+        when(cloudInstanceRepository.findByAccountNumber(ACCOUNT))
+                .thenReturn(Arrays.asList(unchangedExisting, changedExisting, removed));
+        when(awsClient.get24HourInstanceEstimatedCharge()).thenReturn(0.0);
+
+        task.collect(new AWSCloudCollector());
+
+        ArgumentCaptor<Collection> saves = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Collection> deletes = ArgumentCaptor.forClass(Collection.class);
+        verify(cloudInstanceRepository).bulkWrite(saves.capture(), deletes.capture());
+        assertEquals(Arrays.asList(changed, added), new ArrayList<>(saves.getValue()));
+        assertEquals(changedExisting.getId(), changed.getId());
+        assertEquals(Collections.singletonList(removed), new ArrayList<>(deletes.getValue()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void collect_updatesMetricsOfUnchangedInstances() {
+        CloudInstance current = instance("i-1", "running");
+        current.setCpuUtilization(42.0);
+        current.setNetworkIn(1024.0);
+        current.setLastUpdatedDate(2000L);
+        Map<String, List<CloudInstance>> collected = new HashMap<>();
+        collected.put(ACCOUNT, new ArrayList<>(Collections.singletonList(current)));
+        when(awsClient.getCloudInstances(cloudInstanceRepository)).thenReturn(collected);
+        when(awsClient.getCloudVolumes(anyMap())).thenReturn(Collections.emptyMap());
+
+        CloudInstance existing = instance("i-1", "running");
+        existing.setCpuUtilization(1.0);
+        existing.setLastUpdatedDate(1000L);
+        existing.setContentHash(AWSCloudCollectorTask.contentHash(existing));
+        when(cloudInstanceRepository.findByAccountNumber(ACCOUNT)).thenReturn(Collections.singletonList(existing));
+        when(awsClient.get24HourInstanceEstimatedCharge()).thenReturn(0.0);
+
+        task.collect(new AWSCloudCollector());
+
+        ArgumentCaptor<Collection> saves = ArgumentCaptor.forClass(Collection.class);
+        verify(cloudInstanceRepository).bulkWrite(saves.capture(), any(Collection.class));
+        assertEquals(0, saves.getValue().size());
+
+        ArgumentCaptor<Collection> updates = ArgumentCaptor.forClass(Collection.class);
+        verify(cloudInstanceRepository).updateMetrics(updates.capture());
+        assertEquals(Collections.singletonList(current), new ArrayList<>(updates.getValue()));
+        assertEquals(existing.getId(), current.getId());
+        assertEquals(42.0, current.getCpuUtilization(), 0.0);
+        assertEquals(2000L, current.getLastUpdatedDate());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void collect_writesOnlyChangedVolumes() {
+        when(awsClient.getCloudInstances(cloudInstanceRepository)).thenReturn(Collections.emptyMap());
+        Map<String, List<CloudVolumeStorage>> collected = new HashMap<>();
+        collected.put(ACCOUNT, Arrays.asList(volume("vol-1", "in-use"), volume("vol-2", "available")));
+        when(awsClient.getCloudVolumes(anyMap())).thenReturn(collected);
+
+        CloudVolumeStorage unchangedExisting = volume("vol-1", "in-use");
+        unchangedExisting.setContentHash(AWSCloudCollectorTask.contentHash(unchangedExisting));
+        when(cloudVolumeRepository.findByAccountNumber(ACCOUNT)).thenReturn(Collections.singletonList(unchangedExisting));
+
+        task.collect(new AWSCloudCollector());
+
+        ArgumentCaptor<Collection> saves = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Collection> deletes = ArgumentCaptor.forClass(Collection.class);
+        verify(cloudVolumeRepository).bulkWrite(saves.capture(), deletes.capture());
+        assertEquals(1, saves.getValue().size());
+        assertEquals("vol-2", ((CloudVolumeStorage) saves.getValue().iterator().next()).getVolumeId());
+        assertEquals(0, deletes.getValue().size());
+    }
+
+    @Test
+    public void collect_recordsHistoryOnlyOnStateChange() {
+        Map<String, List<CloudInstance>> collected = new HashMap<>();
+        collected.put(ACCOUNT, new ArrayList<>(Collections.singletonList(instance("i-1", "running"))));
+        when(awsClient.getCloudInstances(cloudInstanceRepository)).thenReturn(collected);
+        when(awsClient.getCloudVolumes(anyMap())).thenReturn(Collections.emptyMap());
+        when(cloudInstanceRepository.findByAccountNumber(ACCOUNT)).thenReturn(Collections.emptyList());
+
+        CloudInstanceHistory last = new CloudInstanceHistory();
+        last.setTotal(1);
+        when(cloudInstanceHistoryRepository.findTopByAccountNumberOrderByTimeDesc(ACCOUNT)).thenReturn(last);
+
+        task.collect(new AWSCloudCollector());
+
+        verify(cloudInstanceHistoryRepository, never()).save(any(CloudInstanceHistory.class));
+    }
+
+    private static CloudInstance instance(String instanceId, String status) {
+        CloudInstance instance = new CloudInstance();
+        instance.setId(ObjectId.get());
+        instance.setInstanceId(instanceId);
+        instance.setAccountNumber(ACCOUNT);
+        instance.setStatus(status);
+        instance.setIsTagged(true);
+        instance.setImageExpirationDate(Long.MAX_VALUE);
+        return instance;
+    }
+
+    private static CloudVolumeStorage volume(String volumeId, String status) {
+        CloudVolumeStorage volume = new CloudVolumeStorage();
+        volume.setVolumeId(volumeId);
+        volume.setAccountNumber(ACCOUNT);
+        volume.setStatus(status);
+        return volume;
+    }
+}
@@ -8,6 +8,10 @@ import com.amazonaws.services.cloudwatch.model.GetMetricStatisticsResult;
 import com.amazonaws.services.ec2.AmazonEC2Client;
 import com.amazonaws.services.ec2.model.DescribeInstancesResult;
 import com.amazonaws.services.ec2.model.DescribeVolumesResult;
+import com.amazonaws.services.ec2.model.Instance;
+import com.amazonaws.services.ec2.model.InstanceState;
+import com.amazonaws.services.ec2.model.Monitoring;
+import com.amazonaws.services.ec2.model.Reservation;
 import com.capitalone.dashboard.model.CloudInstance;
 import com.capitalone.dashboard.model.CloudVolumeStorage;
 import com.capitalone.dashboard.model.NameValue;
@@ -21,6 +25,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
@@ -28,7 +33,10 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -149,6 +157,46 @@ public class DefaultAWSCloudClientTest {
     }
 
 
+    @Test
+    public void getCloudInstancesFetchesMetricsConcurrently() throws Exception {
+        DescribeInstancesResult manyInstances = new DescribeInstancesResult();
+        for (String account : new String[]{ACCOUNT, "987654321987"}) {
+            List<Instance> instances = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                instances.add(new Instance()
+                        .withInstanceId(account + "-i-" + i)
+                        .withLaunchTime(new Date())
+                        .withMonitoring(new Monitoring().withState("enabled"))
+                        .withState(new InstanceState().withName("running")));
+            }
+            manyInstances.getReservations().add(new Reservation().withOwnerId(account).withInstances(instances));
+        }
+        when(ec2Client.describeInstances()).thenReturn(manyInstances);
+        when(autoScalingClient.describeAutoScalingInstances()).thenReturn(new DescribeAutoScalingInstancesResult());
+        when(settings.getMetricThreads()).thenReturn(8);
+        when(settings.getProxyHost()).thenReturn("http://myproxy.com");
+        when(settings.getProxyPort()).thenReturn("8080");
+        when(settings.getProfile()).thenReturn("ABCDEG");
+        when(settings.getNonProxy()).thenReturn("localhost");
+
+        StubCloudWatchClient stubCloudWatchClient = new StubCloudWatchClient(20);
+        defaultAWSCloudClient = new DefaultAWSCloudClient(settings);
+        defaultAWSCloudClient.setEc2Client(ec2Client);
+        defaultAWSCloudClient.setAutoScalingClient(autoScalingClient);
+        defaultAWSCloudClient.setCloudWatchClient(stubCloudWatchClient);
+
+        Map<String, List<CloudInstance>> results = defaultAWSCloudClient.getCloudInstances(cloudInstanceRepository);
+
+        assertEquals(2, results.size());
+        assertEquals(20, results.get(ACCOUNT).size());
+        assertEquals(ACCOUNT + "-i-0", results.get(ACCOUNT).get(0).getInstanceId());
+        assertEquals(1.0, results.get(ACCOUNT).get(0).getCpuUtilization(), 0.0);
+        assertEquals(200, stubCloudWatchClient.getRequests());
+        assertTrue(stubCloudWatchClient.getMaxInFlight() > 1);
+        verify(cloudInstanceRepository, times(2)).findByAccountNumber(anyString());
+        verify(cloudInstanceRepository, never()).findByInstanceId(anyString());
+    }
+
     @Test
     public void getCloudInstancesEmpty() throws Exception {
         when(ec2Client.describeInstances()).thenReturn(new DescribeInstancesResult());
@@ -0,0 +1,48 @@
+package com.capitalone.dashboard.collector;
+
+import com.amazonaws.services.cloudwatch.AmazonCloudWatchClient;
+import com.amazonaws.services.cloudwatch.model.Datapoint;
+import com.amazonaws.services.cloudwatch.model.GetMetricStatisticsRequest;
+import com.amazonaws.services.cloudwatch.model.GetMetricStatisticsResult;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local CloudWatch client answering every metric request after a fixed latency, to measure how the
+ * collector copes with many instances without calling AWS.
+ */
+class StubCloudWatchClient extends AmazonCloudWatchClient {
+    private final long latencyMillis;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    StubCloudWatchClient(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public GetMetricStatisticsResult getMetricStatistics(GetMetricStatisticsRequest request) {
+        requests.incrementAndGet();
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        return new GetMetricStatisticsResult()
+                .withLabel(request.getMetricName())
+                .withDatapoints(new Datapoint().withAverage(1.0));
+    }
+
+    int getRequests() {
+        return requests.get();
+    }
+
+    int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+}
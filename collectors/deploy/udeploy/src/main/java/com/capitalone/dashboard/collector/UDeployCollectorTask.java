@@ -1,7 +1,6 @@
 package com.capitalone.dashboard.collector;
 
-import com.capitalone.dashboard.model.CollectorItem;
-import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.BaseModel;
 import com.capitalone.dashboard.model.Environment;
 import com.capitalone.dashboard.model.EnvironmentComponent;
 import com.capitalone.dashboard.model.EnvironmentStatus;
@@ -9,7 +8,6 @@ import com.capitalone.dashboard.model.UDeployApplication;
 import com.capitalone.dashboard.model.UDeployCollector;
 import com.capitalone.dashboard.model.UDeployEnvResCompData;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
-import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.EnvironmentComponentRepository;
 import com.capitalone.dashboard.repository.EnvironmentStatusRepository;
 import com.capitalone.dashboard.repository.UDeployApplicationRepository;
@@ -26,9 +24,14 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Collects {@link EnvironmentComponent} and {@link EnvironmentStatus} data from
@@ -47,7 +50,7 @@ public class UDeployCollectorTask extends CollectorTask<UDeployCollector> {
     private final EnvironmentComponentRepository envComponentRepository;
     private final EnvironmentStatusRepository environmentStatusRepository;
 
-    private final ComponentRepository dbComponentRepository;
+    private final EnabledCollectorItemResolver enabledCollectorItemResolver;
 
     @Autowired
     public UDeployCollectorTask(TaskScheduler taskScheduler,
@@ -56,7 +59,7 @@ public class UDeployCollectorTask extends CollectorTask<UDeployCollector> {
                                 EnvironmentComponentRepository envComponentRepository,
                                 EnvironmentStatusRepository environmentStatusRepository,
                                 UDeploySettings uDeploySettings, UDeployClient uDeployClient,
-                                ComponentRepository dbComponentRepository) {
+                                EnabledCollectorItemResolver enabledCollectorItemResolver) {
         super(taskScheduler, "UDeploy");
         this.uDeployCollectorRepository = uDeployCollectorRepository;
         this.uDeployApplicationRepository = uDeployApplicationRepository;
@@ -64,7 +67,7 @@ public class UDeployCollectorTask extends CollectorTask<UDeployCollector> {
         this.uDeployClient = uDeployClient;
         this.envComponentRepository = envComponentRepository;
         this.environmentStatusRepository = environmentStatusRepository;
-        this.dbComponentRepository = dbComponentRepository;
+        this.enabledCollectorItemResolver = enabledCollectorItemResolver;
     }
 
     @Override
@@ -105,31 +108,9 @@ public class UDeployCollectorTask extends CollectorTask<UDeployCollector> {
      *
      * @param collector the {@link UDeployCollector}
      */
-    @SuppressWarnings("PMD.AvoidDeeplyNestedIfStmts")
     private void clean(UDeployCollector collector) {
         deleteUnwantedJobs(collector);
-        Set<ObjectId> uniqueIDs = new HashSet<>();
-        for (com.capitalone.dashboard.model.Component comp : dbComponentRepository
-                .findAll()) {
-            if (comp.getCollectorItems() == null || comp.getCollectorItems().isEmpty()) continue;
-            List<CollectorItem> itemList = comp.getCollectorItems().get(
-                    CollectorType.Deployment);
-            if (itemList == null) continue;
-            for (CollectorItem ci : itemList) {
-                if (ci == null) continue;
-                uniqueIDs.add(ci.getId());
-            }
-        }
-        List<UDeployApplication> appList = new ArrayList<>();
-        Set<ObjectId> udId = new HashSet< >();
-        udId.add(collector.getId());
-        for (UDeployApplication app : uDeployApplicationRepository.findByCollectorIdIn(udId)) {
-            if (app != null) {
-                app.setEnabled(uniqueIDs.contains(app.getId()));
-                appList.add(app);
-            }
-        }
-        uDeployApplicationRepository.save(appList);
+        enabledCollectorItemResolver.updateEnabled(collector);
     }
 
     private void deleteUnwantedJobs(UDeployCollector collector) {
@@ -212,23 +193,101 @@ public class UDeployCollectorTask extends CollectorTask<UDeployCollector> {
                 compList.addAll(getEnvironmentComponent(combinedDataList, environment, application));
                 statusList.addAll(getEnvironmentStatus(combinedDataList));
             }
+            int changes = 0;
             if (!compList.isEmpty()) {
                 List<EnvironmentComponent> existingComponents = envComponentRepository
                         .findByCollectorItemId(application.getId());
-                envComponentRepository.delete(existingComponents);
-                envComponentRepository.save(compList);
+                List<EnvironmentComponent> saves = new ArrayList<>();
+                List<EnvironmentComponent> deletes = new ArrayList<>();
+                diff(existingComponents, compList, UDeployCollectorTask::componentKey,
+                        UDeployCollectorTask::componentContent, saves, deletes);
+                envComponentRepository.bulkWrite(saves, deletes);
+                changes += saves.size() + deletes.size();
             }
             if (!statusList.isEmpty()) {
                 List<EnvironmentStatus> existingStatuses = environmentStatusRepository
                         .findByCollectorItemId(application.getId());
-                environmentStatusRepository.delete(existingStatuses);
-                environmentStatusRepository.save(statusList);
+                List<EnvironmentStatus> saves = new ArrayList<>();
+                List<EnvironmentStatus> deletes = new ArrayList<>();
+                diff(existingStatuses, statusList, UDeployCollectorTask::statusKey,
+                        UDeployCollectorTask::statusContent, saves, deletes);
+                environmentStatusRepository.bulkWrite(saves, deletes);
+                changes += saves.size() + deletes.size();
             }
 
-            log(" " + application.getApplicationName(), startApp);
+            log(" " + application.getApplicationName(), startApp, changes);
         }
     }
 
+    /**
+     * Computes the writes that turn the stored documents of an application into the current ones.
+     * Documents are matched on their key; a matched document is only rewritten, under its id, when its
+     * content changed. Unmatched stored documents are deleted. Rewriting unchanged components would have
+     * the pipelines process a deployment that did not happen.
+     *
+     * @param existing the stored documents
+     * @param current the documents just collected
+     * @param key the identity of a document
+     * @param content the fields of a document that are compared
+     * @param saves receives the documents to insert or replace
+     * @param deletes receives the documents to delete
+     */
+    private static <T extends BaseModel> void diff(List<T> existing, List<T> current,
+                                                   Function<T, List<Object>> key, Function<T, List<Object>> content,
+                                                   List<T> saves, List<T> deletes) {
+        // several documents can share a key, one per resource for instance
+        Map<List<Object>, List<T>> existingByKey = new HashMap<>();
+        for (T document : existing) {
+            existingByKey.computeIfAbsent(key.apply(document), k -> new ArrayList<>()).add(document);
+        }
+        List<T> changed = new ArrayList<>();
+        for (T document : current) {
+            List<T> matches = existingByKey.get(key.apply(document));
+            if (matches == null || !removeSame(matches, content.apply(document), content)) {
+                changed.add(document);
+            }
+        }
+        for (T document : changed) {
+            List<T> matches = existingByKey.get(key.apply(document));
+            if (matches != null && !matches.isEmpty()) {
+                document.setId(matches.remove(0).getId());
+            }
+            saves.add(document);
+        }
+        for (List<T> unmatched : existingByKey.values()) {
+            deletes.addAll(unmatched);
+        }
+    }
+
+    private static <T> boolean removeSame(List<T> documents, List<Object> content, Function<T, List<Object>> contentOf) {
+        for (Iterator<T> it = documents.iterator(); it.hasNext(); ) {
+            if (content.equals(contentOf.apply(it.next()))) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Object> componentKey(EnvironmentComponent component) {
+        return Arrays.asList(component.getEnvironmentName(), component.getComponentName(), component.getComponentVersion());
+    }
+
+    private static List<Object> componentContent(EnvironmentComponent component) {
+        return Arrays.asList(component.getEnvironmentName(), component.getComponentName(), component.getComponentVersion(),
+                component.isDeployed(), component.getAsOfDate(), component.getDeployTime(), component.getEnvironmentUrl(),
+                component.getEnvironmentID(), component.getComponentID(), component.getJobUrl());
+    }
+
+    private static List<Object> statusKey(EnvironmentStatus status) {
+        return Arrays.asList(status.getEnvironmentName(), status.getComponentName(), status.getResourceName());
+    }
+
+    private static List<Object> statusContent(EnvironmentStatus status) {
+        return Arrays.asList(status.getEnvironmentName(), status.getComponentName(), status.getResourceName(),
+                status.getComponentID(), status.isOnline(), status.getParentAgentName());
+    }
+
     private List<UDeployApplication> enabledApplications(
             UDeployCollector collector, String instanceUrl) {
         return uDeployApplicationRepository.findEnabledApplications(
@@ -0,0 +1,188 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.Environment;
+import com.capitalone.dashboard.model.EnvironmentComponent;
+import com.capitalone.dashboard.model.EnvironmentStatus;
+import com.capitalone.dashboard.model.UDeployApplication;
+import com.capitalone.dashboard.model.UDeployCollector;
+import com.capitalone.dashboard.model.UDeployEnvResCompData;
+import com.capitalone.dashboard.repository.EnvironmentComponentRepository;
+import com.capitalone.dashboard.repository.EnvironmentStatusRepository;
+import com.capitalone.dashboard.repository.UDeployApplicationRepository;
+import com.capitalone.dashboard.repository.UDeployCollectorRepository;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UDeployCollectorTaskTest {
+    private static final String SERVER = "http://udeploy.com/";
+    private static final Environment DEV = new Environment("env-1", "DEV");
+
+    @Mock private TaskScheduler taskScheduler;
+    @Mock private UDeployCollectorRepository uDeployCollectorRepository;
+    @Mock private UDeployApplicationRepository uDeployApplicationRepository;
+    @Mock private EnvironmentComponentRepository envComponentRepository;
+    @Mock private EnvironmentStatusRepository environmentStatusRepository;
+    @Mock private UDeployClient uDeployClient;
+    @Mock private EnabledCollectorItemResolver enabledCollectorItemResolver;
+
+    private UDeployCollectorTask task;
+    private UDeployCollector collector;
+    private UDeployApplication application;
+
+    @Before
+    public void setup() {
+        task = new UDeployCollectorTask(taskScheduler, uDeployCollectorRepository, uDeployApplicationRepository,
+                envComponentRepository, environmentStatusRepository, new UDeploySettings(), uDeployClient,
+                enabledCollectorItemResolver);
+        collector = UDeployCollector.prototype(Collections.singletonList(SERVER), Collections.<String>emptyList());
+        collector.setId(ObjectId.get());
+        application = new UDeployApplication();
+        application.setId(ObjectId.get());
+        application.setInstanceUrl(SERVER);
+        application.setApplicationName("app");
+        when(uDeployApplicationRepository.findEnabledApplications(collector.getId(), SERVER))
+                .thenReturn(Collections.singletonList(application));
+        when(uDeployClient.getEnvironments(application)).thenReturn(Collections.singletonList(DEV));
+    }
+
+    @Test
+    public void collect_unchangedComponentsAreNotWritten() {
+        collected(data("web", "1.0", "res-1", 1000));
+        existing(stored("web", "1.0", 1000));
+
+        task.collect(collector);
+
+        assertTrue(componentSaves().isEmpty());
+        assertTrue(componentDeletes().isEmpty());
+    }
+
+    @Test
+    public void collect_versionChangedComponentIsSavedAndOldVersionDeleted() {
+        collected(data("web", "1.1", "res-1", 2000));
+        EnvironmentComponent old = stored("web", "1.0", 1000);
+        existing(old);
+
+        task.collect(collector);
+
+        List<EnvironmentComponent> saves = componentSaves();
+        assertEquals(1, saves.size());
+        assertEquals("1.1", saves.get(0).getComponentVersion());
+        assertNull(saves.get(0).getId());
+        assertEquals(Collections.singletonList(old), componentDeletes());
+    }
+
+    @Test
+    public void collect_redeployedComponentIsReplacedUnderItsId() {
+        collected(data("web", "1.0", "res-1", 2000));
+        EnvironmentComponent old = stored("web", "1.0", 1000);
+        existing(old);
+
+        task.collect(collector);
+
+        List<EnvironmentComponent> saves = componentSaves();
+        assertEquals(1, saves.size());
+        assertEquals(old.getId(), saves.get(0).getId());
+        assertEquals(2000, saves.get(0).getAsOfDate());
+        assertTrue(componentDeletes().isEmpty());
+    }
+
+    @Test
+    public void collect_removedComponentIsDeleted() {
+        collected(data("web", "1.0", "res-1", 1000));
+        EnvironmentComponent web = stored("web", "1.0", 1000);
+        EnvironmentComponent api = stored("api", "2.0", 1000);
+        existing(web, api);
+
+        task.collect(collector);
+
+        assertTrue(componentSaves().isEmpty());
+        assertEquals(Collections.singletonList(api), componentDeletes());
+    }
+
+    @Test
+    public void collect_componentsOnSeveralResourcesAreMatchedOneToOne() {
+        collected(data("web", "1.0", "res-1", 1000), data("web", "1.0", "res-2", 2000));
+        EnvironmentComponent first = stored("web", "1.0", 1000);
+        EnvironmentComponent second = stored("web", "1.0", 1000);
+        existing(first, second);
+
+        task.collect(collector);
+
+        // one stored copy matches the first resource, the other one is rewritten for the second resource
+        List<EnvironmentComponent> saves = componentSaves();
+        assertEquals(1, saves.size());
+        assertEquals(2000, saves.get(0).getAsOfDate());
+        assertEquals(second.getId(), saves.get(0).getId());
+        assertTrue(componentDeletes().isEmpty());
+    }
+
+    private void collected(UDeployEnvResCompData... data) {
+        when(uDeployClient.getEnvironmentResourceStatusData(application, DEV)).thenReturn(Arrays.asList(data));
+    }
+
+    private void existing(EnvironmentComponent... components) {
+        when(envComponentRepository.findByCollectorItemId(application.getId())).thenReturn(Arrays.asList(components));
+        when(environmentStatusRepository.findByCollectorItemId(application.getId()))
+                .thenReturn(new ArrayList<EnvironmentStatus>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EnvironmentComponent> componentSaves() {
+        ArgumentCaptor<Collection> saves = ArgumentCaptor.forClass(Collection.class);
+        verify(envComponentRepository).bulkWrite(saves.capture(), any(Collection.class));
+        return new ArrayList<>(saves.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EnvironmentComponent> componentDeletes() {
+        ArgumentCaptor<Collection> deletes = ArgumentCaptor.forClass(Collection.class);
+        verify(envComponentRepository).bulkWrite(any(Collection.class), deletes.capture());
+        return new ArrayList<>(deletes.getValue());
+    }
+
+    private UDeployEnvResCompData data(String component, String version, String resource, long asOfDate) {
+        UDeployEnvResCompData data = new UDeployEnvResCompData();
+        data.setCollectorItemId(application.getId());
+        data.setEnvironmentName(DEV.getName());
+        data.setComponentName(component);
+        data.setComponentVersion(version);
+        data.setResourceName(resource);
+        data.setDeployed(true);
+        data.setOnline(true);
+        data.setAsOfDate(asOfDate);
+        return data;
+    }
+
+    private EnvironmentComponent stored(String component, String version, long asOfDate) {
+        EnvironmentComponent stored = new EnvironmentComponent();
+        stored.setId(ObjectId.get());
+        stored.setCollectorItemId(application.getId());
+        stored.setEnvironmentName(DEV.getName());
+        stored.setComponentName(component);
+        stored.setComponentVersion(version);
+        stored.setDeployed(true);
+        stored.setAsOfDate(asOfDate);
+        stored.setEnvironmentUrl(SERVER + "#environment/" + DEV.getId());
+        return stored;
+    }
+}
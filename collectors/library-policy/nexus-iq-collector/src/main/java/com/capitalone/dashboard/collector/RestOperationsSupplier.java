@@ -1,14 +1,22 @@
 package com.capitalone.dashboard.collector;
 
+import com.capitalone.dashboard.config.HttpClientFactory;
 import com.capitalone.dashboard.util.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestOperations;
-import org.springframework.web.client.RestTemplate;
 
 @Component
 public class RestOperationsSupplier implements Supplier<RestOperations> {
+    private final HttpClientFactory httpClientFactory;
+
+    @Autowired
+    public RestOperationsSupplier(HttpClientFactory httpClientFactory) {
+        this.httpClientFactory = httpClientFactory;
+    }
+
     @Override
     public RestOperations get() {
-        return new RestTemplate();
+        return httpClientFactory.createRestOperations();
     }
 }
@@ -2,17 +2,14 @@ package com.capitalone.dashboard.collector;
 
 
 import com.capitalone.dashboard.model.Collector;
-import com.capitalone.dashboard.model.CollectorItem;
 import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.model.Commit;
 import com.capitalone.dashboard.model.GitRepo;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.CommitRepository;
-import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.GitRepoRepository;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
@@ -21,10 +18,8 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * CollectorTask that fetches Commit information from Git
@@ -38,7 +33,7 @@ public class GitCollectorTask extends CollectorTask<Collector> {
     private final CommitRepository commitRepository;
     private final GitClient gitClient;
     private final GitSettings gitSettings;
-    private final ComponentRepository dbComponentRepository;
+    private final EnabledCollectorItemResolver enabledCollectorItemResolver;
 
     @Autowired
     public GitCollectorTask(TaskScheduler taskScheduler,
@@ -47,14 +42,14 @@ public class GitCollectorTask extends CollectorTask<Collector> {
                             CommitRepository commitRepository,
                             GitClient gitClient,
                             GitSettings gitSettings,
-                            ComponentRepository dbComponentRepository) {
+                            EnabledCollectorItemResolver enabledCollectorItemResolver) {
         super(taskScheduler, "Bitbucket");
         this.collectorRepository = collectorRepository;
         this.gitRepoRepository = gitRepoRepository;
         this.commitRepository = commitRepository;
         this.gitClient = gitClient;
         this.gitSettings = gitSettings;
-        this.dbComponentRepository = dbComponentRepository;
+        this.enabledCollectorItemResolver = enabledCollectorItemResolver;
     }
 
     @Override
@@ -96,38 +91,8 @@ public class GitCollectorTask extends CollectorTask<Collector> {
      *
      * @param collector the {@link Collector}
      */
-
     private void clean(Collector collector) {
-        Set<ObjectId> uniqueIDs = new HashSet<ObjectId>();
-        /**
-         * Logic: For each component, retrieve the collector item list of the type SCM.
-         * Store their IDs in a unique set ONLY if their collector IDs match with Bitbucket collectors ID.
-         */
-        for (com.capitalone.dashboard.model.Component comp : dbComponentRepository.findAll()) {
-            if (comp.getCollectorItems() == null || comp.getCollectorItems().isEmpty()) continue;
-            List<CollectorItem> itemList = comp.getCollectorItems().get(CollectorType.SCM);
-            if (itemList == null) continue;
-            for (CollectorItem ci : itemList) {
-                if (ci != null && ci.getCollectorId().equals(collector.getId())) {
-                    uniqueIDs.add(ci.getId());
-                }
-            }
-        }
-
-        /**
-         * Logic: Get all the collector items from the collector_item collection for this collector.
-         * If their id is in the unique set (above), keep them enabled; else, disable them.
-         */
-        List<GitRepo> repoList = new ArrayList<GitRepo>();
-        Set<ObjectId> gitID = new HashSet<ObjectId>();
-        gitID.add(collector.getId());
-        for (GitRepo repo : gitRepoRepository.findByCollectorIdIn(gitID)) {
-            if (repo != null) {
-                repo.setEnabled(uniqueIDs.contains(repo.getId()));
-                repoList.add(repo);
-            }
-        }
-        gitRepoRepository.save(repoList);
+        enabledCollectorItemResolver.updateEnabled(collector);
     }
 
 
@@ -56,6 +56,12 @@ github.commitThresholdDays=${GITHUB_COMMIT_THRESHOLD_DAYS:-15}
 
 #Optional: Error threshold count after which collector stops collecting for a collector item. Default is 2.
 github.errorThreshold=${GITHUB_ERROR_THRESHOLD:-1}
+
+#Optional: Number of pull request comment threads fetched at the same time. Default is 4.
+github.commentThreads=${GITHUB_COMMENT_THREADS:-4}
+
+#Optional: Number of comment pages whose ETag is kept for conditional requests. Default is 10000.
+github.conditionalCacheSize=${GITHUB_CONDITIONAL_CACHE_SIZE:-10000}
 EOF
 
 echo "
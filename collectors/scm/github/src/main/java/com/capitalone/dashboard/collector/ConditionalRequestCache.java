@@ -0,0 +1,159 @@
+package com.capitalone.dashboard.collector;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the ETag, Last-Modified and content of the GitHub responses of a URL, so that the URL
+ * can be requested again conditionally. GitHub answers 304 Not Modified when the content has not
+ * changed, and such responses do not count against the rate limit.
+ * <p>
+ * The least recently used URLs are evicted beyond the configured number of entries or bytes. The
+ * bytes are estimated from the length of the cached contents, two bytes per character, and a
+ * content larger than the whole budget is not cached. The cache is safe to use from several threads.
+ */
+class ConditionalRequestCache {
+    private static final String LINK = "Link";
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxEntries;
+    private final long maxBytes;
+    private long bytes;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong conditionalRequests = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+
+    ConditionalRequestCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Adds the validators of the cached response of a URL to the headers of its request.
+     *
+     * @param url the URL about to be requested
+     * @param headers the request headers
+     */
+    void addConditions(String url, HttpHeaders headers) {
+        requests.incrementAndGet();
+        Entry entry = get(url);
+        if (entry == null) {
+            return;
+        }
+        conditionalRequests.incrementAndGet();
+        if (entry.etag != null) {
+            headers.setIfNoneMatch(entry.etag);
+        }
+        if (entry.lastModified != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, entry.lastModified);
+        }
+    }
+
+    /**
+     * Caches a response, or answers a 304 Not Modified with the cached content.
+     *
+     * @param url the URL requested
+     * @param response the response received
+     * @return the response, with the cached content if it was not modified
+     */
+    ResponseEntity<String> resolve(String url, ResponseEntity<String> response) {
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            Entry entry = get(url);
+            return entry == null ? response : fromCache(entry, response);
+        }
+
+        String etag = response.getHeaders().getETag();
+        String lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+        if (response.getStatusCode() == HttpStatus.OK && (etag != null || lastModified != null)) {
+            Entry entry = new Entry();
+            entry.etag = etag;
+            entry.lastModified = lastModified;
+            entry.link = response.getHeaders().getFirst(LINK);
+            entry.body = response.getBody();
+            put(url, entry);
+        }
+        return response;
+    }
+
+    private ResponseEntity<String> fromCache(Entry entry, ResponseEntity<String> response) {
+        notModified.incrementAndGet();
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        if (entry.link != null && !headers.containsKey(LINK)) {
+            headers.set(LINK, entry.link);
+        }
+        return new ResponseEntity<>(entry.body, headers, HttpStatus.OK);
+    }
+
+    private void put(String url, Entry entry) {
+        synchronized (entries) {
+            Entry previous = entries.remove(url);
+            if (previous != null) {
+                bytes -= previous.bytes();
+            }
+            if (entry.bytes() > maxBytes) {
+                return;
+            }
+            entries.put(url, entry);
+            bytes += entry.bytes();
+            // the iteration order is the access order, least recently used first
+            for (Iterator<Entry> it = entries.values().iterator(); bytes > maxBytes || entries.size() > maxEntries; ) {
+                bytes -= it.next().bytes();
+                it.remove();
+            }
+        }
+    }
+
+    private Entry get(String url) {
+        synchronized (entries) {
+            return entries.get(url);
+        }
+    }
+
+    /**
+     * @return the estimated bytes of the cached contents
+     */
+    long getCachedBytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    /**
+     * @return the number of requests made through the cache
+     */
+    long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * @return the number of requests sent with validators
+     */
+    long getConditionalRequestCount() {
+        return conditionalRequests.get();
+    }
+
+    /**
+     * @return the number of requests answered with the cached content
+     */
+    long getNotModifiedCount() {
+        return notModified.get();
+    }
+
+    private static class Entry {
+        private String etag;
+        private String lastModified;
+        private String link;
+        private String body;
+
+        private long bytes() {
+            return body == null ? 0 : 2L * body.length();
+        }
+    }
+}
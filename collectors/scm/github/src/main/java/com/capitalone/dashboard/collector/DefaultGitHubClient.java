@@ -39,6 +39,10 @@ import java.util.GregorianCalendar;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * GitHubClient implementation that uses SVNKit to fetch information about
@@ -53,6 +57,8 @@ public class DefaultGitHubClient implements GitHubClient {
 
     private final RestOperations restOperations;
 
+    private final ConditionalRequestCache commentCache;
+
     private static final int FIRST_RUN_HISTORY_DEFAULT = 14;
 
     @Autowired
@@ -60,6 +66,8 @@ public class DefaultGitHubClient implements GitHubClient {
                                Supplier<RestOperations> restOperationsSupplier) {
         this.settings = settings;
         this.restOperations = restOperationsSupplier.get();
+        this.commentCache = new ConditionalRequestCache(Math.max(1, settings.getConditionalCacheSize()),
+                Math.max(0, settings.getConditionalCacheMaxMegabytes()) * 1024L * 1024L);
     }
 
     /**
@@ -177,94 +185,116 @@ public class DefaultGitHubClient implements GitHubClient {
         int pageNumber = 1;
         String queryUrl = pageUrl;
 
-        while (!lastPage && !stop) {
-            LOG.info("Executing [" + queryUrl);
-            ResponseEntity<String> response = makeRestCall(queryUrl, repo.getUserId(), decryptedPassword);
-            JSONArray jsonArray = paresAsArray(response);
-            for (Object item : jsonArray) {
-                JSONObject jsonObject = (JSONObject) item;
-                String message = str(jsonObject, "title");
-                String number = str(jsonObject, "number");
-                String sha = str(jsonObject, "merge_commit_sha");
+        long requestsBefore = commentCache.getRequestCount();
+        long conditionalBefore = commentCache.getConditionalRequestCount();
+        long notModifiedBefore = commentCache.getNotModifiedCount();
 
-                JSONObject userObject = (JSONObject) jsonObject.get("user");
-                String name = str(userObject, "login");
-                String created = str(jsonObject, "created_at");
-                String merged = str(jsonObject, "merged_at");
-                String closed = str(jsonObject, "closed_at");
-                String  updated = str(jsonObject, "updated_at");
-                long createdTimestamp = new DateTime(created).getMillis();
-                String commentsUrl = str(jsonObject, "comments_url");
-                String reviewCommentsUrl = str(jsonObject, "review_comments_url");
-
-                GitRequest pull = new GitRequest();
+        // the comments of the pulls of a page are fetched concurrently
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, settings.getCommentThreads()));
+        try {
+            while (!lastPage && !stop) {
+                LOG.info("Executing [" + queryUrl);
+                ResponseEntity<String> response = makeRestCall(queryUrl, repo.getUserId(), decryptedPassword);
+                JSONArray jsonArray = paresAsArray(response);
+                List<GitRequest> pagePulls = new ArrayList<>();
+                List<Future<List<Comment>>> commentFutures = new ArrayList<>();
+                List<Future<List<Comment>>> reviewCommentFutures = new ArrayList<>();
+                for (Object item : jsonArray) {
+                    JSONObject jsonObject = (JSONObject) item;
+                    String message = str(jsonObject, "title");
+                    String number = str(jsonObject, "number");
+                    String sha = str(jsonObject, "merge_commit_sha");
+
+                    JSONObject userObject = (JSONObject) jsonObject.get("user");
+                    String name = str(userObject, "login");
+                    String created = str(jsonObject, "created_at");
+                    String merged = str(jsonObject, "merged_at");
+                    String closed = str(jsonObject, "closed_at");
+                    String  updated = str(jsonObject, "updated_at");
+                    long createdTimestamp = new DateTime(created).getMillis();
+                    String commentsUrl = str(jsonObject, "comments_url");
+                    String reviewCommentsUrl = str(jsonObject, "review_comments_url");
+
+                    GitRequest pull = new GitRequest();
+
+                    if (merged != null && merged.length() >= 10) {
+                        long mergedTimestamp = new DateTime(merged).getMillis();
+                        pull.setScmCommitTimestamp(mergedTimestamp);
+                        pull.setResolutiontime((mergedTimestamp - createdTimestamp) / (24 * 3600000));
+                    }
+                    pull.setUserId(name);
+                    pull.setScmUrl(repo.getRepoUrl());
+                    pull.setScmBranch(branch);
+                    pull.setTimestamp(createdTimestamp);
+                    pull.setScmRevisionNumber(sha);
+                    pull.setScmCommitLog(message);
+                    pull.setCreatedAt(createdTimestamp);
+                    pull.setClosedAt(new DateTime(closed).getMillis());
+                    pull.setMergedAt(new DateTime(merged).getMillis());
+                    pull.setUpdatedAt(new DateTime(updated).getMillis());
+                    pull.setNumber(number);
+                    pull.setRequestType("pull");
+                    pull.setState("open");
+                    if (merged != null) {
+                        pull.setState("merged");
+                    } else if (closed != null) {
+                        pull.setState("closed");
+                    }
+                    pull.setOrgName(gitHubParsed.getOrgName());
+                    pull.setRepoName(gitHubParsed.getRepoName());
+
+                    JSONObject headObject = (JSONObject) jsonObject.get("head");
+                    JSONObject headRepoObject = (JSONObject) headObject.get("repo");
+                    if (headObject != null) {
+                        pull.setHeadSha(str(headObject, "sha"));
+                        pull.setSourceBranch(str(headObject, "ref"));
+                    }
+                    if (headRepoObject != null) {
+                        pull.setSourceRepo(str(headRepoObject, "full_name"));
+                    }
 
-                if (merged != null && merged.length() >= 10) {
-                    long mergedTimestamp = new DateTime(merged).getMillis();
-                    pull.setScmCommitTimestamp(mergedTimestamp);
-                    pull.setResolutiontime((mergedTimestamp - createdTimestamp) / (24 * 3600000));
-                }
-                pull.setUserId(name);
-                pull.setScmUrl(repo.getRepoUrl());
-                pull.setScmBranch(branch);
-                pull.setTimestamp(createdTimestamp);
-                pull.setScmRevisionNumber(sha);
-                pull.setScmCommitLog(message);
-                pull.setCreatedAt(createdTimestamp);
-                pull.setClosedAt(new DateTime(closed).getMillis());
-                pull.setMergedAt(new DateTime(merged).getMillis());
-                pull.setUpdatedAt(new DateTime(updated).getMillis());
-                pull.setNumber(number);
-                pull.setRequestType("pull");
-                pull.setState("open");
-                if (merged != null) {
-                    pull.setState("merged");
-                } else if (closed != null) {
-                    pull.setState("closed");
-                }
-                pull.setOrgName(gitHubParsed.getOrgName());
-                pull.setRepoName(gitHubParsed.getRepoName());
-
-                JSONObject headObject = (JSONObject) jsonObject.get("head");
-                JSONObject headRepoObject = (JSONObject) headObject.get("repo");
-                if (headObject != null) {
-                    pull.setHeadSha(str(headObject, "sha"));
-                    pull.setSourceBranch(str(headObject, "ref"));
-                }
-                if (headRepoObject != null) {
-                    pull.setSourceRepo(str(headRepoObject, "full_name"));
-                }
+                    JSONObject baseObject = (JSONObject) jsonObject.get("base");
+                    JSONObject baseRepoObject = (JSONObject) baseObject.get("repo");
+                    if (baseObject != null) {
+                        pull.setBaseSha(str(baseObject, "sha"));
+                        pull.setTargetBranch(str(baseObject, "ref"));
+                    }
+                    if (baseRepoObject != null) {
+                        pull.setTargetRepo(str(baseRepoObject, "full_name"));
+                    }
 
-                JSONObject baseObject = (JSONObject) jsonObject.get("base");
-                JSONObject baseRepoObject = (JSONObject) baseObject.get("repo");
-                if (baseObject != null) {
-                    pull.setBaseSha(str(baseObject, "sha"));
-                    pull.setTargetBranch(str(baseObject, "ref"));
+                    pull.setCommentsUrl(commentsUrl);
+                    commentFutures.add(executor.submit(() -> getComments(commentsUrl, repo)));
+                    reviewCommentFutures.add(executor.submit(() -> getComments(reviewCommentsUrl, repo)));
+                    pull.setReviewCommentsUrl(reviewCommentsUrl);
+                    pagePulls.add(pull);
+                    stop = (!MapUtils.isEmpty(prMap) && prMap.get(pull.getUpdatedAt()) != null) && (prMap.get(pull.getUpdatedAt()).equals(pull.getNumber()));
+                    if (stop) {
+                        break;
+                    }
                 }
-                if (baseRepoObject != null) {
-                    pull.setTargetRepo(str(baseRepoObject, "full_name"));
+                for (int i = 0; i < pagePulls.size(); i++) {
+                    GitRequest pull = pagePulls.get(i);
+                    pull.setComments(getResult(commentFutures.get(i)));
+                    pull.setReviewComments(getResult(reviewCommentFutures.get(i)));
+                    pulls.add(pull);
                 }
-
-                pull.setCommentsUrl(commentsUrl);
-                List<Comment> comments = getComments(commentsUrl, repo);
-                pull.setComments(comments);
-                List<Comment> reviewComments = getComments(reviewCommentsUrl, repo);
-                pull.setReviewComments(reviewComments);
-                pull.setReviewCommentsUrl(reviewCommentsUrl);
-                pulls.add(pull);
-                stop = (!MapUtils.isEmpty(prMap) && prMap.get(pull.getUpdatedAt()) != null) && (prMap.get(pull.getUpdatedAt()).equals(pull.getNumber()));
-                if (stop) {
-                    break;
+                if (CollectionUtils.isEmpty(jsonArray)) {
+                    lastPage = true;
+                } else {
+                    lastPage = isThisLastPage(response) || isRateLimitReached(response);
+                    pageNumber++;
+                    queryUrl = pageUrl + "&page=" + pageNumber;
                 }
             }
-            if (CollectionUtils.isEmpty(jsonArray)) {
-                lastPage = true;
-            } else {
-                lastPage = isThisLastPage(response) || isRateLimitReached(response);
-                pageNumber++;
-                queryUrl = pageUrl + "&page=" + pageNumber;
-            }
+        } finally {
+            executor.shutdownNow();
         }
+        long requests = commentCache.getRequestCount() - requestsBefore;
+        long notModified = commentCache.getNotModifiedCount() - notModifiedBefore;
+        LOG.info(String.format("Comment pages of %s: %d requested, %d conditionally, %d not modified (%.1f%% hit rate, %d KB cached)",
+                repo.getRepoUrl(), requests, commentCache.getConditionalRequestCount() - conditionalBefore, notModified,
+                requests == 0 ? 0 : notModified * 100.0 / requests, commentCache.getCachedBytes() / 1024));
         return pulls;
     }
 
@@ -371,7 +401,7 @@ public class DefaultGitHubClient implements GitHubClient {
         int pageNumber = 1;
         String queryUrlPage = commentsUrl;
         while (!lastPage) {
-            ResponseEntity<String> response = makeRestCall(queryUrlPage, repo.getUserId(), decryptedPassword);
+            ResponseEntity<String> response = makeConditionalRestCall(queryUrlPage, repo.getUserId(), decryptedPassword);
             JSONArray jsonArray = paresAsArray(response);
             for (Object item : jsonArray) {
                 JSONObject jsonObject = (JSONObject) item;
@@ -451,6 +481,31 @@ public class DefaultGitHubClient implements GitHubClient {
 
     }
 
+    /**
+     * Requests a URL with the validators of its previous response, and returns the previous content
+     * when GitHub answers that it was not modified.
+     */
+    private ResponseEntity<String> makeConditionalRestCall(String url, String userId, String password) {
+        HttpHeaders headers = !"".equals(userId) && !"".equals(password) ? createHeaders(userId, password) : new HttpHeaders();
+        commentCache.addConditions(url, headers);
+        ResponseEntity<String> response = restOperations.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        return commentCache.resolve(url, response);
+    }
+
+    private static <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching comments", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
     private HttpHeaders createHeaders(final String userId, final String password) {
         String auth = userId + ":" + password;
         byte[] encodedAuth = Base64.encodeBase64(auth.getBytes(StandardCharsets.US_ASCII));
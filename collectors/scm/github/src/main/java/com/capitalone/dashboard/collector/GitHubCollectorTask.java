@@ -4,14 +4,12 @@ package com.capitalone.dashboard.collector;
 import com.capitalone.dashboard.misc.HygieiaException;
 import com.capitalone.dashboard.model.CollectionError;
 import com.capitalone.dashboard.model.Collector;
-import com.capitalone.dashboard.model.CollectorItem;
 import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.model.Commit;
 import com.capitalone.dashboard.model.GitHubRepo;
 import com.capitalone.dashboard.model.GitRequest;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.CommitRepository;
-import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.GitHubRepoRepository;
 import com.capitalone.dashboard.repository.GitRequestRepository;
 import org.apache.commons.collections.CollectionUtils;
@@ -26,12 +24,10 @@ import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestClientException;
 
 import java.net.MalformedURLException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -47,7 +43,7 @@ public class GitHubCollectorTask extends CollectorTask<Collector> {
     private final GitRequestRepository gitRequestRepository;
     private final GitHubClient gitHubClient;
     private final GitHubSettings gitHubSettings;
-    private final ComponentRepository dbComponentRepository;
+    private final EnabledCollectorItemResolver enabledCollectorItemResolver;
     private static final long FOURTEEN_DAYS_MILLISECONDS = 14 * 24 * 60 * 60 * 1000;
     private static final String API_RATE_LIMIT_MESSAGE = "API rate limit exceeded";
 
@@ -59,14 +55,14 @@ public class GitHubCollectorTask extends CollectorTask<Collector> {
                                GitRequestRepository gitRequestRepository,
                                GitHubClient gitHubClient,
                                GitHubSettings gitHubSettings,
-                               ComponentRepository dbComponentRepository) {
+                               EnabledCollectorItemResolver enabledCollectorItemResolver) {
         super(taskScheduler, "GitHub");
         this.collectorRepository = collectorRepository;
         this.gitHubRepoRepository = gitHubRepoRepository;
         this.commitRepository = commitRepository;
         this.gitHubClient = gitHubClient;
         this.gitHubSettings = gitHubSettings;
-        this.dbComponentRepository = dbComponentRepository;
+        this.enabledCollectorItemResolver = enabledCollectorItemResolver;
         this.gitRequestRepository = gitRequestRepository;
     }
 
@@ -107,40 +103,8 @@ public class GitHubCollectorTask extends CollectorTask<Collector> {
      *
      * @param collector the {@link Collector}
      */
-    @SuppressWarnings("PMD.AvoidDeeplyNestedIfStmts") // agreed, fixme
     private void clean(Collector collector) {
-        Set<ObjectId> uniqueIDs = new HashSet<>();
-        /**
-         * Logic: For each component, retrieve the collector item list of the type SCM.
-         * Store their IDs in a unique set ONLY if their collector IDs match with GitHub collectors ID.
-         */
-        for (com.capitalone.dashboard.model.Component comp : dbComponentRepository.findAll()) {
-            if (comp.getCollectorItems() != null && !comp.getCollectorItems().isEmpty()) {
-                List<CollectorItem> itemList = comp.getCollectorItems().get(CollectorType.SCM);
-                if (itemList != null) {
-                    for (CollectorItem ci : itemList) {
-                        if (ci != null && ci.getCollectorId().equals(collector.getId())) {
-                            uniqueIDs.add(ci.getId());
-                        }
-                    }
-                }
-            }
-        }
-
-        /**
-         * Logic: Get all the collector items from the collector_item collection for this collector.
-         * If their id is in the unique set (above), keep them enabled; else, disable them.
-         */
-        List<GitHubRepo> repoList = new ArrayList<>();
-        Set<ObjectId> gitID = new HashSet<>();
-        gitID.add(collector.getId());
-        for (GitHubRepo repo : gitHubRepoRepository.findByCollectorIdIn(gitID)) {
-            if (repo != null) {
-                repo.setEnabled(uniqueIDs.contains(repo.getId()));
-                repoList.add(repo);
-            }
-        }
-        gitHubRepoRepository.save(repoList);
+        enabledCollectorItemResolver.updateEnabled(collector);
     }
 
 
@@ -217,23 +181,35 @@ public class GitHubCollectorTask extends CollectorTask<Collector> {
     }
 
 
+    /**
+     * Inserts the new requests and replaces the existing ones. The ids of the existing requests are
+     * read in one projected query and all the requests are written in one unordered bulk write,
+     * instead of a lookup and a save per request.
+     */
     private int processList(GitHubRepo repo, List<GitRequest> entries, String type) {
         int count = 0;
         if (CollectionUtils.isEmpty(entries)) return 0;
 
+        Map<String, ObjectId> existingIds = gitRequestRepository.findRequestNumbers(repo.getId(), type).stream()
+                .collect(Collectors.toMap(GitRequest::getNumber, GitRequest::getId, (oldValue, newValue) -> oldValue));
+
+        // a request listed twice is written once, with its last version
+        Map<String, GitRequest> requests = new LinkedHashMap<>();
         for (GitRequest entry : entries) {
             LOG.debug(entry.getTimestamp() + ":::" + entry.getScmCommitLog());
-            GitRequest existing = gitRequestRepository.findByCollectorItemIdAndNumberAndRequestType(repo.getId(), entry.getNumber(), type);
+            ObjectId existingId = existingIds.get(entry.getNumber());
 
-            if (existing == null) {
-                entry.setCollectorItemId(repo.getId());
-                count++;
+            if (existingId == null) {
+                if (!requests.containsKey(entry.getNumber())) {
+                    count++;
+                }
             } else {
-                entry.setId(existing.getId());
-                entry.setCollectorItemId(repo.getId());
+                entry.setId(existingId);
             }
-            gitRequestRepository.save(entry);
+            entry.setCollectorItemId(repo.getId());
+            requests.put(entry.getNumber(), entry);
         }
+        gitRequestRepository.bulkWrite(requests.values());
         return count;
     }
 
@@ -20,6 +20,14 @@ public class GitHubSettings {
     private int errorThreshold;
 	@Value("${github.rateLimitThreshold:10}")
 	private int rateLimitThreshold;
+	@Value("${github.commentThreads:4}")
+	private int commentThreads;
+	// the comment pages kept for conditional requests, about 2 bytes per character of each page, so
+	// the entries alone could hold several hundred megabytes; the byte budget bounds them
+	@Value("${github.conditionalCacheSize:10000}")
+	private int conditionalCacheSize;
+	@Value("${github.conditionalCacheMaxMegabytes:64}")
+	private int conditionalCacheMaxMegabytes;
 
 
 	public String getHost() {
@@ -77,4 +85,28 @@ public class GitHubSettings {
 	public void setRateLimitThreshold(int rateLimitThreshold) {
 		this.rateLimitThreshold = rateLimitThreshold;
 	}
+
+	public int getCommentThreads() {
+		return commentThreads;
+	}
+
+	public void setCommentThreads(int commentThreads) {
+		this.commentThreads = commentThreads;
+	}
+
+	public int getConditionalCacheSize() {
+		return conditionalCacheSize;
+	}
+
+	public void setConditionalCacheSize(int conditionalCacheSize) {
+		this.conditionalCacheSize = conditionalCacheSize;
+	}
+
+	public int getConditionalCacheMaxMegabytes() {
+		return conditionalCacheMaxMegabytes;
+	}
+
+	public void setConditionalCacheMaxMegabytes(int conditionalCacheMaxMegabytes) {
+		this.conditionalCacheMaxMegabytes = conditionalCacheMaxMegabytes;
+	}
 }
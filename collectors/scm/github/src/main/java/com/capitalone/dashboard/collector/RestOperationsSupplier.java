@@ -1,18 +1,22 @@
 package com.capitalone.dashboard.collector;
 
+import com.capitalone.dashboard.config.HttpClientFactory;
 import com.capitalone.dashboard.util.Supplier;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestOperations;
-import org.springframework.web.client.RestTemplate;
 
 @Component
 public class RestOperationsSupplier implements Supplier<RestOperations> {
+    private final HttpClientFactory httpClientFactory;
+
+    @Autowired
+    public RestOperationsSupplier(HttpClientFactory httpClientFactory) {
+        this.httpClientFactory = httpClientFactory;
+    }
+
     @Override
     public RestOperations get() {
-        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
-        requestFactory.setConnectTimeout(20000);
-        requestFactory.setReadTimeout(20000);
-        return new RestTemplate(requestFactory);
+        return httpClientFactory.createRestOperations(20000, 20000);
     }
 }
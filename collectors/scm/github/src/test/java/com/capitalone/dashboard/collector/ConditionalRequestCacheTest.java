@@ -0,0 +1,133 @@
+package com.capitalone.dashboard.collector;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ConditionalRequestCacheTest {
+    private static final String URL = "https://api.github.com/repos/org/repo/issues/1/comments";
+    private static final String NEXT = "<" + URL + "&page=2>; rel=\"next\"";
+
+    @Test
+    public void resolve_answersNotModifiedWithCachedContentAndLink() {
+        ConditionalRequestCache cache = new ConditionalRequestCache(10, 1024);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"abc\"");
+        headers.set("Link", NEXT);
+        cache.resolve(URL, new ResponseEntity<>("[1]", headers, HttpStatus.OK));
+
+        HttpHeaders request = new HttpHeaders();
+        cache.addConditions(URL, request);
+        assertEquals(Collections.singletonList("\"abc\""), request.getIfNoneMatch());
+
+        ResponseEntity<String> resolved = cache.resolve(URL, new ResponseEntity<String>(HttpStatus.NOT_MODIFIED));
+
+        assertEquals(HttpStatus.OK, resolved.getStatusCode());
+        assertEquals("[1]", resolved.getBody());
+        assertEquals(NEXT, resolved.getHeaders().getFirst("Link"));
+        assertEquals(1, cache.getRequestCount());
+        assertEquals(1, cache.getConditionalRequestCount());
+        assertEquals(1, cache.getNotModifiedCount());
+    }
+
+    @Test
+    public void resolve_keepsLinkOfNotModifiedResponse() {
+        ConditionalRequestCache cache = new ConditionalRequestCache(10, 1024);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"abc\"");
+        cache.resolve(URL, new ResponseEntity<>("[1]", headers, HttpStatus.OK));
+        HttpHeaders notModified = new HttpHeaders();
+        notModified.set("Link", NEXT);
+
+        ResponseEntity<String> resolved = cache.resolve(URL, new ResponseEntity<String>(notModified, HttpStatus.NOT_MODIFIED));
+
+        assertEquals(NEXT, resolved.getHeaders().getFirst("Link"));
+    }
+
+    @Test
+    public void resolve_passesNotModifiedThroughWhenNothingIsCached() {
+        ConditionalRequestCache cache = new ConditionalRequestCache(10, 1024);
+        ResponseEntity<String> response = new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+
+        assertSame(response, cache.resolve(URL, response));
+        assertEquals(0, cache.getNotModifiedCount());
+    }
+
+    @Test
+    public void resolve_doesNotCacheResponsesWithoutValidators() {
+        ConditionalRequestCache cache = new ConditionalRequestCache(10, 1024);
+        cache.resolve(URL, new ResponseEntity<>("[1]", HttpStatus.OK));
+
+        HttpHeaders request = new HttpHeaders();
+        cache.addConditions(URL, request);
+
+        assertNull(request.getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(0, cache.getConditionalRequestCount());
+    }
+
+    @Test
+    public void resolve_evictsLeastRecentlyUsedBeyondMaxEntries() {
+        ConditionalRequestCache cache = new ConditionalRequestCache(2, 1024);
+        cache.resolve("a", cached("[1]"));
+        cache.resolve("b", cached("[2]"));
+        cache.addConditions("a", new HttpHeaders());
+        cache.resolve("c", cached("[3]"));
+
+        assertConditional(cache, "a", true);
+        assertConditional(cache, "b", false);
+        assertConditional(cache, "c", true);
+    }
+
+    @Test
+    public void resolve_evictsLeastRecentlyUsedBeyondMaxBytes() {
+        // two bytes per character, room for two contents of 10 characters
+        ConditionalRequestCache cache = new ConditionalRequestCache(100, 40);
+        cache.resolve("a", cached("[12345678]"));
+        cache.resolve("b", cached("[12345678]"));
+        assertEquals(40, cache.getCachedBytes());
+
+        cache.resolve("c", cached("[12345678]"));
+
+        assertEquals(40, cache.getCachedBytes());
+        assertConditional(cache, "a", false);
+        assertConditional(cache, "b", true);
+        assertConditional(cache, "c", true);
+    }
+
+    @Test
+    public void resolve_doesNotCacheContentLargerThanMaxBytes() {
+        ConditionalRequestCache cache = new ConditionalRequestCache(100, 10);
+        cache.resolve("a", cached("[12345678]"));
+
+        assertEquals(0, cache.getCachedBytes());
+        assertConditional(cache, "a", false);
+    }
+
+    @Test
+    public void resolve_replacingAnEntryReleasesItsBytes() {
+        ConditionalRequestCache cache = new ConditionalRequestCache(100, 1024);
+        cache.resolve("a", cached("[12345678]"));
+        cache.resolve("a", cached("[1]"));
+
+        assertEquals(6, cache.getCachedBytes());
+    }
+
+    private static ResponseEntity<String> cached(String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"" + body.hashCode() + "\"");
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    private static void assertConditional(ConditionalRequestCache cache, String url, boolean conditional) {
+        HttpHeaders request = new HttpHeaders();
+        cache.addConditions(url, request);
+        assertEquals(url, conditional, request.getFirst(HttpHeaders.IF_NONE_MATCH) != null);
+    }
+}
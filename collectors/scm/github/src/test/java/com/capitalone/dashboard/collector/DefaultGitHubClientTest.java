@@ -0,0 +1,131 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.GitHubRepo;
+import com.capitalone.dashboard.model.GitRequest;
+import com.capitalone.dashboard.util.Supplier;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestOperations;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DefaultGitHubClientTest {
+    private static final String API = "https://api.github.com/repos/org/repo";
+    private static final String PULLS = API + "/pulls?state=all&base=master&sort=updated&direction=desc";
+
+    @Mock private Supplier<RestOperations> restOperationsSupplier;
+    @Mock private RestOperations rest;
+
+    private GitHubSettings settings;
+    private GitHubRepo repo;
+
+    @Before
+    public void setup() {
+        when(restOperationsSupplier.get()).thenReturn(rest);
+        settings = new GitHubSettings();
+        settings.setCommentThreads(4);
+        settings.setConditionalCacheSize(100);
+        settings.setConditionalCacheMaxMegabytes(1);
+        repo = new GitHubRepo();
+        repo.setRepoUrl("https://github.com/org/repo");
+        repo.setBranch("master");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getPulls_joinsConcurrentCommentsToTheirPulls() throws Exception {
+        when(rest.exchange(eq(PULLS), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(new ResponseEntity<>("[" + pull(1) + "," + pull(2) + "]", HttpStatus.OK));
+        CountDownLatch secondRequested = new CountDownLatch(1);
+        AtomicBoolean concurrent = new AtomicBoolean();
+        // the comments of the first pull are only answered once those of the second one were requested
+        when(rest.exchange(eq(comments(1)), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+                .thenAnswer(invocation -> {
+                    concurrent.set(secondRequested.await(5, TimeUnit.SECONDS));
+                    return new ResponseEntity<>(comment("first"), HttpStatus.OK);
+                });
+        when(rest.exchange(eq(comments(2)), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+                .thenAnswer(invocation -> {
+                    secondRequested.countDown();
+                    return new ResponseEntity<>(comment("second"), HttpStatus.OK);
+                });
+        when(rest.exchange(eq(reviewComments(1)), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(new ResponseEntity<>("[]", HttpStatus.OK));
+        when(rest.exchange(eq(reviewComments(2)), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(new ResponseEntity<>(comment("review"), HttpStatus.OK));
+
+        List<GitRequest> pulls = new DefaultGitHubClient(settings, restOperationsSupplier)
+                .getPulls(repo, "all", false, Collections.emptyMap());
+
+        assertTrue(concurrent.get());
+        assertEquals(2, pulls.size());
+        assertEquals("1", pulls.get(0).getNumber());
+        assertEquals("first", pulls.get(0).getComments().get(0).getBody());
+        assertTrue(pulls.get(0).getReviewComments().isEmpty());
+        assertEquals("2", pulls.get(1).getNumber());
+        assertEquals("second", pulls.get(1).getComments().get(0).getBody());
+        assertEquals("review", pulls.get(1).getReviewComments().get(0).getBody());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getPulls_reusesCommentsAnsweredNotModified() throws Exception {
+        when(rest.exchange(eq(PULLS), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(new ResponseEntity<>("[" + pull(1) + "]", HttpStatus.OK));
+        HttpHeaders etag = new HttpHeaders();
+        etag.setETag("\"v1\"");
+        when(rest.exchange(eq(comments(1)), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(new ResponseEntity<>(comment("first"), etag, HttpStatus.OK))
+                .thenReturn(new ResponseEntity<String>(HttpStatus.NOT_MODIFIED));
+        when(rest.exchange(eq(reviewComments(1)), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(new ResponseEntity<>("[]", HttpStatus.OK));
+        DefaultGitHubClient client = new DefaultGitHubClient(settings, restOperationsSupplier);
+
+        client.getPulls(repo, "all", false, Collections.emptyMap());
+        List<GitRequest> pulls = client.getPulls(repo, "all", false, Collections.emptyMap());
+
+        assertEquals("first", pulls.get(0).getComments().get(0).getBody());
+    }
+
+    private static String comments(int number) {
+        return API + "/issues/" + number + "/comments";
+    }
+
+    private static String reviewComments(int number) {
+        return API + "/pulls/" + number + "/comments";
+    }
+
+    private static String pull(int number) {
+        return "{\"number\":" + number + ",\"title\":\"pull " + number + "\",\"merge_commit_sha\":\"sha" + number + "\","
+                + "\"user\":{\"login\":\"dev\"},\"created_at\":\"2017-01-01T00:00:00Z\","
+                + "\"updated_at\":\"2017-01-0" + number + "T00:00:00Z\","
+                + "\"comments_url\":\"" + comments(number) + "\","
+                + "\"review_comments_url\":\"" + reviewComments(number) + "\","
+                + "\"head\":{\"sha\":\"head" + number + "\",\"ref\":\"feature\",\"repo\":{\"full_name\":\"dev/repo\"}},"
+                + "\"base\":{\"sha\":\"base" + number + "\",\"ref\":\"master\",\"repo\":{\"full_name\":\"org/repo\"}}}";
+    }
+
+    private static String comment(String body) {
+        return "[{\"user\":{\"login\":\"reviewer\"},\"created_at\":\"2017-01-01T00:00:00Z\","
+                + "\"updated_at\":\"2017-01-01T00:00:00Z\",\"body\":\"" + body + "\"}]";
+    }
+}
@@ -3,21 +3,18 @@ package com.capitalone.dashboard.collector;
 import com.capitalone.dashboard.misc.HygieiaException;
 import com.capitalone.dashboard.model.CollectionError;
 import com.capitalone.dashboard.model.Collector;
-import com.capitalone.dashboard.model.CollectorItem;
-import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.model.Commit;
 import com.capitalone.dashboard.model.CommitType;
-import com.capitalone.dashboard.model.Component;
 import com.capitalone.dashboard.model.GitHubRepo;
 import com.capitalone.dashboard.model.GitRequest;
 import com.capitalone.dashboard.repository.BaseCollectorItemRepository;
 import com.capitalone.dashboard.repository.CommitRepository;
-import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.GitHubRepoRepository;
 import com.capitalone.dashboard.repository.GitRequestRepository;
 import org.bson.types.ObjectId;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -25,12 +22,18 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import java.net.MalformedURLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
@@ -41,7 +44,7 @@ public class GitHubCollectorTaskTest {
     @Mock private GitHubRepoRepository gitHubRepoRepository;
     @Mock private GitHubClient gitHubClient;
     @Mock private GitHubSettings gitHubSettings;
-    @Mock private ComponentRepository dbComponentRepository;
+    @Mock private EnabledCollectorItemResolver enabledCollectorItemResolver;
     @Mock private CommitRepository commitRepository;
     @Mock private GitRequestRepository gitRequestRepository;
 
@@ -55,8 +58,6 @@ public class GitHubCollectorTaskTest {
 
     @Test
     public void collect_testCollect() throws MalformedURLException, HygieiaException {
-        when(dbComponentRepository.findAll()).thenReturn(components());
-
         Set<ObjectId> gitID = new HashSet<>();
         gitID.add(new ObjectId("111ca42a258ad365fbb64ecc"));
         when(gitHubRepoRepository.findByCollectorIdIn(gitID)).thenReturn(getGitHubs());
@@ -77,13 +78,8 @@ public class GitHubCollectorTaskTest {
 
         task.collect(collector);
 
-        //verify that orphaned repo is disabled
-        assertEquals("repo2.no.collectoritem", repo2.getNiceName());
-        assertEquals(false, repo2.isEnabled());
-
-        //verify that repo1 is enabled
-        assertEquals("repo1-ci1", repo1.getNiceName());
-        assertEquals(true, repo1.isEnabled());
+        //verify that repos are enabled or disabled according to the dashboards
+        Mockito.verify(enabledCollectorItemResolver).updateEnabled(collector);
 
         //verify that save is called once for the commit item
         Mockito.verify(commitRepository, times(1)).save(commit);
@@ -92,8 +88,6 @@ public class GitHubCollectorTaskTest {
 
     @Test
     public void collect_testCollect_with_Threshold_0() throws MalformedURLException, HygieiaException {
-        when(dbComponentRepository.findAll()).thenReturn(components());
-
         Set<ObjectId> gitID = new HashSet<>();
         gitID.add(new ObjectId("111ca42a258ad365fbb64ecc"));
         when(gitHubRepoRepository.findByCollectorIdIn(gitID)).thenReturn(getGitHubs());
@@ -114,13 +108,8 @@ public class GitHubCollectorTaskTest {
 
         task.collect(collector);
 
-        //verify that orphaned repo is disabled
-        assertEquals("repo2.no.collectoritem", repo2.getNiceName());
-        assertEquals(false, repo2.isEnabled());
-
-        //verify that repo1 is enabled
-        assertEquals("repo1-ci1", repo1.getNiceName());
-        assertEquals(true, repo1.isEnabled());
+        //verify that repos are enabled or disabled according to the dashboards
+        Mockito.verify(enabledCollectorItemResolver).updateEnabled(collector);
 
         //verify that save is called once for the commit item
         Mockito.verify(commitRepository, times(0)).save(commit);
@@ -128,8 +117,6 @@ public class GitHubCollectorTaskTest {
 
     @Test
     public void collect_testCollect_with_Threshold_1() throws MalformedURLException, HygieiaException {
-        when(dbComponentRepository.findAll()).thenReturn(components());
-
         Set<ObjectId> gitID = new HashSet<>();
         gitID.add(new ObjectId("111ca42a258ad365fbb64ecc"));
         when(gitHubRepoRepository.findByCollectorIdIn(gitID)).thenReturn(getGitHubs());
@@ -152,13 +139,8 @@ public class GitHubCollectorTaskTest {
 
         task.collect(collector);
 
-        //verify that orphaned repo is disabled
-        assertEquals("repo2.no.collectoritem", repo2.getNiceName());
-        assertEquals(false, repo2.isEnabled());
-
-        //verify that repo1 is enabled
-        assertEquals("repo1-ci1", repo1.getNiceName());
-        assertEquals(true, repo1.isEnabled());
+        //verify that repos are enabled or disabled according to the dashboards
+        Mockito.verify(enabledCollectorItemResolver).updateEnabled(collector);
 
         //verify that save is called once for the commit item
         Mockito.verify(commitRepository, times(1)).save(commit);
@@ -166,8 +148,6 @@ public class GitHubCollectorTaskTest {
 
     @Test
     public void collect_testCollect_with_Threshold_1_Error_1() throws MalformedURLException, HygieiaException {
-        when(dbComponentRepository.findAll()).thenReturn(components());
-
         Set<ObjectId> gitID = new HashSet<>();
         gitID.add(new ObjectId("111ca42a258ad365fbb64ecc"));
         when(gitHubRepoRepository.findByCollectorIdIn(gitID)).thenReturn(getGitHubs());
@@ -188,18 +168,50 @@ public class GitHubCollectorTaskTest {
 
         task.collect(collector);
 
-        //verify that orphaned repo is disabled
-        assertEquals("repo2.no.collectoritem", repo2.getNiceName());
-        assertEquals(false, repo2.isEnabled());
-
-        //verify that repo1 is enabled
-        assertEquals("repo1-ci1", repo1.getNiceName());
-        assertEquals(true, repo1.isEnabled());
+        //verify that repos are enabled or disabled according to the dashboards
+        Mockito.verify(enabledCollectorItemResolver).updateEnabled(collector);
 
         //verify that save is called once for the commit item
         Mockito.verify(commitRepository, times(0)).save(commit);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void collect_upsertsRequestsInOneBulkWrite() throws MalformedURLException, HygieiaException {
+        Collector collector = new Collector();
+        collector.setEnabled(true);
+        collector.setName("collector");
+        collector.setId(new ObjectId("111ca42a258ad365fbb64ecc"));
+
+        when(gitHubRepoRepository.findEnabledGitHubRepos(collector.getId())).thenReturn(getEnabledRepos());
+        when(gitHubSettings.getErrorThreshold()).thenReturn(1);
+
+        GitRequest existing = new GitRequest();
+        existing.setId(ObjectId.get());
+        existing.setNumber("1");
+        when(gitRequestRepository.findRequestNumbers(repo1.getId(), "issue")).thenReturn(Collections.singletonList(existing));
+        when(gitHubClient.getIssues(repo1, true)).thenReturn(Arrays.asList(makeRequest("1"), makeRequest("2"), makeRequest("2")));
+
+        task.collect(collector);
+
+        ArgumentCaptor<Collection> captor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(gitRequestRepository).bulkWrite(captor.capture());
+        List<GitRequest> written = new ArrayList<>(captor.getValue());
+        assertEquals(2, written.size());
+        assertEquals(existing.getId(), written.get(0).getId());
+        assertNull(written.get(1).getId());
+        assertEquals(repo1.getId(), written.get(1).getCollectorItemId());
+        Mockito.verify(gitRequestRepository, never()).findByCollectorItemIdAndNumberAndRequestType(any(ObjectId.class), anyString(), anyString());
+        Mockito.verify(gitRequestRepository, never()).save(any(GitRequest.class));
+    }
+
+    private GitRequest makeRequest(String number) {
+        GitRequest request = new GitRequest();
+        request.setNumber(number);
+        request.setRequestType("issue");
+        return request;
+    }
+
     private ArrayList<Commit> getCommits() {
         ArrayList<Commit> commits = new ArrayList<Commit>();
         commit = new Commit();
@@ -281,40 +293,4 @@ public class GitHubCollectorTaskTest {
         return gitHubs;
     }
 
-    private ArrayList<com.capitalone.dashboard.model.Component> components() {
-        ArrayList<com.capitalone.dashboard.model.Component> cArray = new ArrayList<com.capitalone.dashboard.model.Component>();
-        com.capitalone.dashboard.model.Component c = new Component();
-        c.setId(new ObjectId());
-        c.setName("COMPONENT1");
-        c.setOwner("JOHN");
-
-        CollectorType scmType = CollectorType.SCM;
-        CollectorItem ci1 = new CollectorItem();
-        ci1.setId(new ObjectId("1c1ca42a258ad365fbb64ecc"));
-        ci1.setNiceName("ci1");
-        ci1.setEnabled(true);
-        ci1.setPushed(false);
-        ci1.setCollectorId(new ObjectId("111ca42a258ad365fbb64ecc"));
-        c.addCollectorItem(scmType, ci1);
-
-        CollectorItem ci2 = new CollectorItem();
-        ci2.setId(new ObjectId("1c2ca42a258ad365fbb64ecc"));
-        ci2.setNiceName("ci2");
-        ci2.setEnabled(true);
-        ci2.setPushed(false);
-        ci2.setCollectorId(new ObjectId("111ca42a258ad365fbb64ecc"));
-        c.addCollectorItem(scmType, ci2);
-
-        CollectorItem ci3 = new CollectorItem();
-        ci3.setId(new ObjectId("1c3ca42a258ad365fbb64ecc"));
-        ci3.setNiceName("ci3");
-        ci3.setEnabled(true);
-        ci3.setPushed(false);
-        ci3.setCollectorId(new ObjectId("222ca42a258ad365fbb64ecc"));
-        c.addCollectorItem(scmType, ci3);
-
-        cArray.add(c);
-
-        return cArray;
-    }
 }
\ No newline at end of file
@@ -2,30 +2,24 @@ package com.capitalone.dashboard.collector;
 
 import com.capitalone.dashboard.gitlab.DefaultGitlabGitClient;
 import com.capitalone.dashboard.model.Collector;
-import com.capitalone.dashboard.model.CollectorItem;
 import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.model.Commit;
 import com.capitalone.dashboard.model.GitlabGitRepo;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.CommitRepository;
-import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.GitlabGitCollectorRepository;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.ResourceAccessException;
 
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Created by benathmane on 23/06/16.
@@ -42,7 +36,7 @@ public class GitlabGitCollectorTask  extends CollectorTask<Collector> {
     private final GitlabGitCollectorRepository gitlabGitCollectorRepository;
     private final GitlabSettings gitlabSettings;
     private final DefaultGitlabGitClient defaultGitlabGitClient;
-    private final ComponentRepository dbComponentRepository;
+    private final EnabledCollectorItemResolver enabledCollectorItemResolver;
     private final CommitRepository commitRepository;
 
 
@@ -53,7 +47,7 @@ public class GitlabGitCollectorTask  extends CollectorTask<Collector> {
                                   CommitRepository commitRepository,
                                   GitlabGitCollectorRepository gitlabGitCollectorRepository,
                                   DefaultGitlabGitClient defaultGitlabGitClient,
-                                  ComponentRepository dbComponentRepository
+                                  EnabledCollectorItemResolver enabledCollectorItemResolver
     ) {
         super(taskScheduler, "Gitlab");
         this.collectorRepository = collectorRepository;
@@ -61,7 +55,7 @@ public class GitlabGitCollectorTask  extends CollectorTask<Collector> {
         this.commitRepository = commitRepository;
         this.gitlabGitCollectorRepository = gitlabGitCollectorRepository;
         this.defaultGitlabGitClient = defaultGitlabGitClient;
-        this.dbComponentRepository = dbComponentRepository;
+        this.enabledCollectorItemResolver = enabledCollectorItemResolver;
     }
 
 	@Override
@@ -140,42 +134,8 @@ public class GitlabGitCollectorTask  extends CollectorTask<Collector> {
 		return totalCommitCount;
 	}
 
-	@SuppressWarnings("PMD.AvoidDeeplyNestedIfStmts") // agreed, fixme
 	private void clean(Collector collector) {
-		Set<ObjectId> uniqueIDs = new HashSet<ObjectId>();
-		/**
-		 * Logic: For each component, retrieve the collector item list of the
-		 * type SCM. Store their IDs in a unique set ONLY if their collector IDs
-		 * match with GitHub collectors ID.
-		 */
-		for (com.capitalone.dashboard.model.Component comp : dbComponentRepository.findAll()) {
-			if (comp.getCollectorItems() != null && !comp.getCollectorItems().isEmpty()) {
-				List<CollectorItem> itemList = comp.getCollectorItems().get(CollectorType.SCM);
-				if (itemList != null) {
-					for (CollectorItem ci : itemList) {
-						if (ci != null && ci.getCollectorId().equals(collector.getId())) {
-							uniqueIDs.add(ci.getId());
-						}
-					}
-				}
-			}
-		}
-
-		/**
-		 * Logic: Get all the collector items from the collector_item collection
-		 * for this collector. If their id is in the unique set (above), keep
-		 * them enabled; else, disable them.
-		 */
-		List<GitlabGitRepo> repoList = new ArrayList<>();
-		Set<ObjectId> gitID = new HashSet<>();
-		gitID.add(collector.getId());
-		for (GitlabGitRepo repo : gitlabGitCollectorRepository.findByCollectorIdIn(gitID)) {
-			if (repo != null) {
-				repo.setEnabled(uniqueIDs.contains(repo.getId()));
-				repoList.add(repo);
-			}
-		}
-		gitlabGitCollectorRepository.save(repoList);
+		enabledCollectorItemResolver.updateEnabled(collector);
 	}
 
 
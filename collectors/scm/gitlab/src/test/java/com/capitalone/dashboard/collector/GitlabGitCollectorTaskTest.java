@@ -34,7 +34,6 @@ import com.capitalone.dashboard.model.Commit;
 import com.capitalone.dashboard.model.GitlabGitRepo;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.CommitRepository;
-import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.GitlabGitCollectorRepository;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -53,7 +52,7 @@ public class GitlabGitCollectorTaskTest {
 	private DefaultGitlabGitClient defaultGitlabGitClient;
 	
 	@Mock
-	private ComponentRepository componentRepository;
+	private EnabledCollectorItemResolver enabledCollectorItemResolver;
 	
 	@Mock
 	private CommitRepository commitRepository;
@@ -94,7 +93,6 @@ public class GitlabGitCollectorTaskTest {
 	
 	@Test
 	public void shouldNotFindAnyEnabledRepos() {
-		when(componentRepository.findAll()).thenReturn(new ArrayList<>());
 		when(gitlabGitCollectorRepository.findByCollectorIdIn(anyCollection())).thenReturn(new ArrayList<>());
 		when(gitlabGitCollectorRepository.findEnabledGitlabRepos(isA(ObjectId.class))).thenReturn(new ArrayList<>());
 		
@@ -105,7 +103,6 @@ public class GitlabGitCollectorTaskTest {
 	
 	@Test
 	public void shouldFindNoCommits() {
-		when(componentRepository.findAll()).thenReturn(new ArrayList<>());
 		when(gitlabGitCollectorRepository.findByCollectorIdIn(anyCollection())).thenReturn(new ArrayList<>());
 		when(collector.getId()).thenReturn(new ObjectId());
 		List<GitlabGitRepo> enabledRepos = new ArrayList<>();
@@ -121,7 +118,6 @@ public class GitlabGitCollectorTaskTest {
 	
 	@Test
 	public void shouldFindOneExistingCommit() {
-		when(componentRepository.findAll()).thenReturn(new ArrayList<>());
 		when(gitlabGitCollectorRepository.findByCollectorIdIn(anyCollection())).thenReturn(new ArrayList<>());
 		when(collector.getId()).thenReturn(new ObjectId());
 		List<GitlabGitRepo> enabledRepos = new ArrayList<>();
@@ -143,7 +139,6 @@ public class GitlabGitCollectorTaskTest {
 	
 	@Test
 	public void shouldFindOneNewCommit() {
-		when(componentRepository.findAll()).thenReturn(new ArrayList<>());
 		when(gitlabGitCollectorRepository.findByCollectorIdIn(anyCollection())).thenReturn(new ArrayList<>());
 		when(collector.getId()).thenReturn(new ObjectId());
 		List<GitlabGitRepo> enabledRepos = new ArrayList<>();
@@ -165,7 +160,6 @@ public class GitlabGitCollectorTaskTest {
 	
 	@Test
 	public void shouldNotSaveRepoWhenClientError() {
-		when(componentRepository.findAll()).thenReturn(new ArrayList<>());
 		when(gitlabGitCollectorRepository.findByCollectorIdIn(anyCollection())).thenReturn(new ArrayList<>());
 		when(collector.getId()).thenReturn(new ObjectId());
 		List<GitlabGitRepo> enabledRepos = new ArrayList<>();
@@ -185,7 +179,6 @@ public class GitlabGitCollectorTaskTest {
 	
 	@Test
 	public void shouldNotSaveRepoWhenResourceAccessExceptin() {
-		when(componentRepository.findAll()).thenReturn(new ArrayList<>());
 		when(gitlabGitCollectorRepository.findByCollectorIdIn(anyCollection())).thenReturn(new ArrayList<>());
 		when(collector.getId()).thenReturn(new ObjectId());
 		List<GitlabGitRepo> enabledRepos = new ArrayList<>();
@@ -1,29 +1,23 @@
 package com.capitalone.dashboard.collector;
 
 import com.capitalone.dashboard.model.Collector;
-import com.capitalone.dashboard.model.CollectorItem;
 import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.model.Commit;
 import com.capitalone.dashboard.model.SubversionRepo;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.CommitRepository;
-import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.SubversionRepoRepository;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.bson.types.ObjectId;
 import org.joda.time.DateTime;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * CollectorTask that fetches Commit information from Subversion
@@ -38,14 +32,14 @@ public class SubversionCollectorTask extends CollectorTask<Collector> {
     private final CommitRepository commitRepository;
     private final SubversionClient subversionClient;
     private final SubversionSettings subversionSettings;
-    private final ComponentRepository dbComponentRepository;
+    private final EnabledCollectorItemResolver enabledCollectorItemResolver;
 
     @Autowired
     public SubversionCollectorTask(TaskScheduler taskScheduler,
                                    BaseCollectorRepository<Collector> collectorRepository,
                                    SubversionRepoRepository subversionRepoRepository,
                                    CommitRepository commitRepository,
-                                   ComponentRepository dbComponentRepository,
+                                   EnabledCollectorItemResolver enabledCollectorItemResolver,
                                    SubversionClient subversionClient,
                                    SubversionSettings subversionSettings) {
         super(taskScheduler, "Subversion");
@@ -54,7 +48,7 @@ public class SubversionCollectorTask extends CollectorTask<Collector> {
         this.commitRepository = commitRepository;
         this.subversionClient = subversionClient;
         this.subversionSettings = subversionSettings;
-        this.dbComponentRepository = dbComponentRepository;
+        this.enabledCollectorItemResolver = enabledCollectorItemResolver;
     }
 
     @Override
@@ -90,31 +84,8 @@ public class SubversionCollectorTask extends CollectorTask<Collector> {
 	/**
 	 * Clean up unused deployment collector items
 	 */
-    @SuppressWarnings("PMD.AvoidDeeplyNestedIfStmts") // agreed PMD, fixme
 	private void clean(Collector collector) {
-		Set<ObjectId> uniqueIDs = new HashSet<>();
-		for (com.capitalone.dashboard.model.Component comp : dbComponentRepository.findAll()) {
-			if (comp.getCollectorItems() != null && !comp.getCollectorItems().isEmpty()) {
-				List<CollectorItem> itemList = comp.getCollectorItems().get(CollectorType.SCM);
-				if (itemList != null) {
-					for (CollectorItem ci : itemList) {
-						if (ci != null && ci.getCollectorId().equals(collector.getId())){
-							uniqueIDs.add(ci.getId());
-						}
-					}
-				}
-			}
-		}
-		List<SubversionRepo> repoList = new ArrayList<>();
-		Set<ObjectId> svnId = new HashSet<>();
-		svnId.add(collector.getId());
-		for (SubversionRepo repo : subversionRepoRepository.findByCollectorIdIn(svnId)) {
-			if (repo != null) {
-				repo.setEnabled(uniqueIDs.contains(repo.getId()));
-				repoList.add(repo);
-			}
-		}
-		subversionRepoRepository.save(repoList);
+		enabledCollectorItemResolver.updateEnabled(collector);
 	}
 
     @Override
@@ -0,0 +1,89 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.CollectorItem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash index of collector items by the values of the options that identify them, such as the
+ * instance URL and job name of a build job.
+ * <p>
+ * Collectors compare the items an instance reports with the items already stored on every run.
+ * Looking them up in lists makes that quadratic in the number of items; this index answers in
+ * constant time. The identifying options should be the ones the {@code equals} of the items compares.
+ *
+ * @param <T> the type of the collector items
+ */
+public class CollectorItemIndex<T extends CollectorItem> {
+    private final List<String> keyOptions;
+    private final Map<List<Object>, T> items = new HashMap<>();
+
+    /**
+     * @param keyOptions the names of the options identifying an item
+     */
+    public CollectorItemIndex(List<String> keyOptions) {
+        this.keyOptions = keyOptions;
+    }
+
+    /**
+     * @param items the items to index
+     * @param keyOptions the names of the options identifying an item
+     */
+    public CollectorItemIndex(Collection<? extends T> items, List<String> keyOptions) {
+        this(keyOptions);
+        addAll(items);
+    }
+
+    /**
+     * Adds an item, unless an item with the same identity is already indexed.
+     *
+     * @param item the item to add
+     */
+    public void add(T item) {
+        items.putIfAbsent(key(item), item);
+    }
+
+    /**
+     * @param items the items to add
+     */
+    public void addAll(Collection<? extends T> items) {
+        for (T item : items) {
+            add(item);
+        }
+    }
+
+    /**
+     * @param item an item, possibly of another instance
+     * @return true if an item with the same identity is indexed
+     */
+    public boolean contains(CollectorItem item) {
+        return items.containsKey(key(item));
+    }
+
+    /**
+     * @param item an item, possibly of another instance
+     * @return the indexed item with the same identity, or null
+     */
+    public T get(CollectorItem item) {
+        return items.get(key(item));
+    }
+
+    /**
+     * @return the number of items indexed
+     */
+    public int size() {
+        return items.size();
+    }
+
+    private List<Object> key(CollectorItem item) {
+        List<Object> key = new ArrayList<>(keyOptions.size());
+        for (String option : keyOptions) {
+            key.add(item.getOptions().get(option));
+        }
+        return key;
+    }
+}
@@ -0,0 +1,135 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.Collector;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.Component;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Determines which collector items of a collector are on a dashboard, so that collectors only
+ * collect data for those.
+ * <p>
+ * The ids are read from the components that reference the collector, projected to their collector
+ * items of its type instead of loading whole components, and kept for {@code collector.enabledItems.ttlSeconds} since every collector run
+ * asks for them.
+ */
+@org.springframework.stereotype.Component
+public class EnabledCollectorItemResolver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EnabledCollectorItemResolver.class);
+
+    private static final String ID = "_id";
+    private static final String COLLECTOR_ID = "collectorId";
+    private static final String ENABLED = "enabled";
+
+    private final MongoTemplate template;
+    private final long ttlMillis;
+    private final Map<ObjectId, Entry> entries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public EnabledCollectorItemResolver(MongoTemplate template,
+                                        @Value("${collector.enabledItems.ttlSeconds:60}") long ttlSeconds) {
+        this.template = template;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Finds the collector items of a collector that are referenced by a dashboard component.
+     *
+     * @param collector the collector
+     * @return the ids of the referenced collector items
+     */
+    public Set<ObjectId> getReferencedCollectorItemIds(Collector collector) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(collector.getId());
+        if (entry != null && entry.expiresAt > now) {
+            return entry.ids;
+        }
+        Set<ObjectId> ids = Collections.unmodifiableSet(findReferencedCollectorItemIds(collector));
+        entries.put(collector.getId(), new Entry(ids, now + ttlMillis));
+        return ids;
+    }
+
+    /**
+     * Enables the collector items of a collector that are on a dashboard and disables the others.
+     *
+     * @param collector the collector
+     * @return the number of collector items that changed state
+     */
+    public int updateEnabled(Collector collector) {
+        Set<ObjectId> ids = getReferencedCollectorItemIds(collector);
+
+        Query enable = new Query(Criteria.where(COLLECTOR_ID).is(collector.getId())
+                .and(ID).in(ids)
+                .and(ENABLED).ne(true));
+        Query disable = new Query(Criteria.where(COLLECTOR_ID).is(collector.getId())
+                .and(ID).nin(ids)
+                .and(ENABLED).is(true));
+        int enabled = template.updateMulti(enable, Update.update(ENABLED, true), CollectorItem.class).getN();
+        int disabled = template.updateMulti(disable, Update.update(ENABLED, false), CollectorItem.class).getN();
+
+        LOGGER.debug("Enabled {} and disabled {} collector items of {}", enabled, disabled, collector.getName());
+        return enabled + disabled;
+    }
+
+    /**
+     * Drops the cached collector items, to be called when components change.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private Set<ObjectId> findReferencedCollectorItemIds(Collector collector) {
+        String type = collector.getCollectorType().name();
+        String items = "collectorItems." + type;
+        DBObject query = new BasicDBObject(items + "." + COLLECTOR_ID, collector.getId());
+        DBObject fields = new BasicDBObject(ID, 0).append(items + "." + ID, 1).append(items + "." + COLLECTOR_ID, 1);
+
+        Set<ObjectId> ids = new HashSet<>();
+        DBCursor cursor = template.getCollection(template.getCollectionName(Component.class)).find(query, fields);
+        try {
+            while (cursor.hasNext()) {
+                Object collectorItems = cursor.next().get("collectorItems");
+                Object typeItems = collectorItems instanceof DBObject ? ((DBObject) collectorItems).get(type) : null;
+                if (typeItems instanceof List) {
+                    for (Object item : (List<?>) typeItems) {
+                        if (item instanceof DBObject && collector.getId().equals(((DBObject) item).get(COLLECTOR_ID))
+                                && ((DBObject) item).get(ID) instanceof ObjectId) {
+                            ids.add((ObjectId) ((DBObject) item).get(ID));
+                        }
+                    }
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+        return ids;
+    }
+
+    private static class Entry {
+        private final Set<ObjectId> ids;
+        private final long expiresAt;
+
+        Entry(Set<ObjectId> ids, long expiresAt) {
+            this.ids = ids;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
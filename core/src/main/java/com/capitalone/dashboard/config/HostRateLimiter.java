@@ -0,0 +1,231 @@
+package com.capitalone.dashboard.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throttles the requests sent to each remote host.
+ * <p>
+ * Every host gets a token bucket of {@code burst} requests, refilled at {@code requestsPerSecond}
+ * (0 for no limit). The responses adapt the bucket of their host:
+ * <ul>
+ * <li>{@code X-RateLimit-Remaining} and {@code X-RateLimit-Reset}, as sent by GitHub, spread the
+ * remaining requests over the time left until the reset, and hold the host until the reset once
+ * none remain;</li>
+ * <li>a 429 or 503 holds the host for its {@code Retry-After}, or for an exponential backoff when it
+ * has none.</li>
+ * </ul>
+ * A request waits at most {@code maxWaitMillis} for its host. A request that would have to wait
+ * longer fails with an {@link IOException} right away, without taking a token from the bucket.
+ */
+public class HostRateLimiter implements ClientHttpRequestInterceptor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HostRateLimiter.class);
+
+    static final String RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+    static final String RATE_LIMIT_RESET = "X-RateLimit-Reset";
+    static final String RETRY_AFTER = "Retry-After";
+
+    private static final long INITIAL_BACKOFF_MILLIS = 1000;
+
+    private final double requestsPerMilli;
+    private final double burst;
+    private final long maxWaitMillis;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong throttledCount = new AtomicLong();
+    private final AtomicLong waitMillis = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public HostRateLimiter(double requestsPerSecond, int burst, long maxWaitMillis) {
+        this.requestsPerMilli = requestsPerSecond / 1000;
+        this.burst = Math.max(1, burst);
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String host = request.getURI().getHost();
+        if (host == null) {
+            return execution.execute(request, body);
+        }
+        long wait = reserve(host, System.currentTimeMillis());
+        if (wait > maxWaitMillis) {
+            rejectedCount.incrementAndGet();
+            throw new IOException(host + " is rate limited for another " + wait + " ms");
+        }
+        if (wait > 0) {
+            throttledCount.incrementAndGet();
+            waitMillis.addAndGet(wait);
+            LOGGER.debug("Waiting {} ms before requesting {}", wait, host);
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + host);
+            }
+        }
+        ClientHttpResponse response = execution.execute(request, body);
+        update(host, response.getRawStatusCode(), response.getHeaders(), System.currentTimeMillis());
+        return response;
+    }
+
+    /**
+     * Takes a token from the bucket of a host, unless the request would have to wait longer than
+     * {@code maxWaitMillis}.
+     *
+     * @return the milliseconds to wait before sending the request, more than {@code maxWaitMillis}
+     * when it is refused
+     */
+    long reserve(String host, long now) {
+        return bucket(host, now).reserve(now);
+    }
+
+    /**
+     * Adapts the bucket of a host to the response it sent.
+     */
+    void update(String host, int status, HttpHeaders headers, long now) {
+        Bucket bucket = bucket(host, now);
+        Long remaining = toLong(headers.getFirst(RATE_LIMIT_REMAINING));
+        Long reset = toLong(headers.getFirst(RATE_LIMIT_RESET));
+        if (remaining != null && reset != null) {
+            bucket.budget(remaining, TimeUnit.SECONDS.toMillis(reset), now);
+        }
+
+        if (status == HttpStatus.TOO_MANY_REQUESTS.value() || status == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+            Long retryAfter = retryAfterMillis(headers.getFirst(RETRY_AFTER), now);
+            long until = retryAfter == null ? bucket.backoff(now) : now + retryAfter;
+            bucket.hold(until);
+            LOGGER.info("{} answered {}, holding its requests for {} ms", host, status, until - now);
+        } else if (status < 400) {
+            bucket.succeeded();
+        }
+    }
+
+    /**
+     * @return the number of requests that had to wait for their host
+     */
+    public long getThrottledCount() {
+        return throttledCount.get();
+    }
+
+    /**
+     * @return the number of requests refused since their host would have held them too long
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * @return the milliseconds spent waiting for the hosts
+     */
+    public long getWaitMillis() {
+        return waitMillis.get();
+    }
+
+    private Bucket bucket(String host, long now) {
+        return buckets.computeIfAbsent(host.toLowerCase(), h -> new Bucket(now));
+    }
+
+    private static Long retryAfterMillis(String value, long now) {
+        if (value == null) {
+            return null;
+        }
+        Long seconds = toLong(value);
+        if (seconds != null) {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, seconds));
+        }
+        try {
+            return Math.max(0, ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli() - now);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static Long toLong(String value) {
+        try {
+            return value == null ? null : Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private class Bucket {
+        private double tokens = burst;
+        private long refilledAt;
+        // the configured rate, lowered while the host reports a budget that would not last
+        private double rate = requestsPerMilli;
+        private long rateUntil;
+        private long heldUntil;
+        private int failures;
+
+        Bucket(long now) {
+            refilledAt = now;
+        }
+
+        synchronized long reserve(long now) {
+            if (now >= rateUntil) {
+                rate = requestsPerMilli;
+            }
+            long wait = Math.max(0, heldUntil - now);
+            if (rate > 0) {
+                tokens = Math.min(burst, tokens + (now - refilledAt) * rate);
+                refilledAt = now;
+                if (tokens < 1) {
+                    wait = Math.max(wait, (long) Math.ceil((1 - tokens) / rate));
+                }
+            }
+            // a refused request does not take a token, so refusals do not push back the next requests
+            if (rate > 0 && wait <= maxWaitMillis) {
+                tokens -= 1;
+            }
+            return wait;
+        }
+
+        synchronized void budget(long remaining, long resetAt, long now) {
+            if (resetAt <= now) {
+                return;
+            }
+            if (remaining <= 0) {
+                heldUntil = Math.max(heldUntil, resetAt);
+                return;
+            }
+            double budgetRate = (double) remaining / (resetAt - now);
+            if (requestsPerMilli <= 0 || budgetRate < requestsPerMilli) {
+                rate = budgetRate;
+                rateUntil = resetAt;
+            } else {
+                rate = requestsPerMilli;
+                rateUntil = 0;
+            }
+        }
+
+        synchronized long backoff(long now) {
+            long backoff = INITIAL_BACKOFF_MILLIS << Math.min(failures, 20);
+            failures++;
+            return now + Math.min(backoff, maxWaitMillis);
+        }
+
+        synchronized void hold(long until) {
+            heldUntil = Math.max(heldUntil, until);
+        }
+
+        synchronized void succeeded() {
+            failures = 0;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.capitalone.dashboard.config;
+
+import com.capitalone.dashboard.util.MetricsLogger;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.ssl.SSLContexts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestOperations;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates the {@link RestOperations} of the collector clients on top of one pooled HTTP client.
+ * <p>
+ * Connections are kept alive and reused by every client of an application, so the TCP and TLS
+ * handshakes with a server are only made when the pool has no idle connection to it. At most
+ * {@code httpmaxconnectionsperhost} connections are opened to a server, and
+ * {@code httpmaxconnections} in total. A connection is kept for as long as the server allows, or
+ * {@code httpkeepaliveseconds} when the server does not say (0 until the server closes it).
+ * Responses are requested gzip compressed and decompressed transparently. The default
+ * {@link javax.net.ssl.SSLContext} and hostname verifier are read on the first https connection,
+ * so a collector may still replace them in its own {@code @PostConstruct}.
+ * <p>
+ * The requests to each server are throttled by a {@link HostRateLimiter} to the rate limits the
+ * server reports, in {@code X-RateLimit} headers or with a 429 or 503, and optionally to
+ * {@code httprequestspersecond} (0, the default, for no limit) with bursts of {@code httpburst}.
+ * A request waits at most {@code httpmaxwaitseconds} for its server, and fails when it would have
+ * to wait longer.
+ * <p>
+ * The state of the pool, and how many requests were served by a new connection, are logged every
+ * {@code httppool.metricsSeconds} (0 to disable).
+ */
+@Component
+@ConditionalOnClass(name = "org.apache.http.impl.conn.PoolingHttpClientConnectionManager")
+public class HttpClientFactory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpClientFactory.class);
+
+    @Value("${httpmaxconnections:200}")
+    private int maxConnections;
+
+    @Value("${httpmaxconnectionsperhost:20}")
+    private int maxConnectionsPerHost;
+
+    @Value("${httpkeepaliveseconds:30}")
+    private long keepAliveSeconds;
+
+    @Value("${httprequestspersecond:0}")
+    private double requestsPerSecond;
+
+    @Value("${httpburst:20}")
+    private int burst;
+
+    @Value("${httpmaxwaitseconds:60}")
+    private long maxWaitSeconds;
+
+    @Value("${httppool.metricsSeconds:300}")
+    private long metricsIntervalSeconds;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong connections = new AtomicLong();
+
+    private LazySSLConnectionSocketFactory sslSocketFactory;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private HostRateLimiter rateLimiter;
+    private MetricsLogger metricsLogger;
+
+    @PostConstruct
+    public void start() {
+        sslSocketFactory = new LazySSLConnectionSocketFactory();
+        Registry<ConnectionSocketFactory> socketFactories = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslSocketFactory)
+                .build();
+        HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> connectionFactory = (route, config) -> {
+            connections.incrementAndGet();
+            return ManagedHttpClientConnectionFactory.INSTANCE.create(route, config);
+        };
+        connectionManager = new PoolingHttpClientConnectionManager(socketFactories, connectionFactory);
+        connectionManager.setMaxTotal(Math.max(1, maxConnections));
+        connectionManager.setDefaultMaxPerRoute(Math.max(1, maxConnectionsPerHost));
+
+        long keepAliveMillis = TimeUnit.SECONDS.toMillis(keepAliveSeconds);
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                .useSystemProperties()
+                .setConnectionManager(connectionManager)
+                // servers that do not say how long they keep a connection get the configured time
+                .setKeepAliveStrategy((response, context) -> {
+                    long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return duration < 0 ? keepAliveMillis : duration;
+                })
+                .evictExpiredConnections()
+                .addInterceptorFirst((HttpRequestInterceptor) (request, context) -> requests.incrementAndGet());
+        if (keepAliveSeconds > 0) {
+            builder.evictIdleConnections(keepAliveSeconds, TimeUnit.SECONDS);
+        }
+        httpClient = builder.build();
+        rateLimiter = new HostRateLimiter(requestsPerSecond, burst, TimeUnit.SECONDS.toMillis(maxWaitSeconds));
+        metricsLogger = MetricsLogger.start("http-pool-metrics", metricsIntervalSeconds, this::log);
+    }
+
+    @PreDestroy
+    public void stop() {
+        metricsLogger.stop();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            LOGGER.warn("Unable to close the HTTP client", e);
+        }
+    }
+
+    /**
+     * @return a {@link RestOperations} without timeouts
+     */
+    public RestOperations createRestOperations() {
+        return createRestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    /**
+     * @param connectTimeout the time to wait for a connection, in milliseconds
+     * @param readTimeout the time to wait for data, in milliseconds
+     * @return a {@link RestOperations} with the given timeouts
+     */
+    public RestOperations createRestOperations(int connectTimeout, int readTimeout) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+        return createRestTemplate(requestFactory);
+    }
+
+    private RestTemplate createRestTemplate(ClientHttpRequestFactory requestFactory) {
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.setInterceptors(Collections.singletonList(rateLimiter));
+        return restTemplate;
+    }
+
+    /**
+     * @return the number of requests sent
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * @return the number of connections opened, each with its own handshakes
+     */
+    public long getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * @return the current state of the pool of connections to each server
+     */
+    public List<PoolStatistics> getPoolStatistics() {
+        List<PoolStatistics> rt = new ArrayList<>();
+        for (HttpRoute route : connectionManager.getRoutes()) {
+            PoolStats stats = connectionManager.getStats(route);
+            PoolStatistics poolStatistics = new PoolStatistics();
+            poolStatistics.host = route.getTargetHost().toHostString();
+            poolStatistics.maxSize = stats.getMax();
+            poolStatistics.leasedCount = stats.getLeased();
+            poolStatistics.availableCount = stats.getAvailable();
+            poolStatistics.pendingCount = stats.getPending();
+            rt.add(poolStatistics);
+        }
+        return rt;
+    }
+
+    private void log() {
+        long requestCount = requests.get();
+        long connectionCount = connections.get();
+        LOGGER.info("HTTP client: {} requests over {} connections ({}% reused), {} throttled for {} ms, {} refused",
+                requestCount, connectionCount,
+                requestCount == 0 ? 0 : Math.max(0, requestCount - connectionCount) * 100 / requestCount,
+                rateLimiter.getThrottledCount(), rateLimiter.getWaitMillis(), rateLimiter.getRejectedCount());
+        for (PoolStatistics stats : getPoolStatistics()) {
+            LOGGER.info("HTTP connection pool {}: {} of {} connections leased, {} idle, {} waiting",
+                    stats.host, stats.leasedCount, stats.maxSize, stats.availableCount, stats.pendingCount);
+        }
+    }
+
+    /**
+     * Applications may replace the JVM wide hostname verifier, as the Jenkins collector does. The
+     * verifier of the JDK rejects every host, it is only consulted once the built-in check failed, so
+     * it is only used when it was replaced.
+     */
+    static HostnameVerifier hostnameVerifier() {
+        HostnameVerifier verifier = HttpsURLConnection.getDefaultHostnameVerifier();
+        return verifier.getClass().getEnclosingClass() == HttpsURLConnection.class
+                ? SSLConnectionSocketFactory.getDefaultHostnameVerifier() : verifier;
+    }
+
+    /**
+     * Builds the TLS socket factory when the first https connection is opened rather than when
+     * this bean is created. The Gitlab and Feature collectors install their SSLContext as the JVM
+     * default in a {@code @PostConstruct} of their own, which may run after this one.
+     */
+    static class LazySSLConnectionSocketFactory implements LayeredConnectionSocketFactory {
+        private SSLConnectionSocketFactory delegate;
+
+        synchronized SSLConnectionSocketFactory delegate() {
+            if (delegate == null) {
+                delegate = new SSLConnectionSocketFactory(SSLContexts.createSystemDefault(), hostnameVerifier());
+            }
+            return delegate;
+        }
+
+        @Override
+        public Socket createSocket(HttpContext context) throws IOException {
+            return delegate().createSocket(context);
+        }
+
+        @Override
+        public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                    InetSocketAddress localAddress, HttpContext context) throws IOException {
+            return delegate().connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+            return delegate().createLayeredSocket(socket, target, port, context);
+        }
+    }
+
+    public static class PoolStatistics {
+        private String host;
+        private int maxSize;
+        private int leasedCount;
+        private int availableCount;
+        private int pendingCount;
+
+        public String getHost() {
+            return host;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getLeasedCount() {
+            return leasedCount;
+        }
+
+        public int getAvailableCount() {
+            return availableCount;
+        }
+
+        public int getPendingCount() {
+            return pendingCount;
+        }
+    }
+}
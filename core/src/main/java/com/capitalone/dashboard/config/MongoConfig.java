@@ -4,7 +4,9 @@ import com.capitalone.dashboard.repository.RepositoryPackage;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoClientOptions;
 import com.mongodb.MongoCredential;
+import com.mongodb.ReadPreference;
 import com.mongodb.ServerAddress;
+import com.mongodb.WriteConcern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,13 +14,16 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
 import org.springframework.data.mongodb.config.AbstractMongoConfiguration;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 @EnableMongoRepositories(basePackageClasses = RepositoryPackage.class)
@@ -39,8 +44,27 @@ public class MongoConfig extends AbstractMongoConfiguration {
     private String userName;
     @Value("${dbpassword:}")
     private String password;
-
-
+    @Value("${dbmaxconnections:100}")
+    private int maxConnections;
+    @Value("${dbminconnections:0}")
+    private int minConnections;
+    @Value("${dbthreadsallowedtoblockmultiplier:5}")
+    private int threadsAllowedToBlockMultiplier;
+    @Value("${dbmaxwaittime:120000}")
+    private int maxWaitTime;
+    @Value("${dbconnecttimeout:10000}")
+    private int connectTimeout;
+    @Value("${dbsockettimeout:0}")
+    private int socketTimeout;
+    @Value("${dbmaxconnectionidletime:60000}")
+    private int maxConnectionIdleTime;
+    @Value("${dbreadpreference:primary}")
+    private String readPreference;
+    @Value("${dbwriteconcern:ACKNOWLEDGED}")
+    private String writeConcern;
+    // collection:WRITE_CONCERN pairs, e.g. builds:W1,commits:MAJORITY
+    @Value("#{'${dbwriteconcerns:}'.split(',')}")
+    private List<String> collectionWriteConcerns;
 
     @Override
     protected String getDatabaseName() {
@@ -54,9 +78,8 @@ public class MongoConfig extends AbstractMongoConfiguration {
         MongoClient client;
         LOGGER.info("ReplicaSet" + dbreplicaset);
 
-        MongoClientOptions.Builder builder = new MongoClientOptions.Builder();
-        builder.maxConnectionIdleTime(60000);
-        MongoClientOptions opts = builder.build();
+        MongoClientOptions opts = mongoClientOptions();
+        LOGGER.info("Mongo Client options: {}", opts);
 
         if (Boolean.parseBoolean(dbreplicaset)) {
             List<ServerAddress> serverAddressList = new ArrayList<>();
@@ -72,7 +95,7 @@ public class MongoConfig extends AbstractMongoConfiguration {
             }
 
             if (StringUtils.isEmpty(userName)) {
-                client = new MongoClient(serverAddressList);
+                client = new MongoClient(serverAddressList, opts);
             } else {
                 MongoCredential mongoCredential = MongoCredential.createScramSha1Credential(
                         userName, databaseName, password.toCharArray());
@@ -82,7 +105,7 @@ public class MongoConfig extends AbstractMongoConfiguration {
             ServerAddress serverAddr = new ServerAddress(host, port);
             LOGGER.info("Initializing Mongo Client server at: {}", serverAddr);
             if (StringUtils.isEmpty(userName)) {
-                client = new MongoClient(serverAddr);
+                client = new MongoClient(serverAddr, opts);
             } else {
                 MongoCredential mongoCredential = MongoCredential.createScramSha1Credential(
                         userName, databaseName, password.toCharArray());
@@ -101,7 +124,51 @@ public class MongoConfig extends AbstractMongoConfiguration {
 
     @Bean
     public MongoTemplate mongoTemplate() throws Exception {
-        return new MongoTemplate(mongo(), getDatabaseName());
+        MongoTemplate template = new MongoTemplate(mongo(), getDatabaseName());
+        template.setWriteConcernResolver(writeConcernResolver());
+        return template;
+    }
+
+    /**
+     * Builds the client options from the db* properties, so that each application can size its
+     * connection pool and choose where it reads from.
+     */
+    protected MongoClientOptions mongoClientOptions() {
+        return new MongoClientOptions.Builder()
+                .connectionsPerHost(maxConnections)
+                .minConnectionsPerHost(minConnections)
+                .threadsAllowedToBlockForConnectionMultiplier(threadsAllowedToBlockMultiplier)
+                .maxWaitTime(maxWaitTime)
+                .connectTimeout(connectTimeout)
+                .socketTimeout(socketTimeout)
+                .maxConnectionIdleTime(maxConnectionIdleTime)
+                .readPreference(ReadPreference.valueOf(readPreference))
+                .writeConcern(toWriteConcern(writeConcern))
+                .build();
+    }
+
+    /**
+     * Uses the write concern configured for a collection in <b>dbwriteconcerns</b>, or the default one.
+     */
+    protected WriteConcernResolver writeConcernResolver() {
+        final Map<String, WriteConcern> writeConcerns = new HashMap<>();
+        for (String entry : collectionWriteConcerns) {
+            int separator = entry.indexOf(':');
+            if (separator > 0) {
+                writeConcerns.put(entry.substring(0, separator).trim(), toWriteConcern(entry.substring(separator + 1)));
+            }
+        }
+        return action -> writeConcerns.containsKey(action.getCollectionName())
+                ? writeConcerns.get(action.getCollectionName())
+                : action.getDefaultWriteConcern();
+    }
+
+    private static WriteConcern toWriteConcern(String name) {
+        WriteConcern concern = WriteConcern.valueOf(name.trim().toUpperCase());
+        if (concern == null) {
+            throw new IllegalArgumentException("Unknown write concern: " + name);
+        }
+        return concern;
     }
 
     @Bean
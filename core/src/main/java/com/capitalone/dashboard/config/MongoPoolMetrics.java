@@ -0,0 +1,103 @@
+package com.capitalone.dashboard.config;
+
+import com.capitalone.dashboard.util.MetricsLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publishes the utilization of the Mongo connection pools.
+ * <p>
+ * The driver registers a JMX bean for the pool of each server it connects to. Their figures are
+ * logged every {@code dbpool.metricsSeconds} (0 to disable), so the pool settings of
+ * {@link MongoConfig} can be tuned per application without a JMX console.
+ */
+@Component
+public class MongoPoolMetrics {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoPoolMetrics.class);
+
+    private static final String POOL_BEANS = "org.mongodb.driver:type=ConnectionPool,*";
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    @Value("${dbpool.metricsSeconds:300}")
+    private long metricsIntervalSeconds;
+
+    private MetricsLogger metricsLogger;
+
+    @PostConstruct
+    public void start() {
+        metricsLogger = MetricsLogger.start("mongo-pool-metrics", metricsIntervalSeconds, this::log);
+    }
+
+    @PreDestroy
+    public void stop() {
+        metricsLogger.stop();
+    }
+
+    /**
+     * @return the current state of the connection pool of each server
+     */
+    public List<PoolStatistics> getPoolStatistics() {
+        List<PoolStatistics> rt = new ArrayList<>();
+        try {
+            for (ObjectName name : mBeanServer.queryNames(new ObjectName(POOL_BEANS), null)) {
+                PoolStatistics stats = new PoolStatistics();
+                stats.host = mBeanServer.getAttribute(name, "Host") + ":" + mBeanServer.getAttribute(name, "Port");
+                stats.maxSize = ((Number) mBeanServer.getAttribute(name, "MaxSize")).intValue();
+                stats.size = ((Number) mBeanServer.getAttribute(name, "Size")).intValue();
+                stats.checkedOutCount = ((Number) mBeanServer.getAttribute(name, "CheckedOutCount")).intValue();
+                stats.waitQueueSize = ((Number) mBeanServer.getAttribute(name, "WaitQueueSize")).intValue();
+                rt.add(stats);
+            }
+        } catch (JMException e) {
+            LOGGER.warn("Unable to read the Mongo connection pool statistics", e);
+        }
+        return rt;
+    }
+
+    private void log() {
+        for (PoolStatistics stats : getPoolStatistics()) {
+            LOGGER.info("Mongo connection pool {}: {} of {} connections in use, {} open, {} waiting",
+                    stats.host, stats.checkedOutCount, stats.maxSize, stats.size, stats.waitQueueSize);
+        }
+    }
+
+    public static class PoolStatistics {
+        private String host;
+        private int maxSize;
+        private int size;
+        private int checkedOutCount;
+        private int waitQueueSize;
+
+        public String getHost() {
+            return host;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getCheckedOutCount() {
+            return checkedOutCount;
+        }
+
+        public int getWaitQueueSize() {
+            return waitQueueSize;
+        }
+    }
+}
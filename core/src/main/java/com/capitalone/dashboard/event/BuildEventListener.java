@@ -54,9 +54,9 @@ public class BuildEventListener extends HygieiaMongoEventListener<Build> {
         Build build = event.getSource();
         //if a build is successful, process it
         if (build.getBuildStatus().equals(BuildStatus.Success)) {
-            processBuild(event.getSource());
+            processPipelineEvent(build.getCollectorItemId(), batch -> processBuild(build, batch));
         } else if (build.getBuildStatus().equals(BuildStatus.Failure)) {
-            processFailedBuild(event.getSource());
+            processPipelineEvent(build.getCollectorItemId(), batch -> processFailedBuild(build, batch));
         }
     }
 
@@ -65,13 +65,14 @@ public class BuildEventListener extends HygieiaMongoEventListener<Build> {
      * the failed builds bucket on the pipeline
      *
      * @param failedBuild
+     * @param batch
      */
-    private void processFailedBuild(Build failedBuild) {
+    private void processFailedBuild(Build failedBuild, PipelineBatch batch) {
         List<Dashboard> teamDashboardsReferencingBuild = findAllDashboardsForBuild(failedBuild);
         for (Dashboard teamDashboard : teamDashboardsReferencingBuild) {
-            Pipeline pipeline = getOrCreatePipeline(teamDashboard);
+            Pipeline pipeline = getOrCreatePipeline(teamDashboard, batch);
             pipeline.addFailedBuild(failedBuild);
-            pipelineRepository.save(pipeline);
+            batch.save(pipeline);
         }
     }
 
@@ -80,13 +81,14 @@ public class BuildEventListener extends HygieiaMongoEventListener<Build> {
      * add the commit to the pipeline for the dashboard
      *
      * @param build
+     * @param batch
      */
-    private void processBuild(Build build) {
+    private void processBuild(Build build, PipelineBatch batch) {
         List<Dashboard> teamDashboardsReferencingBuild = findAllDashboardsForBuild(build);
 
         //for every team dashboard referencing the build, find the pipeline, put this commit in the build stage
         for (Dashboard teamDashboard : teamDashboardsReferencingBuild) {
-            Pipeline pipeline = getOrCreatePipeline(teamDashboard);
+            Pipeline pipeline = getOrCreatePipeline(teamDashboard, batch);
 
             for (SCM scm : build.getSourceChangeSet()) {
                 // we want to use the build start time since the timestamp was just the time that the collector ran
@@ -112,7 +114,7 @@ public class BuildEventListener extends HygieiaMongoEventListener<Build> {
                     pipeline.addCommit(PipelineStage.BUILD.getName(), commit);
                 }
             }
-            pipelineRepository.save(pipeline);
+            batch.save(pipeline);
 
         }
     }
@@ -127,12 +129,16 @@ public class BuildEventListener extends HygieiaMongoEventListener<Build> {
      * @return
      */
     private List<Dashboard> findAllDashboardsForBuild(Build build) {
-        List<Dashboard> dashboards = new ArrayList<>();
         if (build == null || build.getCollectorItemId() == null) {
             //return an empty list if the build is not associated with a Dashboard
-            return dashboards;
+            return new ArrayList<>();
         }
-        CollectorItem buildCollectorItem = collectorItemRepository.findOne(build.getCollectorItemId());
+        return findDashboards(build.getCollectorItemId(), this::loadDashboardsForBuildCollectorItem);
+    }
+
+    private List<Dashboard> loadDashboardsForBuildCollectorItem(ObjectId collectorItemId) {
+        List<Dashboard> dashboards = new ArrayList<>();
+        CollectorItem buildCollectorItem = collectorItemRepository.findOne(collectorItemId);
         if(buildCollectorItem != null) {
             List<Component> components = componentRepository.findByBuildCollectorItemId(buildCollectorItem.getId());
             if (!components.isEmpty()) {
@@ -13,6 +13,7 @@ public class CommitEventListener extends HygieiaMongoEventListener<Commit> {
 
     private final ComponentRepository componentRepository;
     private final DashboardRepository dashboardRepository;
+    private CommitGraphIndex commitGraphIndex;
 
     @Autowired
     public CommitEventListener(ComponentRepository componentRepository,
@@ -25,10 +26,21 @@ public class CommitEventListener extends HygieiaMongoEventListener<Commit> {
         this.dashboardRepository = dashboardRepository;
     }
 
+    @Autowired(required = false)
+    public void setCommitGraphIndex(CommitGraphIndex commitGraphIndex) {
+        this.commitGraphIndex = commitGraphIndex;
+    }
+
     @Override
     public void onAfterSave(AfterSaveEvent<Commit> event) {
         Commit commit = event.getSource();
+        if (commitGraphIndex != null) {
+            commitGraphIndex.add(commit);
+        }
+        processPipelineEvent(commit.getCollectorItemId(), batch -> processCommit(commit, batch));
+    }
 
+    private void processCommit(Commit commit, PipelineBatch batch) {
         // Add the commit to all pipelines associated with the team dashboards
         // this commit is part of. But only if there is a build collector item
         // configured on that dashboard. Otherwise, the commit will be orphaned
@@ -39,9 +51,9 @@ public class CommitEventListener extends HygieiaMongoEventListener<Commit> {
                 .forEach(teamDashboard -> {
                     if (CommitType.New.equals(commit.getType())) {
                         PipelineCommit pipelineCommit = new PipelineCommit(commit, commit.getScmCommitTimestamp());
-                        Pipeline pipeline = getOrCreatePipeline(teamDashboard);
+                        Pipeline pipeline = getOrCreatePipeline(teamDashboard, batch);
                         pipeline.addCommit(PipelineStage.COMMIT.getName(), pipelineCommit);
-                        pipelineRepository.save(pipeline);
+                        batch.save(pipeline);
                     }
                 });
     }
@@ -53,9 +65,11 @@ public class CommitEventListener extends HygieiaMongoEventListener<Commit> {
      */
     private List<Dashboard> findAllDashboardsForCommit(Commit commit){
         if (commit.getCollectorItemId() == null) return new ArrayList<>();
-        CollectorItem commitCollectorItem = collectorItemRepository.findOne(commit.getCollectorItemId());
-        List<Component> components = componentRepository.findBySCMCollectorItemId(commitCollectorItem.getId());
-        return dashboardRepository.findByApplicationComponentsIn(components);
+        return findDashboards(commit.getCollectorItemId(), collectorItemId -> {
+            CollectorItem commitCollectorItem = collectorItemRepository.findOne(collectorItemId);
+            List<Component> components = componentRepository.findBySCMCollectorItemId(commitCollectorItem.getId());
+            return dashboardRepository.findByApplicationComponentsIn(components);
+        });
     }
 
     /**
@@ -0,0 +1,135 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.repository.CommitRepository;
+import com.capitalone.dashboard.util.CommitGraph;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory {@link CommitGraph} of each SCM collector item, used to walk the history of a revision
+ * without querying the commits again.
+ * <p>
+ * A graph is loaded with the last {@code pipeline.commitGraph.historyDays} of commits the first time it
+ * is used. Commits saved in this application are added as they are saved; commits saved by other
+ * applications sharing the database are picked up every {@code pipeline.commitGraph.refreshSeconds},
+ * when the commits that have grown older than {@code historyDays} are dropped as well.
+ * <p>
+ * At most {@code pipeline.commitGraph.maxRepositories} graphs are kept, the least recently used
+ * one is dropped to make room for another repository.
+ */
+@Component
+public class CommitGraphIndex {
+    // commits are stamped when they are collected, which can be a while before they are saved
+    private static final long COLLECTION_LOOKBACK = TimeUnit.HOURS.toMillis(1);
+
+    private final CommitRepository commitRepository;
+    private final long historyMillis;
+    private final long refreshMillis;
+    private final Map<ObjectId, Entry> entries;
+
+    @Autowired
+    public CommitGraphIndex(CommitRepository commitRepository,
+                            @Value("${pipeline.commitGraph.historyDays:90}") int historyDays,
+                            @Value("${pipeline.commitGraph.refreshSeconds:60}") long refreshSeconds,
+                            @Value("${pipeline.commitGraph.maxRepositories:1000}") int maxRepositories) {
+        this.commitRepository = commitRepository;
+        this.historyMillis = TimeUnit.DAYS.toMillis(historyDays);
+        this.refreshMillis = TimeUnit.SECONDS.toMillis(refreshSeconds);
+        this.entries = new LinkedHashMap<ObjectId, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ObjectId, Entry> eldest) {
+                return size() > maxRepositories;
+            }
+        };
+    }
+
+    /**
+     * Determines the commits of a repository that came before the given revision.
+     *
+     * @param scmCollectorItemId the SCM collector item of the repository
+     * @param revision the head revision number
+     * @param since the oldest commit timestamp to include, history is only kept for {@code historyDays}
+     * @return the revision numbers of the history, starting with <b>revision</b> itself
+     * @see CommitGraph#getAncestors(String, long)
+     */
+    public List<String> getAncestors(ObjectId scmCollectorItemId, String revision, long since) {
+        return getGraph(scmCollectorItemId).getAncestors(revision, since);
+    }
+
+    /**
+     * Adds a saved commit to the graph of its repository, if that graph has been loaded.
+     *
+     * @param commit the commit
+     */
+    public void add(Commit commit) {
+        if (commit.getCollectorItemId() == null) {
+            return;
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(commit.getCollectorItemId());
+        }
+        if (entry != null) {
+            entry.graph.add(commit.getScmRevisionNumber(), commit.getScmParentRevisionNumbers(), commit.getScmCommitTimestamp());
+        }
+    }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private CommitGraph getGraph(ObjectId scmCollectorItemId) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.computeIfAbsent(scmCollectorItemId, Entry::new);
+        }
+        // loaded outside the lock of the index, so other repositories are not held up
+        entry.refresh();
+        return entry.graph;
+    }
+
+    private class Entry {
+        private final ObjectId scmCollectorItemId;
+        private final CommitGraph graph = new CommitGraph();
+        // last collection timestamp of the commits read from the database
+        private long collectedUpTo = -1;
+        private long refreshedAt;
+
+        Entry(ObjectId scmCollectorItemId) {
+            this.scmCollectorItemId = scmCollectorItemId;
+        }
+
+        synchronized void refresh() {
+            long now = System.currentTimeMillis();
+            if (collectedUpTo >= 0 && now - refreshedAt < refreshMillis) {
+                return;
+            }
+
+            List<Commit> commits = collectedUpTo < 0
+                    ? commitRepository.findByCollectorItemIdAndScmCommitTimestamp(scmCollectorItemId, now - historyMillis)
+                    : commitRepository.findByCollectorItemIdAndTimestampGreaterThan(scmCollectorItemId, collectedUpTo - COLLECTION_LOOKBACK);
+            long collected = collectedUpTo < 0 ? now - historyMillis : collectedUpTo;
+            for (Commit commit : commits) {
+                graph.add(commit.getScmRevisionNumber(), commit.getScmParentRevisionNumbers(), commit.getScmCommitTimestamp());
+                collected = Math.max(collected, commit.getTimestamp());
+            }
+            if (collectedUpTo >= 0) {
+                graph.retainSince(now - historyMillis);
+            }
+            collectedUpTo = collected;
+            refreshedAt = now;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.collector.EnabledCollectorItemResolver;
+import com.capitalone.dashboard.model.Component;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+/**
+ * Listens for Component lifecycle events to keep the {@link DashboardIndex} and the
+ * {@link EnabledCollectorItemResolver} in line with the collector items referenced by dashboards.
+ */
+@org.springframework.stereotype.Component
+public class ComponentEventListener extends AbstractMongoEventListener<Component> {
+
+    private final DashboardIndex dashboardIndex;
+    private EnabledCollectorItemResolver enabledCollectorItemResolver;
+
+    @Autowired
+    public ComponentEventListener(DashboardIndex dashboardIndex) {
+        this.dashboardIndex = dashboardIndex;
+    }
+
+    @Autowired(required = false)
+    public void setEnabledCollectorItemResolver(EnabledCollectorItemResolver enabledCollectorItemResolver) {
+        this.enabledCollectorItemResolver = enabledCollectorItemResolver;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Component> event) {
+        invalidate();
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Component> event) {
+        invalidate();
+    }
+
+    private void invalidate() {
+        dashboardIndex.invalidateAll();
+        if (enabledCollectorItemResolver != null) {
+            enabledCollectorItemResolver.invalidateAll();
+        }
+    }
+}
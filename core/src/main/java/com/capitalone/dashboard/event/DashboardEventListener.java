@@ -16,19 +16,22 @@ import com.mongodb.DBObject;
 
 /**
  * Listens for Dashboard lifecycle events to create and delete Product collector CollectorItems
- * whenever a Team Dashboard is created or deleted.
+ * whenever a Team Dashboard is created or deleted, and to clear the {@link DashboardIndex}.
  */
 @Component
 public class DashboardEventListener extends AbstractMongoEventListener<Dashboard> {
 
     private final CollectorRepository collectorRepository;
     private final CollectorItemRepository collectorItemRepository;
+    private final DashboardIndex dashboardIndex;
 
     @Autowired
     public DashboardEventListener(CollectorRepository collectorRepository,
-                                  CollectorItemRepository collectorItemRepository) {
+                                  CollectorItemRepository collectorItemRepository,
+                                  DashboardIndex dashboardIndex) {
         this.collectorRepository = collectorRepository;
         this.collectorItemRepository = collectorItemRepository;
+        this.dashboardIndex = dashboardIndex;
     }
 
     /**
@@ -37,6 +40,8 @@ public class DashboardEventListener extends AbstractMongoEventListener<Dashboard
      */
     @Override
     public void onAfterSave(AfterSaveEvent<Dashboard> event) {
+        dashboardIndex.invalidateAll();
+
         Dashboard dashboard = event.getSource();
         // Ignore product dashboards
         if (DashboardType.Product.equals(dashboard.getType())) {
@@ -66,6 +71,8 @@ public class DashboardEventListener extends AbstractMongoEventListener<Dashboard
      */
     @Override
     public void onAfterDelete(AfterDeleteEvent<Dashboard> event) {
+        dashboardIndex.invalidateAll();
+
         DBObject dbo = event.getDBObject();
         String dashboardId = dbo.get("id").toString();
 
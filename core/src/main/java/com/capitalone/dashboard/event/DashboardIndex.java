@@ -0,0 +1,142 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.model.Dashboard;
+import com.capitalone.dashboard.util.MetricsLogger;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-memory index from a collector item to the dashboards whose components reference it, used by the
+ * event listeners to find the pipelines a saved document belongs to.
+ * <p>
+ * The index is cleared whenever a dashboard or component is saved or deleted in this application. Changes
+ * made by other applications sharing the database are picked up once an entry is older than
+ * {@code pipeline.dashboardIndex.ttlSeconds}.
+ * <p>
+ * The size of the index and its hits, misses and invalidations are logged every
+ * {@code pipeline.dashboardIndex.metricsSeconds} (0 to disable).
+ */
+@Component
+public class DashboardIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DashboardIndex.class);
+
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Map<ObjectId, Entry> entries = new ConcurrentHashMap<>();
+    // bumped on every invalidation so that a lookup running concurrently does not store a stale entry
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Value("${pipeline.dashboardIndex.metricsSeconds:300}")
+    private long metricsIntervalSeconds;
+
+    private MetricsLogger metricsLogger;
+
+    @Autowired
+    public DashboardIndex(@Value("${pipeline.dashboardIndex.ttlSeconds:300}") long ttlSeconds,
+                          @Value("${pipeline.dashboardIndex.maxSize:10000}") int maxSize) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        metricsLogger = MetricsLogger.start("dashboard-index-metrics", metricsIntervalSeconds, this::log);
+    }
+
+    @PreDestroy
+    public void stop() {
+        metricsLogger.stop();
+    }
+
+    /**
+     * Returns the dashboards referencing a collector item, loading them on a miss.
+     *
+     * @param collectorItemId the collector item id
+     * @param loader loads the dashboards of a collector item from the database
+     * @return the dashboards referencing the collector item
+     */
+    public List<Dashboard> getDashboards(ObjectId collectorItemId, Function<ObjectId, List<Dashboard>> loader) {
+        if (collectorItemId == null) {
+            return loader.apply(null);
+        }
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(collectorItemId);
+        if (entry != null && entry.expiresAt > now) {
+            hits.incrementAndGet();
+            return entry.dashboards;
+        }
+        misses.incrementAndGet();
+
+        long loadGeneration = generation.get();
+        List<Dashboard> dashboards = Collections.unmodifiableList(new ArrayList<>(loader.apply(collectorItemId)));
+        if (entries.size() >= maxSize) {
+            entries.clear();
+        }
+        entries.put(collectorItemId, new Entry(dashboards, now + ttlMillis));
+        if (generation.get() != loadGeneration) {
+            entries.remove(collectorItemId);
+        }
+        return dashboards;
+    }
+
+    /**
+     * Drops all entries, to be called whenever the dashboards or their components change.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+        invalidations.incrementAndGet();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+
+    private void log() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        LOGGER.info("Dashboard index: {} entries, {} hits, {} misses ({}% hit rate), {} invalidations",
+                entries.size(), hitCount, lookups - hitCount, lookups == 0 ? 0 : hitCount * 100 / lookups,
+                invalidations.get());
+    }
+
+    private static class Entry {
+        private final List<Dashboard> dashboards;
+        private final long expiresAt;
+
+        Entry(List<Dashboard> dashboards, long expiresAt) {
+            this.dashboards = dashboards;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
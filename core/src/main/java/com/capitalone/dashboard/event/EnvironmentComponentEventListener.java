@@ -76,26 +76,28 @@ public class EnvironmentComponentEventListener extends HygieiaMongoEventListener
             return;
         }
 
-        processEnvironmentComponent(environmentComponent);
+        processPipelineEvent(environmentComponent.getCollectorItemId(),
+                batch -> processEnvironmentComponent(environmentComponent, batch));
     }
 
     /**
      * For the environment component, find all team dashboards related to the environment component and add the
      * commits to the proper stage
      * @param environmentComponent
+     * @param batch
      */
-    private void processEnvironmentComponent(EnvironmentComponent environmentComponent) {
+    private void processEnvironmentComponent(EnvironmentComponent environmentComponent, PipelineBatch batch) {
         List<Dashboard> dashboards = findTeamDashboardsForEnvironmentComponent(environmentComponent);
 
         for (Dashboard dashboard : dashboards) {
-            Pipeline pipeline = getOrCreatePipeline(dashboard);
+            Pipeline pipeline = getOrCreatePipeline(dashboard, batch);
 
         	if (LOGGER.isDebugEnabled()) {
         		LOGGER.debug("Attempting to update pipeline " + pipeline.getId());
         	}
             
-            addCommitsToEnvironmentStage(environmentComponent, pipeline);
-            pipelineRepository.save(pipeline);
+            addCommitsToEnvironmentStage(environmentComponent, pipeline, batch);
+            batch.save(pipeline);
         }
 
     }
@@ -107,9 +109,10 @@ public class EnvironmentComponentEventListener extends HygieiaMongoEventListener
      * Multiple artifacts could have been built but never deployed.
      * @param environmentComponent
      * @param pipeline
+     * @param batch
      */
     @SuppressWarnings("PMD.NPathComplexity")
-    private void addCommitsToEnvironmentStage(EnvironmentComponent environmentComponent, Pipeline pipeline){
+    private void addCommitsToEnvironmentStage(EnvironmentComponent environmentComponent, Pipeline pipeline, PipelineBatch batch){
         EnvironmentStage currentStage = getOrCreateEnvironmentStage(pipeline, environmentComponent.getEnvironmentName());
         String pseudoEnvName = environmentComponent.getEnvironmentName();
         if (LOGGER.isDebugEnabled()) {
@@ -195,7 +198,7 @@ public class EnvironmentComponentEventListener extends HygieiaMongoEventListener
                     pipeline.addCommit(pseudoEnvName, commit);
                 }
             }
-            pipelineRepository.save(pipeline);
+            batch.save(pipeline);
 
         }
         /**
@@ -264,11 +267,11 @@ public class EnvironmentComponentEventListener extends HygieiaMongoEventListener
      * @return
      */
     private List<Dashboard> findTeamDashboardsForEnvironmentComponent(EnvironmentComponent environmentComponent){
-        List<Dashboard> dashboards;
-        CollectorItem deploymentCollectorItem = collectorItemRepository.findOne(environmentComponent.getCollectorItemId());
-        List<Component> components = componentRepository.findByDeployCollectorItemId(deploymentCollectorItem.getId());
-        dashboards = dashboardRepository.findByApplicationComponentsIn(components);
-        return dashboards;
+        return findDashboards(environmentComponent.getCollectorItemId(), collectorItemId -> {
+            CollectorItem deploymentCollectorItem = collectorItemRepository.findOne(collectorItemId);
+            List<Component> components = componentRepository.findByDeployCollectorItemId(deploymentCollectorItem.getId());
+            return dashboardRepository.findByApplicationComponentsIn(components);
+        });
     }
     
     private static class ToCollectorId implements Function<Collector, ObjectId> {
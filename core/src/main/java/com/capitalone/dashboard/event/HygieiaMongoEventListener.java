@@ -5,15 +5,19 @@ import com.capitalone.dashboard.repository.CollectorItemRepository;
 import com.capitalone.dashboard.repository.CollectorRepository;
 import com.capitalone.dashboard.repository.PipelineRepository;
 import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
 
 import java.util.List;
+import java.util.function.Function;
 
 public abstract class HygieiaMongoEventListener<T> extends AbstractMongoEventListener<T> {
 
     protected final CollectorItemRepository collectorItemRepository;
     protected final PipelineRepository pipelineRepository;
     protected final CollectorRepository collectorRepository;
+    private PipelineEventProcessor pipelineEventProcessor;
+    private DashboardIndex dashboardIndex;
 
     public HygieiaMongoEventListener(CollectorItemRepository collectorItemRepository,
                                      PipelineRepository pipelineRepository,
@@ -23,6 +27,43 @@ public abstract class HygieiaMongoEventListener<T> extends AbstractMongoEventLis
         this.collectorRepository = collectorRepository;
     }
 
+    @Autowired(required = false)
+    public void setPipelineEventProcessor(PipelineEventProcessor pipelineEventProcessor) {
+        this.pipelineEventProcessor = pipelineEventProcessor;
+    }
+
+    @Autowired(required = false)
+    public void setDashboardIndex(DashboardIndex dashboardIndex) {
+        this.dashboardIndex = dashboardIndex;
+    }
+
+    /**
+     * Finds the dashboards referencing a collector item through the dashboard index, or with the loader
+     * when there is no index
+     * @param collectorItemId
+     * @param loader loads the dashboards of a collector item from the database
+     * @return
+     */
+    protected List<Dashboard> findDashboards(ObjectId collectorItemId, Function<ObjectId, List<Dashboard>> loader) {
+        if (dashboardIndex != null) {
+            return dashboardIndex.getDashboards(collectorItemId, loader);
+        }
+        return loader.apply(collectorItemId);
+    }
+
+    /**
+     * Hands a pipeline event to the event processor, or processes it right away when there is none
+     * @param sourceCollectorItemId collector item of the saved document
+     * @param event
+     */
+    protected void processPipelineEvent(ObjectId sourceCollectorItemId, PipelineEvent event) {
+        if (pipelineEventProcessor != null) {
+            pipelineEventProcessor.submit(sourceCollectorItemId, event);
+        } else {
+            event.process(PipelineBatch.direct(pipelineRepository));
+        }
+    }
+
     private Collector getProductCollector(){
         List<Collector> productCollectors = collectorRepository.findByCollectorType(CollectorType.Product);
         if(productCollectors.isEmpty()){
@@ -52,6 +93,16 @@ public abstract class HygieiaMongoEventListener<T> extends AbstractMongoEventLis
         return getOrCreatePipeline(teamDashboardCollectorItem);
     }
 
+    /**
+     * Finds or creates a pipeline for a dashboard within a batch of pipeline changes
+     * @param teamDashboard
+     * @param batch
+     * @return
+     */
+    protected Pipeline getOrCreatePipeline(Dashboard teamDashboard, PipelineBatch batch) {
+        return batch.getOrCreatePipeline(getTeamDashboardCollectorItem(teamDashboard));
+    }
+
     /**
      * Finds or creates a pipeline for a dashboard collectoritem
      * @param collectorItem
@@ -0,0 +1,252 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.model.BinaryArtifact;
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.EnvironmentStage;
+import com.capitalone.dashboard.model.Pipeline;
+import com.capitalone.dashboard.model.PipelineCommit;
+import com.capitalone.dashboard.repository.PipelineRepository;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * The pipelines read and written while processing one or more {@link PipelineEvent}s.
+ * <p>
+ * A direct batch reads and writes every pipeline straight through the repository. A deferred batch
+ * loads each pipeline once, keeps it locked against other batches and only writes it back on
+ * {@link #flush()}, once for all the events of the batch touching it. Instead of saving the whole document, it then applies what changed since the pipeline was loaded
+ * (new commits, last artifacts, failed builds) as partial updates, so that changes made to the same
+ * pipeline by other applications in the meantime are not overwritten.
+ */
+public class PipelineBatch {
+    private final PipelineRepository pipelineRepository;
+    private final Lock[] pipelineLocks;
+    private final Map<ObjectId, Pipeline> pipelines = new HashMap<>();
+    private final Map<Pipeline, Snapshot> snapshots = new IdentityHashMap<>();
+    private final Set<Pipeline> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<Lock> heldLocks = new ArrayList<>();
+
+    private PipelineBatch(PipelineRepository pipelineRepository, Lock[] pipelineLocks) {
+        this.pipelineRepository = pipelineRepository;
+        this.pipelineLocks = pipelineLocks;
+    }
+
+    /**
+     * Creates a batch that writes every saved pipeline right away.
+     */
+    public static PipelineBatch direct(PipelineRepository pipelineRepository) {
+        return new PipelineBatch(pipelineRepository, null);
+    }
+
+    /**
+     * Creates a batch that defers pipeline writes until {@link #flush()}.
+     *
+     * @param pipelineLocks the locks shared by all deferred batches, a pipeline is guarded by the lock its id hashes to
+     */
+    public static PipelineBatch deferred(PipelineRepository pipelineRepository, Lock[] pipelineLocks) {
+        return new PipelineBatch(pipelineRepository, pipelineLocks);
+    }
+
+    /**
+     * Finds or creates the pipeline for a team dashboard collectoritem
+     * @param teamDashboardCollectorItem
+     * @return
+     */
+    public Pipeline getOrCreatePipeline(CollectorItem teamDashboardCollectorItem) {
+        ObjectId collectorItemId = teamDashboardCollectorItem.getId();
+        if (pipelineLocks == null) {
+            return loadPipeline(collectorItemId);
+        }
+        Pipeline pipeline = pipelines.get(collectorItemId);
+        if (pipeline == null) {
+            lock(collectorItemId);
+            pipeline = loadPipeline(collectorItemId);
+            pipelines.put(collectorItemId, pipeline);
+            snapshots.put(pipeline, new Snapshot(collectorItemId, pipeline));
+        }
+        return pipeline;
+    }
+
+    /**
+     * Saves a pipeline, or for a deferred batch marks it to be saved on {@link #flush()}.
+     * @param pipeline
+     */
+    public void save(Pipeline pipeline) {
+        if (snapshots.containsKey(pipeline)) {
+            changed.add(pipeline);
+        } else {
+            pipelineRepository.save(pipeline);
+        }
+    }
+
+    /**
+     * Writes back the changed pipelines and releases their locks.
+     *
+     * @return the number of pipelines written
+     */
+    public int flush() {
+        try {
+            return writeChanges();
+        } finally {
+            pipelines.clear();
+            snapshots.clear();
+            unlockAll();
+        }
+    }
+
+    private int writeChanges() {
+        try {
+            int written = 0;
+            for (Pipeline pipeline : changed) {
+                if (writeChanges(pipeline, snapshots.get(pipeline))) {
+                    written++;
+                }
+            }
+            return written;
+        } finally {
+            changed.clear();
+        }
+    }
+
+    private void unlockAll() {
+        for (Lock lock : heldLocks) {
+            lock.unlock();
+        }
+        heldLocks.clear();
+    }
+
+    private boolean writeChanges(Pipeline pipeline, Snapshot snapshot) {
+        ObjectId collectorItemId = snapshot.collectorItemId;
+        boolean written = false;
+        for (Map.Entry<String, EnvironmentStage> entry : pipeline.getEnvironmentStageMap().entrySet()) {
+            String environmentName = entry.getKey();
+            EnvironmentStage stage = entry.getValue();
+
+            Set<String> knownRevisions = snapshot.revisions.getOrDefault(environmentName, Collections.emptySet());
+            List<PipelineCommit> newCommits = new ArrayList<>();
+            for (PipelineCommit commit : stage.getCommits()) {
+                if (!knownRevisions.contains(commit.getScmRevisionNumber())) {
+                    newCommits.add(commit);
+                }
+            }
+            if (!newCommits.isEmpty()) {
+                pipelineRepository.addCommits(collectorItemId, environmentName, newCommits);
+                written = true;
+            }
+
+            BinaryArtifact lastArtifact = stage.getLastArtifact();
+            if (lastArtifact != null && lastArtifact != snapshot.lastArtifacts.get(environmentName)) {
+                pipelineRepository.setLastArtifact(collectorItemId, environmentName, lastArtifact);
+                written = true;
+            }
+        }
+
+        List<Build> addedFailedBuilds = new ArrayList<>();
+        for (Build build : pipeline.getFailedBuilds()) {
+            if (!snapshot.failedBuilds.contains(build)) {
+                addedFailedBuilds.add(build);
+            }
+        }
+        List<Build> removedFailedBuilds = new ArrayList<>();
+        for (Build build : snapshot.failedBuilds) {
+            if (!pipeline.getFailedBuilds().contains(build)) {
+                removedFailedBuilds.add(build);
+            }
+        }
+        if (!addedFailedBuilds.isEmpty()) {
+            pipelineRepository.addFailedBuilds(collectorItemId, addedFailedBuilds);
+            written = true;
+        }
+        if (!removedFailedBuilds.isEmpty()) {
+            pipelineRepository.removeFailedBuilds(collectorItemId, removedFailedBuilds);
+            written = true;
+        }
+        return written;
+    }
+
+    private Pipeline loadPipeline(ObjectId collectorItemId) {
+        Pipeline pipeline = pipelineRepository.findByCollectorItemId(collectorItemId);
+        if (pipeline == null) {
+            pipeline = new Pipeline();
+            pipeline.setCollectorItemId(collectorItemId);
+        }
+        return pipeline;
+    }
+
+    private void lock(ObjectId collectorItemId) {
+        Lock lock = pipelineLocks[lockIndex(collectorItemId)];
+        if (lock.tryLock()) {
+            heldLocks.add(lock);
+            return;
+        }
+
+        // Another batch holds this pipeline. Write back everything changed so far and release every
+        // lock before waiting, so that a batch never waits for a lock while holding others taken in
+        // any order, and two batches cannot deadlock.
+        writeChanges();
+        unlockAll();
+
+        // The event being processed may still use the pipelines loaded so far. They are locked again
+        // along with the new one, in lock order, and reloaded in place since other batches may have
+        // changed them in the meantime.
+        SortedSet<Integer> lockIndexes = new TreeSet<>();
+        lockIndexes.add(lockIndex(collectorItemId));
+        for (ObjectId heldId : pipelines.keySet()) {
+            lockIndexes.add(lockIndex(heldId));
+        }
+        for (int index : lockIndexes) {
+            pipelineLocks[index].lock();
+            heldLocks.add(pipelineLocks[index]);
+        }
+        for (Map.Entry<ObjectId, Pipeline> entry : pipelines.entrySet()) {
+            reload(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private int lockIndex(ObjectId collectorItemId) {
+        return Math.floorMod(collectorItemId.hashCode(), pipelineLocks.length);
+    }
+
+    private void reload(ObjectId collectorItemId, Pipeline pipeline) {
+        Pipeline current = loadPipeline(collectorItemId);
+        pipeline.setId(current.getId());
+        pipeline.setEnvironmentStageMap(current.getEnvironmentStageMap());
+        pipeline.setFailedBuilds(current.getFailedBuilds());
+        snapshots.put(pipeline, new Snapshot(collectorItemId, pipeline));
+    }
+
+    /**
+     * What a pipeline looked like when it was loaded.
+     */
+    private static class Snapshot {
+        private final ObjectId collectorItemId;
+        private final Map<String, Set<String>> revisions = new HashMap<>();
+        private final Map<String, BinaryArtifact> lastArtifacts = new HashMap<>();
+        private final Set<Build> failedBuilds;
+
+        Snapshot(ObjectId collectorItemId, Pipeline pipeline) {
+            this.collectorItemId = collectorItemId;
+            for (Map.Entry<String, EnvironmentStage> entry : pipeline.getEnvironmentStageMap().entrySet()) {
+                Set<String> stageRevisions = new HashSet<>();
+                for (PipelineCommit commit : entry.getValue().getCommits()) {
+                    stageRevisions.add(commit.getScmRevisionNumber());
+                }
+                revisions.put(entry.getKey(), stageRevisions);
+                lastArtifacts.put(entry.getKey(), entry.getValue().getLastArtifact());
+            }
+            failedBuilds = new HashSet<>(pipeline.getFailedBuilds());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.capitalone.dashboard.event;
+
+/**
+ * The pipeline changes caused by a saved document.
+ */
+public interface PipelineEvent {
+
+    /**
+     * Applies the changes to the pipelines of the given batch.
+     *
+     * @param batch the batch to read and write pipelines through
+     */
+    void process(PipelineBatch batch);
+}
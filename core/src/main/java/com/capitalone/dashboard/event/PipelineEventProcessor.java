@@ -0,0 +1,259 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.repository.PipelineRepository;
+import com.capitalone.dashboard.util.MetricsLogger;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Applies the {@link PipelineEvent}s raised by the event listeners.
+ * <p>
+ * With {@code pipeline.events.async} enabled, events are put on bounded queues and processed by a
+ * pool of workers instead of on the thread saving the document. Events from the same collector item
+ * always go to the same worker, so they are applied in the order they were saved. A worker takes up
+ * to {@code pipeline.events.batchSize} events at a time and writes each pipeline they touch once per
+ * batch. When the queues are full, the saving thread waits for room.
+ * <p>
+ * Without it, every event is processed right away on the thread saving the document.
+ * <p>
+ * The processed and failed events, the queue depth and the lag of the last batch are logged every
+ * {@code pipeline.events.metricsSeconds} (0 to disable).
+ */
+@Component
+public class PipelineEventProcessor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelineEventProcessor.class);
+
+    private static final int PIPELINE_LOCKS = 64;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final PipelineRepository pipelineRepository;
+    private final boolean async;
+    private final int batchSize;
+    private final List<BlockingQueue<QueuedEvent>> queues = new ArrayList<>();
+    private final Lock[] pipelineLocks = new Lock[PIPELINE_LOCKS];
+
+    private final AtomicLong processedEvents = new AtomicLong();
+    private final AtomicLong failedEvents = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong pipelineSaves = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    @Value("${pipeline.events.metricsSeconds:300}")
+    private long metricsIntervalSeconds;
+
+    private ExecutorService workers;
+    private MetricsLogger metricsLogger;
+    private volatile boolean running;
+
+    @Autowired
+    public PipelineEventProcessor(PipelineRepository pipelineRepository,
+                                  @Value("${pipeline.events.async:false}") boolean async,
+                                  @Value("${pipeline.events.threads:2}") int threads,
+                                  @Value("${pipeline.events.queueCapacity:10000}") int queueCapacity,
+                                  @Value("${pipeline.events.batchSize:100}") int batchSize) {
+        this.pipelineRepository = pipelineRepository;
+        this.async = async;
+        this.batchSize = Math.max(1, batchSize);
+        int workerCount = Math.max(1, threads);
+        for (int i = 0; i < workerCount; i++) {
+            queues.add(new ArrayBlockingQueue<>(Math.max(1, queueCapacity / workerCount)));
+        }
+        for (int i = 0; i < PIPELINE_LOCKS; i++) {
+            pipelineLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (metricsLogger == null) {
+            metricsLogger = MetricsLogger.start("pipeline-events-metrics", metricsIntervalSeconds, this::logMetrics);
+        }
+        if (!async || running) {
+            return;
+        }
+        AtomicInteger count = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(queues.size(), runnable -> {
+            Thread thread = new Thread(runnable, "pipeline-events-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        for (BlockingQueue<QueuedEvent> queue : queues) {
+            workers.execute(() -> work(queue));
+        }
+        LOGGER.info("Processing pipeline events with " + queues.size() + " workers");
+    }
+
+    /**
+     * Stops taking new events on the queues and waits for the queued ones to be processed.
+     */
+    @PreDestroy
+    public void stop() {
+        if (metricsLogger != null) {
+            metricsLogger.stop();
+            metricsLogger = null;
+        }
+        if (!running) {
+            return;
+        }
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("Dropping " + getQueueDepth() + " pipeline events still queued after "
+                        + SHUTDOWN_TIMEOUT_SECONDS + " seconds");
+                workers.shutdownNow();
+                return;
+            }
+            // events queued while the workers were finishing
+            for (BlockingQueue<QueuedEvent> queue : queues) {
+                List<QueuedEvent> events = new ArrayList<>();
+                queue.drainTo(events);
+                if (!events.isEmpty()) {
+                    processBatch(events);
+                }
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Processes an event, on the workers when running asynchronously, otherwise right away.
+     *
+     * @param sourceCollectorItemId the collector item of the saved document, used to keep its events in order
+     * @param event the event to process
+     */
+    public void submit(ObjectId sourceCollectorItemId, PipelineEvent event) {
+        QueuedEvent queuedEvent = new QueuedEvent(event);
+        if (running) {
+            int hash = sourceCollectorItemId == null ? 0 : sourceCollectorItemId.hashCode();
+            try {
+                queues.get(Math.floorMod(hash, queues.size())).put(queuedEvent);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("Interrupted while queueing a pipeline event, processing it right away");
+            }
+        }
+        processBatch(Collections.singletonList(queuedEvent));
+    }
+
+    private void work(BlockingQueue<QueuedEvent> queue) {
+        List<QueuedEvent> events = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedEvent first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                events.add(first);
+                queue.drainTo(events, batchSize - 1);
+                processBatch(events);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to save pipelines for " + events.size() + " events", e);
+            } finally {
+                events.clear();
+            }
+        }
+    }
+
+    private void processBatch(List<QueuedEvent> events) {
+        lagMillis.set(System.currentTimeMillis() - events.get(0).queuedAt);
+        PipelineBatch batch = PipelineBatch.deferred(pipelineRepository, pipelineLocks);
+        try {
+            for (QueuedEvent queuedEvent : events) {
+                try {
+                    queuedEvent.event.process(batch);
+                    processedEvents.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failedEvents.incrementAndGet();
+                    LOGGER.error("Failed to process pipeline event", e);
+                }
+            }
+        } finally {
+            pipelineSaves.addAndGet(batch.flush());
+            batches.incrementAndGet();
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Processed " + events.size() + " pipeline events, queue depth " + getQueueDepth()
+                    + ", lag " + lagMillis.get() + "ms");
+        }
+    }
+
+    private void logMetrics() {
+        LOGGER.info("Pipeline events: {} processed, {} failed, {} batches, {} pipeline saves, {} queued, {} ms lag",
+                processedEvents.get(), failedEvents.get(), batches.get(), pipelineSaves.get(),
+                getQueueDepth(), lagMillis.get());
+    }
+
+    /**
+     * @return the number of events waiting to be processed
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (BlockingQueue<QueuedEvent> queue : queues) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+
+    /**
+     * @return the time the oldest event of the last batch spent in the queue
+     */
+    public long getLagMillis() {
+        return lagMillis.get();
+    }
+
+    public long getProcessedEvents() {
+        return processedEvents.get();
+    }
+
+    public long getFailedEvents() {
+        return failedEvents.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getPipelineSaves() {
+        return pipelineSaves.get();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static class QueuedEvent {
+        private final PipelineEvent event;
+        private final long queuedAt = System.currentTimeMillis();
+
+        QueuedEvent(PipelineEvent event) {
+            this.event = event;
+        }
+    }
+}
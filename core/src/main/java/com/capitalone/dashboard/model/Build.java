@@ -1,6 +1,8 @@
 package com.capitalone.dashboard.model;
 
 import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.ArrayList;
@@ -20,6 +22,10 @@ import java.util.List;
  *
  */
 @Document(collection="builds")
+@CompoundIndexes({
+    @CompoundIndex(name = "collectorItemId_number", def = "{'collectorItemId' : 1, 'number' : 1}", background = true),
+    @CompoundIndex(name = "collectorItemId_timestamp", def = "{'collectorItemId' : 1, 'timestamp' : -1}", background = true)
+})
 public class Build extends BaseModel {
     private ObjectId collectorItemId;
     private long timestamp;
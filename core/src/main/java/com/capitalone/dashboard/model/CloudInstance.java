@@ -44,6 +44,8 @@ public class CloudInstance extends BaseModel{
     private String rootDeviceName;
     private String autoScaleName;
     private String lastAction;
+    // hash of the collected state of the instance, to skip writing it when nothing changed
+    private String contentHash;
 
 
     public String getInstanceId() {
@@ -274,6 +276,14 @@ public class CloudInstance extends BaseModel{
         this.autoScaleName = autoScaleName;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(instanceId);
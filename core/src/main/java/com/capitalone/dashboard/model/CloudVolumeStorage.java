@@ -22,6 +22,8 @@ public class CloudVolumeStorage extends BaseModel{
     private String type;
     private String zone;
     private List<String> attachInstances = new ArrayList<>();
+    // hash of the collected state of the volume, to skip writing it when nothing changed
+    private String contentHash;
 
 
     public String getVolumeId() {
@@ -97,6 +99,14 @@ public class CloudVolumeStorage extends BaseModel{
         return attachInstances;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
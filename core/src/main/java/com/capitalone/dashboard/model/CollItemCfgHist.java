@@ -1,9 +1,14 @@
 package com.capitalone.dashboard.model;
 
 import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection="collitem_cfghist")
+@CompoundIndexes({
+    @CompoundIndex(name = "collectorItemId_job_timestamp", def = "{'collectorItemId' : 1, 'job' : 1, 'timestamp' : -1}", background = true)
+})
 public class CollItemCfgHist extends BaseModel {
 
     private ObjectId collectorItemId;
@@ -2,6 +2,8 @@ package com.capitalone.dashboard.model;
 
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 /**
@@ -17,6 +19,12 @@ import org.springframework.data.mongodb.core.mapping.Document;
  *
  */
 @Document(collection="commits")
+@CompoundIndexes({
+    @CompoundIndex(name = "collectorItemId_scmRevisionNumber", def = "{'collectorItemId' : 1, 'scmRevisionNumber' : 1}", background = true),
+    @CompoundIndex(name = "collectorItemId_scmCommitTimestamp", def = "{'collectorItemId' : 1, 'scmCommitTimestamp' : -1}", background = true),
+    @CompoundIndex(name = "collectorItemId_timestamp", def = "{'collectorItemId' : 1, 'timestamp' : -1}", background = true),
+    @CompoundIndex(name = "scmRevisionNumber", def = "{'scmRevisionNumber' : 1}", background = true)
+})
 public class Commit extends SCM {
     @Id
     private ObjectId id;
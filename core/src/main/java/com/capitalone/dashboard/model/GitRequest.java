@@ -2,12 +2,18 @@ package com.capitalone.dashboard.model;
 
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.List;
 
 
 @Document(collection="gitrequests")
+@CompoundIndexes({
+    @CompoundIndex(name = "collectorItemId_requestType_number", def = "{'collectorItemId' : 1, 'requestType' : 1, 'number' : 1}", background = true),
+    @CompoundIndex(name = "collectorItemId_scmCommitTimestamp", def = "{'collectorItemId' : 1, 'scmCommitTimestamp' : -1}", background = true)
+})
 public class GitRequest extends SCM {
     @Id
     private ObjectId id;
@@ -1,10 +1,20 @@
 package com.capitalone.dashboard.model;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 public class JobCollectorItem extends CollectorItem {
     protected static final String INSTANCE_URL = "instanceUrl";
     protected static final String JOB_NAME = "jobName";
     protected static final String JOB_URL = "jobUrl";
 
+    /**
+     * The options identifying a job, to index jobs with a
+     * {@link com.capitalone.dashboard.collector.CollectorItemIndex}.
+     */
+    public static final List<String> IDENTITY_OPTIONS = Collections.unmodifiableList(Arrays.asList(INSTANCE_URL, JOB_NAME));
+
     public String getInstanceUrl() {
         return (String) getOptions().get(INSTANCE_URL);
     }
@@ -30,6 +30,12 @@ public class Pipeline extends BaseModel{
      * */
     private Set<Build> failedBuilds = new HashSet<>();
 
+    /**
+     * Map of data source names to the time up to which that source has been processed into the pipeline.
+     * Used to only process new data when the pipeline is computed dynamically.
+     * */
+    private Map<String, Long> lastProcessedTimestamps = new HashMap<>();
+
     public ObjectId getCollectorItemId() {
         return collectorItemId;
     }
@@ -66,6 +72,14 @@ public class Pipeline extends BaseModel{
         this.failedBuilds = failedBuilds;
     }
 
+    public Map<String, Long> getLastProcessedTimestamps() {
+        return lastProcessedTimestamps;
+    }
+
+    public void setLastProcessedTimestamps(Map<String, Long> lastProcessedTimestamps) {
+        this.lastProcessedTimestamps = lastProcessedTimestamps;
+    }
+
     public void addFailedBuild(Build failedBuild){
         this.getFailedBuilds().add(failedBuild);
     }
@@ -0,0 +1,42 @@
+package com.capitalone.dashboard.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Documents read with a projection, with the size of what the projection left in the database.
+ *
+ * @param <T> type of the documents
+ */
+public class ProjectedResults<T> {
+    private final List<T> results = new ArrayList<>();
+    private long bytesReturned;
+    private long bytesSaved;
+
+    public List<T> getResults() {
+        return results;
+    }
+
+    /**
+     * @return the BSON size of the projected documents
+     */
+    public long getBytesReturned() {
+        return bytesReturned;
+    }
+
+    public void setBytesReturned(long bytesReturned) {
+        this.bytesReturned = bytesReturned;
+    }
+
+    /**
+     * @return an estimate, from the average document size of the collection, of the bytes that the
+     * projection kept from leaving the database
+     */
+    public long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    public void setBytesSaved(long bytesSaved) {
+        this.bytesSaved = bytesSaved;
+    }
+}
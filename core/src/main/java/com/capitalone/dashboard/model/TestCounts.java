@@ -0,0 +1,71 @@
+package com.capitalone.dashboard.model;
+
+/**
+ * Counters of test outcomes, summed over the tests a {@link TestResultRollup} covers.
+ */
+public class TestCounts {
+    private long total;
+    private long success;
+    private long failure;
+    private long skipped;
+    private long unknown;
+
+    public TestCounts() {
+    }
+
+    public TestCounts(long total, long success, long failure, long skipped, long unknown) {
+        this.total = total;
+        this.success = success;
+        this.failure = failure;
+        this.skipped = skipped;
+        this.unknown = unknown;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getSuccess() {
+        return success;
+    }
+
+    public void setSuccess(long success) {
+        this.success = success;
+    }
+
+    public long getFailure() {
+        return failure;
+    }
+
+    public void setFailure(long failure) {
+        this.failure = failure;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(long skipped) {
+        this.skipped = skipped;
+    }
+
+    public long getUnknown() {
+        return unknown;
+    }
+
+    public void setUnknown(long unknown) {
+        this.unknown = unknown;
+    }
+
+    public void add(TestCounts counts) {
+        total += counts.total;
+        success += counts.success;
+        failure += counts.failure;
+        skipped += counts.skipped;
+        unknown += counts.unknown;
+    }
+}
@@ -1,6 +1,8 @@
 package com.capitalone.dashboard.model;
 
 import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.ArrayList;
@@ -18,6 +20,10 @@ import java.util.Collection;
  *
  */
 @Document(collection="test_results")
+@CompoundIndexes({
+    @CompoundIndex(name = "collectorItemId_executionId", def = "{'collectorItemId' : 1, 'executionId' : 1}", background = true),
+    @CompoundIndex(name = "collectorItemId_timestamp", def = "{'collectorItemId' : 1, 'timestamp' : -1}", background = true)
+})
 public class TestResult extends BaseModel {
     /**
      * ID of {@link CollectorItem}
@@ -0,0 +1,117 @@
+package com.capitalone.dashboard.model;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test outcome counters of a collector item, per test run or per day, so that the test widget can
+ * be answered without reading the {@link TestResult}s.
+ * <p>
+ * Rollups are maintained incrementally as test results are saved. The capability and suite counters
+ * are keyed by description, with the characters Mongo does not allow in keys replaced.
+ */
+@Document(collection = "test_result_rollups")
+@CompoundIndexes({
+    @CompoundIndex(name = "collectorItemId_type_timestamp", def = "{'collectorItemId' : 1, 'type' : 1, 'timestamp' : -1}", background = true),
+    @CompoundIndex(name = "collectorItemId_type_executionId", def = "{'collectorItemId' : 1, 'type' : 1, 'executionId' : 1}", background = true)
+})
+public class TestResultRollup extends BaseModel {
+    private ObjectId collectorItemId;
+    private TestResultRollupType type;
+
+    /**
+     * Timestamp of the run, or start of the UTC day
+     */
+    private long timestamp;
+
+    /**
+     * Execution ID of the run, or the ID of its test result when it has none; null for a day
+     */
+    private String executionId;
+
+    /**
+     * Number of runs counted
+     */
+    private long runs;
+    private TestCounts tests = new TestCounts();
+    private Map<String, TestCounts> capabilities = new HashMap<>();
+    private Map<String, TestCounts> suites = new HashMap<>();
+
+    public ObjectId getCollectorItemId() {
+        return collectorItemId;
+    }
+
+    public void setCollectorItemId(ObjectId collectorItemId) {
+        this.collectorItemId = collectorItemId;
+    }
+
+    public TestResultRollupType getType() {
+        return type;
+    }
+
+    public void setType(TestResultRollupType type) {
+        this.type = type;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    public void setExecutionId(String executionId) {
+        this.executionId = executionId;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public void setRuns(long runs) {
+        this.runs = runs;
+    }
+
+    /**
+     * @return the test counters of the {@link TestResult}s
+     */
+    public TestCounts getTests() {
+        return tests;
+    }
+
+    public void setTests(TestCounts tests) {
+        this.tests = tests;
+    }
+
+    /**
+     * @return the test suite counters of each {@link TestCapability}
+     */
+    public Map<String, TestCounts> getCapabilities() {
+        return capabilities;
+    }
+
+    public void setCapabilities(Map<String, TestCounts> capabilities) {
+        this.capabilities = capabilities;
+    }
+
+    /**
+     * @return the test case counters of each {@link TestSuite}
+     */
+    public Map<String, TestCounts> getSuites() {
+        return suites;
+    }
+
+    public void setSuites(Map<String, TestCounts> suites) {
+        this.suites = suites;
+    }
+}
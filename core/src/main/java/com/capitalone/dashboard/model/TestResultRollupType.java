@@ -0,0 +1,16 @@
+package com.capitalone.dashboard.model;
+
+/**
+ * Period a {@link TestResultRollup} covers.
+ */
+public enum TestResultRollupType {
+    /**
+     * A single test run, identified by its execution ID.
+     */
+    Run,
+
+    /**
+     * All the test runs of a UTC day.
+     */
+    Day
+}
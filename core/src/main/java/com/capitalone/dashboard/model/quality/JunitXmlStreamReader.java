@@ -0,0 +1,280 @@
+package com.capitalone.dashboard.model.quality;
+
+import com.capitalone.dashboard.model.TestCase;
+import com.capitalone.dashboard.model.TestCaseStatus;
+import com.capitalone.dashboard.model.TestSuite;
+import com.capitalone.dashboard.model.TestSuiteType;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * StAX reader for JUnit XML reports, as an alternative to unmarshalling a whole {@link JunitXmlReport}.
+ * <p>
+ * The report is read element by element. Test cases and suites are handed to a {@link Listener} as
+ * soon as they are complete and their counts are summed on the fly; nothing of a test case is kept
+ * once it has been read, and the output and failure texts are never materialized. The memory needed
+ * is the same for a report of ten test cases and for one of several hundred megabytes.
+ * <p>
+ * Both a single {@code testsuite} and a {@code testsuites} root are read. The returned
+ * {@link JunitXmlReport} holds the totals of all the suites, without test cases.
+ */
+public class JunitXmlStreamReader {
+
+    /**
+     * Receives the content of a report as it is read.
+     */
+    public interface Listener {
+        /**
+         * @param testSuite the suite being read, its counts are not final yet
+         * @param testCase a complete test case
+         */
+        void testCase(TestSuite testSuite, TestCase testCase);
+
+        /**
+         * @param testSuite a complete suite, with the counts of its test cases
+         */
+        void testSuite(TestSuite testSuite);
+    }
+
+    private static final String TESTSUITES = "testsuites";
+    private static final String TESTSUITE = "testsuite";
+    private static final String TESTCASE = "testcase";
+    private static final String FAILURE = "failure";
+    private static final String ERROR = "error";
+    private static final String SKIPPED = "skipped";
+
+    private final XMLInputFactory inputFactory;
+    private final DatatypeFactory datatypeFactory;
+
+    public JunitXmlStreamReader() {
+        inputFactory = XMLInputFactory.newInstance();
+        // reports come from build servers, do not resolve anything they reference
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        try {
+            datatypeFactory = DatatypeFactory.newInstance();
+        } catch (DatatypeConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads the totals of a report.
+     *
+     * @param in the report
+     * @return the totals of the suites of the report
+     */
+    public JunitXmlReport read(InputStream in) throws XMLStreamException {
+        return read(in, null);
+    }
+
+    /**
+     * Reads a report, handing out its test cases and suites as they are read.
+     *
+     * @param in the report
+     * @param listener receives the test cases and suites, may be null
+     * @return the totals of the suites of the report
+     */
+    public JunitXmlReport read(InputStream in, Listener listener) throws XMLStreamException {
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(in);
+        try {
+            JunitXmlReport report = new JunitXmlReport();
+            report.setTime(BigDecimal.ZERO);
+            Deque<Suite> suites = new ArrayDeque<>();
+            TestCase testCase = null;
+            boolean error = false;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case TESTSUITES:
+                            report.setName(reader.getAttributeValue(null, "name"));
+                            break;
+                        case TESTSUITE:
+                            suites.push(startSuite(reader));
+                            break;
+                        case TESTCASE:
+                            if (!suites.isEmpty()) {
+                                testCase = startTestCase(reader);
+                                error = false;
+                            }
+                            break;
+                        case FAILURE:
+                        case ERROR:
+                            if (testCase != null) {
+                                testCase.setStatus(TestCaseStatus.Failure);
+                                error = ERROR.equals(reader.getLocalName());
+                            }
+                            break;
+                        case SKIPPED:
+                            if (testCase != null) {
+                                testCase.setStatus(TestCaseStatus.Skipped);
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (TESTCASE.equals(reader.getLocalName()) && testCase != null) {
+                        Suite suite = suites.peek();
+                        suite.add(testCase, error);
+                        if (listener != null) {
+                            listener.testCase(suite.testSuite, testCase);
+                        }
+                        testCase = null;
+                    } else if (TESTSUITE.equals(reader.getLocalName()) && !suites.isEmpty()) {
+                        Suite suite = suites.pop();
+                        suite.addTo(report);
+                        if (listener != null) {
+                            listener.testSuite(suite.finish());
+                        }
+                    }
+                }
+            }
+            return report;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private Suite startSuite(XMLStreamReader reader) {
+        Suite suite = new Suite();
+        suite.name = reader.getAttributeValue(null, "name");
+        suite.hostname = reader.getAttributeValue(null, "hostname");
+        suite.declaredTests = toInteger(reader.getAttributeValue(null, "tests"));
+        suite.declaredFailures = toInteger(reader.getAttributeValue(null, "failures"));
+        suite.declaredErrors = toInteger(reader.getAttributeValue(null, "errors"));
+        suite.time = toDecimal(reader.getAttributeValue(null, "time"));
+        suite.timestamp = toCalendar(reader.getAttributeValue(null, "timestamp"));
+
+        suite.testSuite.setId(suite.name);
+        suite.testSuite.setDescription(suite.name);
+        suite.testSuite.setType(TestSuiteType.Unit);
+        if (suite.timestamp != null) {
+            suite.testSuite.setStartTime(suite.timestamp.toGregorianCalendar().getTimeInMillis());
+        }
+        suite.testSuite.setDuration(toMillis(suite.time));
+        suite.testSuite.setEndTime(suite.testSuite.getStartTime() + suite.testSuite.getDuration());
+        return suite;
+    }
+
+    private static TestCase startTestCase(XMLStreamReader reader) {
+        String name = reader.getAttributeValue(null, "name");
+        String className = reader.getAttributeValue(null, "classname");
+
+        TestCase testCase = new TestCase();
+        testCase.setId(className == null ? name : className + "." + name);
+        testCase.setDescription(name);
+        testCase.setDuration(toMillis(toDecimal(reader.getAttributeValue(null, "time"))));
+        testCase.setStatus(TestCaseStatus.Success);
+        return testCase;
+    }
+
+    private static Integer toInteger(String value) {
+        try {
+            return value == null ? null : Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static BigDecimal toDecimal(String value) {
+        try {
+            return value == null ? null : new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private XMLGregorianCalendar toCalendar(String value) {
+        try {
+            return value == null ? null : datatypeFactory.newXMLGregorianCalendar(value.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long toMillis(BigDecimal seconds) {
+        return seconds == null ? 0 : seconds.movePointRight(3).longValue();
+    }
+
+    /**
+     * A suite being read, with the counts of the test cases read so far.
+     */
+    private static class Suite {
+        private final TestSuite testSuite = new TestSuite();
+        private String name;
+        private String hostname;
+        private Integer declaredTests;
+        private Integer declaredFailures;
+        private Integer declaredErrors;
+        private BigDecimal time;
+        private XMLGregorianCalendar timestamp;
+        private int tests;
+        private int failures;
+        private int errors;
+        private int skipped;
+
+        void add(TestCase testCase, boolean error) {
+            tests++;
+            if (testCase.getStatus() == TestCaseStatus.Skipped) {
+                skipped++;
+            } else if (testCase.getStatus() == TestCaseStatus.Failure) {
+                if (error) {
+                    errors++;
+                } else {
+                    failures++;
+                }
+            }
+        }
+
+        /**
+         * Adds the suite to the totals of the report. Like the JAXB bound report, the counts declared
+         * by the suite are used, the counted ones only when the suite does not declare them.
+         */
+        void addTo(JunitXmlReport report) {
+            if (report.getName() == null) {
+                report.setName(name);
+                report.setHostname(hostname);
+            }
+            report.setTests(report.getTests() + (declaredTests == null ? tests : declaredTests));
+            report.setFailures(report.getFailures() + (declaredFailures == null ? failures : declaredFailures));
+            report.setErrors(report.getErrors() + (declaredErrors == null ? errors : declaredErrors));
+            if (time != null) {
+                report.setTime(report.getTime().add(time));
+            }
+            if (timestamp != null && (report.getTimestamp() == null || timestamp.compare(report.getTimestamp()) > 0)) {
+                report.setTimestamp(timestamp);
+            }
+        }
+
+        TestSuite finish() {
+            int failed = failures + errors;
+            testSuite.setTotalTestCaseCount(tests);
+            testSuite.setFailedTestCaseCount(failed);
+            testSuite.setSkippedTestCaseCount(skipped);
+            testSuite.setSuccessTestCaseCount(tests - failed - skipped);
+            testSuite.setUnknownStatusCount(0);
+            if (failed > 0) {
+                testSuite.setStatus(TestCaseStatus.Failure);
+            } else if (tests > 0 && skipped == tests) {
+                testSuite.setStatus(TestCaseStatus.Skipped);
+            } else {
+                testSuite.setStatus(TestCaseStatus.Success);
+            }
+            return testSuite;
+        }
+    }
+}
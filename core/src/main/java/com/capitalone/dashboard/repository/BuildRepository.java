@@ -6,6 +6,7 @@ import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.querydsl.QueryDslPredicateExecutor;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -22,6 +23,16 @@ public interface BuildRepository extends CrudRepository<Build, ObjectId>, QueryD
      */
     Build findByCollectorItemIdAndNumber(ObjectId collectorItemId, String number);
 
+    /**
+     * Finds the build numbers already stored for a set of {@link com.capitalone.dashboard.model.CollectorItem}s
+     * in a single query. Only the collector item id and the number of each returned {@link Build} are populated.
+     *
+     * @param collectorItemIds collector item ids
+     * @return a {@link Build} projection for every stored build
+     */
+    @Query(value="{'collectorItemId' : {$in: ?0}}", fields="{'collectorItemId' : 1, 'number' : 1}")
+    List<Build> findBuildNumbersByCollectorItemIdIn(Collection<ObjectId> collectorItemIds);
+
     @Query(value="{'sourceChangeSet.scmRevisionNumber' : {$exists: true, $in: ?0}, 'collectorItemId': { $in: ?1 }}")
     List<Build> findBuildsForRevisionNumbersAndBuildCollectorItemIds(List<String> scmRevisionNumbers, List<ObjectId> buildCollectorItemId);
 
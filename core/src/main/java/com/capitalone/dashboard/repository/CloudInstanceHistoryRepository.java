@@ -11,4 +11,6 @@ public interface CloudInstanceHistoryRepository extends
 
     Collection<CloudInstanceHistory> findByAccountNumber(String accountNumber);
 
+    CloudInstanceHistory findTopByAccountNumberOrderByTimeDesc(String accountNumber);
+
 }
@@ -0,0 +1,24 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CloudInstance;
+
+import java.util.Collection;
+
+public interface CloudInstanceRepositoryCustom {
+
+    /**
+     * Saves and deletes instances in a single unordered bulk write.
+     *
+     * @param saves the instances to insert or replace
+     * @param deletes the instances to delete
+     */
+    void bulkWrite(Collection<CloudInstance> saves, Collection<CloudInstance> deletes);
+
+    /**
+     * Sets the metrics, age and last update date of stored instances in a single unordered bulk
+     * write, leaving the rest of their documents as they are.
+     *
+     * @param instances the instances, with the id of their stored document
+     */
+    void updateMetrics(Collection<CloudInstance> instances);
+}
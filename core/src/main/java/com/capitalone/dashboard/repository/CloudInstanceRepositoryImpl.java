@@ -0,0 +1,39 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CloudInstance;
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Collection;
+
+public class CloudInstanceRepositoryImpl implements CloudInstanceRepositoryCustom {
+    @Autowired
+    MongoTemplate template;
+
+    @Override
+    public void bulkWrite(Collection<CloudInstance> saves, Collection<CloudInstance> deletes) {
+        UnorderedBulkWrites.write(template, CloudInstance.class, saves, deletes);
+    }
+
+    @Override
+    public void updateMetrics(Collection<CloudInstance> instances) {
+        if (instances.isEmpty()) {
+            return;
+        }
+        BulkWriteOperation bulk = template.getCollection(template.getCollectionName(CloudInstance.class))
+                .initializeUnorderedBulkOperation();
+        for (CloudInstance instance : instances) {
+            BasicDBObject metrics = new BasicDBObject("cpuUtilization", instance.getCpuUtilization())
+                    .append("networkIn", instance.getNetworkIn())
+                    .append("networkOut", instance.getNetworkOut())
+                    .append("diskRead", instance.getDiskRead())
+                    .append("diskWrite", instance.getDiskWrite())
+                    .append("age", instance.getAge())
+                    .append("lastUpdatedDate", instance.getLastUpdatedDate());
+            bulk.find(new BasicDBObject("_id", instance.getId())).updateOne(new BasicDBObject("$set", metrics));
+        }
+        bulk.execute();
+    }
+}
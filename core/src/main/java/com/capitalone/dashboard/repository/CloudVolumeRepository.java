@@ -12,7 +12,8 @@ import java.util.List;
 
 public interface CloudVolumeRepository extends
         CrudRepository<CloudVolumeStorage, ObjectId>,
-        QueryDslPredicateExecutor<CloudVolumeStorage> {
+        QueryDslPredicateExecutor<CloudVolumeStorage>,
+        CloudVolumeRepositoryCustom {
 
     @Query(value = "{ collectorItemId:  ?0 }")
     Collection<CloudVolumeStorage> findByCollectorItemId(ObjectId collectorItemId);
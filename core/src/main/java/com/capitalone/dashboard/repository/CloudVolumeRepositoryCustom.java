@@ -0,0 +1,16 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CloudVolumeStorage;
+
+import java.util.Collection;
+
+public interface CloudVolumeRepositoryCustom {
+
+    /**
+     * Saves and deletes volumes in a single unordered bulk write.
+     *
+     * @param saves the volumes to insert or replace
+     * @param deletes the volumes to delete
+     */
+    void bulkWrite(Collection<CloudVolumeStorage> saves, Collection<CloudVolumeStorage> deletes);
+}
@@ -0,0 +1,17 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CloudVolumeStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Collection;
+
+public class CloudVolumeRepositoryImpl implements CloudVolumeRepositoryCustom {
+    @Autowired
+    MongoTemplate template;
+
+    @Override
+    public void bulkWrite(Collection<CloudVolumeStorage> saves, Collection<CloudVolumeStorage> deletes) {
+        UnorderedBulkWrites.write(template, CloudVolumeStorage.class, saves, deletes);
+    }
+}
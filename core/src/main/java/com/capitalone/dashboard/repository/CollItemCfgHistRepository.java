@@ -2,13 +2,25 @@ package com.capitalone.dashboard.repository;
 
 import com.capitalone.dashboard.model.CollItemCfgHist;
 import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CollItemCfgHistRepository extends CrudRepository<CollItemCfgHist, ObjectId>  {
     CollItemCfgHist findByCollectorItemIdAndJobAndTimestamp(ObjectId collectorItemId, String job, long timestamp);
 
+    /**
+     * Finds the config history entries already stored for a set of collector items in a single query.
+     * Only the collector item id, job and timestamp of each returned {@link CollItemCfgHist} are populated.
+     *
+     * @param collectorItemIds collector item ids
+     * @return a {@link CollItemCfgHist} projection for every stored entry
+     */
+    @Query(value="{'collectorItemId' : {$in: ?0}}", fields="{'collectorItemId' : 1, 'job' : 1, 'timestamp' : 1}")
+    List<CollItemCfgHist> findKeysByCollectorItemIdIn(Collection<ObjectId> collectorItemIds);
+
     //List<CollItemCfgHist> findByCollectorItemIdAndJobAndJobUrlAndTimestampGreaterThanEqualAndTimestampLessThanEqualOrderByTimestampDesc(ObjectId collectorItemId, String job, String jobUrl, long beginDt, long endDt);
 
     List<CollItemCfgHist> findByCollectorItemIdAndJobAndJobUrlAndTimestampBetweenOrderByTimestampDesc(ObjectId collectorItemId, String job, String jobUrl, long beginDt, long endDt);
@@ -30,4 +30,6 @@ public interface CommitRepository extends CrudRepository<Commit, ObjectId>, Quer
     @Query(value="{ 'collectorItemId': ?0, 'scmCommitTimestamp': { $gt: ?1 }}")
     List<Commit> findByCollectorItemIdAndScmCommitTimestamp(ObjectId collectorItemid, Long scmCommitTimestampThreshold);
 
+    List<Commit> findByCollectorItemIdAndTimestampGreaterThan(ObjectId collectorItemId, long timestamp);
+
 }
@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * {@link EnvironmentComponent} repository.
  */
-public interface EnvironmentComponentRepository extends CrudRepository<EnvironmentComponent, ObjectId> {
+public interface EnvironmentComponentRepository extends CrudRepository<EnvironmentComponent, ObjectId>, EnvironmentComponentRepositoryCustom {
 
     /**
      * Finds the {@link EnvironmentComponent} collector item id, environment name and component name.
@@ -0,0 +1,17 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.EnvironmentComponent;
+
+import java.util.Collection;
+
+public interface EnvironmentComponentRepositoryCustom {
+
+    /**
+     * Saves and deletes components in a single unordered bulk write. The saved components are then
+     * published as saved, as a repository save does, so that the pipelines still follow them.
+     *
+     * @param saves the components to insert or replace
+     * @param deletes the components to delete
+     */
+    void bulkWrite(Collection<EnvironmentComponent> saves, Collection<EnvironmentComponent> deletes);
+}
@@ -0,0 +1,32 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.EnvironmentComponent;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+import java.util.Collection;
+
+public class EnvironmentComponentRepositoryImpl implements EnvironmentComponentRepositoryCustom {
+    @Autowired
+    MongoTemplate template;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void bulkWrite(Collection<EnvironmentComponent> saves, Collection<EnvironmentComponent> deletes) {
+        UnorderedBulkWrites.write(template, EnvironmentComponent.class, saves, deletes);
+
+        // the bulk write does not go through the template, publish what EnvironmentComponentEventListener listens to
+        for (EnvironmentComponent component : saves) {
+            DBObject dbObject = new BasicDBObject();
+            template.getConverter().write(component, dbObject);
+            eventPublisher.publishEvent(new AfterSaveEvent<>(component, dbObject,
+                    template.getCollectionName(EnvironmentComponent.class)));
+        }
+    }
+}
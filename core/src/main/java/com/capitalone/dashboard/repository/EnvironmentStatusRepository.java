@@ -9,7 +9,7 @@ import java.util.List;
 /**
  * {@link EnvironmentStatus} repository.
  */
-public interface EnvironmentStatusRepository extends CrudRepository<EnvironmentStatus, ObjectId> {
+public interface EnvironmentStatusRepository extends CrudRepository<EnvironmentStatus, ObjectId>, EnvironmentStatusRepositoryCustom {
 
     /**
      * Finds all {@link EnvironmentStatus}es for a given {@link com.capitalone.dashboard.model.CollectorItem}.
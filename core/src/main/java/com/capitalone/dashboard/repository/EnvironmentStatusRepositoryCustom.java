@@ -0,0 +1,16 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.EnvironmentStatus;
+
+import java.util.Collection;
+
+public interface EnvironmentStatusRepositoryCustom {
+
+    /**
+     * Saves and deletes statuses in a single unordered bulk write.
+     *
+     * @param saves the statuses to insert or replace
+     * @param deletes the statuses to delete
+     */
+    void bulkWrite(Collection<EnvironmentStatus> saves, Collection<EnvironmentStatus> deletes);
+}
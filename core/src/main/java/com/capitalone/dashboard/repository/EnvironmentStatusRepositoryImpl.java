@@ -0,0 +1,17 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.EnvironmentStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Collection;
+
+public class EnvironmentStatusRepositoryImpl implements EnvironmentStatusRepositoryCustom {
+    @Autowired
+    MongoTemplate template;
+
+    @Override
+    public void bulkWrite(Collection<EnvironmentStatus> saves, Collection<EnvironmentStatus> deletes) {
+        UnorderedBulkWrites.write(template, EnvironmentStatus.class, saves, deletes);
+    }
+}
@@ -11,7 +11,7 @@ import java.util.List;
 /**
  * Repository for {@link GitRequest} data.
  */
-public interface GitRequestRepository  extends CrudRepository<GitRequest, ObjectId>, QueryDslPredicateExecutor<GitRequest> {
+public interface GitRequestRepository  extends CrudRepository<GitRequest, ObjectId>, QueryDslPredicateExecutor<GitRequest>, GitRequestRepositoryCustom {
 
 
     List<GitRequest> findByCollectorItemIdAndRequestType(ObjectId collectorItemId, String requestType);
@@ -19,6 +19,16 @@ public interface GitRequestRepository  extends CrudRepository<GitRequest, Object
     @Query(value="{ 'collectorItemId' : ?0, 'requestType' : ?1}", fields="{ 'number' : 2, 'updatedAt' : 3 }")
     List<GitRequest> findRequestNumberAndLastUpdated(ObjectId collectorItemId, String requestType);
 
+    /**
+     * Finds the id and number of the requests of a type, without the rest of the documents.
+     *
+     * @param collectorItemId collector item ID
+     * @param requestType pull or issue
+     * @return the requests, with only their id and number
+     */
+    @Query(value="{ 'collectorItemId' : ?0, 'requestType' : ?1}", fields="{ 'number' : 1 }")
+    List<GitRequest> findRequestNumbers(ObjectId collectorItemId, String requestType);
+
     GitRequest findByCollectorItemIdAndScmRevisionNumber(ObjectId collectorItemId, String revisionNumber);
 
     GitRequest findByCollectorItemIdAndNumberAndRequestType(ObjectId collectorItemId, String number, String requestType);
@@ -0,0 +1,15 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.GitRequest;
+
+import java.util.Collection;
+
+public interface GitRequestRepositoryCustom {
+
+    /**
+     * Inserts and replaces requests in a single unordered bulk write.
+     *
+     * @param saves the requests to insert or replace, new requests get an id
+     */
+    void bulkWrite(Collection<GitRequest> saves);
+}
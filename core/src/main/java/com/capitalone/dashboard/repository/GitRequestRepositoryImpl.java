@@ -0,0 +1,18 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.GitRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+
+public class GitRequestRepositoryImpl implements GitRequestRepositoryCustom {
+    @Autowired
+    MongoTemplate template;
+
+    @Override
+    public void bulkWrite(Collection<GitRequest> saves) {
+        UnorderedBulkWrites.write(template, GitRequest.class, saves, Collections.<GitRequest>emptyList());
+    }
+}
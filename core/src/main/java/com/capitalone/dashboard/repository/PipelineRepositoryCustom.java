@@ -0,0 +1,51 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.BinaryArtifact;
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.PipelineCommit;
+import org.bson.types.ObjectId;
+
+import java.util.Collection;
+
+/**
+ * Partial updates of a pipeline, applied in place without reading and writing back the whole document.
+ * Except for {@link #removeFailedBuilds}, the pipeline is created if it does not exist yet.
+ */
+public interface PipelineRepositoryCustom {
+
+    /**
+     * Adds commits to a stage of the pipeline of a team dashboard collector item. A commit whose revision
+     * is already in the stage is not added again.
+     *
+     * @param collectorItemId the team dashboard collector item id
+     * @param environmentName the environment name including the pseudo environments "Build" and "Commit"
+     * @param commits the commits to add
+     */
+    void addCommits(ObjectId collectorItemId, String environmentName, Collection<PipelineCommit> commits);
+
+    /**
+     * Sets the last artifact processed for a stage of the pipeline of a team dashboard collector item.
+     *
+     * @param collectorItemId the team dashboard collector item id
+     * @param environmentName the environment name
+     * @param lastArtifact the last artifact processed
+     */
+    void setLastArtifact(ObjectId collectorItemId, String environmentName, BinaryArtifact lastArtifact);
+
+    /**
+     * Adds builds to the failed builds of the pipeline of a team dashboard collector item. A build whose
+     * id is already in the failed builds is not added again.
+     *
+     * @param collectorItemId the team dashboard collector item id
+     * @param failedBuilds the failed builds to add
+     */
+    void addFailedBuilds(ObjectId collectorItemId, Collection<Build> failedBuilds);
+
+    /**
+     * Removes builds from the failed builds of the pipeline of a team dashboard collector item.
+     *
+     * @param collectorItemId the team dashboard collector item id
+     * @param failedBuilds the failed builds to remove, matched by id
+     */
+    void removeFailedBuilds(ObjectId collectorItemId, Collection<Build> failedBuilds);
+}
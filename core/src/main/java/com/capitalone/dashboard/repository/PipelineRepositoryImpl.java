@@ -0,0 +1,126 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.BinaryArtifact;
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.Pipeline;
+import com.capitalone.dashboard.model.PipelineCommit;
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PipelineRepositoryImpl implements PipelineRepositoryCustom {
+    private static final String COLLECTOR_ITEM_ID = "collectorItemId";
+    private static final String STAGES = "stages";
+    private static final String COMMITS = "commits";
+    private static final String SCM_REVISION_NUMBER = "scmRevisionNumber";
+    private static final String LAST_ARTIFACT = "lastArtifact";
+    private static final String FAILED_BUILDS = "failedBuilds";
+    private static final String ID = "_id";
+    private static final String CLASS = "_class";
+
+    @Autowired
+    MongoTemplate template;
+
+    @Override
+    public void addCommits(ObjectId collectorItemId, String environmentName, Collection<PipelineCommit> commits) {
+        if (commits.isEmpty()) {
+            return;
+        }
+        Map<Object, DBObject> commitsByRevision = new LinkedHashMap<>();
+        for (PipelineCommit commit : commits) {
+            commitsByRevision.putIfAbsent(commit.getScmRevisionNumber(), toDBObject(commit));
+        }
+        pushMissing(collectorItemId, stageField(environmentName, COMMITS), SCM_REVISION_NUMBER, commitsByRevision);
+    }
+
+    @Override
+    public void setLastArtifact(ObjectId collectorItemId, String environmentName, BinaryArtifact lastArtifact) {
+        Update update = Update.update(stageField(environmentName, LAST_ARTIFACT), toDBObject(lastArtifact));
+        template.upsert(byCollectorItemId(collectorItemId), update, Pipeline.class);
+    }
+
+    @Override
+    public void addFailedBuilds(ObjectId collectorItemId, Collection<Build> failedBuilds) {
+        if (failedBuilds.isEmpty()) {
+            return;
+        }
+        Map<Object, DBObject> buildsById = new LinkedHashMap<>();
+        for (Build build : failedBuilds) {
+            buildsById.putIfAbsent(build.getId(), toDBObject(build));
+        }
+        pushMissing(collectorItemId, FAILED_BUILDS, ID, buildsById);
+    }
+
+    @Override
+    public void removeFailedBuilds(ObjectId collectorItemId, Collection<Build> failedBuilds) {
+        List<ObjectId> buildIds = new ArrayList<>();
+        for (Build build : failedBuilds) {
+            if (build.getId() != null) {
+                buildIds.add(build.getId());
+            }
+        }
+        if (buildIds.isEmpty()) {
+            return;
+        }
+        Update update = new Update().pull(FAILED_BUILDS, new BasicDBObject(ID, new BasicDBObject("$in", buildIds)));
+        template.updateFirst(byCollectorItemId(collectorItemId), update, Pipeline.class);
+    }
+
+    /**
+     * Pushes elements to an array of the pipeline unless it already has an element with the same key.
+     * The elements are Java sets compared by key, so a second copy of an element that changed since it
+     * was added must not be added next to it, as {@code $addToSet} would.
+     * <p>
+     * The pushes are sent in one ordered bulk write, after an upsert that creates the pipeline if needed
+     * so the conditional pushes never have to create it.
+     *
+     * @param collectorItemId the team dashboard collector item id
+     * @param field the path of the array
+     * @param keyField the field identifying the elements of the array
+     * @param elementsByKey the elements to push, by key
+     */
+    private void pushMissing(ObjectId collectorItemId, String field, String keyField, Map<Object, DBObject> elementsByKey) {
+        BulkWriteOperation bulk = template.getCollection(template.getCollectionName(Pipeline.class))
+                .initializeOrderedBulkOperation();
+        bulk.find(new BasicDBObject(COLLECTOR_ITEM_ID, collectorItemId)).upsert()
+                .updateOne(new BasicDBObject("$setOnInsert", new BasicDBObject(COLLECTOR_ITEM_ID, collectorItemId)));
+        for (Map.Entry<Object, DBObject> entry : elementsByKey.entrySet()) {
+            BasicDBObject query = new BasicDBObject(COLLECTOR_ITEM_ID, collectorItemId);
+            if (entry.getKey() != null) {
+                query.append(field + "." + keyField, new BasicDBObject("$ne", entry.getKey()));
+            }
+            bulk.find(query).updateOne(new BasicDBObject("$push", new BasicDBObject(field, entry.getValue())));
+        }
+        bulk.execute();
+    }
+
+    private static Query byCollectorItemId(ObjectId collectorItemId) {
+        return new Query(Criteria.where(COLLECTOR_ITEM_ID).is(collectorItemId));
+    }
+
+    private static String stageField(String environmentName, String field) {
+        return STAGES + "." + environmentName + "." + field;
+    }
+
+    /**
+     * Converts an embedded object the same way it is written as part of a whole pipeline, without type hint.
+     */
+    private DBObject toDBObject(Object source) {
+        DBObject dbObject = new BasicDBObject();
+        template.getConverter().write(source, dbObject);
+        dbObject.removeField(CLASS);
+        return dbObject;
+    }
+}
@@ -0,0 +1,29 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.ProjectedResults;
+import com.capitalone.dashboard.model.TestResult;
+import org.springframework.data.mongodb.core.query.Query;
+
+public interface TestResultRepositoryCustom {
+
+    /**
+     * Finds the test results matching a query, reading the test hierarchy only down to the given depth:
+     * <ul>
+     *     <li>0 - TestResult</li>
+     *     <li>1 - TestCapability</li>
+     *     <li>2 - TestSuite</li>
+     *     <li>3 - TestCase</li>
+     *     <li>4 or null - entire document</li>
+     * </ul>
+     * The levels below the depth are excluded by the query projection, so they never leave the database.
+     * <p>
+     * Measuring the saving re-encodes every result and reads the collection stats, so it is only done
+     * when asked for; otherwise the byte counts of the results are left at 0.
+     *
+     * @param query the criteria, sort and limit of the results
+     * @param depth the depth of the test hierarchy to read
+     * @param measure whether to measure the bytes returned and saved by the projection
+     * @return the projected test results
+     */
+    ProjectedResults<TestResult> findProjected(Query query, Integer depth, boolean measure);
+}
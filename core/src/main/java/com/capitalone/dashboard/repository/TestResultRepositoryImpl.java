@@ -0,0 +1,60 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.ProjectedResults;
+import com.capitalone.dashboard.model.TestResult;
+import com.mongodb.CommandResult;
+import com.mongodb.DBObject;
+import org.bson.BasicBSONEncoder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+public class TestResultRepositoryImpl implements TestResultRepositoryCustom {
+    /**
+     * Path of the level below each depth of the test hierarchy.
+     */
+    private static final String[] DEPTH_PATHS = {
+            "testCapabilities",
+            "testCapabilities.testSuites",
+            "testCapabilities.testSuites.testCases",
+            "testCapabilities.testSuites.testCases.testSteps"
+    };
+
+    @Autowired
+    MongoTemplate template;
+
+    @Override
+    public ProjectedResults<TestResult> findProjected(Query query, Integer depth, boolean measure) {
+        boolean projected = depth != null && depth >= 0 && depth < DEPTH_PATHS.length;
+        if (projected) {
+            query.fields().exclude(DEPTH_PATHS[depth]);
+        }
+
+        String collection = template.getCollectionName(TestResult.class);
+        ProjectedResults<TestResult> rt = new ProjectedResults<>();
+        BasicBSONEncoder encoder = measure ? new BasicBSONEncoder() : null;
+        long bytesReturned = 0;
+        for (DBObject dbObject : template.find(query, DBObject.class, collection)) {
+            if (measure) {
+                bytesReturned += encoder.encode(dbObject).length;
+            }
+            rt.getResults().add(template.getConverter().read(TestResult.class, dbObject));
+        }
+        rt.setBytesReturned(bytesReturned);
+
+        if (measure && projected && !rt.getResults().isEmpty()) {
+            try {
+                CommandResult stats = template.getCollection(collection).getStats();
+                Object avgObjSize = stats.get("avgObjSize");
+                if (avgObjSize instanceof Number) {
+                    long bytesFull = ((Number) avgObjSize).longValue() * rt.getResults().size();
+                    rt.setBytesSaved(Math.max(0, bytesFull - bytesReturned));
+                }
+            } catch (RuntimeException e) {
+                // The saving is only reported, the results are complete without it
+                rt.setBytesSaved(0);
+            }
+        }
+        return rt;
+    }
+}
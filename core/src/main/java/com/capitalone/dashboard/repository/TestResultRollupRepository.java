@@ -0,0 +1,33 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.TestResultRollup;
+import com.capitalone.dashboard.model.TestResultRollupType;
+import org.bson.types.ObjectId;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.List;
+
+/**
+ * Repository for {@link TestResultRollup} data.
+ */
+public interface TestResultRollupRepository extends CrudRepository<TestResultRollup, ObjectId>, TestResultRollupRepositoryCustom {
+
+    /**
+     * Finds the most recent rollup of a type for a collector item.
+     *
+     * @param collectorItemId collector item ID
+     * @param type rollup type
+     * @return the latest rollup, or null
+     */
+    TestResultRollup findTopByCollectorItemIdAndTypeOrderByTimestampDesc(ObjectId collectorItemId, TestResultRollupType type);
+
+    /**
+     * Finds the rollups of a type for a collector item since a timestamp.
+     *
+     * @param collectorItemId collector item ID
+     * @param type rollup type
+     * @param timestamp earliest timestamp
+     * @return the rollups, oldest first
+     */
+    List<TestResultRollup> findByCollectorItemIdAndTypeAndTimestampGreaterThanEqualOrderByTimestampAsc(ObjectId collectorItemId, TestResultRollupType type, long timestamp);
+}
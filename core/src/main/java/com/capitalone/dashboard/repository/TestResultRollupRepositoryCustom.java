@@ -0,0 +1,15 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.TestResult;
+
+public interface TestResultRollupRepositoryCustom {
+
+    /**
+     * Updates the run and day rollups with a saved test result. The result replaces its previous
+     * version in the rollups, so it can be rolled up again whenever it is saved. Runs are identified
+     * by their execution ID, or by the test result ID when the result has no execution ID.
+     *
+     * @param testResult a saved test result
+     */
+    void rollUp(TestResult testResult);
+}
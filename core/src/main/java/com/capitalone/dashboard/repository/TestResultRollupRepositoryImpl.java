@@ -0,0 +1,123 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.TestCapability;
+import com.capitalone.dashboard.model.TestCounts;
+import com.capitalone.dashboard.model.TestResult;
+import com.capitalone.dashboard.model.TestResultRollup;
+import com.capitalone.dashboard.model.TestResultRollupType;
+import com.capitalone.dashboard.model.TestSuite;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+public class TestResultRollupRepositoryImpl implements TestResultRollupRepositoryCustom {
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    @Autowired
+    MongoTemplate template;
+
+    @Override
+    public void rollUp(TestResult testResult) {
+        TestResultRollup run = toRun(testResult);
+
+        // Replace the run atomically, and take back what its previous version added to its day
+        Update update = new Update()
+                .set("timestamp", run.getTimestamp())
+                .set("runs", run.getRuns())
+                .set("tests", run.getTests())
+                .set("capabilities", run.getCapabilities())
+                .set("suites", run.getSuites());
+        TestResultRollup previous = template.findAndModify(
+                query(where("collectorItemId").is(run.getCollectorItemId())
+                        .and("type").is(TestResultRollupType.Run)
+                        .and("executionId").is(run.getExecutionId())),
+                update, FindAndModifyOptions.options().upsert(true).returnNew(false), TestResultRollup.class);
+
+        if (previous != null) {
+            increment(previous, -1);
+        }
+        increment(run, 1);
+    }
+
+    private void increment(TestResultRollup run, int sign) {
+        Update update = new Update().inc("runs", sign * run.getRuns());
+        increment(update, "tests", run.getTests(), sign);
+        for (Map.Entry<String, TestCounts> entry : run.getCapabilities().entrySet()) {
+            increment(update, "capabilities." + entry.getKey(), entry.getValue(), sign);
+        }
+        for (Map.Entry<String, TestCounts> entry : run.getSuites().entrySet()) {
+            increment(update, "suites." + entry.getKey(), entry.getValue(), sign);
+        }
+        template.upsert(query(where("collectorItemId").is(run.getCollectorItemId())
+                        .and("type").is(TestResultRollupType.Day)
+                        .and("timestamp").is(startOfDay(run.getTimestamp()))),
+                update, TestResultRollup.class);
+    }
+
+    private static void increment(Update update, String path, TestCounts counts, int sign) {
+        update.inc(path + ".total", sign * counts.getTotal())
+                .inc(path + ".success", sign * counts.getSuccess())
+                .inc(path + ".failure", sign * counts.getFailure())
+                .inc(path + ".skipped", sign * counts.getSkipped())
+                .inc(path + ".unknown", sign * counts.getUnknown());
+    }
+
+    static TestResultRollup toRun(TestResult testResult) {
+        TestResultRollup run = new TestResultRollup();
+        run.setCollectorItemId(testResult.getCollectorItemId());
+        run.setType(TestResultRollupType.Run);
+        run.setTimestamp(testResult.getTimestamp());
+        // Runs are keyed by execution ID, runs without one by their test result so they are not merged
+        run.setExecutionId(testResult.getExecutionId() != null || testResult.getId() == null
+                ? testResult.getExecutionId() : testResult.getId().toString());
+        run.setRuns(1);
+        run.setTests(new TestCounts(testResult.getTotalCount(), testResult.getSuccessCount(),
+                testResult.getFailureCount(), testResult.getSkippedCount(), testResult.getUnknownStatusCount()));
+
+        for (TestCapability capability : testResult.getTestCapabilities()) {
+            add(run.getCapabilities(), capability.getDescription(), new TestCounts(capability.getTotalTestSuiteCount(),
+                    capability.getSuccessTestSuiteCount(), capability.getFailedTestSuiteCount(),
+                    capability.getSkippedTestSuiteCount(), capability.getUnknownStatusTestSuiteCount()));
+
+            for (TestSuite suite : capability.getTestSuites()) {
+                add(run.getSuites(), suite.getDescription(), new TestCounts(suite.getTotalTestCaseCount(),
+                        suite.getSuccessTestCaseCount(), suite.getFailedTestCaseCount(),
+                        suite.getSkippedTestCaseCount(), suite.getUnknownStatusCount()));
+            }
+        }
+        return run;
+    }
+
+    private static void add(Map<String, TestCounts> countsByKey, String description, TestCounts counts) {
+        String key = toKey(description);
+        TestCounts existing = countsByKey.get(key);
+        if (existing == null) {
+            countsByKey.put(key, counts);
+        } else {
+            existing.add(counts);
+        }
+    }
+
+    /**
+     * Mongo keys may not contain dots nor start with a dollar sign.
+     */
+    static String toKey(String description) {
+        if (StringUtils.isBlank(description)) {
+            return "unnamed";
+        }
+        String key = description.replace('.', '_');
+        return key.charAt(0) == '$' ? "_" + key.substring(1) : key;
+    }
+
+    static long startOfDay(long timestamp) {
+        return timestamp - Math.floorMod(timestamp, DAY);
+    }
+}
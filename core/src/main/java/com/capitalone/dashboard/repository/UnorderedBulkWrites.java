@@ -0,0 +1,59 @@
+package com.capitalone.dashboard.repository;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+
+import java.util.Collection;
+
+/**
+ * Saves and deletes documents of a collection in a single unordered bulk write, so the server can
+ * apply them in any order and a failed write does not stop the others. The id of the documents is
+ * read and set through the mapping metadata, so any mapped type with an id property can be written.
+ */
+final class UnorderedBulkWrites {
+    private static final String ID = "_id";
+
+    private UnorderedBulkWrites() {
+    }
+
+    /**
+     * @param template the template
+     * @param type the document type
+     * @param saves the documents to insert or replace, new documents get an id
+     * @param deletes the documents to delete
+     */
+    static <T> void write(MongoTemplate template, Class<T> type, Collection<T> saves, Collection<T> deletes) {
+        if (saves.isEmpty() && deletes.isEmpty()) {
+            return;
+        }
+        MongoPersistentEntity<?> entity = template.getConverter().getMappingContext().getPersistentEntity(type);
+        MongoPersistentProperty idProperty = entity.getIdProperty();
+        if (idProperty == null) {
+            throw new IllegalArgumentException(type.getName() + " has no id property");
+        }
+
+        BulkWriteOperation bulk = template.getCollection(template.getCollectionName(type)).initializeUnorderedBulkOperation();
+        for (T document : saves) {
+            PersistentPropertyAccessor accessor = entity.getPropertyAccessor(document);
+            Object id = accessor.getProperty(idProperty);
+            if (id == null) {
+                id = String.class.equals(idProperty.getType()) ? ObjectId.get().toString() : ObjectId.get();
+                accessor.setProperty(idProperty, id);
+            }
+            DBObject dbObject = new BasicDBObject();
+            template.getConverter().write(document, dbObject);
+            bulk.find(new BasicDBObject(ID, dbObject.get(ID))).upsert().replaceOne(dbObject);
+        }
+        for (T document : deletes) {
+            Object id = entity.getPropertyAccessor(document).getProperty(idProperty);
+            bulk.find(new BasicDBObject(ID, template.getConverter().convertToMongoType(id))).removeOne();
+        }
+        bulk.execute();
+    }
+}
@@ -0,0 +1,222 @@
+package com.capitalone.dashboard.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compact commit graph of a single repository branch, built from the parent revisions of its commits.
+ * <p>
+ * Revisions are interned to int ids, and the parents of a commit are kept as an int array, so a
+ * walk through the history only touches primitive arrays. Parents can be added before the commits
+ * they refer to; they are not part of the history until they are added themselves.
+ * <p>
+ * The graph is safe for use by multiple threads.
+ */
+public class CommitGraph {
+    private static final int[] NO_PARENTS = new int[0];
+    // timestamp of revisions only known as the parent of another commit
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] revisions = new String[16];
+    private int[][] parents = new int[16][];
+    private long[] timestamps = new long[16];
+    private int size;
+    private int commitCount;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a commit, or replaces the parents and timestamp of a commit already added.
+     *
+     * @param revision the revision number of the commit
+     * @param parentRevisions the revision numbers of its parents, may be null
+     * @param timestamp the commit timestamp
+     */
+    public void add(String revision, List<String> parentRevisions, long timestamp) {
+        lock.writeLock().lock();
+        try {
+            int id = intern(revision);
+            int[] parentIds = NO_PARENTS;
+            if (parentRevisions != null && !parentRevisions.isEmpty()) {
+                parentIds = new int[parentRevisions.size()];
+                for (int i = 0; i < parentIds.length; i++) {
+                    parentIds[i] = intern(parentRevisions.get(i));
+                }
+            }
+            if (timestamps[id] == UNKNOWN) {
+                commitCount++;
+            }
+            parents[id] = parentIds;
+            timestamps[id] = timestamp;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param revision a revision number
+     * @return true if the commit has been added to the graph
+     */
+    public boolean contains(String revision) {
+        lock.readLock().lock();
+        try {
+            Integer id = ids.get(revision);
+            return id != null && timestamps[id] != UNKNOWN;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Determines the commits that came before the given revision, following all parents of merge commits.
+     * The walk stops at commits older than <b>since</b> and at commits that have not been added.
+     *
+     * @param revision the head revision number
+     * @param since the oldest commit timestamp to include
+     * @return the revision numbers of the history, starting with <b>revision</b> itself
+     */
+    public List<String> getAncestors(String revision, long since) {
+        lock.readLock().lock();
+        try {
+            Integer head = ids.get(revision);
+            if (head == null) {
+                return Collections.singletonList(revision);
+            }
+
+            List<String> rt = new ArrayList<>();
+            rt.add(revision);
+            BitSet seen = new BitSet(size);
+            seen.set(head);
+            int[] stack = new int[16];
+            int top = 0;
+            stack[top++] = head;
+            while (top > 0) {
+                int id = stack[--top];
+                for (int parent : parents[id]) {
+                    if (seen.get(parent)) {
+                        continue;
+                    }
+                    seen.set(parent);
+                    if (timestamps[parent] == UNKNOWN || timestamps[parent] < since) {
+                        continue;
+                    }
+                    rt.add(revisions[parent]);
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = parent;
+                }
+            }
+            return rt;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the commits older than <b>since</b>. The parents of the commits kept stay known by their
+     * revision, like parents that have not been added.
+     *
+     * @param since the oldest commit timestamp to keep
+     * @return the number of commits dropped
+     */
+    public int retainSince(long since) {
+        lock.writeLock().lock();
+        try {
+            BitSet kept = new BitSet(size);
+            BitSet referenced = new BitSet(size);
+            for (int id = 0; id < size; id++) {
+                if (timestamps[id] != UNKNOWN && timestamps[id] >= since) {
+                    kept.set(id);
+                    for (int parent : parents[id]) {
+                        referenced.set(parent);
+                    }
+                }
+            }
+            referenced.or(kept);
+            int removed = commitCount - kept.cardinality();
+            if (referenced.cardinality() == size) {
+                // nothing to compact, only turn the old parents into unknown revisions
+                for (int id = referenced.nextSetBit(0); id >= 0; id = referenced.nextSetBit(id + 1)) {
+                    if (!kept.get(id)) {
+                        parents[id] = NO_PARENTS;
+                        timestamps[id] = UNKNOWN;
+                    }
+                }
+                commitCount = kept.cardinality();
+                return removed;
+            }
+
+            int[] newIds = new int[size];
+            int capacity = Math.max(16, referenced.cardinality());
+            String[] newRevisions = new String[capacity];
+            long[] newTimestamps = new long[capacity];
+            int newSize = 0;
+            ids.clear();
+            for (int id = referenced.nextSetBit(0); id >= 0; id = referenced.nextSetBit(id + 1)) {
+                newIds[id] = newSize;
+                newRevisions[newSize] = revisions[id];
+                newTimestamps[newSize] = kept.get(id) ? timestamps[id] : UNKNOWN;
+                ids.put(revisions[id], newSize);
+                newSize++;
+            }
+            int[][] newParents = new int[capacity][];
+            for (int id = referenced.nextSetBit(0); id >= 0; id = referenced.nextSetBit(id + 1)) {
+                int[] parentIds = NO_PARENTS;
+                if (kept.get(id) && parents[id].length > 0) {
+                    parentIds = new int[parents[id].length];
+                    for (int i = 0; i < parentIds.length; i++) {
+                        parentIds[i] = newIds[parents[id][i]];
+                    }
+                }
+                newParents[newIds[id]] = parentIds;
+            }
+            revisions = newRevisions;
+            parents = newParents;
+            timestamps = newTimestamps;
+            size = newSize;
+            commitCount = kept.cardinality();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of commits added to the graph
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return commitCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int intern(String revision) {
+        Integer id = ids.get(revision);
+        if (id != null) {
+            return id;
+        }
+        if (size == revisions.length) {
+            int capacity = size * 2;
+            revisions = Arrays.copyOf(revisions, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+        }
+        revisions[size] = revision;
+        parents[size] = NO_PARENTS;
+        timestamps[size] = UNKNOWN;
+        ids.put(revision, size);
+        return size++;
+    }
+}
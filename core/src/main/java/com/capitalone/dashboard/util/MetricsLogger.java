@@ -0,0 +1,56 @@
+package com.capitalone.dashboard.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs the metrics of a component at a fixed interval on a daemon thread of its own.
+ * <p>
+ * The interval is read from a {@code <component>.metricsSeconds} property by each component, with 0
+ * to disable the logging.
+ */
+public final class MetricsLogger {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsLogger.class);
+
+    private final ScheduledExecutorService executor;
+
+    private MetricsLogger(ScheduledExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @param threadName the name of the logging thread
+     * @param intervalSeconds the seconds between two logs, 0 or less to not log at all
+     * @param log logs the metrics
+     * @return the logger, to {@link #stop()} when the component stops
+     */
+    public static MetricsLogger start(String threadName, long intervalSeconds, Runnable log) {
+        if (intervalSeconds <= 0) {
+            return new MetricsLogger(null);
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        // an exception would cancel the next runs
+        executor.scheduleAtFixedRate(() -> {
+            try {
+                log.run();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Unable to log the metrics of " + threadName, e);
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        return new MetricsLogger(executor);
+    }
+
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -13,6 +13,7 @@ import com.capitalone.dashboard.repository.CommitRepository;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -134,15 +135,22 @@ public final class PipelineUtils {
 
 
     public static boolean isMoveCommitToBuild(Build build, SCM scm, CommitRepository commitRepository) {
-        List<Commit> commitsFromRepo = getCommitsFromCommitRepo(scm, commitRepository);
         List<RepoBranch> codeReposFromBuild = build.getCodeRepos();
+        // pipeline commits are copied from the commit, so the lookup is only needed when the build is of
+        // another repository holding the same revision, a fork for instance
+        if (scm.getScmUrl() != null && containsRepo(codeReposFromBuild, Collections.singleton(getRepoNameOnly(scm.getScmUrl())))) {
+            return true;
+        }
         Set<String> codeRepoUrlsFromCommits = new HashSet<>();
-        for (Commit c : commitsFromRepo) {
+        for (Commit c : getCommitsFromCommitRepo(scm, commitRepository)) {
             codeRepoUrlsFromCommits.add(getRepoNameOnly(c.getScmUrl()));
         }
+        return containsRepo(codeReposFromBuild, codeRepoUrlsFromCommits);
+    }
 
-        for (RepoBranch rb : codeReposFromBuild) {
-            if (codeRepoUrlsFromCommits.contains(getRepoNameOnly(rb.getUrl()))) {
+    private static boolean containsRepo(List<RepoBranch> codeRepos, Set<String> repoNames) {
+        for (RepoBranch rb : codeRepos) {
+            if (repoNames.contains(getRepoNameOnly(rb.getUrl()))) {
                 return true;
             }
         }
@@ -0,0 +1,58 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.JobCollectorItem;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CollectorItemIndexTest {
+
+    @Test
+    public void get_findsItemWithSameIdentity() {
+        JobCollectorItem stored = job("http://jenkins1", "job1", "http://jenkins1/job/job1");
+        CollectorItemIndex<JobCollectorItem> index = new CollectorItemIndex<>(
+                Arrays.asList(stored, job("http://jenkins1", "job2", null)), JobCollectorItem.IDENTITY_OPTIONS);
+
+        JobCollectorItem reported = job("http://jenkins1", "job1", "https://jenkins1/job/job1");
+
+        assertTrue(index.contains(reported));
+        assertSame(stored, index.get(reported));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void get_comparesEveryIdentityOption() {
+        CollectorItemIndex<JobCollectorItem> index = new CollectorItemIndex<>(
+                Arrays.asList(job("http://jenkins1", "job1", null)), JobCollectorItem.IDENTITY_OPTIONS);
+
+        assertFalse(index.contains(job("http://jenkins2", "job1", null)));
+        assertFalse(index.contains(job("http://jenkins1", "job2", null)));
+        assertNull(index.get(job("http://jenkins2", "job1", null)));
+    }
+
+    @Test
+    public void add_keepsFirstItemWithSameIdentity() {
+        JobCollectorItem first = job("http://jenkins1", "job1", null);
+        CollectorItemIndex<JobCollectorItem> index = new CollectorItemIndex<>(JobCollectorItem.IDENTITY_OPTIONS);
+
+        index.add(first);
+        index.add(job("http://jenkins1", "job1", null));
+
+        assertEquals(1, index.size());
+        assertSame(first, index.get(first));
+    }
+
+    private static JobCollectorItem job(String instanceUrl, String jobName, String jobUrl) {
+        JobCollectorItem job = new JobCollectorItem();
+        job.setInstanceUrl(instanceUrl);
+        job.setJobName(jobName);
+        job.setJobUrl(jobUrl);
+        return job;
+    }
+}
@@ -0,0 +1,97 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.Collector;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Component;
+import com.capitalone.dashboard.repository.CollectorItemRepository;
+import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.FongoBaseRepositoryTest;
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EnabledCollectorItemResolverTest extends FongoBaseRepositoryTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private ComponentRepository componentRepository;
+    @Autowired
+    private CollectorItemRepository collectorItemRepository;
+
+    private EnabledCollectorItemResolver resolver;
+    private Collector collector;
+    private CollectorItem onDashboard;
+    private CollectorItem notOnDashboard;
+    private CollectorItem otherCollector;
+
+    @Before
+    public void setUp() {
+        resolver = new EnabledCollectorItemResolver(mongoTemplate, 60);
+
+        collector = new Collector("GitHub", CollectorType.SCM);
+        collector.setId(ObjectId.get());
+
+        onDashboard = collectorItemRepository.save(item(collector.getId(), false));
+        notOnDashboard = collectorItemRepository.save(item(collector.getId(), true));
+        otherCollector = collectorItemRepository.save(item(ObjectId.get(), false));
+
+        Component component = new Component("component");
+        component.addCollectorItem(CollectorType.SCM, onDashboard);
+        component.addCollectorItem(CollectorType.SCM, otherCollector);
+        componentRepository.save(component);
+    }
+
+    @After
+    public void tearDown() {
+        componentRepository.deleteAll();
+        collectorItemRepository.deleteAll();
+    }
+
+    @Test
+    public void getReferencedCollectorItemIds_onlyItemsOfCollector() {
+        assertEquals(new HashSet<>(Arrays.asList(onDashboard.getId())), resolver.getReferencedCollectorItemIds(collector));
+    }
+
+    @Test
+    public void getReferencedCollectorItemIds_cachedUntilInvalidated() {
+        assertEquals(1, resolver.getReferencedCollectorItemIds(collector).size());
+
+        Component component = new Component("other");
+        component.addCollectorItem(CollectorType.SCM, notOnDashboard);
+        componentRepository.save(component);
+        assertEquals(1, resolver.getReferencedCollectorItemIds(collector).size());
+
+        resolver.invalidateAll();
+        assertEquals(2, resolver.getReferencedCollectorItemIds(collector).size());
+    }
+
+    @Test
+    public void updateEnabled() {
+        assertEquals(2, resolver.updateEnabled(collector));
+
+        assertTrue(collectorItemRepository.findOne(onDashboard.getId()).isEnabled());
+        assertFalse(collectorItemRepository.findOne(notOnDashboard.getId()).isEnabled());
+        assertFalse(collectorItemRepository.findOne(otherCollector.getId()).isEnabled());
+
+        assertEquals(0, resolver.updateEnabled(collector));
+    }
+
+    private CollectorItem item(ObjectId collectorId, boolean enabled) {
+        CollectorItem item = new CollectorItem();
+        item.setCollectorId(collectorId);
+        item.setEnabled(enabled);
+        return item;
+    }
+}
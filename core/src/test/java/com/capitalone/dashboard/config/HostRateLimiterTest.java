@@ -0,0 +1,152 @@
+package com.capitalone.dashboard.config;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+
+import java.io.IOException;
+import java.net.URI;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+public class HostRateLimiterTest {
+
+    private static final long NOW = 1500000000000L;
+
+    @Test
+    public void reserve_allowsBurstThenPacesToRate() {
+        HostRateLimiter limiter = new HostRateLimiter(10, 2, 60000);
+
+        assertEquals(0, limiter.reserve("jenkins", NOW));
+        assertEquals(0, limiter.reserve("jenkins", NOW));
+        assertEquals(100, limiter.reserve("jenkins", NOW));
+        assertEquals(200, limiter.reserve("jenkins", NOW));
+    }
+
+    @Test
+    public void reserve_keepsABucketPerHost() {
+        HostRateLimiter limiter = new HostRateLimiter(1, 1, 60000);
+
+        assertEquals(0, limiter.reserve("jenkins", NOW));
+        assertEquals(0, limiter.reserve("sonar", NOW));
+        assertEquals(1000, limiter.reserve("JENKINS", NOW));
+    }
+
+    @Test
+    public void reserve_refillsOverTime() {
+        HostRateLimiter limiter = new HostRateLimiter(10, 1, 60000);
+
+        assertEquals(0, limiter.reserve("jenkins", NOW));
+        assertEquals(0, limiter.reserve("jenkins", NOW + 100));
+    }
+
+    @Test
+    public void reserve_unlimitedWithoutRate() {
+        HostRateLimiter limiter = new HostRateLimiter(0, 1, 60000);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.reserve("jenkins", NOW));
+        }
+    }
+
+    @Test
+    public void update_spreadsReportedBudgetUntilReset() {
+        HostRateLimiter limiter = new HostRateLimiter(0, 1, 60000);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HostRateLimiter.RATE_LIMIT_REMAINING, "10");
+        headers.set(HostRateLimiter.RATE_LIMIT_RESET, String.valueOf(NOW / 1000 + 100));
+
+        limiter.update("api.github.com", 200, headers, NOW);
+
+        assertEquals(0, limiter.reserve("api.github.com", NOW));
+        assertEquals(10000, limiter.reserve("api.github.com", NOW));
+    }
+
+    @Test
+    public void update_holdsHostUntilResetWhenBudgetIsSpent() {
+        HostRateLimiter limiter = new HostRateLimiter(10, 10, 60000);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HostRateLimiter.RATE_LIMIT_REMAINING, "0");
+        headers.set(HostRateLimiter.RATE_LIMIT_RESET, String.valueOf(NOW / 1000 + 30));
+
+        limiter.update("api.github.com", 403, headers, NOW);
+
+        assertEquals(30000, limiter.reserve("api.github.com", NOW));
+        assertEquals(0, limiter.reserve("api.github.com", NOW + 30000));
+    }
+
+    @Test
+    public void update_honoursRetryAfter() {
+        HostRateLimiter limiter = new HostRateLimiter(10, 10, 60000);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HostRateLimiter.RETRY_AFTER, "5");
+
+        limiter.update("sonar", 429, headers, NOW);
+
+        assertEquals(5000, limiter.reserve("sonar", NOW));
+    }
+
+    @Test
+    public void update_backsOffExponentiallyWithoutRetryAfter() {
+        HostRateLimiter limiter = new HostRateLimiter(0, 1, 3000);
+
+        limiter.update("jenkins", 503, new HttpHeaders(), NOW);
+        assertEquals(1000, limiter.reserve("jenkins", NOW));
+        limiter.update("jenkins", 503, new HttpHeaders(), NOW);
+        assertEquals(2000, limiter.reserve("jenkins", NOW));
+        limiter.update("jenkins", 503, new HttpHeaders(), NOW + 2000);
+        assertEquals(3000, limiter.reserve("jenkins", NOW + 2000));
+
+        limiter.update("jenkins", 200, new HttpHeaders(), NOW + 5000);
+        limiter.update("jenkins", 503, new HttpHeaders(), NOW + 5000);
+        assertEquals(1000, limiter.reserve("jenkins", NOW + 5000));
+    }
+
+    @Test
+    public void reserve_refusesWaitsBeyondMaxWaitWithoutTakingTokens() {
+        HostRateLimiter limiter = new HostRateLimiter(0.1, 1, 1000);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HostRateLimiter.RETRY_AFTER, "5");
+
+        limiter.update("sonar", 503, headers, NOW);
+
+        assertEquals(5000, limiter.reserve("sonar", NOW));
+        assertEquals(5000, limiter.reserve("sonar", NOW));
+        assertEquals(0, limiter.reserve("sonar", NOW + 5000));
+    }
+
+    @Test
+    public void intercept_failsRequestsHeldBeyondMaxWait() throws IOException {
+        HostRateLimiter limiter = new HostRateLimiter(0, 1, 1000);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HostRateLimiter.RATE_LIMIT_REMAINING, "0");
+        headers.set(HostRateLimiter.RATE_LIMIT_RESET, String.valueOf(System.currentTimeMillis() / 1000 + 3600));
+        limiter.update("api.github.com", 403, headers, System.currentTimeMillis());
+        ClientHttpRequestExecution execution = mock(ClientHttpRequestExecution.class);
+
+        try {
+            limiter.intercept(new MockClientHttpRequest(HttpMethod.GET, URI.create("https://api.github.com/repos")),
+                    new byte[0], execution);
+            fail("request should have been refused");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("api.github.com"));
+        }
+        verifyZeroInteractions(execution);
+        assertEquals(1, limiter.getRejectedCount());
+    }
+
+    @Test
+    public void reserve_doesNotThrottleHostsWithoutRateLimitByDefault() {
+        HostRateLimiter limiter = new HostRateLimiter(0, 20, 60000);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, limiter.reserve("jenkins", NOW));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.capitalone.dashboard.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestOperations;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class HttpClientFactoryTest {
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private HttpClientFactory factory;
+    private String url;
+
+    @Before
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort();
+
+        factory = new HttpClientFactory();
+        ReflectionTestUtils.setField(factory, "maxConnections", 10);
+        ReflectionTestUtils.setField(factory, "maxConnectionsPerHost", 2);
+        ReflectionTestUtils.setField(factory, "keepAliveSeconds", 30L);
+        ReflectionTestUtils.setField(factory, "burst", 20);
+        ReflectionTestUtils.setField(factory, "maxWaitSeconds", 60L);
+        factory.start();
+    }
+
+    @After
+    public void teardown() {
+        factory.stop();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void restOperations_reuseConnections() {
+        server.createContext("/ok", exchange -> respond(exchange, "ok".getBytes(StandardCharsets.UTF_8), false));
+        RestOperations first = factory.createRestOperations();
+        RestOperations second = factory.createRestOperations(1000, 1000);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("ok", first.getForObject(url + "/ok", String.class));
+            assertEquals("ok", second.getForObject(url + "/ok", String.class));
+        }
+
+        assertEquals(10, factory.getRequestCount());
+        assertEquals(1, factory.getConnectionCount());
+    }
+
+    @Test
+    public void restOperations_openAtMostMaxConnectionsPerHost() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        server.createContext("/slow", exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "ok".getBytes(StandardCharsets.UTF_8), false);
+        });
+        RestOperations rest = factory.createRestOperations();
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> responses = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                responses.add(clients.submit(() -> rest.getForObject(url + "/slow", String.class)));
+            }
+
+            HttpClientFactory.PoolStatistics stats = awaitPending(2);
+            assertEquals(2, stats.getMaxSize());
+            assertEquals(2, stats.getLeasedCount());
+
+            release.countDown();
+            for (Future<String> response : responses) {
+                assertEquals("ok", response.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(2, factory.getConnectionCount());
+        } finally {
+            release.countDown();
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    public void restOperations_requestAndDecodeGzip() {
+        server.createContext("/gzip", exchange -> {
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+            respond(exchange, gzip ? gzip("compressed") : "plain".getBytes(StandardCharsets.UTF_8), gzip);
+        });
+
+        assertEquals("compressed", factory.createRestOperations().getForObject(url + "/gzip", String.class));
+    }
+
+    @Test
+    public void hostnameVerifier_defaultsToStrictVerifier() {
+        assertSame(SSLConnectionSocketFactory.getDefaultHostnameVerifier().getClass(),
+                HttpClientFactory.hostnameVerifier().getClass());
+    }
+
+    @Test
+    public void hostnameVerifier_usesReplacedJvmVerifier() {
+        HostnameVerifier original = HttpsURLConnection.getDefaultHostnameVerifier();
+        HostnameVerifier trustAll = (hostname, session) -> true;
+        HttpsURLConnection.setDefaultHostnameVerifier(trustAll);
+        try {
+            assertSame(trustAll, HttpClientFactory.hostnameVerifier());
+        } finally {
+            HttpsURLConnection.setDefaultHostnameVerifier(original);
+        }
+    }
+
+    @Test
+    public void sslSocketFactory_builtOnFirstUse() {
+        HostnameVerifier original = HttpsURLConnection.getDefaultHostnameVerifier();
+        HostnameVerifier trustAll = (hostname, session) -> true;
+        // replaced after the factory started, as a collector's own @PostConstruct may do
+        HttpsURLConnection.setDefaultHostnameVerifier(trustAll);
+        try {
+            HttpClientFactory.LazySSLConnectionSocketFactory sslSocketFactory =
+                    (HttpClientFactory.LazySSLConnectionSocketFactory) ReflectionTestUtils.getField(factory, "sslSocketFactory");
+            assertSame(trustAll, ReflectionTestUtils.getField(sslSocketFactory.delegate(), "hostnameVerifier"));
+        } finally {
+            HttpsURLConnection.setDefaultHostnameVerifier(original);
+        }
+    }
+
+    private HttpClientFactory.PoolStatistics awaitPending(int pending) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (System.currentTimeMillis() < deadline) {
+            for (HttpClientFactory.PoolStatistics stats : factory.getPoolStatistics()) {
+                if (stats.getPendingCount() == pending) {
+                    return stats;
+                }
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("no route with " + pending + " pending requests");
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body, boolean gzip) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        if (gzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
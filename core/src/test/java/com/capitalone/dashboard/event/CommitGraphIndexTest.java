@@ -0,0 +1,72 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.repository.CommitRepository;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CommitGraphIndexTest {
+
+    @Mock
+    private CommitRepository commitRepository;
+
+    @Test
+    public void getAncestors_evictsLeastRecentlyUsedRepository() {
+        CommitGraphIndex index = new CommitGraphIndex(commitRepository, 90, 3600, 2);
+        ObjectId a = ObjectId.get();
+        ObjectId b = ObjectId.get();
+        ObjectId c = ObjectId.get();
+
+        index.getAncestors(a, "A1", 0);
+        index.getAncestors(b, "B1", 0);
+        index.getAncestors(a, "A1", 0);
+        index.getAncestors(c, "C1", 0);
+        index.getAncestors(a, "A1", 0);
+        index.getAncestors(b, "B1", 0);
+
+        assertEquals(2, index.getSize());
+        verify(commitRepository, times(1)).findByCollectorItemIdAndScmCommitTimestamp(eq(a), anyLong());
+        verify(commitRepository, times(2)).findByCollectorItemIdAndScmCommitTimestamp(eq(b), anyLong());
+    }
+
+    @Test
+    public void getAncestors_dropsCommitsOlderThanHistoryOnRefresh() {
+        CommitGraphIndex index = new CommitGraphIndex(commitRepository, 1, 0, 10);
+        ObjectId repo = ObjectId.get();
+        long now = System.currentTimeMillis();
+        // a day and a minute old: loaded with the graph, dropped once it is refreshed
+        Commit old = commit("A", null, now - TimeUnit.DAYS.toMillis(1) - TimeUnit.MINUTES.toMillis(1));
+        Commit head = commit("B", "A", now);
+        when(commitRepository.findByCollectorItemIdAndScmCommitTimestamp(eq(repo), anyLong()))
+                .thenReturn(Arrays.asList(old, head));
+        when(commitRepository.findByCollectorItemIdAndTimestampGreaterThan(eq(repo), anyLong()))
+                .thenReturn(Collections.emptyList());
+
+        assertEquals(Arrays.asList("B", "A"), index.getAncestors(repo, "B", 0));
+        assertEquals(Collections.singletonList("B"), index.getAncestors(repo, "B", 0));
+    }
+
+    private static Commit commit(String revision, String parent, long timestamp) {
+        Commit commit = new Commit();
+        commit.setScmRevisionNumber(revision);
+        commit.setScmParentRevisionNumbers(parent == null ? null : Collections.singletonList(parent));
+        commit.setScmCommitTimestamp(timestamp);
+        commit.setTimestamp(timestamp);
+        return commit;
+    }
+}
@@ -0,0 +1,79 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.model.Dashboard;
+import com.capitalone.dashboard.model.DashboardType;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class DashboardIndexTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<ObjectId, List<Dashboard>> loader = collectorItemId -> {
+        loads.incrementAndGet();
+        return Collections.singletonList(new Dashboard("template", "title", null, null, DashboardType.Team,
+                null, null, Collections.emptyList()));
+    };
+
+    @Test
+    public void getDashboards_loadedOnceUntilInvalidated() {
+        DashboardIndex index = new DashboardIndex(300, 100);
+        ObjectId collectorItemId = ObjectId.get();
+
+        List<Dashboard> first = index.getDashboards(collectorItemId, loader);
+        List<Dashboard> second = index.getDashboards(collectorItemId, loader);
+
+        Assert.assertEquals(1, loads.get());
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, index.getHits());
+        Assert.assertEquals(1, index.getMisses());
+
+        index.invalidateAll();
+        index.getDashboards(collectorItemId, loader);
+
+        Assert.assertEquals(2, loads.get());
+        Assert.assertEquals(2, index.getMisses());
+        Assert.assertEquals(1, index.getInvalidations());
+    }
+
+    @Test
+    public void getDashboards_expiredEntryReloaded() {
+        DashboardIndex index = new DashboardIndex(0, 100);
+        ObjectId collectorItemId = ObjectId.get();
+
+        index.getDashboards(collectorItemId, loader);
+        index.getDashboards(collectorItemId, loader);
+
+        Assert.assertEquals(2, loads.get());
+        Assert.assertEquals(0, index.getHits());
+    }
+
+    @Test
+    public void getDashboards_invalidatedWhileLoading_notKept() {
+        DashboardIndex index = new DashboardIndex(300, 100);
+        ObjectId collectorItemId = ObjectId.get();
+
+        index.getDashboards(collectorItemId, id -> {
+            index.invalidateAll();
+            return Collections.emptyList();
+        });
+
+        Assert.assertEquals(0, index.getSize());
+    }
+
+    @Test
+    public void getDashboards_nullCollectorItem_notCached() {
+        DashboardIndex index = new DashboardIndex(300, 100);
+
+        index.getDashboards(null, loader);
+        index.getDashboards(null, loader);
+
+        Assert.assertEquals(2, loads.get());
+        Assert.assertEquals(0, index.getSize());
+    }
+}
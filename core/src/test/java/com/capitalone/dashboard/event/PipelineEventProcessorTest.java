@@ -0,0 +1,181 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.Pipeline;
+import com.capitalone.dashboard.model.PipelineCommit;
+import com.capitalone.dashboard.model.PipelineStage;
+import com.capitalone.dashboard.repository.PipelineRepository;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.capitalone.dashboard.util.TestUtils.createPipelineCommit;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PipelineEventProcessorTest {
+
+    @Mock
+    private PipelineRepository pipelineRepository;
+
+    @Captor
+    private ArgumentCaptor<Collection<PipelineCommit>> commitsCaptor;
+
+    @Test
+    public void submit_notAsync_processedRightAway_savedOncePerEvent() {
+        PipelineEventProcessor processor = new PipelineEventProcessor(pipelineRepository, false, 1, 10, 10);
+        processor.start();
+        CollectorItem teamDashboardCI = collectorItem();
+        Pipeline pipeline = new Pipeline();
+        when(pipelineRepository.findByCollectorItemId(teamDashboardCI.getId())).thenReturn(pipeline);
+
+        processor.submit(ObjectId.get(), batch -> {
+            addCommit(batch, teamDashboardCI, "scmRev1");
+            addCommit(batch, teamDashboardCI, "scmRev2");
+        });
+
+        Assert.assertEquals(2, pipeline.getCommitsByEnvironmentName(PipelineStage.COMMIT.getName()).size());
+        verify(pipelineRepository).findByCollectorItemId(teamDashboardCI.getId());
+        verify(pipelineRepository).addCommits(eq(teamDashboardCI.getId()), eq(PipelineStage.COMMIT.getName()), commitsCaptor.capture());
+        Assert.assertEquals(2, commitsCaptor.getValue().size());
+        verify(pipelineRepository, never()).save(any(Pipeline.class));
+        Assert.assertEquals(1, processor.getProcessedEvents());
+    }
+
+    @Test
+    public void submit_async_queuedEventsCoalescedPerPipeline() throws Exception {
+        PipelineEventProcessor processor = new PipelineEventProcessor(pipelineRepository, true, 1, 10, 10);
+        processor.start();
+        CollectorItem teamDashboardCI = collectorItem();
+        Pipeline pipeline = new Pipeline();
+        when(pipelineRepository.findByCollectorItemId(teamDashboardCI.getId())).thenReturn(pipeline);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ObjectId source = ObjectId.get();
+
+        // keeps the worker busy while the next events are queued
+        processor.submit(source, batch -> {
+            started.countDown();
+            awaitQuietly(release);
+            addCommit(batch, teamDashboardCI, "scmRev1");
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        processor.submit(source, batch -> addCommit(batch, teamDashboardCI, "scmRev2"));
+        processor.submit(source, batch -> addCommit(batch, teamDashboardCI, "scmRev3"));
+        Assert.assertEquals(2, processor.getQueueDepth());
+
+        release.countDown();
+        processor.stop();
+
+        Assert.assertEquals(3, pipeline.getCommitsByEnvironmentName(PipelineStage.COMMIT.getName()).size());
+        verify(pipelineRepository, times(2)).addCommits(eq(teamDashboardCI.getId()), eq(PipelineStage.COMMIT.getName()), commitsCaptor.capture());
+        Assert.assertEquals(1, commitsCaptor.getAllValues().get(0).size());
+        Assert.assertEquals(2, commitsCaptor.getAllValues().get(1).size());
+        Assert.assertEquals(3, processor.getProcessedEvents());
+        Assert.assertEquals(2, processor.getBatches());
+        Assert.assertEquals(0, processor.getQueueDepth());
+    }
+
+    @Test
+    public void submit_failingEvent_otherEventsOfBatchSaved() {
+        PipelineEventProcessor processor = new PipelineEventProcessor(pipelineRepository, false, 1, 10, 10);
+        CollectorItem teamDashboardCI = collectorItem();
+        Pipeline pipeline = new Pipeline();
+        when(pipelineRepository.findByCollectorItemId(teamDashboardCI.getId())).thenReturn(pipeline);
+
+        processor.submit(ObjectId.get(), batch -> addCommit(batch, teamDashboardCI, "scmRev1"));
+        processor.submit(ObjectId.get(), batch -> {
+            throw new IllegalStateException("boom");
+        });
+
+        verify(pipelineRepository).addCommits(eq(teamDashboardCI.getId()), eq(PipelineStage.COMMIT.getName()), anyCollectionOf(PipelineCommit.class));
+        Assert.assertEquals(1, processor.getProcessedEvents());
+        Assert.assertEquals(1, processor.getFailedEvents());
+    }
+
+    @Test
+    public void deferredBatch_waitingForLock_reloadsPipelinesItHolds() throws Exception {
+        ReentrantLock[] locks = {new ReentrantLock(), new ReentrantLock()};
+        CollectorItem heldCI = collectorItem();
+        CollectorItem contendedCI = collectorItem();
+        while (Math.floorMod(contendedCI.getId().hashCode(), 2) == Math.floorMod(heldCI.getId().hashCode(), 2)) {
+            contendedCI = collectorItem();
+        }
+        CollectorItem otherBatchCI = contendedCI;
+        Pipeline reloaded = new Pipeline();
+        reloaded.addCommit(PipelineStage.COMMIT.getName(), createPipelineCommit("scmRev1"));
+        reloaded.addCommit(PipelineStage.COMMIT.getName(), createPipelineCommit("otherRev"));
+        when(pipelineRepository.findByCollectorItemId(heldCI.getId())).thenReturn(new Pipeline(), reloaded);
+        when(pipelineRepository.findByCollectorItemId(contendedCI.getId())).thenReturn(new Pipeline());
+
+        // another batch holds the contended pipeline until this batch waits for it
+        CountDownLatch held = new CountDownLatch(1);
+        Thread otherBatch = new Thread(() -> {
+            PipelineBatch batch = PipelineBatch.deferred(pipelineRepository, locks);
+            batch.getOrCreatePipeline(otherBatchCI);
+            held.countDown();
+            while (!locks[Math.floorMod(otherBatchCI.getId().hashCode(), 2)].hasQueuedThreads()) {
+                Thread.yield();
+            }
+            batch.flush();
+        });
+        otherBatch.start();
+        Assert.assertTrue(held.await(5, TimeUnit.SECONDS));
+
+        PipelineBatch batch = PipelineBatch.deferred(pipelineRepository, locks);
+        Pipeline pipeline = batch.getOrCreatePipeline(heldCI);
+        pipeline.addCommit(PipelineStage.COMMIT.getName(), createPipelineCommit("scmRev1"));
+        batch.save(pipeline);
+        batch.getOrCreatePipeline(contendedCI);
+        pipeline.addCommit(PipelineStage.COMMIT.getName(), createPipelineCommit("scmRev2"));
+        batch.save(pipeline);
+        batch.flush();
+        otherBatch.join(5000);
+
+        // the pipeline was written before waiting, then reloaded in place and locked again
+        Assert.assertEquals(3, pipeline.getCommitsByEnvironmentName(PipelineStage.COMMIT.getName()).size());
+        verify(pipelineRepository, times(2)).addCommits(eq(heldCI.getId()), eq(PipelineStage.COMMIT.getName()), commitsCaptor.capture());
+        Assert.assertEquals("scmRev1", commitsCaptor.getAllValues().get(0).iterator().next().getScmRevisionNumber());
+        Assert.assertEquals(1, commitsCaptor.getAllValues().get(1).size());
+        Assert.assertEquals("scmRev2", commitsCaptor.getAllValues().get(1).iterator().next().getScmRevisionNumber());
+        verify(pipelineRepository, never()).save(any(Pipeline.class));
+        Assert.assertFalse(locks[0].isLocked());
+        Assert.assertFalse(locks[1].isLocked());
+    }
+
+    private void addCommit(PipelineBatch batch, CollectorItem teamDashboardCI, String revisionNumber) {
+        Pipeline pipeline = batch.getOrCreatePipeline(teamDashboardCI);
+        pipeline.addCommit(PipelineStage.COMMIT.getName(), createPipelineCommit(revisionNumber));
+        batch.save(pipeline);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CollectorItem collectorItem() {
+        CollectorItem item = new CollectorItem();
+        item.setId(ObjectId.get());
+        return item;
+    }
+}
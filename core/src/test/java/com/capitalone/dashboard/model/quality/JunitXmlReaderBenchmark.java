@@ -0,0 +1,103 @@
+package com.capitalone.dashboard.model.quality;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the summing of a JUnit report as the jenkins-codequality collector does it, once through
+ * the JAXB bound {@link JunitXmlReport} and once with {@link JunitXmlStreamReader}. The reports are
+ * generated: {@code suites} suites of {@code testCasesPerSuite} cases under a testsuites root,
+ * each suite with one failure and its stack trace, the shape of a report aggregated by a
+ * multi-module build. It is run from the main method, not by the build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JunitXmlReaderBenchmark {
+
+    @Param({"100", "10000"})
+    private int suites;
+
+    @Param({"20"})
+    private int testCasesPerSuite;
+
+    private byte[] report;
+    private JAXBContext jaxbContext;
+    private final JunitXmlStreamReader streamReader = new JunitXmlStreamReader();
+
+    /**
+     * The JAXB bound report only reads a single suite, aggregated reports are bound through this root.
+     */
+    @XmlRootElement(name = "testsuites")
+    public static class Testsuites {
+        @XmlElement(name = "testsuite")
+        public List<JunitXmlReport> testsuite = new ArrayList<>();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        StringBuilder xml = new StringBuilder("<testsuites name=\"synthetic\">");
+        for (int i = 0; i < suites; i++) {
+            xml.append("<testsuite name=\"com.example.Suite").append(i)
+                    .append("\" timestamp=\"2017-03-01T10:15:30\" hostname=\"build\" tests=\"").append(testCasesPerSuite)
+                    .append("\" failures=\"1\" errors=\"0\" time=\"1.5\"><properties><property name=\"java.version\" value=\"1.8\"/></properties>");
+            for (int j = 0; j < testCasesPerSuite; j++) {
+                xml.append("<testcase name=\"test").append(j).append("\" classname=\"com.example.Suite").append(i).append("\" time=\"0.075\"");
+                if (j == 0) {
+                    xml.append("><failure message=\"expected\" type=\"java.lang.AssertionError\">java.lang.AssertionError: expected\n")
+                            .append("\tat com.example.Suite").append(i).append(".test0(Suite").append(i).append(".java:42)\n</failure></testcase>");
+                } else {
+                    xml.append("/>");
+                }
+            }
+            xml.append("<system-out>started com.example.Suite").append(i).append("</system-out><system-err/></testsuite>");
+        }
+        report = xml.append("</testsuites>").toString().getBytes(StandardCharsets.UTF_8);
+        jaxbContext = JAXBContext.newInstance(Testsuites.class, JunitXmlReport.class);
+    }
+
+    @Benchmark
+    public void jaxb(Blackhole blackhole) throws Exception {
+        Testsuites testsuites = (Testsuites) jaxbContext.createUnmarshaller().unmarshal(new ByteArrayInputStream(report));
+        int tests = 0;
+        for (JunitXmlReport testsuite : testsuites.testsuite) {
+            tests += testsuite.getTests();
+        }
+        blackhole.consume(tests);
+    }
+
+    @Benchmark
+    public void streamReader(Blackhole blackhole) throws Exception {
+        blackhole.consume(streamReader.read(new ByteArrayInputStream(report)).getTests());
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JunitXmlReaderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,107 @@
+package com.capitalone.dashboard.model.quality;
+
+import com.capitalone.dashboard.model.TestCase;
+import com.capitalone.dashboard.model.TestCaseStatus;
+import com.capitalone.dashboard.model.TestSuite;
+import org.junit.Test;
+
+import javax.xml.bind.JAXBContext;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JunitXmlStreamReaderTest {
+
+    private static final String SUITE = "<testsuite name=\"com.example.SomeTest\" timestamp=\"2017-03-01T10:15:30\" hostname=\"build\""
+            + " tests=\"4\" failures=\"1\" errors=\"1\" skipped=\"1\" time=\"1.5\">"
+            + "<properties><property name=\"java.version\" value=\"1.8\"/></properties>"
+            + "<testcase name=\"passes\" classname=\"com.example.SomeTest\" time=\"0.25\"/>"
+            + "<testcase name=\"fails\" classname=\"com.example.SomeTest\" time=\"0.5\">"
+            + "<failure message=\"expected\" type=\"java.lang.AssertionError\">stack trace</failure></testcase>"
+            + "<testcase name=\"breaks\" classname=\"com.example.SomeTest\" time=\"0.75\">"
+            + "<error type=\"java.lang.IllegalStateException\">stack trace</error></testcase>"
+            + "<testcase name=\"ignored\" classname=\"com.example.SomeTest\" time=\"0\"><skipped/></testcase>"
+            + "<system-out>output</system-out><system-err></system-err>"
+            + "</testsuite>";
+
+    private final JunitXmlStreamReader reader = new JunitXmlStreamReader();
+
+    @Test
+    public void readsTheTotalsOfASuiteLikeJaxb() throws Exception {
+        JunitXmlReport expected = (JunitXmlReport) JAXBContext.newInstance(JunitXmlReport.class)
+                .createUnmarshaller().unmarshal(stream(SUITE));
+
+        JunitXmlReport report = reader.read(stream(SUITE));
+
+        assertEquals(expected.getName(), report.getName());
+        assertEquals(expected.getHostname(), report.getHostname());
+        assertEquals(expected.getTests(), report.getTests());
+        assertEquals(expected.getFailures(), report.getFailures());
+        assertEquals(expected.getErrors(), report.getErrors());
+        assertEquals(0, expected.getTime().compareTo(report.getTime()));
+        assertEquals(expected.getTimestamp(), report.getTimestamp());
+        assertTrue(report.getTestcase().isEmpty());
+    }
+
+    @Test
+    public void handsOutTestCasesAndSuites() throws Exception {
+        List<TestCase> testCases = new ArrayList<>();
+        List<TestSuite> testSuites = new ArrayList<>();
+
+        reader.read(stream(SUITE), new JunitXmlStreamReader.Listener() {
+            @Override
+            public void testCase(TestSuite testSuite, TestCase testCase) {
+                testCases.add(testCase);
+            }
+
+            @Override
+            public void testSuite(TestSuite testSuite) {
+                testSuites.add(testSuite);
+            }
+        });
+
+        assertEquals(4, testCases.size());
+        assertEquals("com.example.SomeTest.passes", testCases.get(0).getId());
+        assertEquals(250, testCases.get(0).getDuration());
+        assertEquals(TestCaseStatus.Success, testCases.get(0).getStatus());
+        assertEquals(TestCaseStatus.Failure, testCases.get(1).getStatus());
+        assertEquals(TestCaseStatus.Failure, testCases.get(2).getStatus());
+        assertEquals(TestCaseStatus.Skipped, testCases.get(3).getStatus());
+
+        assertEquals(1, testSuites.size());
+        TestSuite testSuite = testSuites.get(0);
+        assertEquals("com.example.SomeTest", testSuite.getDescription());
+        assertEquals(4, testSuite.getTotalTestCaseCount());
+        assertEquals(1, testSuite.getSuccessTestCaseCount());
+        assertEquals(2, testSuite.getFailedTestCaseCount());
+        assertEquals(1, testSuite.getSkippedTestCaseCount());
+        assertEquals(1500, testSuite.getDuration());
+        assertEquals(TestCaseStatus.Failure, testSuite.getStatus());
+    }
+
+    @Test
+    public void sumsTheSuitesOfAnAggregatedReport() throws Exception {
+        String undeclared = "<testsuite name=\"com.example.OtherTest\" time=\"0.5\">"
+                + "<testcase name=\"passes\" classname=\"com.example.OtherTest\"/>"
+                + "<testcase name=\"fails\" classname=\"com.example.OtherTest\"><failure/></testcase>"
+                + "</testsuite>";
+
+        JunitXmlReport report = reader.read(stream("<testsuites name=\"all\">" + SUITE + undeclared + "</testsuites>"));
+
+        assertEquals("all", report.getName());
+        assertEquals(6, report.getTests());
+        assertEquals(2, report.getFailures());
+        assertEquals(1, report.getErrors());
+        assertEquals(new BigDecimal("2.0"), report.getTime());
+    }
+
+    private static InputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,75 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.EnvironmentComponent;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.DbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class EnvironmentComponentRepositoryImplTest {
+    private static final String COLLECTION = "environment_components";
+
+    private EnvironmentComponentRepositoryImpl repository;
+
+    @Before
+    public void setup() {
+        repository = new EnvironmentComponentRepositoryImpl();
+        repository.template = mock(MongoTemplate.class, RETURNS_DEEP_STUBS);
+        repository.eventPublisher = mock(ApplicationEventPublisher.class);
+        when(repository.template.getCollectionName(EnvironmentComponent.class)).thenReturn(COLLECTION);
+        MappingMongoConverter converter = new MappingMongoConverter(mock(DbRefResolver.class), new MongoMappingContext());
+        converter.afterPropertiesSet();
+        when(repository.template.getConverter()).thenReturn(converter);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void bulkWrite_publishesAfterSaveOnlyForSavedComponents() {
+        EnvironmentComponent saved = component("web");
+        EnvironmentComponent other = component("api");
+        EnvironmentComponent deleted = component("batch");
+
+        repository.bulkWrite(Arrays.asList(saved, other), Collections.singletonList(deleted));
+
+        ArgumentCaptor<AfterSaveEvent> events = ArgumentCaptor.forClass(AfterSaveEvent.class);
+        verify(repository.eventPublisher, times(2)).publishEvent(events.capture());
+        List<AfterSaveEvent> published = events.getAllValues();
+        assertSame(saved, published.get(0).getSource());
+        assertSame(other, published.get(1).getSource());
+        assertEquals(COLLECTION, published.get(0).getCollectionName());
+    }
+
+    @Test
+    public void bulkWrite_publishesNothingWithoutSaves() {
+        repository.bulkWrite(Collections.<EnvironmentComponent>emptyList(),
+                Collections.singletonList(component("batch")));
+
+        verifyZeroInteractions(repository.eventPublisher);
+    }
+
+    private static EnvironmentComponent component(String name) {
+        EnvironmentComponent component = new EnvironmentComponent();
+        component.setId(ObjectId.get());
+        component.setComponentName(name);
+        return component;
+    }
+}
@@ -0,0 +1,57 @@
+package com.capitalone.dashboard.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.capitalone.dashboard.model.GitRequest;
+
+public class GitRequestRepositoryTest extends FongoBaseRepositoryTest {
+    private final ObjectId collectorItemId = ObjectId.get();
+
+    @Autowired
+    private GitRequestRepository gitRequestRepository;
+
+    @After
+    public void tearDown() {
+        gitRequestRepository.deleteAll();
+    }
+
+    @Test
+    public void bulkWriteInsertsNewRequestsAndReplacesExistingOnes() {
+        GitRequest existing = makeRequest("1", "open");
+        gitRequestRepository.save(existing);
+        existing.setState("merged");
+        GitRequest added = makeRequest("2", "open");
+
+        gitRequestRepository.bulkWrite(Arrays.asList(existing, added));
+
+        assertNotNull(added.getId());
+        assertEquals(2, gitRequestRepository.count());
+        assertEquals("merged", gitRequestRepository.findOne(existing.getId()).getState());
+        assertEquals("2", gitRequestRepository.findByCollectorItemIdAndNumber(collectorItemId, "2").getNumber());
+    }
+
+    @Test
+    public void bulkWriteWithoutRequestsDoesNothing() {
+        gitRequestRepository.bulkWrite(Collections.<GitRequest>emptyList());
+
+        assertEquals(0, gitRequestRepository.count());
+    }
+
+    private GitRequest makeRequest(String number, String state) {
+        GitRequest request = new GitRequest();
+        request.setCollectorItemId(collectorItemId);
+        request.setRequestType("pull");
+        request.setNumber(number);
+        request.setState(state);
+        return request;
+    }
+}
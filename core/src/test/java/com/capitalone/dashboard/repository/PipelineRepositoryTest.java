@@ -0,0 +1,130 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.BinaryArtifact;
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.Pipeline;
+import com.capitalone.dashboard.model.PipelineCommit;
+import com.capitalone.dashboard.model.PipelineStage;
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class PipelineRepositoryTest extends FongoBaseRepositoryTest {
+
+    @Autowired
+    private PipelineRepository pipelineRepository;
+
+    @After
+    public void tearDown() {
+        pipelineRepository.deleteAll();
+    }
+
+    @Test
+    public void addCommits_createsPipelineAndAddsToExistingStage() {
+        ObjectId collectorItemId = ObjectId.get();
+
+        pipelineRepository.addCommits(collectorItemId, PipelineStage.COMMIT.getName(), Arrays.asList(commit("rev1"), commit("rev2")));
+        pipelineRepository.addCommits(collectorItemId, PipelineStage.COMMIT.getName(), Collections.singletonList(commit("rev3")));
+        pipelineRepository.addCommits(collectorItemId, PipelineStage.BUILD.getName(), Collections.singletonList(commit("rev1")));
+
+        Pipeline pipeline = pipelineRepository.findByCollectorItemId(collectorItemId);
+        assertNotNull(pipeline);
+        assertEquals(3, pipeline.getCommitsByEnvironmentName(PipelineStage.COMMIT.getName()).size());
+        assertEquals(1, pipeline.getCommitsByEnvironmentName(PipelineStage.BUILD.getName()).size());
+        assertEquals(1, pipelineRepository.count());
+    }
+
+    @Test
+    public void addCommits_skipsRevisionsAlreadyInTheStage() {
+        ObjectId collectorItemId = ObjectId.get();
+        PipelineCommit changed = commit("rev1");
+        changed.setTimestamp(2L);
+
+        pipelineRepository.addCommits(collectorItemId, PipelineStage.COMMIT.getName(), Collections.singletonList(commit("rev1")));
+        pipelineRepository.addCommits(collectorItemId, PipelineStage.COMMIT.getName(), Arrays.asList(changed, commit("rev2"), commit("rev2")));
+
+        Pipeline pipeline = pipelineRepository.findByCollectorItemId(collectorItemId);
+        assertEquals(2, pipeline.getEnvironmentStageMap().get(PipelineStage.COMMIT.getName()).getCommits().size());
+        assertEquals(1L, pipeline.getCommitsByEnvironmentName(PipelineStage.COMMIT.getName()).get("rev1").getTimestamp());
+        assertEquals(1, pipelineRepository.count());
+    }
+
+    @Test
+    public void addCommits_keepsChangesOfWholePipelineSave() {
+        ObjectId collectorItemId = ObjectId.get();
+        Pipeline pipeline = new Pipeline();
+        pipeline.setCollectorItemId(collectorItemId);
+        pipeline.addCommit(PipelineStage.COMMIT.getName(), commit("rev1"));
+        pipelineRepository.save(pipeline);
+
+        pipelineRepository.addCommits(collectorItemId, PipelineStage.COMMIT.getName(), Collections.singletonList(commit("rev2")));
+
+        Pipeline updated = pipelineRepository.findByCollectorItemId(collectorItemId);
+        assertEquals(pipeline.getId(), updated.getId());
+        assertTrue(updated.getCommitsByEnvironmentName(PipelineStage.COMMIT.getName()).containsKey("rev1"));
+        assertTrue(updated.getCommitsByEnvironmentName(PipelineStage.COMMIT.getName()).containsKey("rev2"));
+    }
+
+    @Test
+    public void setLastArtifact() {
+        ObjectId collectorItemId = ObjectId.get();
+        BinaryArtifact artifact = new BinaryArtifact();
+        artifact.setArtifactName("hygieia");
+        artifact.setTimestamp(42L);
+
+        pipelineRepository.setLastArtifact(collectorItemId, "DEV", artifact);
+
+        Pipeline pipeline = pipelineRepository.findByCollectorItemId(collectorItemId);
+        assertEquals("hygieia", pipeline.getEnvironmentStageMap().get("DEV").getLastArtifact().getArtifactName());
+        assertEquals(42L, pipeline.getEnvironmentStageMap().get("DEV").getLastArtifact().getTimestamp());
+    }
+
+    @Test
+    public void addAndRemoveFailedBuilds() {
+        ObjectId collectorItemId = ObjectId.get();
+        Build failed1 = failedBuild("1");
+        Build failed2 = failedBuild("2");
+
+        pipelineRepository.addFailedBuilds(collectorItemId, Arrays.asList(failed1, failed2));
+        assertEquals(2, pipelineRepository.findByCollectorItemId(collectorItemId).getFailedBuilds().size());
+
+        pipelineRepository.removeFailedBuilds(collectorItemId, Collections.singletonList(failed1));
+        Pipeline pipeline = pipelineRepository.findByCollectorItemId(collectorItemId);
+        assertEquals(1, pipeline.getFailedBuilds().size());
+        assertEquals("2", pipeline.getFailedBuilds().iterator().next().getNumber());
+    }
+
+    @Test
+    public void addFailedBuilds_skipsBuildsAlreadyFailed() {
+        ObjectId collectorItemId = ObjectId.get();
+        Build failed = failedBuild("1");
+        pipelineRepository.addFailedBuilds(collectorItemId, Collections.singletonList(failed));
+
+        failed.setLog("changed");
+        pipelineRepository.addFailedBuilds(collectorItemId, Arrays.asList(failed, failedBuild("2")));
+
+        assertEquals(2, pipelineRepository.findByCollectorItemId(collectorItemId).getFailedBuilds().size());
+    }
+
+    private static PipelineCommit commit(String revisionNumber) {
+        PipelineCommit commit = new PipelineCommit(1L);
+        commit.setScmRevisionNumber(revisionNumber);
+        return commit;
+    }
+
+    private static Build failedBuild(String number) {
+        Build build = new Build();
+        build.setId(ObjectId.get());
+        build.setCollectorItemId(ObjectId.get());
+        build.setNumber(number);
+        return build;
+    }
+}
@@ -0,0 +1,86 @@
+package com.capitalone.dashboard.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.capitalone.dashboard.model.ProjectedResults;
+import com.capitalone.dashboard.model.TestCapability;
+import com.capitalone.dashboard.model.TestCase;
+import com.capitalone.dashboard.model.TestResult;
+import com.capitalone.dashboard.model.TestSuite;
+
+public class TestResultRepositoryTest extends FongoBaseRepositoryTest {
+    private final ObjectId collectorItemId = ObjectId.get();
+
+    @Autowired
+    private TestResultRepository testResultRepository;
+
+    @Before
+    public void setUp() {
+        TestCase testCase = new TestCase();
+        testCase.setId("case");
+        TestSuite testSuite = new TestSuite();
+        testSuite.setId("suite");
+        testSuite.getTestCases().add(testCase);
+        TestCapability testCapability = new TestCapability();
+        testCapability.setDescription("capability");
+        testCapability.getTestSuites().add(testSuite);
+
+        TestResult testResult = new TestResult();
+        testResult.setCollectorItemId(collectorItemId);
+        testResult.setExecutionId("1");
+        testResult.setTotalCount(1);
+        testResult.getTestCapabilities().add(testCapability);
+        testResultRepository.save(testResult);
+    }
+
+    @After
+    public void tearDown() {
+        testResultRepository.deleteAll();
+    }
+
+    @Test
+    public void findProjectedExcludesTheLevelsBelowTheDepth() {
+        ProjectedResults<TestResult> projected = testResultRepository.findProjected(query(), 0, true);
+
+        assertEquals(1, projected.getResults().size());
+        TestResult testResult = projected.getResults().get(0);
+        assertEquals("1", testResult.getExecutionId());
+        assertEquals(1, testResult.getTotalCount());
+        assertTrue(testResult.getTestCapabilities().isEmpty());
+        assertTrue(projected.getBytesReturned() > 0);
+    }
+
+    @Test
+    public void findProjectedDoesNotMeasureUnlessAsked() {
+        ProjectedResults<TestResult> projected = testResultRepository.findProjected(query(), 0, false);
+
+        assertEquals(1, projected.getResults().size());
+        assertTrue(projected.getResults().get(0).getTestCapabilities().isEmpty());
+        assertEquals(0, projected.getBytesReturned());
+        assertEquals(0, projected.getBytesSaved());
+    }
+
+    @Test
+    public void findProjectedReadsTheWholeDocumentWithoutDepth() {
+        ProjectedResults<TestResult> projected = testResultRepository.findProjected(query(), null, true);
+
+        assertEquals(1, projected.getResults().size());
+        TestCapability testCapability = projected.getResults().get(0).getTestCapabilities().iterator().next();
+        TestSuite testSuite = testCapability.getTestSuites().iterator().next();
+        assertEquals("case", testSuite.getTestCases().iterator().next().getId());
+        assertEquals(0, projected.getBytesSaved());
+    }
+
+    private Query query() {
+        return new Query(Criteria.where("collectorItemId").is(collectorItemId));
+    }
+}
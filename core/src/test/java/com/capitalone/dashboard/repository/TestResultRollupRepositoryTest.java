@@ -0,0 +1,113 @@
+package com.capitalone.dashboard.repository;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.capitalone.dashboard.model.TestCapability;
+import com.capitalone.dashboard.model.TestResult;
+import com.capitalone.dashboard.model.TestResultRollup;
+import com.capitalone.dashboard.model.TestResultRollupType;
+import com.capitalone.dashboard.model.TestSuite;
+
+public class TestResultRollupRepositoryTest extends FongoBaseRepositoryTest {
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+    private static final long NOON = 20000 * DAY + DAY / 2;
+
+    private final ObjectId collectorItemId = ObjectId.get();
+
+    @Autowired
+    private TestResultRollupRepository testResultRollupRepository;
+
+    @After
+    public void tearDown() {
+        testResultRollupRepository.deleteAll();
+    }
+
+    @Test
+    public void rollUpCountsRunsPerDay() {
+        testResultRollupRepository.rollUp(makeTestResult("1", NOON, 2, 1));
+        testResultRollupRepository.rollUp(makeTestResult("2", NOON + 1000, 3, 0));
+
+        TestResultRollup day = findDays().get(0);
+        assertEquals(NOON - DAY / 2, day.getTimestamp());
+        assertEquals(2, day.getRuns());
+        assertEquals(6, day.getTests().getTotal());
+        assertEquals(5, day.getTests().getSuccess());
+        assertEquals(1, day.getTests().getFailure());
+        assertEquals(6, day.getSuites().get("suite_one").getTotal());
+        assertEquals(2, day.getCapabilities().get("capability").getTotal());
+
+        TestResultRollup run = testResultRollupRepository.findTopByCollectorItemIdAndTypeOrderByTimestampDesc(
+                collectorItemId, TestResultRollupType.Run);
+        assertEquals("2", run.getExecutionId());
+        assertEquals(3, run.getTests().getSuccess());
+    }
+
+    @Test
+    public void rollUpReplacesARunSavedAgain() {
+        testResultRollupRepository.rollUp(makeTestResult("1", NOON, 2, 1));
+        testResultRollupRepository.rollUp(makeTestResult("1", NOON, 0, 3));
+
+        List<TestResultRollup> days = findDays();
+        assertEquals(1, days.size());
+        assertEquals(1, days.get(0).getRuns());
+        assertEquals(0, days.get(0).getTests().getSuccess());
+        assertEquals(3, days.get(0).getTests().getFailure());
+        assertEquals(2, testResultRollupRepository.count());
+    }
+
+    @Test
+    public void rollUpKeepsRunsWithoutExecutionIdApart() {
+        TestResult first = makeTestResult(null, NOON, 2, 1);
+        first.setId(ObjectId.get());
+        TestResult second = makeTestResult(null, NOON + 1000, 3, 0);
+        second.setId(ObjectId.get());
+
+        testResultRollupRepository.rollUp(first);
+        testResultRollupRepository.rollUp(second);
+        testResultRollupRepository.rollUp(second);
+
+        List<TestResultRollup> days = findDays();
+        assertEquals(1, days.size());
+        assertEquals(2, days.get(0).getRuns());
+        assertEquals(6, days.get(0).getTests().getTotal());
+        assertEquals(3, testResultRollupRepository.count());
+        TestResultRollup run = testResultRollupRepository.findTopByCollectorItemIdAndTypeOrderByTimestampDesc(
+                collectorItemId, TestResultRollupType.Run);
+        assertEquals(second.getId().toString(), run.getExecutionId());
+    }
+
+    private List<TestResultRollup> findDays() {
+        return testResultRollupRepository.findByCollectorItemIdAndTypeAndTimestampGreaterThanEqualOrderByTimestampAsc(
+                collectorItemId, TestResultRollupType.Day, 0);
+    }
+
+    private TestResult makeTestResult(String executionId, long timestamp, int success, int failure) {
+        TestSuite suite = new TestSuite();
+        suite.setDescription("suite.one");
+        suite.setSuccessTestCaseCount(success);
+        suite.setFailedTestCaseCount(failure);
+        suite.setTotalTestCaseCount(success + failure);
+
+        TestCapability capability = new TestCapability();
+        capability.setDescription("capability");
+        capability.setTotalTestSuiteCount(1);
+        capability.getTestSuites().add(suite);
+
+        TestResult testResult = new TestResult();
+        testResult.setCollectorItemId(collectorItemId);
+        testResult.setExecutionId(executionId);
+        testResult.setTimestamp(timestamp);
+        testResult.setSuccessCount(success);
+        testResult.setFailureCount(failure);
+        testResult.setTotalCount(success + failure);
+        testResult.getTestCapabilities().add(capability);
+        return testResult;
+    }
+}
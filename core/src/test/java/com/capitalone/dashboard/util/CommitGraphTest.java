@@ -0,0 +1,99 @@
+package com.capitalone.dashboard.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CommitGraphTest {
+
+    private CommitGraph graph;
+
+    @Before
+    public void setUp() {
+        // A - B - C2 - D - E - F
+        //      \         /
+        //       C1 ------
+        graph = new CommitGraph();
+        graph.add("F", Collections.singletonList("E"), 7);
+        graph.add("E", Arrays.asList("D", "C1"), 6);
+        graph.add("D", Collections.singletonList("C2"), 5);
+        graph.add("C2", Collections.singletonList("B"), 4);
+        graph.add("C1", Collections.singletonList("B"), 3);
+        graph.add("B", Collections.singletonList("A"), 2);
+        graph.add("A", null, 1);
+    }
+
+    @Test
+    public void getAncestors_followsMergeParents() {
+        assertEquals(new HashSet<>(Arrays.asList("A", "B", "C1", "C2", "D", "E", "F")),
+                new HashSet<>(graph.getAncestors("F", 0)));
+        assertEquals("F", graph.getAncestors("F", 0).get(0));
+        assertEquals(new HashSet<>(Arrays.asList("A", "B", "C2", "D")), new HashSet<>(graph.getAncestors("D", 0)));
+    }
+
+    @Test
+    public void getAncestors_stopsAtOlderCommits() {
+        assertEquals(new HashSet<>(Arrays.asList("C2", "D", "E", "F")), new HashSet<>(graph.getAncestors("F", 4)));
+    }
+
+    @Test
+    public void getAncestors_skipsCommitsNotAdded() {
+        graph.add("G", Arrays.asList("F", "X"), 8);
+
+        assertEquals(8, graph.getAncestors("G", 0).size());
+        assertFalse(graph.contains("X"));
+        assertEquals(8, graph.size());
+    }
+
+    @Test
+    public void getAncestors_unknownRevision() {
+        assertEquals(Collections.singletonList("Z"), graph.getAncestors("Z", 0));
+    }
+
+    @Test
+    public void add_parentAddedLater() {
+        graph.add("H", Collections.singletonList("G"), 9);
+        assertEquals(Collections.singletonList("H"), graph.getAncestors("H", 0));
+
+        graph.add("G", Collections.singletonList("F"), 8);
+        assertTrue(graph.contains("G"));
+        assertEquals(9, graph.getAncestors("H", 0).size());
+        assertEquals(9, graph.size());
+    }
+
+    @Test
+    public void retainSince_dropsOlderCommits() {
+        assertEquals(3, graph.retainSince(4));
+
+        assertEquals(4, graph.size());
+        assertFalse(graph.contains("C1"));
+        assertFalse(graph.contains("B"));
+        assertFalse(graph.contains("A"));
+        assertEquals(new HashSet<>(Arrays.asList("C2", "D", "E", "F")), new HashSet<>(graph.getAncestors("F", 0)));
+    }
+
+    @Test
+    public void retainSince_keepsDroppedParentsReplaceable() {
+        graph.retainSince(4);
+
+        graph.add("C1", Collections.singletonList("B"), 3);
+
+        assertTrue(graph.contains("C1"));
+        assertEquals(new HashSet<>(Arrays.asList("C1", "C2", "D", "E", "F")), new HashSet<>(graph.getAncestors("F", 0)));
+    }
+
+    @Test
+    public void retainSince_allCommitsRecent() {
+        assertEquals(0, graph.retainSince(0));
+
+        assertEquals(7, graph.size());
+        assertEquals(7, graph.getAncestors("F", 0).size());
+    }
+}
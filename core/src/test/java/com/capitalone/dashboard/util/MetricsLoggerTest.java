@@ -0,0 +1,35 @@
+package com.capitalone.dashboard.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsLoggerTest {
+
+    @Test
+    public void start_keepsLoggingAfterAFailure() throws Exception {
+        CountDownLatch runs = new CountDownLatch(2);
+        MetricsLogger logger = MetricsLogger.start("test-metrics", 1, () -> {
+            runs.countDown();
+            throw new IllegalStateException("metrics unavailable");
+        });
+        try {
+            assertTrue(runs.await(10, TimeUnit.SECONDS));
+        } finally {
+            logger.stop();
+        }
+    }
+
+    @Test
+    public void start_disabledWithoutInterval() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        MetricsLogger logger = MetricsLogger.start("test-metrics", 0, runs::incrementAndGet);
+        logger.stop();
+        assertEquals(0, runs.get());
+    }
+}
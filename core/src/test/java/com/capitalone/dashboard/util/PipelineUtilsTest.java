@@ -9,6 +9,7 @@ import com.capitalone.dashboard.model.Dashboard;
 import com.capitalone.dashboard.model.DashboardType;
 import com.capitalone.dashboard.model.Owner;
 import com.capitalone.dashboard.model.Pipeline;
+import com.capitalone.dashboard.model.SCM;
 import com.capitalone.dashboard.model.Widget;
 import com.capitalone.dashboard.repository.CommitRepository;
 import org.bson.types.ObjectId;
@@ -105,5 +106,24 @@ public class PipelineUtilsTest {
         Assert.assertFalse(PipelineUtils.isMoveCommitToBuild(createBuild(), getScm("scmRev1"), commitRepository));
     }
 
+    @Test
+    public void test_isMoveCommitToBuild_usesCommitUrl() {
+        SCM scm = getScm("scmRev1");
+        scm.setScmUrl("http://github.com/scmurl");
+        Assert.assertTrue(PipelineUtils.isMoveCommitToBuild(createBuild(), scm, commitRepository));
+        Mockito.verifyZeroInteractions(commitRepository);
+    }
+
+    @Test
+    public void test_isMoveCommitToBuild_lookupForCommitOfOtherRepo() {
+        SCM scm = getScm("scmRev1");
+        scm.setScmUrl("http://github.com/fork/scmurl");
+        List<Commit> commits = new ArrayList<>();
+        commits.add(createCommit("scmRev1", "http://github.com/fork/scmurl"));
+        commits.add(createCommit("scmRev1", "http://github.com/scmurl"));
+        Mockito.when(commitRepository.findByScmRevisionNumber("scmRev1")).thenReturn(commits);
+        Assert.assertTrue(PipelineUtils.isMoveCommitToBuild(createBuild(), scm, commitRepository));
+    }
+
 
 }